@@ -0,0 +1,109 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.Save;
+import com.preston159.binsave.StorageMode;
+
+/**
+ * Measures reading and writing a whole multi-length numeric datapoint with the bulk array methods of {@code Save}
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayBenchmark {
+	
+	@Param({ "INT_16BIT", "INT_24BIT", "INT_32BIT", "INT_64BIT", "FLOAT", "DOUBLE" })
+	public DataType type;
+	
+	@Param({ "4096" })
+	public int length;
+	
+	@Param({ "HEAP", "MAPPED" })
+	public StorageMode mode;
+	
+	private File f;
+	private Save s;
+	private int[] ints;
+	private long[] longs;
+	private float[] floats;
+	private double[] doubles;
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("array", ".bin");
+		s = new Save(f, mode, new Data("values", type, length));
+		ints = new int[length];
+		longs = new long[length];
+		floats = new float[length];
+		doubles = new double[length];
+	}
+	
+	@TearDown
+	public void tearDown() {
+		s.close();
+		f.delete();
+	}
+	
+	@Benchmark
+	public Object get() {
+		switch(type) {
+		case INT_16BIT:
+		case INT_24BIT:
+		case INT_32BIT:
+			s.getInts("values", 0, ints, 0, length);
+			return ints;
+		case INT_64BIT:
+			s.getLongs("values", 0, longs, 0, length);
+			return longs;
+		case FLOAT:
+			s.getFloats("values", 0, floats, 0, length);
+			return floats;
+		default:
+			s.getDoubles("values", 0, doubles, 0, length);
+			return doubles;
+		}
+	}
+	
+	@Benchmark
+	public void store() {
+		switch(type) {
+		case INT_16BIT:
+		case INT_24BIT:
+		case INT_32BIT:
+			s.storeInts("values", 0, ints, 0, length);
+			break;
+		case INT_64BIT:
+			s.storeLongs("values", 0, longs, 0, length);
+			break;
+		case FLOAT:
+			s.storeFloats("values", 0, floats, 0, length);
+			break;
+		default:
+			s.storeDoubles("values", 0, doubles, 0, length);
+			break;
+		}
+	}
+	
+}
@@ -0,0 +1,95 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.AtomicField;
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.LongIntField;
+import com.preston159.binsave.Save;
+import com.preston159.binsave.StorageMode;
+
+/**
+ * <p>Measures counters incremented by several threads sharing one {@code Save} object</p>
+ * <p>{@code LOCKED} reads and writes each counter under one global lock; {@code ATOMIC} and {@code UNALIGNED} use
+ * {@link AtomicField#getAndAdd(Save, long) getAndAdd} on aligned and unaligned counters. Run with {@code -t} to change
+ * the number of threads</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class AtomicBenchmark {
+	
+	@Param({ "LOCKED", "ATOMIC", "UNALIGNED" })
+	public String sync;
+	
+	/**
+	 * The number of counters, which sets how often threads update the same one
+	 */
+	@Param({ "1", "64" })
+	public int counters;
+	
+	private File f;
+	private Save s;
+	private LongIntField[] plain;
+	private AtomicField[] atomic;
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("atomic", ".bin");
+		boolean aligned = !sync.equals("UNALIGNED");
+		Data[] data = new Data[counters + 1];
+		data[0] = new Data("header", DataType.UINT_8BIT, 1);
+		for(int i = 0;i < counters;i++) {
+			data[i + 1] = new Data("counter" + i, DataType.INT_64BIT, 1, aligned);
+		}
+		s = new Save(f, StorageMode.HEAP, data);
+		plain = new LongIntField[counters];
+		atomic = new AtomicField[counters];
+		for(int i = 0;i < counters;i++) {
+			plain[i] = s.field("counter" + i).asLongInt();
+			atomic[i] = s.field("counter" + i).asAtomic();
+		}
+	}
+	
+	@TearDown
+	public void tearDown() {
+		f.delete();
+	}
+	
+	@Benchmark
+	public long increment() {
+		int i = ThreadLocalRandom.current().nextInt(counters);
+		if(sync.equals("LOCKED")) {
+			synchronized(s) {
+				long prev = plain[i].get(s);
+				plain[i].set(s, prev + 1);
+				return prev;
+			}
+		}
+		return atomic[i].getAndAdd(s, 1);
+	}
+	
+}
@@ -0,0 +1,27 @@
+package com.preston159.binsave.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler enabled, so every result reports allocation rate alongside throughput
+ * <p>Accepts the same arguments as {@code org.openjdk.jmh.Main}</p>
+ * @author Preston Petrie
+ */
+public class BenchmarkMain {
+	
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		ChainedOptionsBuilder opts = new OptionsBuilder().parent(cmd);
+		if(cmd.getProfilers().isEmpty()) {
+			opts.addProfiler(GCProfiler.class);
+		}
+		new Runner(opts.build()).run();
+	}
+	
+}
@@ -0,0 +1,109 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.Save;
+import com.preston159.binsave.StorageMode;
+
+/**
+ * <p>Measures storing and opening a save file of 4 MiB with and without checksums</p>
+ * <p>Blocks are verified as they are first read and summed again only when they change, so reading or changing one
+ * value should cost about the same either way; only reading every value pays for summing the whole file</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChecksumBenchmark {
+	
+	private static final int VALUES = 1 << 20;
+	
+	@Param({ "false", "true" })
+	public boolean checksums;
+	
+	@Param({ "HEAP", "MAPPED" })
+	public StorageMode mode;
+	
+	private File f;
+	private Save save;
+	private Data[] data;
+	private int tick;
+	
+	@Setup
+	public void setup() throws IOException {
+		data = new Data[] { new Data("values", DataType.INT_32BIT, VALUES), new Data("tick", DataType.INT_32BIT) };
+		f = File.createTempFile("checksum", ".bin");
+		f.delete();
+		save = open();
+		Random r = new Random(1);
+		int[] values = new int[VALUES];
+		for(int i = 0;i < VALUES;i++) {
+			values[i] = r.nextInt();
+		}
+		save.storeInts("values", values);
+		save.store();
+	}
+	
+	@TearDown
+	public void tearDown() {
+		save.close();
+		f.delete();
+		new File(f.getPath() + ".crc").delete();
+	}
+	
+	/**
+	 * Opens the save file with checksums on or off
+	 * @return	The {@code Save} object
+	 */
+	private Save open() {
+		return new Save(f, mode, false, checksums, data);
+	}
+	
+	/**
+	 * Changes one value and stores the file, which sums a single block again
+	 */
+	@Benchmark
+	public long storeOne() {
+		save.storeInt("tick", ++tick);
+		save.store();
+		return save.getLastStoreBytes();
+	}
+	
+	/**
+	 * Opens the file and reads one value, which verifies a single block
+	 */
+	@Benchmark
+	public int openReadOne() {
+		return open().getInt("tick");
+	}
+	
+	/**
+	 * Opens the file and reads every value, which verifies every block
+	 */
+	@Benchmark
+	public int[] openReadAll() {
+		return open().getInts("values");
+	}
+	
+}
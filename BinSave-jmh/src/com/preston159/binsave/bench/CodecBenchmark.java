@@ -0,0 +1,155 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.Save;
+import com.preston159.binsave.StorageMode;
+
+/**
+ * Measures each get/store pair of {@code Save} for every {@code DataType}
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+	
+	@Param({ "BYTE", "BOOL", "BOOLS_8", "INT_8BIT", "INT_16BIT", "INT_24BIT", "INT_32BIT", "INT_40BIT", "INT_48BIT",
+			"INT_56BIT", "INT_64BIT", "UINT_8BIT", "UINT_16BIT", "UINT_24BIT", "UINT_32BIT", "UINT_40BIT", "UINT_48BIT",
+			"UINT_56BIT", "CHAR_ASCII", "CHAR_UNICODE", "CHAR_UTF8", "FLOAT", "DOUBLE" })
+	public DataType type;
+	
+	@Param({ "HEAP", "MAPPED", "JOURNAL" })
+	public StorageMode mode;
+	
+	private File f;
+	private Save s;
+	private String name;
+	private boolean[] bools;
+	private int i;
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("codec", ".bin");
+		s = new Save(f, mode, Schemas.oneOfEach());
+		name = type.name();
+		bools = new boolean[] { true, false, true, false, false, true, true, false };
+	}
+	
+	@TearDown
+	public void tearDown() {
+		s.close();
+		f.delete();
+		new File(f.getPath() + ".journal").delete();
+		new File(f.getPath() + ".journal.old").delete();
+	}
+	
+	@Benchmark
+	public Object get() {
+		switch(type) {
+		case BYTE:
+			return s.getByte(name);
+		case BOOL:
+			return s.getBool(name);
+		case BOOLS_8:
+			return s.getBools(name);
+		case INT_8BIT:
+		case INT_16BIT:
+		case INT_24BIT:
+		case INT_32BIT:
+			return s.getInt(name);
+		case INT_40BIT:
+		case INT_48BIT:
+		case INT_56BIT:
+		case INT_64BIT:
+			return s.getLongInt(name);
+		case UINT_8BIT:
+		case UINT_16BIT:
+		case UINT_24BIT:
+			return s.getUint(name);
+		case UINT_32BIT:
+		case UINT_40BIT:
+		case UINT_48BIT:
+		case UINT_56BIT:
+			return s.getLongUint(name);
+		case CHAR_ASCII:
+		case CHAR_UNICODE:
+		case CHAR_UTF8:
+			return s.getString(name);
+		case FLOAT:
+			return s.getFloat(name);
+		default:
+			return s.getDouble(name);
+		}
+	}
+	
+	@Benchmark
+	public void store() {
+		int v = i++ & 0x7f;
+		switch(type) {
+		case BYTE:
+			s.storeByte(name, (byte) v);
+			break;
+		case BOOL:
+			s.storeBool(name, (v & 1) == 1);
+			break;
+		case BOOLS_8:
+			s.storeBools(name, bools);
+			break;
+		case INT_8BIT:
+		case INT_16BIT:
+		case INT_24BIT:
+		case INT_32BIT:
+			s.storeInt(name, v);
+			break;
+		case INT_40BIT:
+		case INT_48BIT:
+		case INT_56BIT:
+		case INT_64BIT:
+			s.storeLongInt(name, v);
+			break;
+		case UINT_8BIT:
+		case UINT_16BIT:
+		case UINT_24BIT:
+			s.storeUint(name, v);
+			break;
+		case UINT_32BIT:
+		case UINT_40BIT:
+		case UINT_48BIT:
+		case UINT_56BIT:
+			s.storeLongUint(name, v);
+			break;
+		case CHAR_ASCII:
+		case CHAR_UNICODE:
+		case CHAR_UTF8:
+			s.storeString(name, "benchmark");
+			break;
+		case FLOAT:
+			s.storeFloat(name, v);
+			break;
+		default:
+			s.storeDouble(name, v);
+			break;
+		}
+	}
+	
+}
@@ -0,0 +1,97 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.LongIntField;
+import com.preston159.binsave.StorageMode;
+import com.preston159.binsave.Table;
+
+/**
+ * <p>Measures summing one datapoint over every record of a table with wide records, stored by record or by column</p>
+ * <p>A columnar table should read only the bytes of the summed datapoint, in runs of one block</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnBenchmark {
+	
+	@Param({ "1000000" })
+	public int records;
+	
+	@Param({ "false", "true" })
+	public boolean columnar;
+	
+	private File f;
+	private Table t;
+	private final long[] chunk = new long[4096];
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("column", ".bin");
+		Data[] data = new Data[16];
+		for(int i = 0;i < data.length;i++) {
+			data[i] = new Data("field" + i, DataType.INT_64BIT);
+		}
+		t = new Table(f, StorageMode.HEAP, columnar, data);
+		LongIntField field = t.field("field3").asLongInt();
+		for(int r = 0;r < records;r++) {
+			field.set(t, t.append(), r);
+		}
+	}
+	
+	@TearDown
+	public void tearDown() {
+		f.delete();
+	}
+	
+	/**
+	 * Sums one datapoint of every record, reading the values in chunks
+	 */
+	@Benchmark
+	public long sumColumn() {
+		long sum = 0;
+		for(int from = 0;from < records;from += chunk.length) {
+			int count = Math.min(chunk.length, records - from);
+			t.getLongs("field3", from, chunk, 0, count);
+			for(int i = 0;i < count;i++) {
+				sum += chunk[i];
+			}
+		}
+		return sum;
+	}
+	
+	/**
+	 * Sums one datapoint of every record, reading one record at a time
+	 */
+	@Benchmark
+	public long sumRecords() {
+		LongIntField field = t.field("field3").asLongInt();
+		long sum = 0;
+		for(int r = 0;r < records;r++) {
+			sum += field.get(t, r);
+		}
+		return sum;
+	}
+	
+}
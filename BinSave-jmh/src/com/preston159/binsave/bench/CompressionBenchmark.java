@@ -0,0 +1,135 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Compression;
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.Save;
+import com.preston159.binsave.StorageMode;
+
+/**
+ * <p>Measures storing and opening a {@link StorageMode#COMPRESSED COMPRESSED} save file of 4 MiB, with each codec,
+ * against an uncompressed {@link StorageMode#HEAP HEAP} one</p>
+ * <p>The data is a map of small integers with long runs, as game saves often hold, followed by a list of mostly short
+ * strings. The size of each file is printed once the benchmark is set up</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+	
+	private static final int TILES = 1 << 20;
+	private static final int NAMES = 4096;
+	
+	@Param({ "none", "fast", "deflate1", "deflate6" })
+	public String codec;
+	
+	private File f;
+	private Save save;
+	private Data[] data;
+	private int tick;
+	
+	@Setup
+	public void setup() throws IOException {
+		data = new Data[] { new Data("tiles", DataType.INT_16BIT, TILES), new Data("names", DataType.CHAR_ASCII, NAMES * 32),
+				new Data("tick", DataType.INT_32BIT) };
+		f = File.createTempFile("compression", ".bin");
+		f.delete();
+		save = open();
+		Random r = new Random(1);
+		short[] tiles = new short[TILES];
+		for(int i = 0;i < TILES;) {
+			short tile = (short) r.nextInt(64);
+			for(int n = 1 + r.nextInt(40);n > 0 && i < TILES;n--) {
+				tiles[i++] = tile;
+			}
+		}
+		int[] ints = new int[TILES];
+		for(int i = 0;i < TILES;i++) {
+			ints[i] = tiles[i];
+		}
+		save.storeInts("tiles", ints);
+		StringBuilder names = new StringBuilder();
+		for(int i = 0;i < NAMES;i++) {
+			String name = "player" + r.nextInt(100000);
+			names.append(name);
+			for(int j = name.length();j < 32;j++) {
+				names.append('\0');
+			}
+		}
+		save.storeString("names", names.toString());
+		save.store();
+		System.out.println();
+		System.out.println(codec + ": " + f.length() + " bytes");
+	}
+	
+	@TearDown
+	public void tearDown() {
+		f.delete();
+	}
+	
+	/**
+	 * Opens the save file with the codec of this run
+	 * @return	The {@code Save} object
+	 */
+	private Save open() {
+		switch(codec) {
+		case "fast":
+			return new Save(f, Compression.fast(), false, data);
+		case "deflate1":
+			return new Save(f, Compression.deflate(1), false, data);
+		case "deflate6":
+			return new Save(f, Compression.deflate(6), false, data);
+		default:
+			return new Save(f, StorageMode.HEAP, data);
+		}
+	}
+	
+	/**
+	 * Changes one value and stores the file, which recompresses a single block
+	 */
+	@Benchmark
+	public long storeOne() {
+		save.storeInt("tick", ++tick);
+		save.store();
+		return save.getLastStoreBytes();
+	}
+	
+	/**
+	 * Opens the file and reads one value, which decompresses a single block
+	 */
+	@Benchmark
+	public int openReadOne() {
+		return open().getInt("tick");
+	}
+	
+	/**
+	 * Opens the file and reads every value, which decompresses every block
+	 */
+	@Benchmark
+	public int[] openReadAll() {
+		return open().getInts("tiles");
+	}
+	
+}
@@ -0,0 +1,100 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.LongIntField;
+import com.preston159.binsave.Save;
+import com.preston159.binsave.StorageMode;
+
+/**
+ * <p>Measures a mix of reads and writes to one {@code Save} object shared by several threads</p>
+ * <p>{@code LOCKED} guards a plain {@code Save} object with one global lock; {@code CONCURRENT} uses a concurrent
+ * {@code Save} object without further locking. Run with {@code -t} to change the number of threads</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentBenchmark {
+	
+	private static final int FIELDS = 1024;
+	
+	@Param({ "LOCKED", "CONCURRENT" })
+	public String sync;
+	
+	/**
+	 * The percentage of operations which are writes
+	 */
+	@Param({ "10" })
+	public int writes;
+	
+	private File f;
+	private Save s;
+	private LongIntField[] fields;
+	private boolean locked;
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("concurrent", ".bin");
+		locked = sync.equals("LOCKED");
+		Data[] data = new Data[FIELDS];
+		for(int i = 0;i < FIELDS;i++) {
+			data[i] = new Data("field" + i, DataType.INT_64BIT, 1);
+		}
+		s = new Save(f, StorageMode.HEAP, !locked, data);
+		fields = new LongIntField[FIELDS];
+		for(int i = 0;i < FIELDS;i++) {
+			fields[i] = s.field("field" + i).asLongInt();
+		}
+	}
+	
+	@TearDown
+	public void tearDown() {
+		f.delete();
+	}
+	
+	@Benchmark
+	public long mixed() {
+		ThreadLocalRandom r = ThreadLocalRandom.current();
+		LongIntField field = fields[r.nextInt(FIELDS)];
+		boolean write = r.nextInt(100) < writes;
+		if(locked) {
+			synchronized(s) {
+				return access(field, write);
+			}
+		}
+		return access(field, write);
+	}
+	
+	private long access(LongIntField field, boolean write) {
+		if(write) {
+			field.set(s, 1);
+			return 1;
+		}
+		return field.get(s);
+	}
+	
+}
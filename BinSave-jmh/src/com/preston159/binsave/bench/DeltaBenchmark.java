@@ -0,0 +1,106 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.Save;
+import com.preston159.binsave.StorageMode;
+
+/**
+ * <p>Measures reading and writing a series of millisecond timestamps, taken about once a second with some jitter,
+ * stored delta-encoded against {@link DataType#INT_64BIT INT_64BIT}</p>
+ * <p>The byte length of each datapoint is printed once the benchmark is set up</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeltaBenchmark {
+	
+	@Param({ "INT_64BIT", "DELTA_INT", "DELTA_DELTA_INT" })
+	public String type;
+	
+	@Param({ "65536" })
+	public int length;
+	
+	private File f;
+	private Save s;
+	private long[] values;
+	private final long[] window = new long[16];
+	private int index;
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("delta", ".bin");
+		DataType t = DataType.valueOf(type);
+		//each difference is 990 to 1010 ms, and each change in difference at most 20 ms
+		Data data = t == DataType.INT_64BIT ? new Data("values", t, length)
+				: new Data("values", t, length, t == DataType.DELTA_INT ? 11 : 6);
+		s = new Save(f, StorageMode.HEAP, data);
+		values = new long[length];
+		Random r = new Random(1);
+		long time = 1_700_000_000_000L;
+		for(int i = 0;i < length;i++) {
+			values[i] = time;
+			time += 990 + r.nextInt(21);
+		}
+		s.storeLongs("values", values);
+		System.out.println();
+		System.out.println(type + ": " + s.field("values").getLength() + " bytes");
+	}
+	
+	@TearDown
+	public void tearDown() {
+		s.close();
+		f.delete();
+	}
+	
+	/**
+	 * Reads every value into an array
+	 */
+	@Benchmark
+	public long[] getAll() {
+		s.getLongs("values", 0, values, 0, length);
+		return values;
+	}
+	
+	/**
+	 * Writes every value from an array
+	 */
+	@Benchmark
+	public long[] storeAll() {
+		s.storeLongs("values", 0, values, 0, length);
+		return values;
+	}
+	
+	/**
+	 * Reads 16 consecutive values, moving through the array
+	 */
+	@Benchmark
+	public long[] getWindow() {
+		index = (index + 1031) & (length - 1) & ~15;
+		s.getLongs("values", index, window, 0, window.length);
+		return window;
+	}
+	
+}
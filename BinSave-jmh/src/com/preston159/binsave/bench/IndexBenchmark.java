@@ -0,0 +1,106 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.IntField;
+import com.preston159.binsave.StorageMode;
+import com.preston159.binsave.Table;
+import com.preston159.binsave.TableIndex;
+
+/**
+ * <p>Measures finding a record by the value of a datapoint, with and without an index, and writing an indexed
+ * datapoint</p>
+ * <p>A lookup through the index should not depend on the number of records, where a scan reads half the table on
+ * average</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexBenchmark {
+	
+	@Param({ "1000", "1000000" })
+	public int records;
+	
+	@Param({ "HEAP", "MAPPED" })
+	public StorageMode mode;
+	
+	private File f;
+	private Table t;
+	private IntField id;
+	private TableIndex index;
+	private int i;
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("index", ".bin");
+		t = new Table(f, mode, new Data("id", DataType.INT_32BIT), new Data("score", DataType.DOUBLE),
+				new Data("name", DataType.CHAR_ASCII, 16));
+		id = t.field("id").asInt();
+		for(int r = 0;r < records;r++) {
+			id.set(t, t.append(), r * 3);
+		}
+		index = t.index("id");
+		t.store();
+	}
+	
+	@TearDown
+	public void tearDown() {
+		t.close();
+		f.delete();
+		new File(f.getPath() + ".id.index").delete();
+	}
+	
+	/**
+	 * Finds a record chosen in a fixed stride through the table by its indexed datapoint
+	 */
+	@Benchmark
+	public int find() {
+		i = (i + 7919) % records;
+		return index.find(i * 3L);
+	}
+	
+	/**
+	 * Finds a record chosen in a fixed stride through the table by reading each record in turn
+	 */
+	@Benchmark
+	public int scan() {
+		i = (i + 7919) % records;
+		for(int r = 0;r < records;r++) {
+			if(id.get(t, r) == i * 3) {
+				return r;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Writes the indexed datapoint of a record chosen in a fixed stride through the table, keeping its value
+	 */
+	@Benchmark
+	public void set() {
+		i = (i + 7919) % records;
+		id.set(t, i, i * 3);
+	}
+	
+}
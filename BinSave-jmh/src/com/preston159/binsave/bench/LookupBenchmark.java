@@ -0,0 +1,61 @@
+package com.preston159.binsave.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.Field;
+import com.preston159.binsave.StorageData;
+
+/**
+ * Measures the cost of resolving a datapoint by name as the number of datapoints grows
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+	
+	@Param({ "10", "100", "1000", "10000" })
+	public int fields;
+	
+	private StorageData sd;
+	private String[] probes;
+	private int i;
+	
+	@Setup
+	public void setup() {
+		sd = new StorageData(fields);
+		String[] names = new String[fields];
+		for(int i = 0;i < fields;i++) {
+			names[i] = "field" + i;
+			sd.setDataAt(i, names[i], 1, DataType.INT_32BIT);
+		}
+		sd.calc();
+		//look up names spread across the whole schema, not just the first few
+		probes = new String[1024];
+		for(int i = 0;i < probes.length;i++) {
+			probes[i] = new String(names[(int) ((long) i * 7919 % fields)]);
+		}
+	}
+	
+	@Benchmark
+	public Field getField() {
+		return sd.getField(probes[i++ & 1023]);
+	}
+	
+}
@@ -0,0 +1,113 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.PackedField;
+import com.preston159.binsave.Save;
+import com.preston159.binsave.StorageMode;
+
+/**
+ * <p>Measures reading and writing an array of small integers packed at a bit width, against 12-bit values held in
+ * {@link DataType#UINT_16BIT UINT_16BIT}</p>
+ * <p>A width of 0 stores the values as whole bytes. The byte length of each datapoint is printed once the benchmark is
+ * set up</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackedBenchmark {
+	
+	@Param({ "0", "3", "5", "12" })
+	public int bits;
+	
+	@Param({ "65536" })
+	public int length;
+	
+	private File f;
+	private Save s;
+	private PackedField packed;
+	private long[] values;
+	private final long[] one = new long[1];
+	private int index;
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("packed", ".bin");
+		Data data = bits == 0 ? new Data("values", DataType.UINT_16BIT, length)
+				: new Data("values", DataType.PACKED_UINT, length, bits);
+		s = new Save(f, StorageMode.HEAP, data);
+		values = new long[length];
+		Random r = new Random(1);
+		for(int i = 0;i < length;i++) {
+			values[i] = r.nextInt(1 << (bits == 0 ? 12 : bits));
+		}
+		s.storeLongs("values", values);
+		packed = bits == 0 ? null : s.field("values").asPacked();
+		System.out.println();
+		System.out.println(bits + " bits: " + s.field("values").getLength() + " bytes");
+	}
+	
+	@TearDown
+	public void tearDown() {
+		s.close();
+		f.delete();
+	}
+	
+	/**
+	 * Reads every value into an array
+	 */
+	@Benchmark
+	public long[] getAll() {
+		s.getLongs("values", 0, values, 0, length);
+		return values;
+	}
+	
+	/**
+	 * Writes every value from an array
+	 */
+	@Benchmark
+	public long[] storeAll() {
+		s.storeLongs("values", 0, values, 0, length);
+		return values;
+	}
+	
+	/**
+	 * Reads and writes back one value, moving through the array
+	 */
+	@Benchmark
+	public long updateOne() {
+		index = (index + 7) & (length - 1);
+		if(packed == null) {
+			s.getLongs("values", index, one, 0, 1);
+			one[0] ^= 1;
+			s.storeLongs("values", index, one, 0, 1);
+			return one[0];
+		}
+		long v = packed.get(s, index);
+		packed.set(s, index, v ^ 1);
+		return v;
+	}
+	
+}
@@ -0,0 +1,91 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.Save;
+import com.preston159.binsave.StorageMode;
+
+/**
+ * Measures whole-file operations of {@code Save} as the number of datapoints grows
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveBenchmark {
+	
+	@Param({ "1", "100", "10000", "50000" })
+	public int fields;
+	
+	@Param({ "HEAP", "MAPPED" })
+	public StorageMode mode;
+	
+	private File f;
+	private Data[] data;
+	private Save s;
+	private Properties p;
+	private int i;
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("save", ".bin");
+		data = Schemas.mixed(fields);
+		s = new Save(f, mode, data);
+		s.store();
+		p = s.convertToProperties();
+	}
+	
+	@TearDown
+	public void tearDown() {
+		f.delete();
+	}
+	
+	/**
+	 * Constructing a {@code Save} builds the index and loads the file
+	 */
+	@Benchmark
+	public Save construct() {
+		return new Save(f, mode, data);
+	}
+	
+	/**
+	 * Changes one datapoint, then stores; only the changed bytes are written
+	 */
+	@Benchmark
+	public void store() {
+		s.storeByte("field0", (byte) i++);
+		s.store();
+	}
+	
+	@Benchmark
+	public Properties convertToProperties() {
+		return s.convertToProperties();
+	}
+	
+	@Benchmark
+	public void loadFromProperties() throws DataFormatException {
+		s.loadFromProperties(p);
+	}
+	
+}
@@ -0,0 +1,116 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.DoubleField;
+import com.preston159.binsave.LongIntField;
+import com.preston159.binsave.RecordSpliterator;
+import com.preston159.binsave.RecordWriter;
+import com.preston159.binsave.UintField;
+
+/**
+ * <p>Measures parallel scans over a large file of records, with a given number of threads</p>
+ * <p>Time per scan should fall in proportion to the number of threads, up to the number of cores. The file is 2 GiB by
+ * default; pass {@code -p megabytes=...} to change it</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScanBenchmark {
+	
+	private static final Data[] LAYOUT = { new Data("id", DataType.INT_64BIT), new Data("value", DataType.DOUBLE),
+			new Data("level", DataType.UINT_8BIT), new Data("name", DataType.CHAR_ASCII, 15) };
+			
+	@Param({ "2048" })
+	public int megabytes;
+	
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+	
+	private File f;
+	private FileChannel channel;
+	private ForkJoinPool pool;
+	private LongIntField id;
+	private DoubleField value;
+	private UintField level;
+	
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		f = File.createTempFile("scan", ".bin");
+		try(RecordWriter w = new RecordWriter(FileChannel.open(f.toPath(), StandardOpenOption.WRITE), LAYOUT)) {
+			id = w.field("id").asLongInt();
+			value = w.field("value").asDouble();
+			level = w.field("level").asUint();
+			long records = ((long) megabytes << 20) / w.getRecordLength();
+			for(long i = 0;i < records;i++) {
+				w.append();
+				id.set(w, i);
+				value.set(w, i * 0.5);
+				level.set(w, (int) (i % 100));
+			}
+		}
+		channel = FileChannel.open(f.toPath());
+		pool = new ForkJoinPool(threads);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		pool.shutdown();
+		channel.close();
+		f.delete();
+	}
+	
+	/**
+	 * Sums one datapoint of every record
+	 */
+	@Benchmark
+	public double sum() throws InterruptedException, ExecutionException {
+		return pool.submit(() -> RecordSpliterator.stream(channel, LAYOUT).parallel().mapToDouble(r -> value.get(r))
+				.sum()).get();
+	}
+	
+	/**
+	 * Counts the records in which one datapoint matches a value
+	 */
+	@Benchmark
+	public long countWhere() throws InterruptedException, ExecutionException {
+		return pool.submit(() -> RecordSpliterator.stream(channel, LAYOUT).parallel().filter(r -> level.get(r) == 42)
+				.count()).get();
+	}
+	
+	/**
+	 * Finds the greatest of one datapoint over every record
+	 */
+	@Benchmark
+	public long max() throws InterruptedException, ExecutionException {
+		return pool.submit(() -> RecordSpliterator.stream(channel, LAYOUT).parallel().mapToLong(r -> id.get(r)).max()
+				.getAsLong()).get();
+	}
+	
+}
@@ -0,0 +1,86 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.Save;
+import com.preston159.binsave.Schema;
+import com.preston159.binsave.StorageMode;
+
+/**
+ * <p>Measures opening a versioned save file written in the current layout, and one written in an earlier layout</p>
+ * <p>An old file is carried over into the current layout as it is opened, so opening it should cost little more than
+ * opening a current one</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaBenchmark {
+	
+	@Param({ "100", "10000" })
+	public int fields;
+	
+	private File current;
+	private File old;
+	private Schema v1;
+	private Schema v2;
+	
+	@Setup
+	public void setup() throws IOException {
+		Data[] data = Schemas.mixed(fields);
+		v1 = new Schema(1, data);
+		Data[] added = new Data[fields + 1];
+		added[0] = new Data("added", DataType.INT_32BIT);
+		System.arraycopy(data, 0, added, 1, fields);
+		v2 = new Schema(2, added);
+		current = File.createTempFile("schema", ".bin");
+		current.delete();
+		new Save(current, StorageMode.HEAP, false, v2).store();
+		old = File.createTempFile("schema", ".bin");
+		old.delete();
+		new Save(old, StorageMode.HEAP, false, v1).store();
+	}
+	
+	@TearDown
+	public void tearDown() {
+		current.delete();
+		old.delete();
+	}
+	
+	/**
+	 * Opens a file written in the current layout
+	 */
+	@Benchmark
+	public Save openCurrent() {
+		return new Save(current, StorageMode.HEAP, false, v2, v1);
+	}
+	
+	/**
+	 * Opens a file written in the earlier layout, without storing it, so every iteration migrates it
+	 */
+	@Benchmark
+	public Save openOld() {
+		return new Save(old, StorageMode.HEAP, false, v2, v1);
+	}
+	
+}
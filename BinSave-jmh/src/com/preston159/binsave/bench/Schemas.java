@@ -0,0 +1,78 @@
+package com.preston159.binsave.bench;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+
+/**
+ * Builds the {@code Data} layouts shared by the benchmarks
+ * @author Preston Petrie
+ */
+final class Schemas {
+	
+	private Schemas() {}
+	
+	/**
+	 * Builds a layout which cycles through every {@code DataType}
+	 * @param fields	The number of datapoints
+	 * @return	The layout
+	 */
+	static Data[] mixed(int fields) {
+		DataType[] types = DataType.values();
+		Data[] data = new Data[fields];
+		for(int i = 0;i < fields;i++) {
+			DataType type = types[i % types.length];
+			data[i] = of("field" + i, type);
+		}
+		return data;
+	}
+	
+	/**
+	 * Builds a layout with one datapoint of every {@code DataType}, each named after its type
+	 * @return	The layout
+	 */
+	static Data[] oneOfEach() {
+		DataType[] types = DataType.values();
+		Data[] data = new Data[types.length];
+		for(int i = 0;i < types.length;i++) {
+			data[i] = of(types[i].name(), types[i]);
+		}
+		return data;
+	}
+	
+	/**
+	 * Builds a datapoint of a type, giving packed integer types a width of 5 bits and delta-encoded types a width of 8
+	 * bits
+	 * @param name	The name of the datapoint
+	 * @param type	The type of the datapoint
+	 * @return	The datapoint
+	 */
+	private static Data of(String name, DataType type) {
+		if(type == DataType.PACKED_INT || type == DataType.PACKED_UINT) {
+			return new Data(name, type, lengthOf(type), 5);
+		}
+		if(type == DataType.DELTA_INT || type == DataType.DELTA_DELTA_INT) {
+			return new Data(name, type, lengthOf(type), 8);
+		}
+		return new Data(name, type, lengthOf(type));
+	}
+	
+	/**
+	 * Gets the length of a datapoint of a type: 16 characters, one whole block of 128 delta-encoded values, or 1
+	 * @param type	The type of the datapoint
+	 * @return	The length
+	 */
+	private static int lengthOf(DataType type) {
+		switch(type) {
+		case CHAR_ASCII:
+		case CHAR_UNICODE:
+		case CHAR_UTF8:
+			return 16;
+		case DELTA_INT:
+		case DELTA_DELTA_INT:
+			return 128;
+		default:
+			return 1;
+		}
+	}
+	
+}
@@ -0,0 +1,77 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Save;
+import com.preston159.binsave.Snapshot;
+import com.preston159.binsave.StorageMode;
+
+/**
+ * <p>Measures taking snapshots, and writing while a snapshot is open</p>
+ * <p>Taking a snapshot should not depend on the size of the data; a write while a snapshot is open copies at most one
+ * page</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+	
+	@Param({ "100", "50000" })
+	public int fields;
+	
+	private File f;
+	private Save s;
+	private int i;
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("snapshot", ".bin");
+		s = new Save(f, StorageMode.HEAP, true, Schemas.mixed(fields));
+	}
+	
+	@TearDown
+	public void tearDown() {
+		f.delete();
+	}
+	
+	/**
+	 * Takes a snapshot, reads one datapoint from it, and closes it
+	 */
+	@Benchmark
+	public byte snapshotRead() {
+		try(Snapshot snap = s.snapshot()) {
+			return snap.getByte("field0");
+		}
+	}
+	
+	/**
+	 * Takes a snapshot, writes one datapoint, which copies its page, and closes the snapshot
+	 */
+	@Benchmark
+	public byte snapshotWrite() {
+		try(Snapshot snap = s.snapshot()) {
+			s.storeByte("field0", (byte) i++);
+			return snap.getByte("field0");
+		}
+	}
+	
+}
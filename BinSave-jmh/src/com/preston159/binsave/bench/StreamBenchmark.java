@@ -0,0 +1,94 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.DoubleField;
+import com.preston159.binsave.LongIntField;
+import com.preston159.binsave.RecordReader;
+import com.preston159.binsave.RecordWriter;
+
+/**
+ * <p>Measures writing and reading a file of records through a stream</p>
+ * <p>Allocation per operation should not depend on the number of records</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamBenchmark {
+	
+	private static final Data[] LAYOUT = { new Data("id", DataType.INT_64BIT), new Data("value", DataType.DOUBLE),
+			new Data("name", DataType.CHAR_ASCII, 16) };
+			
+	@Param({ "100000", "1000000" })
+	public int records;
+	
+	private File f;
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("stream", ".bin");
+		write();
+	}
+	
+	@TearDown
+	public void tearDown() {
+		f.delete();
+	}
+	
+	/**
+	 * Writes every record to the file
+	 */
+	@Benchmark
+	public long write() throws IOException {
+		try(RecordWriter w = new RecordWriter(FileChannel.open(f.toPath(), StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING), LAYOUT)) {
+			LongIntField id = w.field("id").asLongInt();
+			DoubleField value = w.field("value").asDouble();
+			for(int i = 0;i < records;i++) {
+				w.append();
+				id.set(w, i);
+				value.set(w, i * 0.5);
+			}
+			return w.getCount();
+		}
+	}
+	
+	/**
+	 * Reads every record from the file, summing one datapoint
+	 */
+	@Benchmark
+	public double read() throws IOException {
+		try(RecordReader r = new RecordReader(FileChannel.open(f.toPath()), LAYOUT)) {
+			DoubleField value = r.field("value").asDouble();
+			double sum = 0;
+			while(r.next()) {
+				sum += value.get(r);
+			}
+			return sum;
+		}
+	}
+	
+}
@@ -0,0 +1,98 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.IntField;
+import com.preston159.binsave.StorageMode;
+import com.preston159.binsave.Table;
+
+/**
+ * <p>Measures random access to the records of a table, and appending records</p>
+ * <p>Reading or writing a record should not depend on the number of records; appending takes constant time on
+ * average</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableBenchmark {
+	
+	@Param({ "1000", "1000000" })
+	public int records;
+	
+	@Param({ "HEAP", "MAPPED" })
+	public StorageMode mode;
+	
+	private File f;
+	private Table t;
+	private IntField id;
+	private int i;
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("table", ".bin");
+		t = new Table(f, mode, new Data("id", DataType.INT_32BIT), new Data("score", DataType.DOUBLE),
+				new Data("name", DataType.CHAR_ASCII, 16));
+		id = t.field("id").asInt();
+		for(int r = 0;r < records;r++) {
+			id.set(t, t.append(), r);
+		}
+		t.store();
+	}
+	
+	@TearDown
+	public void tearDown() {
+		t.close();
+		f.delete();
+	}
+	
+	/**
+	 * Reads a datapoint of a record chosen in a fixed stride through the table
+	 */
+	@Benchmark
+	public int get() {
+		i = (i + 7919) % records;
+		return id.get(t, i);
+	}
+	
+	/**
+	 * Writes a datapoint of a record chosen in a fixed stride through the table
+	 */
+	@Benchmark
+	public void set() {
+		i = (i + 7919) % records;
+		id.set(t, i, i);
+	}
+	
+	/**
+	 * Appends a record, truncating the table back to its original size once it has doubled
+	 */
+	@Benchmark
+	public int append() {
+		if(t.size() == records * 2) {
+			t.truncate(records);
+		}
+		return t.append();
+	}
+	
+}
@@ -0,0 +1,94 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.Save;
+import com.preston159.binsave.StorageMode;
+import com.preston159.binsave.TextFormat;
+
+/**
+ * <p>Measures writing a save as text and reading it back, in either {@link TextFormat}</p>
+ * <p>The layout cycles through every {@code DataType} for 100 datapoints, then ends with one {@link DataType#BYTE BYTE}
+ * datapoint of {@code bytes} random bytes. The length of the text is printed once the benchmark is set up</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextBenchmark {
+	
+	@Param({ "PROPERTIES", "JSON_LINES" })
+	public TextFormat format;
+	
+	@Param({ "4096", "1048576" })
+	public int bytes;
+	
+	private File f;
+	private Save s;
+	private final StringBuilder out = new StringBuilder();
+	private String text;
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("text", ".bin");
+		Data[] data = Arrays.copyOf(Schemas.mixed(100), 101);
+		data[100] = new Data("blob", DataType.BYTE, bytes);
+		s = new Save(f, StorageMode.HEAP, data);
+		byte[] blob = new byte[bytes];
+		new Random(1).nextBytes(blob);
+		s.storeBytes("blob", blob);
+		s.exportText(out, format);
+		text = out.toString();
+		System.out.println();
+		System.out.println(format + ": " + text.length() + " characters");
+	}
+	
+	@TearDown
+	public void tearDown() {
+		s.close();
+		f.delete();
+	}
+	
+	/**
+	 * Writes every datapoint as text
+	 */
+	@Benchmark
+	public StringBuilder exportText() throws IOException {
+		out.setLength(0);
+		s.exportText(out, format);
+		return out;
+	}
+	
+	/**
+	 * Reads every datapoint back from text
+	 */
+	@Benchmark
+	public void importText() throws IOException, DataFormatException {
+		s.importText(new StringReader(text), format);
+	}
+	
+}
@@ -0,0 +1,124 @@
+package com.preston159.binsave.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.preston159.binsave.Data;
+import com.preston159.binsave.DataType;
+import com.preston159.binsave.Save;
+import com.preston159.binsave.StorageMode;
+import com.preston159.binsave.Varint;
+
+/**
+ * <p>Measures decoding and encoding an array of varints, against reading the same values from an
+ * {@link DataType#INT_64BIT INT_64BIT} datapoint</p>
+ * <p>The values are up to 7 bits ({@code small}), up to 28 bits ({@code mixed}), or any {@code long} ({@code large}),
+ * and half of them are negative. The encoded byte length is printed once the benchmark is set up</p>
+ * @author Preston Petrie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VarintBenchmark {
+	
+	@Param({ "small", "mixed", "large" })
+	public String values;
+	
+	@Param({ "65536" })
+	public int length;
+	
+	private File f;
+	private Save s;
+	private ByteBuffer encoded;
+	private long[] dst;
+	private long[] src;
+	
+	@Setup
+	public void setup() throws IOException {
+		f = File.createTempFile("varint", ".bin");
+		s = new Save(f, StorageMode.HEAP, new Data("values", DataType.INT_64BIT, length));
+		src = new long[length];
+		dst = new long[length];
+		int bits = values.equals("small") ? 6 : values.equals("mixed") ? 27 : 63;
+		Random r = new Random(1);
+		for(int i = 0;i < length;i++) {
+			long v = r.nextLong() & (1L << bits) - 1;
+			src[i] = r.nextBoolean() ? -v : v;
+		}
+		s.storeLongs("values", src);
+		encoded = ByteBuffer.allocate(length * 10).order(ByteOrder.LITTLE_ENDIAN);
+		Varint.putSigned(encoded, src, 0, length);
+		encoded.flip();
+		System.out.println();
+		System.out.println(values + ": " + encoded.limit() + " bytes as varints, " + length * 8 + " bytes fixed");
+	}
+	
+	@TearDown
+	public void tearDown() {
+		s.close();
+		f.delete();
+	}
+	
+	/**
+	 * Reads every value from the fixed-width datapoint
+	 */
+	@Benchmark
+	public long[] getFixed() {
+		s.getLongs("values", 0, dst, 0, length);
+		return dst;
+	}
+	
+	/**
+	 * Decodes every varint at once
+	 */
+	@Benchmark
+	public long[] getVarints() {
+		encoded.position(0);
+		Varint.getSigned(encoded, dst, 0, length);
+		return dst;
+	}
+	
+	/**
+	 * Decodes every varint one at a time
+	 */
+	@Benchmark
+	public long getVarintsEach() {
+		encoded.position(0);
+		long sum = 0;
+		for(int i = 0;i < length;i++) {
+			sum += Varint.getSigned(encoded);
+		}
+		return sum;
+	}
+	
+	/**
+	 * Encodes every value as a varint
+	 */
+	@Benchmark
+	public ByteBuffer putVarints() {
+		encoded.clear();
+		Varint.putSigned(encoded, src, 0, length);
+		return encoded;
+	}
+	
+}
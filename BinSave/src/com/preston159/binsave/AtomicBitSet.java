@@ -0,0 +1,143 @@
+package com.preston159.binsave;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>A fixed-size set of bits which can be set from several threads at once</p>
+ * <p>Only {@link #set(int, int) set} and {@link #drain() drain} are safe to call concurrently; the other methods must
+ * not run at the same time as a {@code set}</p>
+ * @author Preston Petrie
+ */
+final class AtomicBitSet {
+	
+	private final AtomicLongArray words;
+	private final int size;
+	private volatile boolean empty = true;
+	
+	/**
+	 * Construct an {@code AtomicBitSet} object with every bit clear
+	 * @param size	The number of bits
+	 */
+	AtomicBitSet(int size) {
+		this.size = size;
+		words = new AtomicLongArray((size + 63) >>> 6);
+	}
+	
+	/**
+	 * Sets a range of bits
+	 * @param from	The index of the first bit to set
+	 * @param to	The index after the last bit to set
+	 */
+	void set(int from, int to) {
+		if(from >= to) {
+			return;
+		}
+		int first = from >>> 6;
+		int last = (to - 1) >>> 6;
+		for(int w = first;w <= last;w++) {
+			long mask = -1L;
+			if(w == first) {
+				mask &= -1L << from;
+			}
+			if(w == last) {
+				mask &= -1L >>> -to;
+			}
+			//bits which are already set are common, and need no write
+			long cur = words.get(w);
+			while((cur & mask) != mask && !words.compareAndSet(w, cur, cur | mask)) {
+				cur = words.get(w);
+			}
+		}
+		if(empty) {
+			empty = false;
+		}
+	}
+	
+	/**
+	 * Clears every bit
+	 */
+	void clear() {
+		for(int w = 0;w < words.length();w++) {
+			words.set(w, 0);
+		}
+		empty = true;
+	}
+	
+	/**
+	 * <p>Clears every bit, returning the bits which were set</p>
+	 * <p>Each word is cleared atomically, so a bit set during the call is either returned or left set</p>
+	 * @return	The bits which were set
+	 */
+	BitSet drain() {
+		empty = true;
+		long[] out = new long[words.length()];
+		for(int w = 0;w < out.length;w++) {
+			if(words.get(w) != 0) {
+				out[w] = words.getAndSet(w, 0);
+			}
+		}
+		return BitSet.valueOf(out);
+	}
+	
+	/**
+	 * Checks if no bit is set
+	 * @return	{@code true} if no bit is set
+	 */
+	boolean isEmpty() {
+		return empty;
+	}
+	
+	/**
+	 * Get the number of bits which are set
+	 * @return	The number of bits which are set
+	 */
+	int cardinality() {
+		int out = 0;
+		for(int w = 0;w < words.length();w++) {
+			out += Long.bitCount(words.get(w));
+		}
+		return out;
+	}
+	
+	/**
+	 * Finds the first set bit at or after an index
+	 * @param from	The index at which to start
+	 * @return		The index of the bit, or -1 if there is none
+	 */
+	int nextSetBit(int from) {
+		if(from >= size) {
+			return -1;
+		}
+		int w = from >>> 6;
+		long word = words.get(w) & -1L << from;
+		while(word == 0) {
+			if(++w == words.length()) {
+				return -1;
+			}
+			word = words.get(w);
+		}
+		return (w << 6) + Long.numberOfTrailingZeros(word);
+	}
+	
+	/**
+	 * Finds the first clear bit at or after an index
+	 * @param from	The index at which to start
+	 * @return		The index of the bit, or the size of this set if there is none
+	 */
+	int nextClearBit(int from) {
+		if(from >= size) {
+			return size;
+		}
+		int w = from >>> 6;
+		long word = ~words.get(w) & -1L << from;
+		while(word == 0) {
+			if(++w == words.length()) {
+				return size;
+			}
+			word = ~words.get(w);
+		}
+		return Math.min(size, (w << 6) + Long.numberOfTrailingZeros(word));
+	}
+	
+}
@@ -0,0 +1,80 @@
+package com.preston159.binsave;
+
+/**
+ * <p>A pre-resolved handle to an integer datapoint which is updated atomically</p>
+ * <p>Obtained from {@link Field#asAtomic() Field.asAtomic}, and usable with any {@code Save} object constructed from
+ * the same data layout</p>
+ * @author Preston Petrie
+ * @see Save#compareAndSet(String, long, long) Save.compareAndSet
+ */
+public final class AtomicField {
+	
+	private final int start;
+	private final DataType type;
+	
+	/**
+	 * Construct a {@code AtomicField} object
+	 * @param field	The resolved datapoint, which must already have been checked to be of a valid type
+	 */
+	AtomicField(Field field) {
+		start = field.getStart();
+		type = field.getType();
+	}
+	
+	/**
+	 * <p>Atomically sets the integer in the specified {@code Save} object to a new value, if it holds the expected
+	 * value</p>
+	 * @param save		The {@code Save} object in which to store the data
+	 * @param expected	The value the data must hold
+	 * @param data		The new value
+	 * @return			{@code true} if the data held the expected value and was updated
+	 */
+	public boolean compareAndSet(Save save, long expected, long data) {
+		return save.compareAndSet(start, type, expected, data);
+	}
+	
+	/**
+	 * <p>Atomically adds to the integer in the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object in which to store the data
+	 * @param delta	The value to add
+	 * @return		The previous value
+	 * @throws InvalidSearchException	if the data is of type {@link DataType#BOOLS_8 BOOLS_8}
+	 */
+	public long getAndAdd(Save save, long delta) {
+		if(type == DataType.BOOLS_8) {
+			throw new InvalidSearchException();
+		}
+		return save.getAndUpdate(start, type, Atomics.Op.ADD, delta);
+	}
+	
+	/**
+	 * <p>Atomically sets the integer in the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object in which to store the data
+	 * @param data	The new value
+	 * @return		The previous value
+	 */
+	public long getAndSet(Save save, long data) {
+		return save.getAndUpdate(start, type, Atomics.Op.SET, data);
+	}
+	
+	/**
+	 * <p>Atomically sets bits of the integer in the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object in which to store the data
+	 * @param bits	The bits to set
+	 * @return		The previous value
+	 */
+	public long getAndOr(Save save, long bits) {
+		return save.getAndUpdate(start, type, Atomics.Op.OR, bits);
+	}
+	
+	/**
+	 * <p>Atomically clears bits of the integer in the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object in which to store the data
+	 * @param bits	The bits to keep; every other bit is cleared
+	 * @return		The previous value
+	 */
+	public long getAndAnd(Save save, long bits) {
+		return save.getAndUpdate(start, type, Atomics.Op.AND, bits);
+	}
+	
+}
@@ -0,0 +1,179 @@
+package com.preston159.binsave;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>Atomically updates naturally sized integers directly in a buffer</p>
+ * <p>32-bit and 64-bit values are updated with the matching hardware instruction. 8-bit and 16-bit values are updated
+ * by a compare-and-set loop on the aligned 32-bit word which contains them. Every method requires the value to be
+ * {@link #isAligned(ByteBuffer, int, int) aligned}</p>
+ * <p>Values are passed and returned as the raw bits of the stored integer, zero-extended to 64 bits</p>
+ * @author Preston Petrie
+ */
+final class Atomics {
+	
+	private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	
+	/**
+	 * The operations which may be applied to a value
+	 */
+	enum Op {
+		SET, ADD, OR, AND
+	}
+	
+	private Atomics() {}
+	
+	/**
+	 * Checks if an integer can be updated atomically
+	 * @param b		The buffer holding the integer
+	 * @param start	The starting position of the integer
+	 * @param width	The byte length of the integer
+	 * @return		{@code true} if the integer is 1, 2, 4 or 8 bytes long and lies within one aligned word of its own
+	 * 				size, or of 4 bytes if it is shorter
+	 */
+	static boolean isAligned(ByteBuffer b, int start, int width) {
+		switch(width) {
+		case 1:
+		case 2:
+			int word = start & ~3;
+			return (start & (width - 1)) == 0 && word + 4 <= b.limit() && b.alignmentOffset(word, 4) == 0;
+		case 4:
+		case 8:
+			return b.alignmentOffset(start, width) == 0;
+		default:
+			return false;
+		}
+	}
+	
+	/**
+	 * Reads an integer with volatile semantics
+	 * @param b		The buffer holding the integer
+	 * @param start	The starting position of the integer
+	 * @param width	The byte length of the integer
+	 * @return		The value stored
+	 */
+	static long get(ByteBuffer b, int start, int width) {
+		switch(width) {
+		case 8:
+			return (long) LONG.getVolatile(b, start);
+		case 4:
+			return (int) INT.getVolatile(b, start) & 0xffffffffL;
+		default:
+			int shift = (start & 3) << 3;
+			return ((int) INT.getVolatile(b, start & ~3) >>> shift) & mask(width);
+		}
+	}
+	
+	/**
+	 * Sets an integer to a new value if it currently holds the expected value
+	 * @param b			The buffer holding the integer
+	 * @param start		The starting position of the integer
+	 * @param width		The byte length of the integer
+	 * @param expected	The expected value
+	 * @param data		The new value
+	 * @return			{@code true} if the value was set
+	 */
+	static boolean compareAndSet(ByteBuffer b, int start, int width, long expected, long data) {
+		switch(width) {
+		case 8:
+			return LONG.compareAndSet(b, start, expected, data);
+		case 4:
+			return INT.compareAndSet(b, start, (int) expected, (int) data);
+		default:
+			int word = start & ~3;
+			int shift = (start & 3) << 3;
+			int mask = (int) mask(width) << shift;
+			int cur = (int) INT.getVolatile(b, word);
+			while(((cur & mask) >>> shift) == (expected & mask(width))) {
+				if(INT.compareAndSet(b, word, cur, (cur & ~mask) | ((int) data << shift & mask))) {
+					return true;
+				}
+				cur = (int) INT.getVolatile(b, word);
+			}
+			return false;
+		}
+	}
+	
+	/**
+	 * Applies an operation to an integer and returns its previous value
+	 * @param b			The buffer holding the integer
+	 * @param start		The starting position of the integer
+	 * @param width		The byte length of the integer
+	 * @param op		The operation
+	 * @param operand	The operand of the operation; the result is truncated to the width of the integer
+	 * @return			The previous value
+	 */
+	static long getAndUpdate(ByteBuffer b, int start, int width, Op op, long operand) {
+		switch(width) {
+		case 8:
+			switch(op) {
+			case SET:
+				return (long) LONG.getAndSet(b, start, operand);
+			case ADD:
+				return (long) LONG.getAndAdd(b, start, operand);
+			case OR:
+				return (long) LONG.getAndBitwiseOr(b, start, operand);
+			default:
+				return (long) LONG.getAndBitwiseAnd(b, start, operand);
+			}
+		case 4:
+			int x = (int) operand;
+			switch(op) {
+			case SET:
+				return (int) INT.getAndSet(b, start, x) & 0xffffffffL;
+			case ADD:
+				return (int) INT.getAndAdd(b, start, x) & 0xffffffffL;
+			case OR:
+				return (int) INT.getAndBitwiseOr(b, start, x) & 0xffffffffL;
+			default:
+				return (int) INT.getAndBitwiseAnd(b, start, x) & 0xffffffffL;
+			}
+		default:
+			int word = start & ~3;
+			int shift = (start & 3) << 3;
+			int mask = (int) mask(width) << shift;
+			while(true) {
+				int cur = (int) INT.getVolatile(b, word);
+				long prev = (cur & mask) >>> shift;
+				long next = apply(op, prev, operand);
+				if(INT.compareAndSet(b, word, cur, (cur & ~mask) | ((int) next << shift & mask))) {
+					return prev;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Applies an operation to a value
+	 * @param op		The operation
+	 * @param prev		The value
+	 * @param operand	The operand of the operation
+	 * @return			The result, not truncated
+	 */
+	static long apply(Op op, long prev, long operand) {
+		switch(op) {
+		case SET:
+			return operand;
+		case ADD:
+			return prev + operand;
+		case OR:
+			return prev | operand;
+		default:
+			return prev & operand;
+		}
+	}
+	
+	/**
+	 * Get the mask of the bits of an integer of the given width
+	 * @param width	The byte length of the integer
+	 * @return		The mask
+	 */
+	static long mask(int width) {
+		return width == 8 ? -1L : (1L << (width << 3)) - 1;
+	}
+	
+}
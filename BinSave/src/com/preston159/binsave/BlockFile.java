@@ -0,0 +1,394 @@
+package com.preston159.binsave;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * <p>The compressed save file of a {@link StorageMode#COMPRESSED COMPRESSED} {@code Save} object</p>
+ * <p>The data is split into blocks of 32 KiB, the window of {@link Deflater}, each compressed on its own. The file
+ * holds a 20 byte header, then an 8 byte entry for each block giving its compressed length and how it was compressed,
+ * then the compressed blocks back to back</p>
+ * <p>The compressed blocks are read when the file is opened, but each is only decompressed when its data is first
+ * read or written. When the file is written, only blocks with changed bytes are compressed again; the file is then
+ * rewritten whole, through a temporary file which replaces it once complete</p>
+ * @author Preston Petrie
+ */
+final class BlockFile {
+	
+	/**
+	 * The byte length of a block is {@code 1 << SHIFT}
+	 */
+	private static final int SHIFT = 15;
+	
+	/**
+	 * The byte length of a block
+	 */
+	static final int BLOCK = 1 << SHIFT;
+	
+	/**
+	 * The first 4 bytes of a compressed save file, "BSCZ" in ASCII
+	 */
+	private static final int MAGIC = 0x5a435342;
+	
+	private static final int FORMAT = 1;
+	private static final int HEADER = 20;
+	private static final int ENTRY = 8;
+	private static final byte[] EMPTY = new byte[0];
+	
+	/**
+	 * Copies bytes of the data
+	 */
+	@FunctionalInterface
+	interface Source {
+		
+		/**
+		 * Copies a range of the data into an array
+		 * @param start	The starting position of the range
+		 * @param dst	The array
+		 * @param off	The index in the array at which to copy
+		 * @param len	The length of the range in bytes
+		 */
+		void copy(int start, byte[] dst, int off, int len);
+		
+	}
+	
+	private final File f;
+	private final Compression compression;
+	private byte[][] packed = new byte[0][];
+	private byte[] codecs = EMPTY;
+	private int length = 0;
+	private AtomicLongArray loaded;
+	private int tracked = 0;
+	private volatile int unloaded = 0;
+	private Deflater deflater;
+	private Inflater inflater;
+	private LzCodec lz;
+	
+	/**
+	 * Construct a {@code BlockFile} object
+	 * @param f				The save file
+	 * @param compression	How changed blocks are compressed
+	 */
+	BlockFile(File f, Compression compression) {
+		this.f = f;
+		this.compression = compression;
+	}
+	
+	/**
+	 * <p>Reads the compressed blocks of the save file, without decompressing them</p>
+	 * @param len	The byte length of the data into which the blocks will be decompressed
+	 * @return		The byte length of the data held by the file, or -1 if it is not a compressed save file
+	 * @throws IllegalArgumentException	if the file is a compressed save file, but is malformed
+	 */
+	int open(int len) {
+		byte[] bytes;
+		try {
+			bytes = Files.readAllBytes(f.toPath());
+		} catch(IOException ioe) {
+			ioe.printStackTrace();
+			return -1;
+		}
+		ByteBuffer in = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		if(bytes.length < HEADER || in.getInt(0) != MAGIC || Short.toUnsignedInt(in.getShort(4)) != FORMAT) {
+			return -1;
+		}
+		int block = in.getInt(8);
+		int stored = in.getInt(12);
+		int count = in.getInt(16);
+		if(block != BLOCK || stored < 0 || count != (int) ((stored + (long) BLOCK - 1) >>> SHIFT)
+				|| count > (bytes.length - HEADER) / ENTRY) {
+			throw new IllegalArgumentException(f + " is not a valid compressed save file");
+		}
+		packed = new byte[count][];
+		codecs = new byte[count];
+		int pos = HEADER + count * ENTRY;
+		for(int b = 0;b < count;b++) {
+			int n = in.getInt(HEADER + b * ENTRY);
+			if(n < 0 || n > bytes.length - pos) {
+				throw new IllegalArgumentException(f + " is not a valid compressed save file");
+			}
+			codecs[b] = bytes[HEADER + b * ENTRY + 4];
+			packed[b] = Arrays.copyOfRange(bytes, pos, pos + n);
+			pos += n;
+		}
+		length = stored;
+		//blocks past either end, and blocks of zeros, never need decompressing
+		tracked = (int) Math.max(count, (len + (long) BLOCK - 1) >>> SHIFT);
+		loaded = new AtomicLongArray((tracked + 63) >>> 6);
+		int usable = (int) Math.min(count, (len + (long) BLOCK - 1) >>> SHIFT);
+		int n = 0;
+		for(int b = 0;b < tracked;b++) {
+			if(b >= usable || codecs[b] == Compression.ZERO) {
+				loaded.getAndAccumulate(b >>> 6, 1L << b, (x, y) -> x | y);
+			} else {
+				n++;
+			}
+		}
+		unloaded = n;
+		return stored;
+	}
+	
+	/**
+	 * Decompresses every block holding part of a range of the data, if it has not been already
+	 * @param buffer	The data
+	 * @param start		The starting position of the range
+	 * @param len		The length of the range in bytes
+	 */
+	void load(ByteBuffer buffer, int start, int len) {
+		if(unloaded == 0 || len <= 0) {
+			return;
+		}
+		int last = Math.min((start + len - 1) >>> SHIFT, tracked - 1);
+		for(int b = start >>> SHIFT;b <= last;b++) {
+			if((loaded.get(b >>> 6) & 1L << b) == 0) {
+				loadBlock(buffer, b);
+			}
+		}
+	}
+	
+	/**
+	 * Decompresses one block into the data
+	 * @param buffer	The data
+	 * @param b			The index of the block
+	 */
+	private synchronized void loadBlock(ByteBuffer buffer, int b) {
+		if((loaded.get(b >>> 6) & 1L << b) != 0) {
+			return;
+		}
+		int start = b << SHIFT;
+		int n = Math.min(BLOCK, length - start);
+		int room = Math.min(n, buffer.capacity() - start);
+		try {
+			if(room == n) {
+				unpack(b, buffer.array(), start, n);
+			} else {
+				byte[] raw = new byte[n];
+				unpack(b, raw, 0, n);
+				System.arraycopy(raw, 0, buffer.array(), start, room);
+			}
+		} catch(DataFormatException dfe) {
+			new IOException("Block " + b + " of " + f + " is corrupt", dfe).printStackTrace();
+		}
+		//the data is published by this write, and seen by any thread which then finds the block loaded
+		loaded.getAndAccumulate(b >>> 6, 1L << b, (x, y) -> x | y);
+		unloaded--;
+	}
+	
+	/**
+	 * Decompresses a block
+	 * @param b		The index of the block
+	 * @param dst	The array into which the block is decompressed
+	 * @param off	The index in the array at which to decompress
+	 * @param n		The byte length of the block
+	 * @throws DataFormatException	if the block is malformed
+	 */
+	private void unpack(int b, byte[] dst, int off, int n) throws DataFormatException {
+		byte[] src = packed[b];
+		switch(codecs[b]) {
+		case Compression.STORED:
+			if(src.length != n) {
+				throw new DataFormatException("Expected " + n + " bytes, found " + src.length);
+			}
+			System.arraycopy(src, 0, dst, off, n);
+			return;
+		case Compression.ZERO:
+			Arrays.fill(dst, off, off + n, (byte) 0);
+			return;
+		case Compression.DEFLATE:
+			if(inflater == null) {
+				inflater = new Inflater();
+			}
+			inflater.reset();
+			inflater.setInput(src);
+			if(inflater.inflate(dst, off, n) != n || !inflater.finished()) {
+				throw new DataFormatException("Expected " + n + " bytes");
+			}
+			return;
+		case Compression.FAST:
+			LzCodec.decompress(src, 0, src.length, dst, off, n);
+			return;
+		default:
+			throw new DataFormatException("Unknown codec " + codecs[b]);
+		}
+	}
+	
+	/**
+	 * Compresses a block
+	 * @param b		The index of the block
+	 * @param raw	The bytes of the block
+	 * @param n		The byte length of the block
+	 * @param out	An array of at least {@code n} bytes in which to compress
+	 */
+	private void pack(int b, byte[] raw, int n, byte[] out) {
+		boolean zero = true;
+		for(int i = 0;i < n && zero;i++) {
+			zero = raw[i] == 0;
+		}
+		if(zero) {
+			codecs[b] = Compression.ZERO;
+			packed[b] = EMPTY;
+			return;
+		}
+		//a block is only kept compressed if that saves at least one byte
+		int m;
+		if(compression.getCodec() == Compression.DEFLATE) {
+			if(deflater == null) {
+				deflater = new Deflater(compression.getLevel());
+			}
+			deflater.reset();
+			deflater.setInput(raw, 0, n);
+			deflater.finish();
+			m = deflater.deflate(out, 0, n - 1);
+			if(!deflater.finished()) {
+				m = -1;
+			}
+		} else {
+			if(lz == null) {
+				lz = new LzCodec();
+			}
+			m = lz.compress(raw, n, out, n - 1);
+		}
+		if(m < 0) {
+			codecs[b] = Compression.STORED;
+			packed[b] = Arrays.copyOf(raw, n);
+		} else {
+			codecs[b] = compression.getCodec();
+			packed[b] = Arrays.copyOf(out, m);
+		}
+	}
+	
+	/**
+	 * <p>Compresses the blocks holding changed bytes, then rewrites the save file</p>
+	 * <p>The file is written to {@code <file>.tmp} and forced to the storage device, then moved over the save file,
+	 * so a failure leaves the old file whole</p>
+	 * @param buffer	The data
+	 * @param runs		The changed bytes
+	 * @param len		The byte length of the data
+	 * @param src		Copies the bytes of the data to compress
+	 * @return			The number of bytes written
+	 * @throws IOException	if the file cannot be written
+	 */
+	long write(ByteBuffer buffer, BitSet runs, int len, Source src) throws IOException {
+		int count = (int) ((len + (long) BLOCK - 1) >>> SHIFT);
+		int old = packed.length;
+		boolean[] redo = new boolean[count];
+		for(int start = runs.nextSetBit(0);start >= 0 && start < len;) {
+			int end = Math.min(len, runs.nextClearBit(start));
+			for(int b = start >>> SHIFT;b <= (end - 1) >>> SHIFT;b++) {
+				redo[b] = true;
+			}
+			start = runs.nextSetBit(end);
+		}
+		for(int b = old;b < count;b++) {
+			redo[b] = true;
+		}
+		//a block cut or extended by a change of length holds a different number of bytes
+		if(len != length) {
+			if(old > 0 && old <= count) {
+				redo[old - 1] = true;
+			}
+			if(count > 0) {
+				redo[count - 1] = true;
+			}
+		}
+		packed = Arrays.copyOf(packed, count);
+		codecs = Arrays.copyOf(codecs, count);
+		byte[] raw = new byte[BLOCK];
+		byte[] out = new byte[BLOCK];
+		for(int b = 0;b < count;b++) {
+			if(!redo[b]) {
+				continue;
+			}
+			int start = b << SHIFT;
+			int n = Math.min(BLOCK, len - start);
+			load(buffer, start, n);
+			src.copy(start, raw, 0, n);
+			pack(b, raw, n, out);
+		}
+		length = len;
+		ByteBuffer head = ByteBuffer.allocate(HEADER + count * ENTRY).order(ByteOrder.LITTLE_ENDIAN);
+		head.putInt(0, MAGIC);
+		head.putShort(4, (short) FORMAT);
+		head.putInt(8, BLOCK);
+		head.putInt(12, len);
+		head.putInt(16, count);
+		for(int b = 0;b < count;b++) {
+			head.putInt(HEADER + b * ENTRY, packed[b].length);
+			head.put(HEADER + b * ENTRY + 4, codecs[b]);
+		}
+		File tmp = new File(f.getPath() + ".tmp");
+		long written = 0;
+		try(FileChannel fc = FileChannel.open(tmp.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			written += writeFully(fc, head);
+			for(byte[] p : packed) {
+				written += writeFully(fc, ByteBuffer.wrap(p));
+			}
+			fc.force(true);
+		}
+		try {
+			Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch(AtomicMoveNotSupportedException amnse) {
+			Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		return written;
+	}
+	
+	/**
+	 * Writes every remaining byte of a buffer at the end of a channel
+	 * @param fc	The channel
+	 * @param src	The buffer
+	 * @return		The number of bytes written
+	 * @throws IOException	if the channel cannot be written
+	 */
+	private static int writeFully(FileChannel fc, ByteBuffer src) throws IOException {
+		int n = src.remaining();
+		while(src.hasRemaining()) {
+			fc.write(src);
+		}
+		return n;
+	}
+	
+	/**
+	 * Decompresses the start of the data held by the file into an array, without keeping anything
+	 * @param dst	The array, which is filled until it is full or the data ends
+	 * @return		The number of bytes decompressed
+	 */
+	int read(byte[] dst) {
+		int n = Math.min(dst.length, length);
+		ByteBuffer into = ByteBuffer.wrap(dst);
+		unloaded = packed.length;
+		tracked = packed.length;
+		loaded = new AtomicLongArray((tracked + 63) >>> 6);
+		load(into, 0, n);
+		return n;
+	}
+	
+	/**
+	 * Releases the native memory held by the codecs
+	 */
+	synchronized void close() {
+		if(deflater != null) {
+			deflater.end();
+			deflater = null;
+		}
+		if(inflater != null) {
+			inflater.end();
+			inflater = null;
+		}
+	}
+	
+}
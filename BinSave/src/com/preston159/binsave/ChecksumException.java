@@ -0,0 +1,19 @@
+package com.preston159.binsave;
+
+/**
+ * <p>Thrown when a block of a save file does not match the checksum stored for it, because the file was damaged or
+ * cut short after it was stored</p>
+ * @author Preston Petrie
+ */
+@SuppressWarnings("serial")
+public class ChecksumException extends RuntimeException {
+	
+	/**
+	 * Construct a {@code ChecksumException} object
+	 * @param message	The detail message
+	 */
+	public ChecksumException(String message) {
+		super(message);
+	}
+	
+}
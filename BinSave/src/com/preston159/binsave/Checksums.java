@@ -0,0 +1,288 @@
+package com.preston159.binsave;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.CRC32C;
+
+/**
+ * <p>The CRC32C checksums of the blocks of a save file, kept in {@code <file>.crc}</p>
+ * <p>The data is split into blocks of 4 KiB. The checksum file holds a 16 byte header giving the byte length of the
+ * data it describes, followed by the checksum of each block. Each block is verified the first time its data is read or
+ * written, so opening a file costs nothing more, and only blocks holding changed bytes are summed again when the file
+ * is stored</p>
+ * @author Preston Petrie
+ */
+final class Checksums {
+	
+	/**
+	 * The byte length of a block is {@code 1 << SHIFT}
+	 */
+	private static final int SHIFT = 12;
+	
+	/**
+	 * The byte length of a block
+	 */
+	static final int BLOCK = 1 << SHIFT;
+	
+	/**
+	 * The first 4 bytes of a checksum file, "BSCK" in ASCII
+	 */
+	private static final int MAGIC = 0x4b435342;
+	
+	private static final int FORMAT = 1;
+	private static final int HEADER = 16;
+	
+	private final File save;
+	private final File f;
+	private int[] sums = new int[0];
+	private int length = 0;
+	private AtomicLongArray verified = new AtomicLongArray(0);
+	private int tracked = 0;
+	private volatile int unverified = 0;
+	
+	/**
+	 * Construct a {@code Checksums} object
+	 * @param save	The save file whose blocks are summed
+	 */
+	Checksums(File save) {
+		this.save = save;
+		f = file(save);
+	}
+	
+	/**
+	 * Get the checksum file of a save file
+	 * @param save	The save file
+	 * @return		The checksum file
+	 */
+	private static File file(File save) {
+		return new File(save.getPath() + ".crc");
+	}
+	
+	/**
+	 * Deletes the checksum file of a save file, if there is one, as it would no longer match once the save file is
+	 * changed without it
+	 * @param save	The save file
+	 */
+	static void discard(File save) {
+		file(save).delete();
+	}
+	
+	/**
+	 * <p>Reads the checksums, without verifying any block</p>
+	 * <p>If there is no checksum file, no block is verified, and every block is summed by the next store</p>
+	 * @param len	The byte length of the data
+	 * @throws IllegalArgumentException	if the checksum file is malformed
+	 */
+	void open(int len) {
+		if(f.exists()) {
+			byte[] bytes;
+			try {
+				bytes = Files.readAllBytes(f.toPath());
+			} catch(IOException ioe) {
+				ioe.printStackTrace();
+				bytes = new byte[0];
+			}
+			ByteBuffer in = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+			if(bytes.length < HEADER || in.getInt(0) != MAGIC || Short.toUnsignedInt(in.getShort(4)) != FORMAT
+					|| in.get(6) != SHIFT || in.getInt(8) < 0 || in.getInt(12) != count(in.getInt(8))
+					|| in.getInt(12) > (bytes.length - HEADER) / 4) {
+				throw new IllegalArgumentException(f + " is not a valid checksum file");
+			}
+			length = in.getInt(8);
+			sums = new int[in.getInt(12)];
+			in.position(HEADER);
+			in.asIntBuffer().get(sums);
+		}
+		//blocks with no checksum are taken as verified, and summed by the next store
+		tracked = Math.max(sums.length, count(len));
+		verified = new AtomicLongArray((tracked + 63) >>> 6);
+		for(int b = sums.length;b < tracked;b++) {
+			verified.getAndAccumulate(b >>> 6, 1L << b, (x, y) -> x | y);
+		}
+		unverified = sums.length;
+	}
+	
+	/**
+	 * Forgets every checksum, after the data has been replaced, so every block is summed by the next store
+	 * @param len	The byte length of the data
+	 */
+	synchronized void clear(int len) {
+		sums = new int[0];
+		length = 0;
+		tracked = count(len);
+		verified = new AtomicLongArray((tracked + 63) >>> 6);
+		for(int b = 0;b < tracked;b++) {
+			verified.getAndAccumulate(b >>> 6, 1L << b, (x, y) -> x | y);
+		}
+		unverified = 0;
+	}
+	
+	/**
+	 * Get the number of blocks holding data of a byte length
+	 * @param len	The byte length
+	 * @return		The number of blocks
+	 */
+	private static int count(int len) {
+		return (int) ((len + (long) BLOCK - 1) >>> SHIFT);
+	}
+	
+	/**
+	 * Checks if a block has been verified
+	 * @param b	The index of the block
+	 * @return	{@code true} if the block has been verified, or has no checksum
+	 */
+	private boolean isVerified(int b) {
+		return b >= tracked || (verified.get(b >>> 6) & 1L << b) != 0;
+	}
+	
+	/**
+	 * Verifies every block holding part of a range of the data, if it has not been already
+	 * @param buffer	The data
+	 * @param start		The starting position of the range
+	 * @param len		The length of the range in bytes
+	 * @throws ChecksumException	if a block does not match its checksum
+	 */
+	void verify(ByteBuffer buffer, int start, int len) {
+		if(unverified == 0 || len <= 0) {
+			return;
+		}
+		int last = (start + len - 1) >>> SHIFT;
+		for(int b = start >>> SHIFT;b <= last;b++) {
+			if(!isVerified(b)) {
+				verifyBlock(buffer, b);
+			}
+		}
+	}
+	
+	/**
+	 * Verifies one block
+	 * @param buffer	The data
+	 * @param b			The index of the block
+	 * @throws ChecksumException	if the block does not match its checksum
+	 */
+	private synchronized void verifyBlock(ByteBuffer buffer, int b) {
+		if(isVerified(b)) {
+			return;
+		}
+		int start = b << SHIFT;
+		int n = Math.min(BLOCK, length - start);
+		//a block cut short by a smaller layout can't be summed, and is summed anew by the next store
+		if(start + n <= buffer.limit() && sum(buffer, start, n) != sums[b]) {
+			throw new ChecksumException("Block " + b + " of " + save + " does not match its checksum");
+		}
+		verified.getAndAccumulate(b >>> 6, 1L << b, (x, y) -> x | y);
+		unverified--;
+	}
+	
+	/**
+	 * Computes the CRC32C of a range of the data
+	 * @param buffer	The data
+	 * @param start		The starting position of the range
+	 * @param len		The length of the range in bytes
+	 * @return			The checksum
+	 */
+	private static int sum(ByteBuffer buffer, int start, int len) {
+		CRC32C crc = new CRC32C();
+		ByteBuffer src = buffer.duplicate();
+		src.limit(start + len);
+		src.position(start);
+		crc.update(src);
+		return (int) crc.getValue();
+	}
+	
+	/**
+	 * <p>Sums the blocks holding changed bytes, and any block with no checksum, then builds the job which writes the
+	 * new checksums</p>
+	 * <p>A changed block which was never verified, because its bytes were marked changed without being written, is
+	 * checked against its old checksum as it is summed, and reported if it does not match</p>
+	 * @param runs	The changed bytes
+	 * @param len	The byte length of the data
+	 * @param src	Copies the bytes of the data to sum
+	 * @return		The job which writes the checksum file
+	 */
+	Flusher.Job update(BitSet runs, int len, BlockFile.Source src) {
+		int count = count(len);
+		int old;
+		int was;
+		synchronized(this) {
+			old = sums.length;
+			was = length;
+		}
+		BitSet redo = new BitSet(count);
+		for(int start = runs.nextSetBit(0);start >= 0 && start < len;) {
+			int end = Math.min(len, runs.nextClearBit(start));
+			redo.set(start >>> SHIFT, ((end - 1) >>> SHIFT) + 1);
+			start = runs.nextSetBit(end);
+		}
+		if(old < count) {
+			redo.set(old, count);
+		}
+		//a block cut or extended by a change of length holds a different number of bytes
+		if(len != was) {
+			if(old > 0 && old <= count) {
+				redo.set(old - 1);
+			}
+			if(count > 0) {
+				redo.set(count - 1);
+			}
+		}
+		int[] next = new int[count];
+		byte[] block = new byte[BLOCK];
+		CRC32C crc = new CRC32C();
+		for(int b = redo.nextSetBit(0);b >= 0;b = redo.nextSetBit(b + 1)) {
+			int n = Math.min(BLOCK, len - (b << SHIFT));
+			src.copy(b << SHIFT, block, 0, n);
+			crc.reset();
+			crc.update(block, 0, n);
+			next[b] = (int) crc.getValue();
+		}
+		synchronized(this) {
+			for(int b = 0;b < count;b++) {
+				if(!redo.get(b)) {
+					next[b] = sums[b];
+				} else if(b < old && !isVerified(b) && Math.min(BLOCK, length - (b << SHIFT)) ==
+						Math.min(BLOCK, len - (b << SHIFT)) && next[b] != sums[b]) {
+					new ChecksumException("Block " + b + " of " + save + " did not match its checksum, and was stored over")
+							.printStackTrace();
+				}
+			}
+			sums = next;
+			length = len;
+			int keep = Math.min(tracked, count);
+			AtomicLongArray bits = new AtomicLongArray((Math.max(tracked, count) + 63) >>> 6);
+			int n = 0;
+			for(int b = 0;b < Math.max(tracked, count);b++) {
+				if(b >= keep || redo.get(b) || isVerified(b)) {
+					bits.getAndAccumulate(b >>> 6, 1L << b, (x, y) -> x | y);
+				} else {
+					n++;
+				}
+			}
+			verified = bits;
+			tracked = Math.max(tracked, count);
+			unverified = n;
+		}
+		ByteBuffer head = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+		head.putInt(0, MAGIC);
+		head.putShort(4, (short) FORMAT);
+		head.put(6, (byte) SHIFT);
+		head.putInt(8, len);
+		head.putInt(12, count);
+		Flusher.Job job = new Flusher.Job(f, HEADER + count * 4, null);
+		job.add(0, head.array());
+		for(int b = redo.nextSetBit(0);b >= 0;) {
+			int end = redo.nextClearBit(b);
+			ByteBuffer run = ByteBuffer.allocate((end - b) * 4).order(ByteOrder.LITTLE_ENDIAN);
+			run.asIntBuffer().put(next, b, end - b);
+			job.add(HEADER + b * 4, run.array());
+			b = redo.nextSetBit(end);
+		}
+		return job;
+	}
+	
+}
@@ -0,0 +1,629 @@
+package com.preston159.binsave;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Reads and writes primitive values directly in a buffer</p>
+ * <p>Integers are stored little-endian in 1 to 8 bytes, and floating-point numbers are stored big-endian, matching the
+ * format of files written by earlier versions</p>
+ * <p>Buffers passed to these methods must be in {@link java.nio.ByteOrder#LITTLE_ENDIAN little-endian} order. None of
+ * these methods allocate</p>
+ * @author Preston Petrie
+ */
+final class Codec {
+	
+	private Codec() {}
+	
+	/**
+	 * Reads an unsigned little-endian integer
+	 * @param b		The buffer from which to read
+	 * @param start	The starting position of the data
+	 * @param width	The byte length of the data, from 1 to 8
+	 * @return		The value stored, zero-extended
+	 */
+	static long getUnsigned(ByteBuffer b, int start, int width) {
+		switch(width) {
+		case 1:
+			return b.get(start) & 0xffL;
+		case 2:
+			return b.getShort(start) & 0xffffL;
+		case 3:
+			return b.getShort(start) & 0xffffL | (b.get(start + 2) & 0xffL) << 16;
+		case 4:
+			return b.getInt(start) & 0xffffffffL;
+		case 8:
+			return b.getLong(start);
+		default:
+			return b.getInt(start) & 0xffffffffL | getUnsigned(b, start + 4, width - 4) << 32;
+		}
+	}
+	
+	/**
+	 * Reads a signed little-endian integer
+	 * @param b		The buffer from which to read
+	 * @param start	The starting position of the data
+	 * @param width	The byte length of the data, from 1 to 8
+	 * @return		The value stored, sign-extended
+	 */
+	static long getSigned(ByteBuffer b, int start, int width) {
+		int shift = 64 - (width << 3);
+		return getUnsigned(b, start, width) << shift >> shift;
+	}
+	
+	/**
+	 * Writes the low bytes of an integer little-endian
+	 * @param b		The buffer in which to write
+	 * @param start	The starting position of the data
+	 * @param width	The byte length of the data, from 1 to 8
+	 * @param data	The value to write; bits above the given width are discarded
+	 */
+	static void put(ByteBuffer b, int start, int width, long data) {
+		switch(width) {
+		case 1:
+			b.put(start, (byte) data);
+			return;
+		case 2:
+			b.putShort(start, (short) data);
+			return;
+		case 3:
+			b.putShort(start, (short) data);
+			b.put(start + 2, (byte) (data >> 16));
+			return;
+		case 4:
+			b.putInt(start, (int) data);
+			return;
+		case 8:
+			b.putLong(start, data);
+			return;
+		default:
+			b.putInt(start, (int) data);
+			put(b, start + 4, width - 4, data >> 32);
+		}
+	}
+	
+	/**
+	 * Reads a big-endian 32-bit integer
+	 * @param b		The buffer from which to read
+	 * @param start	The starting position of the data
+	 * @return		The value stored
+	 */
+	static int getIntBE(ByteBuffer b, int start) {
+		return Integer.reverseBytes(b.getInt(start));
+	}
+	
+	/**
+	 * Writes a big-endian 32-bit integer
+	 * @param b		The buffer in which to write
+	 * @param start	The starting position of the data
+	 * @param data	The value to write
+	 */
+	static void putIntBE(ByteBuffer b, int start, int data) {
+		b.putInt(start, Integer.reverseBytes(data));
+	}
+	
+	/**
+	 * Reads a big-endian 64-bit integer
+	 * @param b		The buffer from which to read
+	 * @param start	The starting position of the data
+	 * @return		The value stored
+	 */
+	static long getLongBE(ByteBuffer b, int start) {
+		return Long.reverseBytes(b.getLong(start));
+	}
+	
+	/**
+	 * Writes a big-endian 64-bit integer
+	 * @param b		The buffer in which to write
+	 * @param start	The starting position of the data
+	 * @param data	The value to write
+	 */
+	static void putLongBE(ByteBuffer b, int start, long data) {
+		b.putLong(start, Long.reverseBytes(data));
+	}
+	
+	/**
+	 * Reads consecutive little-endian integers into an array
+	 * @param b			The buffer from which to read
+	 * @param start		The starting position of the first value
+	 * @param width		The byte length of each value, from 1 to 4
+	 * @param signed	Whether the values are sign-extended rather than zero-extended
+	 * @param dst		The array into which to read
+	 * @param off		The index in the array of the first value
+	 * @param count		The number of values to read
+	 */
+	static void getInts(ByteBuffer b, int start, int width, boolean signed, int[] dst, int off, int count) {
+		int mask = signed ? -1 : (1 << (width << 3)) - 1;
+		switch(width) {
+		case 1:
+			for(int i = 0;i < count;i++) {
+				dst[off + i] = b.get(start + i) & mask;
+			}
+			return;
+		case 2:
+			for(int i = 0;i < count;i++) {
+				dst[off + i] = b.getShort(start + (i << 1)) & mask;
+			}
+			return;
+		case 3:
+			for(int i = 0;i < count;i++) {
+				int pos = start + i * 3;
+				dst[off + i] = (b.getShort(pos) & 0xffff | b.get(pos + 2) << 16) & mask;
+			}
+			return;
+		default:
+			for(int i = 0;i < count;i++) {
+				dst[off + i] = b.getInt(start + (i << 2));
+			}
+		}
+	}
+	
+	/**
+	 * Writes consecutive little-endian integers from an array
+	 * @param b		The buffer in which to write
+	 * @param start	The starting position of the first value
+	 * @param width	The byte length of each value, from 1 to 4
+	 * @param src	The array from which to write
+	 * @param off	The index in the array of the first value
+	 * @param count	The number of values to write
+	 */
+	static void putInts(ByteBuffer b, int start, int width, int[] src, int off, int count) {
+		switch(width) {
+		case 1:
+			for(int i = 0;i < count;i++) {
+				b.put(start + i, (byte) src[off + i]);
+			}
+			return;
+		case 2:
+			for(int i = 0;i < count;i++) {
+				b.putShort(start + (i << 1), (short) src[off + i]);
+			}
+			return;
+		case 3:
+			for(int i = 0;i < count;i++) {
+				int pos = start + i * 3;
+				b.putShort(pos, (short) src[off + i]);
+				b.put(pos + 2, (byte) (src[off + i] >> 16));
+			}
+			return;
+		default:
+			for(int i = 0;i < count;i++) {
+				b.putInt(start + (i << 2), src[off + i]);
+			}
+		}
+	}
+	
+	/**
+	 * Reads consecutive little-endian integers into an array
+	 * @param b			The buffer from which to read
+	 * @param start		The starting position of the first value
+	 * @param width		The byte length of each value, from 1 to 8
+	 * @param signed	Whether the values are sign-extended rather than zero-extended
+	 * @param dst		The array into which to read
+	 * @param off		The index in the array of the first value
+	 * @param count		The number of values to read
+	 */
+	static void getLongs(ByteBuffer b, int start, int width, boolean signed, long[] dst, int off, int count) {
+		if(width == 8) {
+			for(int i = 0;i < count;i++) {
+				dst[off + i] = b.getLong(start + (i << 3));
+			}
+			return;
+		}
+		if(signed) {
+			for(int i = 0;i < count;i++) {
+				dst[off + i] = getSigned(b, start + i * width, width);
+			}
+		} else {
+			for(int i = 0;i < count;i++) {
+				dst[off + i] = getUnsigned(b, start + i * width, width);
+			}
+		}
+	}
+	
+	/**
+	 * Writes consecutive little-endian integers from an array
+	 * @param b		The buffer in which to write
+	 * @param start	The starting position of the first value
+	 * @param width	The byte length of each value, from 1 to 8
+	 * @param src	The array from which to write
+	 * @param off	The index in the array of the first value
+	 * @param count	The number of values to write
+	 */
+	static void putLongs(ByteBuffer b, int start, int width, long[] src, int off, int count) {
+		if(width == 8) {
+			for(int i = 0;i < count;i++) {
+				b.putLong(start + (i << 3), src[off + i]);
+			}
+			return;
+		}
+		for(int i = 0;i < count;i++) {
+			put(b, start + i * width, width, src[off + i]);
+		}
+	}
+	
+	/**
+	 * Reads consecutive big-endian {@code float}s into an array
+	 * @param b		The buffer from which to read
+	 * @param start	The starting position of the first value
+	 * @param dst	The array into which to read
+	 * @param off	The index in the array of the first value
+	 * @param count	The number of values to read
+	 */
+	static void getFloats(ByteBuffer b, int start, float[] dst, int off, int count) {
+		for(int i = 0;i < count;i++) {
+			dst[off + i] = Float.intBitsToFloat(Integer.reverseBytes(b.getInt(start + (i << 2))));
+		}
+	}
+	
+	/**
+	 * Writes consecutive big-endian {@code float}s from an array
+	 * @param b		The buffer in which to write
+	 * @param start	The starting position of the first value
+	 * @param src	The array from which to write
+	 * @param off	The index in the array of the first value
+	 * @param count	The number of values to write
+	 */
+	static void putFloats(ByteBuffer b, int start, float[] src, int off, int count) {
+		for(int i = 0;i < count;i++) {
+			b.putInt(start + (i << 2), Integer.reverseBytes(Float.floatToRawIntBits(src[off + i])));
+		}
+	}
+	
+	/**
+	 * Reads consecutive big-endian {@code double}s into an array
+	 * @param b		The buffer from which to read
+	 * @param start	The starting position of the first value
+	 * @param dst	The array into which to read
+	 * @param off	The index in the array of the first value
+	 * @param count	The number of values to read
+	 */
+	static void getDoubles(ByteBuffer b, int start, double[] dst, int off, int count) {
+		for(int i = 0;i < count;i++) {
+			dst[off + i] = Double.longBitsToDouble(Long.reverseBytes(b.getLong(start + (i << 3))));
+		}
+	}
+	
+	/**
+	 * Writes consecutive big-endian {@code double}s from an array
+	 * @param b		The buffer in which to write
+	 * @param start	The starting position of the first value
+	 * @param src	The array from which to write
+	 * @param off	The index in the array of the first value
+	 * @param count	The number of values to write
+	 */
+	static void putDoubles(ByteBuffer b, int start, double[] src, int off, int count) {
+		for(int i = 0;i < count;i++) {
+			b.putLong(start + (i << 3), Long.reverseBytes(Double.doubleToRawLongBits(src[off + i])));
+		}
+	}
+	
+	/**
+	 * Reads consecutive bytes into an array
+	 * @param b		The buffer from which to read
+	 * @param start	The starting position of the first byte
+	 * @param dst	The array into which to read
+	 * @param off	The index in the array of the first byte
+	 * @param count	The number of bytes to read
+	 */
+	static void getBytes(ByteBuffer b, int start, byte[] dst, int off, int count) {
+		for(int i = 0;i < count;i++) {
+			dst[off + i] = b.get(start + i);
+		}
+	}
+	
+	/**
+	 * Writes consecutive bytes from an array
+	 * @param b		The buffer in which to write
+	 * @param start	The starting position of the first byte
+	 * @param src	The array from which to write
+	 * @param off	The index in the array of the first byte
+	 * @param count	The number of bytes to write
+	 */
+	static void putBytes(ByteBuffer b, int start, byte[] src, int off, int count) {
+		for(int i = 0;i < count;i++) {
+			b.put(start + i, src[off + i]);
+		}
+	}
+	
+	/**
+	 * Reads consecutive little-endian UTF-16 code units into an array
+	 * @param b		The buffer from which to read
+	 * @param start	The starting position of the first code unit
+	 * @param dst	The array into which to read
+	 * @param off	The index in the array of the first code unit
+	 * @param count	The number of code units to read
+	 */
+	static void getChars(ByteBuffer b, int start, char[] dst, int off, int count) {
+		for(int i = 0;i < count;i++) {
+			dst[off + i] = b.getChar(start + (i << 1));
+		}
+	}
+	
+	/**
+	 * Reads an integer packed among others of the same bit width, least significant bit first
+	 * @param b			The buffer from which to read
+	 * @param start		The starting position of the packed integers
+	 * @param bits		The bit width of each integer, from 1 to 64
+	 * @param signed	Whether the value is sign-extended rather than zero-extended
+	 * @param index		The index of the integer
+	 * @return			The value stored
+	 */
+	static long getPacked(ByteBuffer b, int start, int bits, boolean signed, int index) {
+		long bit = (long) index * bits;
+		int pos = start + (int) (bit >>> 3);
+		int shift = (int) bit & 7;
+		int n = (shift + bits + 7) >>> 3;
+		long out;
+		if(n <= 8) {
+			out = getUnsigned(b, pos, n) >>> shift;
+		} else {
+			out = b.getLong(pos) >>> shift | (b.get(pos + 8) & 0xffL) << (64 - shift);
+		}
+		int unused = 64 - bits;
+		return signed ? out << unused >> unused : out << unused >>> unused;
+	}
+	
+	/**
+	 * Writes an integer packed among others of the same bit width, leaving the others as they are
+	 * @param b		The buffer in which to write
+	 * @param start	The starting position of the packed integers
+	 * @param bits	The bit width of each integer, from 1 to 64
+	 * @param index	The index of the integer
+	 * @param data	The value to write; bits above the given width are discarded
+	 */
+	static void putPacked(ByteBuffer b, int start, int bits, int index, long data) {
+		long bit = (long) index * bits;
+		int pos = start + (int) (bit >>> 3);
+		int shift = (int) bit & 7;
+		int n = (shift + bits + 7) >>> 3;
+		long mask = -1L >>> (64 - bits);
+		data &= mask;
+		if(n <= 8) {
+			put(b, pos, n, getUnsigned(b, pos, n) & ~(mask << shift) | data << shift);
+		} else {
+			b.putLong(pos, b.getLong(pos) & ~(mask << shift) | data << shift);
+			int high = (1 << (shift + bits - 64)) - 1;
+			b.put(pos + 8, (byte) (b.get(pos + 8) & ~high | (int) (data >>> (64 - shift)) & high));
+		}
+	}
+	
+	/**
+	 * <p>Reads consecutive packed integers into an array</p>
+	 * <p>Integers of up to 57 bits are each read with a single 8 byte read, except near the end of the buffer</p>
+	 * @param b			The buffer from which to read
+	 * @param start		The starting position of the packed integers
+	 * @param bits		The bit width of each integer, from 1 to 64
+	 * @param signed	Whether the values are sign-extended rather than zero-extended
+	 * @param index		The index of the first integer to read
+	 * @param dst		The array into which to read
+	 * @param off		The index in the array of the first value
+	 * @param count		The number of values to read
+	 */
+	static void getPacked(ByteBuffer b, int start, int bits, boolean signed, int index, long[] dst, int off, int count) {
+		if(bits > 57) {
+			for(int i = 0;i < count;i++) {
+				dst[off + i] = getPacked(b, start, bits, signed, index + i);
+			}
+			return;
+		}
+		int unused = 64 - bits;
+		int limit = b.limit() - 8;
+		long bit = (long) index * bits;
+		for(int i = 0;i < count;i++, bit += bits) {
+			int pos = start + (int) (bit >>> 3);
+			if(pos > limit) {
+				dst[off + i] = getPacked(b, start, bits, signed, index + i);
+				continue;
+			}
+			long v = b.getLong(pos) >>> ((int) bit & 7) << unused;
+			dst[off + i] = signed ? v >> unused : v >>> unused;
+		}
+	}
+	
+	/**
+	 * <p>Writes consecutive packed integers from an array, leaving the integers around them as they are</p>
+	 * <p>Integers of up to 56 bits are gathered into a 64-bit accumulator, which is written out a whole number of
+	 * bytes at a time</p>
+	 * @param b		The buffer in which to write
+	 * @param start	The starting position of the packed integers
+	 * @param bits	The bit width of each integer, from 1 to 64
+	 * @param index	The index of the first integer to write
+	 * @param src	The array from which to write; bits above the given width are discarded
+	 * @param off	The index in the array of the first value
+	 * @param count	The number of values to write
+	 */
+	static void putPacked(ByteBuffer b, int start, int bits, int index, long[] src, int off, int count) {
+		if(bits > 56 || count == 0) {
+			for(int i = 0;i < count;i++) {
+				putPacked(b, start, bits, index + i, src[off + i]);
+			}
+			return;
+		}
+		long bit = (long) index * bits;
+		int pos = start + (int) (bit >>> 3);
+		int have = (int) bit & 7;
+		long mask = -1L >>> (64 - bits);
+		//the bits of the first byte before the first integer are kept, and the accumulator never holds a whole byte
+		long acc = b.get(pos) & (1L << have) - 1;
+		for(int i = 0;i < count;i++) {
+			acc |= (src[off + i] & mask) << have;
+			have += bits;
+			int n = have >>> 3;
+			if(n > 0) {
+				put(b, pos, n, acc);
+				pos += n;
+				acc >>>= n << 3;
+				have &= 7;
+			}
+		}
+		if(have > 0) {
+			int keep = -1 << have;
+			b.put(pos, (byte) (b.get(pos) & keep | (int) acc));
+		}
+	}
+	
+	/**
+	 * The number of values in each block of a delta-encoded datapoint
+	 */
+	static final int DELTA_BLOCK = 128;
+	
+	/**
+	 * <p>Get the byte length of a delta-encoded datapoint</p>
+	 * <p>Every block but the last holds {@link #DELTA_BLOCK} values: the first value in 8 bytes, and for
+	 * {@link DataType#DELTA_DELTA_INT DELTA_DELTA_INT} the first difference in 8 more, then one packed integer for each
+	 * of the other values. The last block holds the values left over</p>
+	 * @param count		The number of values
+	 * @param bits		The bit width of each packed integer, from 1 to 64
+	 * @param twice		Whether the packed integers are changes in difference rather than differences
+	 * @return			The byte length
+	 */
+	static int deltaLength(int count, int bits, boolean twice) {
+		int whole = twice ? 2 : 1;
+		int rest = count % DELTA_BLOCK;
+		long len = (long) (count / DELTA_BLOCK) * (whole * 8 + (((long) (DELTA_BLOCK - whole) * bits + 7) >>> 3));
+		if(rest > 0) {
+			len += whole * 8 + (((long) Math.max(0, rest - whole) * bits + 7) >>> 3);
+		}
+		return (int) len;
+	}
+	
+	/**
+	 * <p>Reads consecutive values of one block of a delta-encoded datapoint into an array</p>
+	 * <p>Values before the first wanted are summed one at a time. The rest are unpacked together, and their zigzag
+	 * encoding undone in a loop with no dependence between values, which the JIT compiler can vectorise, before they are
+	 * summed</p>
+	 * @param b		The buffer from which to read
+	 * @param pos	The starting position of the block
+	 * @param bits	The bit width of each packed integer, from 1 to 64
+	 * @param twice	Whether the packed integers are changes in difference rather than differences
+	 * @param from	The index within the block of the first value to read
+	 * @param to	The index within the block after the last value to read
+	 * @param dst	The array into which to read
+	 * @param off	The index in the array of the first value
+	 */
+	static void getDeltaBlock(ByteBuffer b, int pos, int bits, boolean twice, int from, int to, long[] dst, int off) {
+		int whole = twice ? 2 : 1;
+		int codes = pos + whole * 8;
+		long value = b.getLong(pos);
+		long delta = twice ? b.getLong(pos + 8) : 0;
+		int i = 0;
+		while(true) {
+			if(i >= from) {
+				dst[off + i - from] = value;
+			}
+			if(++i == to) {
+				return;
+			}
+			if(i >= whole && i >= from) {
+				break;
+			}
+			long code = i < whole ? 0 : getPacked(b, codes, bits, false, i - whole);
+			code = code >>> 1 ^ -(code & 1);
+			if(twice) {
+				delta += code;
+				value += delta;
+			} else {
+				value += code;
+			}
+		}
+		int at = off + i - from;
+		int end = at + to - i;
+		getPacked(b, codes, bits, false, i - whole, dst, at, to - i);
+		for(int k = at;k < end;k++) {
+			dst[k] = dst[k] >>> 1 ^ -(dst[k] & 1);
+		}
+		if(twice) {
+			for(int k = at;k < end;k++) {
+				delta += dst[k];
+				value += delta;
+				dst[k] = value;
+			}
+		} else {
+			for(int k = at;k < end;k++) {
+				value += dst[k];
+				dst[k] = value;
+			}
+		}
+	}
+	
+	/**
+	 * Reads consecutive values of a delta-encoded datapoint into an array
+	 * @param b		The buffer from which to read
+	 * @param start	The starting position of the datapoint
+	 * @param bits	The bit width of each packed integer, from 1 to 64
+	 * @param twice	Whether the packed integers are changes in difference rather than differences
+	 * @param index	The index of the first value to read
+	 * @param dst	The array into which to read
+	 * @param off	The index in the array of the first value
+	 * @param count	The number of values to read
+	 */
+	static void getDeltas(ByteBuffer b, int start, int bits, boolean twice, int index, long[] dst, int off, int count) {
+		int block = deltaLength(DELTA_BLOCK, bits, twice);
+		int end = index + count;
+		while(index < end) {
+			int first = index - index % DELTA_BLOCK;
+			int to = Math.min(first + DELTA_BLOCK, end);
+			getDeltaBlock(b, start + index / DELTA_BLOCK * block, bits, twice, index - first, to - first, dst, off);
+			off += to - index;
+			index = to;
+		}
+	}
+	
+	/**
+	 * Computes the packed integers of whole blocks of values of a delta-encoded datapoint
+	 * @param values	The values, the first of which starts a block
+	 * @param count		The number of values
+	 * @param bits		The bit width of each packed integer, from 1 to 64
+	 * @param twice		Whether to compute changes in difference rather than differences
+	 * @param codes		The array into which the zigzag-encoded integers are computed, at the index of the value each
+	 * 					is stored with; for {@code twice}, the second value of each block is given its whole difference
+	 * @return			The index of the first value whose integer does not fit in the bit width, or -1 if every one fits
+	 */
+	static int deltaCodes(long[] values, int count, int bits, boolean twice, long[] codes) {
+		int whole = twice ? 2 : 1;
+		for(int first = 0;first < count;first += DELTA_BLOCK) {
+			int end = Math.min(first + DELTA_BLOCK, count);
+			if(twice && end > first + 1) {
+				codes[first + 1] = values[first + 1] - values[first];
+			}
+			for(int i = first + whole;i < end;i++) {
+				long diff = values[i] - values[i - 1];
+				if(twice) {
+					diff -= values[i - 1] - values[i - 2];
+				}
+				long code = diff << 1 ^ diff >> 63;
+				if(bits < 64 && code >>> bits != 0) {
+					return i;
+				}
+				codes[i] = code;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Writes whole blocks of values of a delta-encoded datapoint
+	 * @param b			The buffer in which to write
+	 * @param pos		The starting position of the first block
+	 * @param bits		The bit width of each packed integer, from 1 to 64
+	 * @param twice		Whether the packed integers are changes in difference rather than differences
+	 * @param values	The values, the first of which starts a block
+	 * @param codes		The packed integers computed by {@link #deltaCodes(long[], int, int, boolean, long[]) deltaCodes}
+	 * @param count		The number of values
+	 */
+	static void putDeltas(ByteBuffer b, int pos, int bits, boolean twice, long[] values, long[] codes, int count) {
+		int whole = twice ? 2 : 1;
+		int block = deltaLength(DELTA_BLOCK, bits, twice);
+		for(int first = 0;first < count;first += DELTA_BLOCK, pos += block) {
+			int n = Math.min(DELTA_BLOCK, count - first);
+			b.putLong(pos, values[first]);
+			if(twice) {
+				b.putLong(pos + 8, n > 1 ? codes[first + 1] : 0);
+			}
+			if(n > whole) {
+				putPacked(b, pos + whole * 8, bits, 0, codes, first + whole, n - whole);
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,88 @@
+package com.preston159.binsave;
+
+import java.util.zip.Deflater;
+
+/**
+ * <p>How the blocks of a {@link StorageMode#COMPRESSED COMPRESSED} save file are compressed</p>
+ * <p>{@link #fast() fast} decompresses faster than {@link #deflate(int) deflate}, which makes smaller files. Each
+ * block records how it was compressed, so a file written with one {@code Compression} can be read with any other</p>
+ * @author Preston Petrie
+ */
+public final class Compression {
+	
+	/**
+	 * The block is stored as it is
+	 */
+	static final byte STORED = 0;
+	
+	/**
+	 * The block is compressed with {@link Deflater}
+	 */
+	static final byte DEFLATE = 1;
+	
+	/**
+	 * The block is compressed with {@link LzCodec}
+	 */
+	static final byte FAST = 2;
+	
+	/**
+	 * Every byte of the block is zero, and nothing is stored
+	 */
+	static final byte ZERO = 3;
+	
+	private static final Compression FAST_CODEC = new Compression(FAST, 0);
+	
+	private final byte codec;
+	private final int level;
+	
+	/**
+	 * Construct a {@code Compression} object
+	 * @param codec	The codec with which blocks are compressed
+	 * @param level	The level of the codec
+	 */
+	private Compression(byte codec, int level) {
+		this.codec = codec;
+		this.level = level;
+	}
+	
+	/**
+	 * <p>Compresses blocks with {@link Deflater}</p>
+	 * @param level	The compression level, from {@link Deflater#BEST_SPEED BEST_SPEED} (1) to
+	 * 				{@link Deflater#BEST_COMPRESSION BEST_COMPRESSION} (9)
+	 * @return		The {@code Compression}
+	 * @throws IllegalArgumentException	if the level is out of range
+	 */
+	public static Compression deflate(int level) {
+		if(level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+			throw new IllegalArgumentException("A deflate level must be from 1 to 9");
+		}
+		return new Compression(DEFLATE, level);
+	}
+	
+	/**
+	 * <p>Compresses blocks with a fast LZ77 codec written in Java</p>
+	 * <p>Long runs of repeated bytes, such as the zeros after a short {@code String}, compress well; data with few
+	 * repeats is stored as it is</p>
+	 * @return	The {@code Compression}
+	 */
+	public static Compression fast() {
+		return FAST_CODEC;
+	}
+	
+	/**
+	 * Get the codec with which blocks are compressed
+	 * @return	{@link #DEFLATE} or {@link #FAST}
+	 */
+	byte getCodec() {
+		return codec;
+	}
+	
+	/**
+	 * Get the level of the codec
+	 * @return	The deflate level, or 0 for the fast codec
+	 */
+	int getLevel() {
+		return level;
+	}
+	
+}
@@ -9,6 +9,8 @@ public class Data {
 	private String name;
 	private DataType type;
 	private int len;
+	private boolean aligned;
+	private int bits;
 	
 	/**
 	 * Construct a {@code Data} object
@@ -17,9 +19,71 @@ public class Data {
 	 * @param len	The length of the datapoint (number of type stored)
 	 */
 	public Data(String name, DataType type, int len) {
+		this(name, type, len, false);
+	}
+	
+	/**
+	 * <p>Construct a {@code Data} object</p>
+	 * <p>An aligned datapoint starts at a multiple of the byte length of its type, rounded down to a power of two,
+	 * with unused bytes inserted before it as needed. Aligned 8-, 16-, 32- and 64-bit integers can always be updated
+	 * atomically without locking</p>
+	 * @param name		The name of the datapoint
+	 * @param type		The type of the datapoint
+	 * @param len		The length of the datapoint (number of type stored)
+	 * @param aligned	Whether the datapoint is aligned
+	 */
+	public Data(String name, DataType type, int len, boolean aligned) {
+		this(name, type, len, aligned, 0);
+	}
+	
+	/**
+	 * <p>Construct a {@code Data} object of a packed or delta-encoded integer type</p>
+	 * <p>The values of the datapoint are packed back to back, each taking {@code bits} bits, so e.g. 1000 3-bit
+	 * values take 375 bytes. Delta-encoded types pack the difference of each value from the one before it instead</p>
+	 * @param name	The name of the datapoint
+	 * @param type	{@link DataType#PACKED_INT PACKED_INT}, {@link DataType#PACKED_UINT PACKED_UINT},
+	 * 				{@link DataType#DELTA_INT DELTA_INT} or {@link DataType#DELTA_DELTA_INT DELTA_DELTA_INT}
+	 * @param len	The length of the datapoint (number of values stored)
+	 * @param bits	The bit width of each value or difference, from 1 to 63 for {@code PACKED_UINT} or from 1 to 64 for
+	 * 				any other type
+	 * @throws IllegalArgumentException	if the type is not a packed or delta-encoded integer type, or the bit width is
+	 * 									out of range
+	 */
+	public Data(String name, DataType type, int len, int bits) {
+		this(name, type, len, false, bits);
+	}
+	
+	/**
+	 * Construct a {@code Data} object
+	 * @param name		The name of the datapoint
+	 * @param type		The type of the datapoint
+	 * @param len		The length of the datapoint (number of type stored)
+	 * @param aligned	Whether the datapoint is aligned
+	 * @param bits		The bit width of each value of a packed or delta-encoded integer type, or 0 for any other type
+	 * @throws IllegalArgumentException	if the bit width is out of range for the type
+	 */
+	private Data(String name, DataType type, int len, boolean aligned, int bits) {
+		checkBits(type, bits);
 		this.name = name;
 		this.type = type;
 		this.len = len;
+		this.aligned = aligned;
+		this.bits = bits;
+	}
+	
+	/**
+	 * Checks that a bit width is in range for a type
+	 * @param type	The type of the datapoint
+	 * @param bits	The bit width of each value of a packed or delta-encoded integer type, or 0 for any other type
+	 * @throws IllegalArgumentException	if the bit width is out of range for the type
+	 */
+	static void checkBits(DataType type, int bits) {
+		int max = type == DataType.PACKED_UINT ? 63 : type == DataType.PACKED_INT || type == DataType.DELTA_INT
+				|| type == DataType.DELTA_DELTA_INT ? 64 : 0;
+		if(max == 0 ? bits != 0 : bits < 1 || bits > max) {
+			throw new IllegalArgumentException(max == 0 ? "Only a packed or delta-encoded integer type has a bit width" :
+					"The bit width of " + type + " must be from 1 to " + max);
+		}
 	}
 	
 	/**
@@ -55,4 +119,20 @@ public class Data {
 		return len;
 	}
 	
+	/**
+	 * Check if the datapoint is aligned
+	 * @return	{@code true} if the datapoint is aligned
+	 */
+	public boolean isAligned() {
+		return aligned;
+	}
+	
+	/**
+	 * Get the bit width of each value of the datapoint, if it is of a packed or delta-encoded integer type
+	 * @return	The bit width, or 0 if the datapoint is not of a packed or delta-encoded integer type
+	 */
+	public int getBits() {
+		return bits;
+	}
+	
 }
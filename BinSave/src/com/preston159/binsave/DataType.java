@@ -136,6 +136,12 @@ public enum DataType {
 	 * <p><strong>Stores:</strong> a Unicode character</p>
 	 */
 	CHAR_UNICODE(2),
+	/**
+	 * <p><strong>Length:</strong> 1 byte</p>
+	 * <p><strong>Stores:</strong> one byte of a UTF-8 encoded string; the length of the datapoint is the maximum byte
+	 * length of the string</p>
+	 */
+	CHAR_UTF8(1),
 	/**
 	 * <p><strong>Length:</strong> 4 bytes</p>
 	 * <p><strong>Stores:</strong> a floating-point number</p>
@@ -145,7 +151,60 @@ public enum DataType {
 	 * <p><strong>Length:</strong> 8 bytes</p>
 	 * <p><strong>Stores:</strong> a double-precision floating-point number</p>
 	 */
-	DOUBLE(8)
+	DOUBLE(8),
+	/**
+	 * <p><strong>Length:</strong> the bit width given by {@link Data#getBits() Data}, from 1 to 64 bits</p>
+	 * <p><strong>Stores:</strong> a signed integer, packed back to back with the other values of the datapoint; the
+	 * datapoint takes the fewest whole bytes which hold every value</p>
+	 * <p><strong>Minimum value:</strong> -2<sup>bits - 1</sup></p>
+	 * <p><strong>Maximum value:</strong> 2<sup>bits - 1</sup> - 1</p>
+	 */
+	PACKED_INT(1),
+	/**
+	 * <p><strong>Length:</strong> the bit width given by {@link Data#getBits() Data}, from 1 to 63 bits</p>
+	 * <p><strong>Stores:</strong> an unsigned integer, packed back to back with the other values of the datapoint; the
+	 * datapoint takes the fewest whole bytes which hold every value</p>
+	 * <p><strong>Minimum value:</strong> 0</p>
+	 * <p><strong>Maximum value:</strong> 2<sup>bits</sup> - 1</p>
+	 */
+	PACKED_UINT(1),
+	/**
+	 * <p><strong>Length:</strong> 8 bytes, or 1 to 10 bytes in a record stream</p>
+	 * <p><strong>Stores:</strong> a 64-bit signed integer, written by {@link RecordWriter} as a zigzag-encoded
+	 * {@link Varint varint}, so values near zero take fewest bytes</p>
+	 * <p><strong>Minimum value:</strong> -9223372036854775808</p>
+	 * <p><strong>Maximum value:</strong> 9223372036854775807</p>
+	 */
+	VARINT(8),
+	/**
+	 * <p><strong>Length:</strong> 8 bytes, or 1 to 9 bytes in a record stream</p>
+	 * <p><strong>Stores:</strong> a 63-bit unsigned integer, written by {@link RecordWriter} as a
+	 * {@link Varint varint}, so small values take fewest bytes</p>
+	 * <p><strong>Minimum value:</strong> 0</p>
+	 * <p><strong>Maximum value:</strong> 9223372036854775807</p>
+	 */
+	VARUINT(8),
+	/**
+	 * <p><strong>Length:</strong> the bit width given by {@link Data#getBits() Data}, from 1 to 64 bits, for all but the
+	 * first value of each block of 128 values, which takes 8 bytes</p>
+	 * <p><strong>Stores:</strong> a 64-bit signed integer, as the zigzag-encoded difference from the value before it;
+	 * each block starts with a whole value, so any block can be read on its own</p>
+	 * <p><strong>Minimum value:</strong> -9223372036854775808, with each difference from -2<sup>bits - 1</sup> to
+	 * 2<sup>bits - 1</sup> - 1</p>
+	 * <p><strong>Maximum value:</strong> 9223372036854775807</p>
+	 */
+	DELTA_INT(1),
+	/**
+	 * <p><strong>Length:</strong> the bit width given by {@link Data#getBits() Data}, from 1 to 64 bits, for all but the
+	 * first two values of each block of 128 values, which take 8 bytes each</p>
+	 * <p><strong>Stores:</strong> a 64-bit signed integer, as the zigzag-encoded change in its difference from the
+	 * value before it, so evenly spaced values such as timestamps take fewest bits; each block starts with a whole value
+	 * and difference, so any block can be read on its own</p>
+	 * <p><strong>Minimum value:</strong> -9223372036854775808, with each change in difference from
+	 * -2<sup>bits - 1</sup> to 2<sup>bits - 1</sup> - 1</p>
+	 * <p><strong>Maximum value:</strong> 9223372036854775807</p>
+	 */
+	DELTA_DELTA_INT(1)
 	
 	;
 	
@@ -0,0 +1,84 @@
+package com.preston159.binsave;
+
+/**
+ * <p>A pre-resolved handle to a {@code double} datapoint</p>
+ * <p>Obtained from {@link Field#asDouble() Field.asDouble}, and usable with any {@code Save} object constructed from the same
+ * data layout, or with any {@code Table}, {@code RecordReader} or {@code RecordWriter} whose records have that layout</p>
+ * @author Preston Petrie
+ */
+public final class DoubleField {
+	
+	private final int start;
+	private final int len;
+	
+	/**
+	 * Construct a {@code DoubleField} object
+	 * @param field	The resolved datapoint, which must already have been checked to be of a valid type
+	 */
+	DoubleField(Field field) {
+		start = field.getStart();
+		len = field.getLength();
+	}
+	
+	/**
+	 * <p>Gets a {@code double} from the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object from which to read
+	 * @return		The {@code double} stored
+	 */
+	public double get(Save save) {
+		return save.getDouble(start);
+	}
+	
+	/**
+	 * <p>Stores a {@code double} in the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object in which to store the data
+	 * @param data	The {@code double} to store
+	 */
+	public void set(Save save, double data) {
+		save.storeDouble(start, data);
+	}
+	
+	/**
+	 * <p>Gets a {@code double} from a record of the specified {@code Table}</p>
+	 * @param table	The {@code Table} from which to read
+	 * @param index	The index of the record
+	 * @return		The {@code double} stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public double get(Table table, int index) {
+		return table.data().getDouble(table.position(index, start, len));
+	}
+	
+	/**
+	 * <p>Stores a {@code double} in a record of the specified {@code Table}</p>
+	 * @param table	The {@code Table} in which to store the data
+	 * @param index	The index of the record
+	 * @param data	The {@code double} to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public void set(Table table, int index, double data) {
+		table.data().storeDouble(table.beforeWrite(index, start, len), data);
+		table.afterWrite(index, start);
+	}
+	
+	/**
+	 * <p>Gets a {@code double} from the current record of the specified {@code RecordReader}</p>
+	 * @param reader	The {@code RecordReader} from which to read
+	 * @return			The {@code double} stored
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public double get(RecordReader reader) {
+		return reader.data().getDouble(reader.position(start));
+	}
+	
+	/**
+	 * <p>Stores a {@code double} in the current record of the specified {@code RecordWriter}</p>
+	 * @param writer	The {@code RecordWriter} in which to store the data
+	 * @param data		The {@code double} to store
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	public void set(RecordWriter writer, double data) {
+		writer.data().storeDouble(writer.position(start), data);
+	}
+	
+}
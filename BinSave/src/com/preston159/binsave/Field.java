@@ -0,0 +1,247 @@
+package com.preston159.binsave;
+
+/**
+ * The resolved location of a datapoint within a {@code Save}: its starting byte index, byte length, and type
+ * <p>Instances are created when a {@code StorageData} object is calculated and never change afterwards</p>
+ * @author Preston Petrie
+ */
+public final class Field {
+	
+	private final String name;
+	private final int start;
+	private final int len;
+	private final DataType type;
+	private final int bits;
+	private final int count;
+	
+	/**
+	 * Construct a {@code Field} object
+	 * @param name	The name of the datapoint
+	 * @param start	The starting byte index of the datapoint
+	 * @param len	The byte length of the datapoint
+	 * @param type	The type of the datapoint
+	 * @param bits	The bit width of each value of a packed or delta-encoded integer type, or 0 for any other type
+	 * @param count	The number of values of the datapoint
+	 */
+	Field(String name, int start, int len, DataType type, int bits, int count) {
+		this.name = name;
+		this.start = start;
+		this.len = len;
+		this.type = type;
+		this.bits = bits;
+		this.count = count;
+	}
+	
+	/**
+	 * Get the name of the datapoint
+	 * @return	The name of the datapoint
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Get the starting byte index of the datapoint
+	 * @return	The starting byte index of the datapoint
+	 */
+	public int getStart() {
+		return start;
+	}
+	
+	/**
+	 * Get the byte length of the datapoint
+	 * @return	The byte length of the datapoint
+	 */
+	public int getLength() {
+		return len;
+	}
+	
+	/**
+	 * Get the type of the datapoint
+	 * @return	The type of the datapoint
+	 */
+	public DataType getType() {
+		return type;
+	}
+	
+	/**
+	 * Get the bit width of each value of the datapoint, if it is of a packed or delta-encoded integer type
+	 * @return	The bit width, or 0 if the datapoint is not of a packed or delta-encoded integer type
+	 */
+	public int getBits() {
+		return bits;
+	}
+	
+	/**
+	 * Get the number of values of the datapoint
+	 * @return	The number of values of the datapoint
+	 */
+	int getCount() {
+		return count;
+	}
+	
+	/**
+	 * <p>Converts this {@code Field} to a handle for reading and writing signed integers</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * </ul>
+	 * @return	The {@code IntField} handle
+	 * @throws InvalidSearchException	if the data is not of a valid type
+	 */
+	public IntField asInt() {
+		if(type != DataType.INT_8BIT && type != DataType.INT_16BIT && type != DataType.INT_24BIT && type != DataType.INT_32BIT) {
+			throw new InvalidSearchException();
+		}
+		return new IntField(this);
+	}
+	
+	/**
+	 * <p>Converts this {@code Field} to a handle for reading and writing signed integers</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * <li>{@link DataType#INT_40BIT INT_40BIT}</li>
+	 * <li>{@link DataType#INT_48BIT INT_48BIT}</li>
+	 * <li>{@link DataType#INT_56BIT INT_56BIT}</li>
+	 * <li>{@link DataType#INT_64BIT INT_64BIT}</li>
+	 * <li>{@link DataType#VARINT VARINT}</li>
+	 * </ul>
+	 * @return	The {@code LongIntField} handle
+	 * @throws InvalidSearchException	if the data is not of a valid type
+	 */
+	public LongIntField asLongInt() {
+		if(type != DataType.INT_8BIT && type != DataType.INT_16BIT && type != DataType.INT_24BIT && type != DataType.INT_32BIT &&
+				type != DataType.INT_40BIT && type != DataType.INT_48BIT && type != DataType.INT_56BIT && type != DataType.INT_64BIT &&
+				type != DataType.VARINT) {
+			throw new InvalidSearchException();
+		}
+		return new LongIntField(this);
+	}
+	
+	/**
+	 * <p>Converts this {@code Field} to a handle for reading and writing unsigned integers</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
+	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
+	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
+	 * </ul>
+	 * @return	The {@code UintField} handle
+	 * @throws InvalidSearchException	if the data is not of a valid type
+	 */
+	public UintField asUint() {
+		if(type != DataType.UINT_8BIT && type != DataType.UINT_16BIT && type != DataType.UINT_24BIT) {
+			throw new InvalidSearchException();
+		}
+		return new UintField(this);
+	}
+	
+	/**
+	 * <p>Converts this {@code Field} to a handle for reading and writing unsigned integers</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
+	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
+	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
+	 * <li>{@link DataType#UINT_32BIT UINT_32BIT}</li>
+	 * <li>{@link DataType#UINT_40BIT UINT_40BIT}</li>
+	 * <li>{@link DataType#UINT_48BIT UINT_48BIT}</li>
+	 * <li>{@link DataType#UINT_56BIT UINT_56BIT}</li>
+	 * <li>{@link DataType#VARUINT VARUINT}</li>
+	 * </ul>
+	 * @return	The {@code LongUintField} handle
+	 * @throws InvalidSearchException	if the data is not of a valid type
+	 */
+	public LongUintField asLongUint() {
+		if(type != DataType.UINT_8BIT && type != DataType.UINT_16BIT && type != DataType.UINT_24BIT && type != DataType.UINT_32BIT &&
+				type != DataType.UINT_40BIT && type != DataType.UINT_48BIT && type != DataType.UINT_56BIT &&
+				type != DataType.VARUINT) {
+			throw new InvalidSearchException();
+		}
+		return new LongUintField(this);
+	}
+	
+	/**
+	 * <p>Converts this {@code Field} to a handle for reading and writing packed integers</p>
+	 * <p>Data must be of type {@link DataType#PACKED_INT PACKED_INT} or {@link DataType#PACKED_UINT PACKED_UINT}</p>
+	 * @return	The {@code PackedField} handle
+	 * @throws InvalidSearchException	if the data is not of a valid type
+	 */
+	public PackedField asPacked() {
+		if(type != DataType.PACKED_INT && type != DataType.PACKED_UINT) {
+			throw new InvalidSearchException();
+		}
+		return new PackedField(this);
+	}
+	
+	/**
+	 * <p>Converts this {@code Field} to a handle for reading and writing {@code float}s</p>
+	 * <p>Data must be of type {@link DataType#FLOAT FLOAT}</p>
+	 * @return	The {@code FloatField} handle
+	 * @throws InvalidSearchException	if the data is not of a valid type
+	 */
+	public FloatField asFloat() {
+		if(type != DataType.FLOAT) {
+			throw new InvalidSearchException();
+		}
+		return new FloatField(this);
+	}
+	
+	/**
+	 * <p>Converts this {@code Field} to a handle for reading and writing {@code double}s</p>
+	 * <p>Data must be of type {@link DataType#DOUBLE DOUBLE}</p>
+	 * @return	The {@code DoubleField} handle
+	 * @throws InvalidSearchException	if the data is not of a valid type
+	 */
+	public DoubleField asDouble() {
+		if(type != DataType.DOUBLE) {
+			throw new InvalidSearchException();
+		}
+		return new DoubleField(this);
+	}
+	
+	/**
+	 * <p>Converts this {@code Field} to a handle for reading and writing {@code String}s</p>
+	 * <p>Data must be of type {@link DataType#CHAR_ASCII CHAR_ASCII}, {@link DataType#CHAR_UNICODE CHAR_UNICODE} OR
+	 * {@link DataType#CHAR_UTF8 CHAR_UTF8}</p>
+	 * @return	The {@code StringField} handle
+	 * @throws InvalidSearchException	if the data is not of a valid type
+	 */
+	public StringField asString() {
+		if(type != DataType.CHAR_ASCII && type != DataType.CHAR_UNICODE && type != DataType.CHAR_UTF8) {
+			throw new InvalidSearchException();
+		}
+		return new StringField(this);
+	}
+	
+	/**
+	 * <p>Converts this {@code Field} to a handle for atomically updating an integer</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * <li>{@link DataType#INT_64BIT INT_64BIT}</li>
+	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
+	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
+	 * <li>{@link DataType#UINT_32BIT UINT_32BIT}</li>
+	 * <li>{@link DataType#BOOLS_8 BOOLS_8}</li>
+	 * </ul>
+	 * @return	The {@code AtomicField} handle
+	 * @throws InvalidSearchException	if the data is not of a valid type
+	 */
+	public AtomicField asAtomic() {
+		if(Save.checkAtomicType(type)) {
+			throw new InvalidSearchException();
+		}
+		return new AtomicField(this);
+	}
+	
+}
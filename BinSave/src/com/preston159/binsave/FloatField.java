@@ -0,0 +1,84 @@
+package com.preston159.binsave;
+
+/**
+ * <p>A pre-resolved handle to a {@code float} datapoint</p>
+ * <p>Obtained from {@link Field#asFloat() Field.asFloat}, and usable with any {@code Save} object constructed from the same
+ * data layout, or with any {@code Table}, {@code RecordReader} or {@code RecordWriter} whose records have that layout</p>
+ * @author Preston Petrie
+ */
+public final class FloatField {
+	
+	private final int start;
+	private final int len;
+	
+	/**
+	 * Construct a {@code FloatField} object
+	 * @param field	The resolved datapoint, which must already have been checked to be of a valid type
+	 */
+	FloatField(Field field) {
+		start = field.getStart();
+		len = field.getLength();
+	}
+	
+	/**
+	 * <p>Gets a {@code float} from the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object from which to read
+	 * @return		The {@code float} stored
+	 */
+	public float get(Save save) {
+		return save.getFloat(start);
+	}
+	
+	/**
+	 * <p>Stores a {@code float} in the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object in which to store the data
+	 * @param data	The {@code float} to store
+	 */
+	public void set(Save save, float data) {
+		save.storeFloat(start, data);
+	}
+	
+	/**
+	 * <p>Gets a {@code float} from a record of the specified {@code Table}</p>
+	 * @param table	The {@code Table} from which to read
+	 * @param index	The index of the record
+	 * @return		The {@code float} stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public float get(Table table, int index) {
+		return table.data().getFloat(table.position(index, start, len));
+	}
+	
+	/**
+	 * <p>Stores a {@code float} in a record of the specified {@code Table}</p>
+	 * @param table	The {@code Table} in which to store the data
+	 * @param index	The index of the record
+	 * @param data	The {@code float} to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public void set(Table table, int index, float data) {
+		table.data().storeFloat(table.beforeWrite(index, start, len), data);
+		table.afterWrite(index, start);
+	}
+	
+	/**
+	 * <p>Gets a {@code float} from the current record of the specified {@code RecordReader}</p>
+	 * @param reader	The {@code RecordReader} from which to read
+	 * @return			The {@code float} stored
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public float get(RecordReader reader) {
+		return reader.data().getFloat(reader.position(start));
+	}
+	
+	/**
+	 * <p>Stores a {@code float} in the current record of the specified {@code RecordWriter}</p>
+	 * @param writer	The {@code RecordWriter} in which to store the data
+	 * @param data		The {@code float} to store
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	public void set(RecordWriter writer, float data) {
+		writer.data().storeFloat(writer.position(start), data);
+	}
+	
+}
@@ -0,0 +1,222 @@
+package com.preston159.binsave;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>Writes the changes of many {@code Save} objects on one background thread</p>
+ * <p>Each cycle takes every store which is waiting, writes all of them, then forces each file to the storage device,
+ * and only then completes their futures; the cost of forcing is shared by every store made while the previous cycle
+ * was running</p>
+ * @author Preston Petrie
+ */
+final class Flusher {
+	
+	static final Flusher INSTANCE = new Flusher();
+	
+	private final Object lock = new Object();
+	private final List<Job> queue = new ArrayList<>();
+	private Thread thread;
+	
+	private Flusher() {}
+	
+	/**
+	 * The changes of one {@code Save} object waiting to be written
+	 */
+	static final class Job {
+		
+		private final File f;
+		private final int len;
+		private final MappedByteBuffer mapped;
+		private final List<Integer> positions = new ArrayList<>();
+		private final List<byte[]> chunks = new ArrayList<>();
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+		private FileChannel fc;
+		private boolean resized;
+		private boolean taken = false;
+		
+		/**
+		 * Construct a {@code Job} object
+		 * @param f			The file to write
+		 * @param len		The byte length of the data; a longer file is truncated
+		 * @param mapped	The mapping to force, or {@code null} if the data is written from chunks
+		 */
+		Job(File f, int len, MappedByteBuffer mapped) {
+			this.f = f;
+			this.len = len;
+			this.mapped = mapped;
+		}
+		
+		/**
+		 * Adds a run of bytes to write; runs are written in the order they are added, so later runs win
+		 * @param pos	The position of the run in the file
+		 * @param data	The bytes to write
+		 */
+		void add(int pos, byte[] data) {
+			positions.add(pos);
+			chunks.add(data);
+		}
+		
+		/**
+		 * Get the future completed once this job is on the storage device
+		 * @return	The future
+		 */
+		CompletableFuture<Void> getFuture() {
+			return future;
+		}
+		
+		/**
+		 * Writes the runs without forcing them
+		 * @throws IOException	if the file cannot be written
+		 */
+		private void write() throws IOException {
+			if(mapped != null) {
+				return;
+			}
+			fc = FileChannel.open(f.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+			long size = fc.size();
+			for(int i = 0;i < chunks.size();i++) {
+				ByteBuffer src = ByteBuffer.wrap(chunks.get(i));
+				long pos = positions.get(i);
+				while(src.hasRemaining()) {
+					pos += fc.write(src, pos);
+				}
+			}
+			if(fc.size() > len) {
+				fc.truncate(len);
+			}
+			resized = fc.size() != size;
+		}
+		
+		/**
+		 * Writes the runs on the calling thread without forcing them, then closes the file
+		 * @throws IOException	if the file cannot be written
+		 */
+		void writeNow() throws IOException {
+			try {
+				write();
+			} finally {
+				close();
+			}
+		}
+		
+		/**
+		 * Forces the written data to the storage device
+		 * @throws IOException	if the data cannot be forced
+		 */
+		private void force() throws IOException {
+			if(mapped != null) {
+				mapped.force();
+				return;
+			}
+			fc.force(resized);
+		}
+		
+		/**
+		 * Closes the file, if open
+		 */
+		private void close() {
+			if(fc == null) {
+				return;
+			}
+			try {
+				fc.close();
+			} catch(IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+		
+	}
+	
+	/**
+	 * <p>Queues a job for the next cycle, starting the background thread if needed</p>
+	 * <p>If the previous job of the same {@code Save} object is still waiting, the new runs are added to it instead, so
+	 * both complete together</p>
+	 * @param job		The job to queue
+	 * @param pending	The previous job of the same {@code Save} object, or {@code null}
+	 * @return	The job which will write the runs
+	 */
+	Job submit(Job job, Job pending) {
+		synchronized(lock) {
+			if(pending != null && !pending.taken) {
+				pending.positions.addAll(job.positions);
+				pending.chunks.addAll(job.chunks);
+				return pending;
+			}
+			queue.add(job);
+			if(thread == null) {
+				thread = new Thread(this::run, "BinSave-flusher");
+				thread.setDaemon(true);
+				thread.start();
+			}
+			lock.notify();
+			return job;
+		}
+	}
+	
+	/**
+	 * Runs commit cycles until the JVM exits
+	 */
+	private void run() {
+		while(true) {
+			List<Job> batch;
+			synchronized(lock) {
+				while(queue.isEmpty()) {
+					try {
+						lock.wait();
+					} catch(InterruptedException ie) {
+						//the flusher is a daemon thread and is never interrupted deliberately
+					}
+				}
+				batch = new ArrayList<>(queue);
+				queue.clear();
+				for(Job job : batch) {
+					job.taken = true;
+				}
+			}
+			cycle(batch);
+		}
+	}
+	
+	/**
+	 * Writes every job, then forces every job, then completes every job
+	 * @param batch	The jobs to commit
+	 */
+	private static void cycle(List<Job> batch) {
+		Exception[] errors = new Exception[batch.size()];
+		for(int i = 0;i < batch.size();i++) {
+			try {
+				batch.get(i).write();
+			} catch(IOException | RuntimeException e) {
+				errors[i] = e;
+			}
+		}
+		for(int i = 0;i < batch.size();i++) {
+			if(errors[i] != null) {
+				continue;
+			}
+			try {
+				batch.get(i).force();
+			} catch(IOException | RuntimeException e) {
+				errors[i] = e;
+			}
+		}
+		for(int i = 0;i < batch.size();i++) {
+			Job job = batch.get(i);
+			job.close();
+			if(errors[i] == null) {
+				job.future.complete(null);
+			} else {
+				job.future.completeExceptionally(errors[i]);
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,86 @@
+package com.preston159.binsave;
+
+/**
+ * <p>A pre-resolved handle to a signed integer datapoint</p>
+ * <p>Obtained from {@link Field#asInt() Field.asInt}, and usable with any {@code Save} object constructed from the same
+ * data layout, or with any {@code Table}, {@code RecordReader} or {@code RecordWriter} whose records have that layout</p>
+ * @author Preston Petrie
+ */
+public final class IntField {
+	
+	private final int start;
+	private final int len;
+	private final DataType type;
+	
+	/**
+	 * Construct a {@code IntField} object
+	 * @param field	The resolved datapoint, which must already have been checked to be of a valid type
+	 */
+	IntField(Field field) {
+		start = field.getStart();
+		len = field.getLength();
+		type = field.getType();
+	}
+	
+	/**
+	 * <p>Gets a signed integer from the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object from which to read
+	 * @return		The signed integer stored
+	 */
+	public int get(Save save) {
+		return save.getInt(start, type);
+	}
+	
+	/**
+	 * <p>Stores a signed integer in the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object in which to store the data
+	 * @param data	The signed integer to store
+	 */
+	public void set(Save save, int data) {
+		save.storeInt(start, type, data);
+	}
+	
+	/**
+	 * <p>Gets a signed integer from a record of the specified {@code Table}</p>
+	 * @param table	The {@code Table} from which to read
+	 * @param index	The index of the record
+	 * @return		The signed integer stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public int get(Table table, int index) {
+		return table.data().getInt(table.position(index, start, len), type);
+	}
+	
+	/**
+	 * <p>Stores a signed integer in a record of the specified {@code Table}</p>
+	 * @param table	The {@code Table} in which to store the data
+	 * @param index	The index of the record
+	 * @param data	The signed integer to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public void set(Table table, int index, int data) {
+		table.data().storeInt(table.beforeWrite(index, start, len), type, data);
+		table.afterWrite(index, start);
+	}
+	
+	/**
+	 * <p>Gets a signed integer from the current record of the specified {@code RecordReader}</p>
+	 * @param reader	The {@code RecordReader} from which to read
+	 * @return			The signed integer stored
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public int get(RecordReader reader) {
+		return reader.data().getInt(reader.position(start), type);
+	}
+	
+	/**
+	 * <p>Stores a signed integer in the current record of the specified {@code RecordWriter}</p>
+	 * @param writer	The {@code RecordWriter} in which to store the data
+	 * @param data		The signed integer to store
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	public void set(RecordWriter writer, int data) {
+		writer.data().storeInt(writer.position(start), type, data);
+	}
+	
+}
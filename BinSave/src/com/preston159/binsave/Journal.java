@@ -0,0 +1,252 @@
+package com.preston159.binsave;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * <p>An append-only log of changes to the data of a {@code Save} object</p>
+ * <p>Each record holds the starting position and the length as {@link Varint varints}, the new bytes, and a CRC32 of
+ * the record, after a 4 byte marker at the start of the journal. A journal without the marker holds no records. Records
+ * are appended to {@code <file>.journal}; when the save file is checkpointed, the journal is renamed to
+ * {@code <file>.journal.old} and deleted once the checkpoint is on the storage device</p>
+ * @author Preston Petrie
+ */
+final class Journal {
+	
+	/**
+	 * The bytes at the start of a journal
+	 */
+	private static final byte[] MAGIC = { 'B', 'S', 'J', (byte) 0x82 };
+	
+	/**
+	 * The greatest byte length of the position and length of a record
+	 */
+	private static final int MAX_HEADER = 10;
+	
+	private static final int TRAILER = 4;
+	
+	private final File file;
+	private final File old;
+	private FileChannel fc;
+	private long size = 0;
+	private byte[] record = new byte[64];
+	private final CRC32 crc = new CRC32();
+	
+	/**
+	 * Construct a {@code Journal} object
+	 * @param f	The save file whose changes are logged
+	 */
+	Journal(File f) {
+		file = new File(f.getPath() + ".journal");
+		old = new File(f.getPath() + ".journal.old");
+	}
+	
+	/**
+	 * Checks if a current or old journal exists
+	 * @return	{@code true} if either journal file exists
+	 */
+	boolean exists() {
+		return file.exists() || old.exists();
+	}
+	
+	/**
+	 * <p>Applies every complete record of the old and current journals to the data, in order</p>
+	 * <p>Replay of a journal stops at the first torn or corrupt record</p>
+	 * @param buffer	The data
+	 * @return	{@code true} if an old journal was found, meaning a checkpoint did not finish
+	 * @throws IOException	if a journal cannot be read
+	 */
+	boolean replay(ByteBuffer buffer) throws IOException {
+		boolean unfinished = old.exists();
+		if(unfinished) {
+			replay(old, buffer);
+		}
+		if(file.exists()) {
+			size = replay(file, buffer);
+		}
+		return unfinished;
+	}
+	
+	/**
+	 * <p>Applies every complete record of a journal to the data</p>
+	 * <p>A journal which does not start with the marker is ignored, and emptied when the current journal is opened</p>
+	 * @param journal	The journal file
+	 * @param buffer	The data
+	 * @return	The byte length of the marker and the complete records, or 0 if there is no marker
+	 * @throws IOException	if the journal cannot be read
+	 */
+	private long replay(File journal, ByteBuffer buffer) throws IOException {
+		byte[] bytes = Files.readAllBytes(journal.toPath());
+		ByteBuffer in = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		if(bytes.length < MAGIC.length) {
+			return 0;
+		}
+		for(int i = 0;i < MAGIC.length;i++) {
+			if(bytes[i] != MAGIC[i]) {
+				return 0;
+			}
+		}
+		int pos = MAGIC.length;
+		while(bytes.length - pos >= TRAILER + 2) {
+			long start;
+			long len;
+			in.position(pos);
+			try {
+				start = Varint.getUnsigned(in);
+				len = Varint.getUnsigned(in);
+			} catch(BufferUnderflowException | IllegalArgumentException e) {
+				break;
+			}
+			int header = in.position() - pos;
+			if(start < 0 || len < 0 || start > buffer.limit() || len > buffer.limit() - start
+					|| len > bytes.length - pos - header - TRAILER) {
+				break;
+			}
+			crc.reset();
+			crc.update(bytes, pos, header + (int) len);
+			if((int) crc.getValue() != in.getInt(pos + header + (int) len)) {
+				break;
+			}
+			for(int i = 0;i < len;i++) {
+				buffer.put((int) start + i, bytes[pos + header + i]);
+			}
+			pos += header + (int) len + TRAILER;
+		}
+		return pos;
+	}
+	
+	/**
+	 * Opens the current journal for appending, discarding any torn record at its end
+	 * @throws IOException	if the journal cannot be opened
+	 */
+	void open() throws IOException {
+		fc = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+		fc.truncate(size);
+		fc.position(size);
+		if(size == 0) {
+			start();
+		}
+	}
+	
+	/**
+	 * Writes the marker to the current journal, which must be empty
+	 * @throws IOException	if the marker cannot be written
+	 */
+	private void start() throws IOException {
+		ByteBuffer out = ByteBuffer.wrap(MAGIC);
+		while(out.hasRemaining()) {
+			fc.write(out);
+		}
+		size = MAGIC.length;
+	}
+	
+	/**
+	 * Appends a record holding the current value of a range of the data
+	 * @param buffer	The data
+	 * @param start		The starting position of the range
+	 * @param len		The length of the range in bytes
+	 * @throws IOException	if the record cannot be written
+	 */
+	void append(ByteBuffer buffer, int start, int len) throws IOException {
+		int max = MAX_HEADER + len + TRAILER;
+		if(record.length < max) {
+			record = new byte[Math.max(max, record.length * 2)];
+		}
+		ByteBuffer out = ByteBuffer.wrap(record).order(ByteOrder.LITTLE_ENDIAN);
+		Varint.putUnsigned(out, start);
+		Varint.putUnsigned(out, len);
+		int header = out.position();
+		for(int i = 0;i < len;i++) {
+			record[header + i] = buffer.get(start + i);
+		}
+		crc.reset();
+		crc.update(record, 0, header + len);
+		out.putInt(header + len, (int) crc.getValue());
+		int total = header + len + TRAILER;
+		out.position(0);
+		out.limit(total);
+		while(out.hasRemaining()) {
+			fc.write(out);
+		}
+		size += total;
+	}
+	
+	/**
+	 * Forces the current journal to the storage device
+	 * @throws IOException	if the journal cannot be forced
+	 */
+	void force() throws IOException {
+		fc.force(false);
+	}
+	
+	/**
+	 * Get the byte length of the current journal
+	 * @return	The byte length of the current journal
+	 */
+	long size() {
+		return size;
+	}
+	
+	/**
+	 * <p>Starts a checkpoint by moving the current journal aside and opening an empty one</p>
+	 * <p>Records appended after this call are not covered by the checkpoint, and are kept</p>
+	 * @return	{@code false} if the previous checkpoint has not finished, in which case nothing is done
+	 * @throws IOException	if the journal cannot be moved or reopened
+	 */
+	boolean rotate() throws IOException {
+		if(old.exists()) {
+			return false;
+		}
+		fc.close();
+		Files.move(file.toPath(), old.toPath());
+		size = 0;
+		open();
+		return true;
+	}
+	
+	/**
+	 * Finishes a checkpoint by deleting the old journal
+	 */
+	void deleteOld() {
+		old.delete();
+	}
+	
+	/**
+	 * Discards both journals once the save file holds all of their changes
+	 * @throws IOException	if the current journal cannot be emptied
+	 */
+	void clear() throws IOException {
+		old.delete();
+		size = 0;
+		if(fc != null) {
+			fc.truncate(0);
+			fc.position(0);
+			start();
+		} else {
+			file.delete();
+		}
+	}
+	
+	/**
+	 * Closes the current journal
+	 */
+	void close() {
+		if(fc == null) {
+			return;
+		}
+		try {
+			fc.close();
+		} catch(IOException ioe) {
+			ioe.printStackTrace();
+		}
+		fc = null;
+	}
+	
+}
@@ -0,0 +1,86 @@
+package com.preston159.binsave;
+
+/**
+ * <p>A pre-resolved handle to a signed integer datapoint</p>
+ * <p>Obtained from {@link Field#asLongInt() Field.asLongInt}, and usable with any {@code Save} object constructed from the same
+ * data layout, or with any {@code Table}, {@code RecordReader} or {@code RecordWriter} whose records have that layout</p>
+ * @author Preston Petrie
+ */
+public final class LongIntField {
+	
+	private final int start;
+	private final int len;
+	private final DataType type;
+	
+	/**
+	 * Construct a {@code LongIntField} object
+	 * @param field	The resolved datapoint, which must already have been checked to be of a valid type
+	 */
+	LongIntField(Field field) {
+		start = field.getStart();
+		len = field.getLength();
+		type = field.getType();
+	}
+	
+	/**
+	 * <p>Gets a signed integer from the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object from which to read
+	 * @return		The signed integer stored
+	 */
+	public long get(Save save) {
+		return save.getLongInt(start, type);
+	}
+	
+	/**
+	 * <p>Stores a signed integer in the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object in which to store the data
+	 * @param data	The signed integer to store
+	 */
+	public void set(Save save, long data) {
+		save.storeLongInt(start, type, data);
+	}
+	
+	/**
+	 * <p>Gets a signed integer from a record of the specified {@code Table}</p>
+	 * @param table	The {@code Table} from which to read
+	 * @param index	The index of the record
+	 * @return		The signed integer stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public long get(Table table, int index) {
+		return table.data().getLongInt(table.position(index, start, len), type);
+	}
+	
+	/**
+	 * <p>Stores a signed integer in a record of the specified {@code Table}</p>
+	 * @param table	The {@code Table} in which to store the data
+	 * @param index	The index of the record
+	 * @param data	The signed integer to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public void set(Table table, int index, long data) {
+		table.data().storeLongInt(table.beforeWrite(index, start, len), type, data);
+		table.afterWrite(index, start);
+	}
+	
+	/**
+	 * <p>Gets a signed integer from the current record of the specified {@code RecordReader}</p>
+	 * @param reader	The {@code RecordReader} from which to read
+	 * @return			The signed integer stored
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public long get(RecordReader reader) {
+		return reader.data().getLongInt(reader.position(start), type);
+	}
+	
+	/**
+	 * <p>Stores a signed integer in the current record of the specified {@code RecordWriter}</p>
+	 * @param writer	The {@code RecordWriter} in which to store the data
+	 * @param data		The signed integer to store
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	public void set(RecordWriter writer, long data) {
+		writer.data().storeLongInt(writer.position(start), type, data);
+	}
+	
+}
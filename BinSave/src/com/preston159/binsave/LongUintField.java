@@ -0,0 +1,95 @@
+package com.preston159.binsave;
+
+/**
+ * <p>A pre-resolved handle to an unsigned integer datapoint</p>
+ * <p>Obtained from {@link Field#asLongUint() Field.asLongUint}, and usable with any {@code Save} object constructed from the same
+ * data layout, or with any {@code Table}, {@code RecordReader} or {@code RecordWriter} whose records have that layout</p>
+ * @author Preston Petrie
+ */
+public final class LongUintField {
+	
+	private final int start;
+	private final int len;
+	private final DataType type;
+	
+	/**
+	 * Construct a {@code LongUintField} object
+	 * @param field	The resolved datapoint, which must already have been checked to be of a valid type
+	 */
+	LongUintField(Field field) {
+		start = field.getStart();
+		len = field.getLength();
+		type = field.getType();
+	}
+	
+	/**
+	 * <p>Gets an unsigned integer from the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object from which to read
+	 * @return		The unsigned integer stored
+	 */
+	public long get(Save save) {
+		return save.getLongUint(start, type);
+	}
+	
+	/**
+	 * <p>Stores an unsigned integer in the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object in which to store the data
+	 * @param data	The unsigned integer to store
+	 */
+	public void set(Save save, long data) {
+		if(data < 0) {
+			throw new IllegalArgumentException("Can't store negative number in a UINT");
+		}
+		save.storeLongUint(start, type, data);
+	}
+	
+	/**
+	 * <p>Gets an unsigned integer from a record of the specified {@code Table}</p>
+	 * @param table	The {@code Table} from which to read
+	 * @param index	The index of the record
+	 * @return		The unsigned integer stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public long get(Table table, int index) {
+		return table.data().getLongUint(table.position(index, start, len), type);
+	}
+	
+	/**
+	 * <p>Stores an unsigned integer in a record of the specified {@code Table}</p>
+	 * @param table	The {@code Table} in which to store the data
+	 * @param index	The index of the record
+	 * @param data	The unsigned integer to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public void set(Table table, int index, long data) {
+		if(data < 0) {
+			throw new IllegalArgumentException("Can't store negative number in a UINT");
+		}
+		table.data().storeLongUint(table.beforeWrite(index, start, len), type, data);
+		table.afterWrite(index, start);
+	}
+	
+	/**
+	 * <p>Gets an unsigned integer from the current record of the specified {@code RecordReader}</p>
+	 * @param reader	The {@code RecordReader} from which to read
+	 * @return			The unsigned integer stored
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public long get(RecordReader reader) {
+		return reader.data().getLongUint(reader.position(start), type);
+	}
+	
+	/**
+	 * <p>Stores an unsigned integer in the current record of the specified {@code RecordWriter}</p>
+	 * @param writer	The {@code RecordWriter} in which to store the data
+	 * @param data		The unsigned integer to store
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	public void set(RecordWriter writer, long data) {
+		if(data < 0) {
+			throw new IllegalArgumentException("Can't store negative number in a UINT");
+		}
+		writer.data().storeLongUint(writer.position(start), type, data);
+	}
+	
+}
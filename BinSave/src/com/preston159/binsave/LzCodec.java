@@ -0,0 +1,194 @@
+package com.preston159.binsave;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+/**
+ * <p>A fast LZ77 codec for blocks of up to 64 KiB, used by {@link Compression#fast() Compression.fast}</p>
+ * <p>The compressed form is a series of sequences, each a token byte followed by literal bytes and a back-reference.
+ * The high nibble of the token is the number of literals and the low nibble the length of the match less 4; a nibble
+ * of 15 is continued by bytes which are added to it, up to the first byte which is not 255. Each match is preceded by a
+ * 2 byte little-endian distance back into the output. The last sequence holds literals only</p>
+ * <p>Matches are found through a hash table of the most recent position of each 4 byte prefix, so compression is a
+ * single pass; runs of bytes which find no match are skipped faster the longer they get</p>
+ * <p>A {@code LzCodec} object must not be used from several threads at once</p>
+ * @author Preston Petrie
+ */
+final class LzCodec {
+	
+	private static final int MIN_MATCH = 4;
+	private static final int HASH_BITS = 12;
+	private static final int MAX_DISTANCE = 0xffff;
+	
+	private final int[] table = new int[1 << HASH_BITS];
+	
+	/**
+	 * Reads 4 bytes as a little-endian integer
+	 * @param b		The array
+	 * @param i		The index of the first byte
+	 * @return		The integer
+	 */
+	private static int getInt(byte[] b, int i) {
+		return b[i] & 0xff | (b[i + 1] & 0xff) << 8 | (b[i + 2] & 0xff) << 16 | b[i + 3] << 24;
+	}
+	
+	/**
+	 * <p>Compresses bytes</p>
+	 * @param src	The array holding the bytes, from index 0
+	 * @param len	The number of bytes
+	 * @param dst	The array into which the compressed bytes are written, from index 0
+	 * @param max	The greatest number of compressed bytes to write
+	 * @return		The number of compressed bytes, or -1 if they would be more than {@code max}
+	 */
+	int compress(byte[] src, int len, byte[] dst, int max) {
+		Arrays.fill(table, -1);
+		int anchor = 0;
+		int out = 0;
+		int i = 0;
+		while(i + MIN_MATCH <= len) {
+			int seq = getInt(src, i);
+			int h = seq * 0x9e3779b1 >>> 32 - HASH_BITS;
+			int ref = table[h];
+			table[h] = i;
+			if(ref < 0 || i - ref > MAX_DISTANCE || getInt(src, ref) != seq) {
+				i += 1 + (i - anchor >>> 6);
+				continue;
+			}
+			int match = MIN_MATCH;
+			while(i + match < len && src[ref + match] == src[i + match]) {
+				match++;
+			}
+			out = sequence(src, anchor, i - anchor, i - ref, match, dst, out, max);
+			if(out < 0) {
+				return -1;
+			}
+			i += match;
+			anchor = i;
+		}
+		return sequence(src, anchor, len - anchor, 0, 0, dst, out, max);
+	}
+	
+	/**
+	 * Writes one sequence
+	 * @param src		The array holding the bytes being compressed
+	 * @param from		The index of the first literal
+	 * @param literals	The number of literals
+	 * @param distance	The distance back to the match, or 0 if this is the last sequence
+	 * @param match		The length of the match
+	 * @param dst		The array into which the compressed bytes are written
+	 * @param out		The index in {@code dst} at which to write
+	 * @param max		The greatest number of compressed bytes to write
+	 * @return			The index in {@code dst} after the sequence, or -1 if it would be past {@code max}
+	 */
+	private static int sequence(byte[] src, int from, int literals, int distance, int match, byte[] dst, int out,
+			int max) {
+		int extra = distance == 0 ? 0 : match - MIN_MATCH;
+		//token, literals, nibble continuations, distance
+		if(out + 1 + literals + literals / 255 + 1 + (distance == 0 ? 0 : 2 + extra / 255 + 1) > max) {
+			return -1;
+		}
+		dst[out++] = (byte) (Math.min(literals, 15) << 4 | Math.min(extra, 15));
+		out = length(literals, dst, out);
+		System.arraycopy(src, from, dst, out, literals);
+		out += literals;
+		if(distance == 0) {
+			return out;
+		}
+		dst[out++] = (byte) distance;
+		dst[out++] = (byte) (distance >>> 8);
+		return length(extra, dst, out);
+	}
+	
+	/**
+	 * Writes the continuation of a nibble which is 15 or more
+	 * @param n		The value of the nibble
+	 * @param dst	The array into which the compressed bytes are written
+	 * @param out	The index in {@code dst} at which to write
+	 * @return		The index in {@code dst} after the continuation
+	 */
+	private static int length(int n, byte[] dst, int out) {
+		if(n < 15) {
+			return out;
+		}
+		for(n -= 15;n >= 255;n -= 255) {
+			dst[out++] = (byte) 255;
+		}
+		dst[out++] = (byte) n;
+		return out;
+	}
+	
+	/**
+	 * <p>Decompresses bytes</p>
+	 * @param src	The array holding the compressed bytes
+	 * @param off	The index in {@code src} of the first compressed byte
+	 * @param len	The number of compressed bytes
+	 * @param dst	The array into which the bytes are written
+	 * @param at	The index in {@code dst} at which to write
+	 * @param n		The number of bytes the compressed bytes hold
+	 * @throws DataFormatException	if the compressed bytes are malformed, or do not hold exactly {@code n} bytes
+	 */
+	static void decompress(byte[] src, int off, int len, byte[] dst, int at, int n) throws DataFormatException {
+		int in = off;
+		int end = off + len;
+		int out = at;
+		int stop = at + n;
+		while(true) {
+			if(in >= end) {
+				throw new DataFormatException("Truncated sequence");
+			}
+			int token = src[in++] & 0xff;
+			int literals = token >>> 4;
+			if(literals == 15) {
+				int b;
+				do {
+					if(in >= end) {
+						throw new DataFormatException("Truncated length");
+					}
+					b = src[in++] & 0xff;
+					literals += b;
+				} while(b == 255);
+			}
+			if(literals > end - in || literals > stop - out) {
+				throw new DataFormatException("Literals out of bounds");
+			}
+			System.arraycopy(src, in, dst, out, literals);
+			in += literals;
+			out += literals;
+			if(in == end) {
+				break;
+			}
+			if(end - in < 2) {
+				throw new DataFormatException("Truncated distance");
+			}
+			int distance = src[in] & 0xff | (src[in + 1] & 0xff) << 8;
+			in += 2;
+			int match = token & 15;
+			if(match == 15) {
+				int b;
+				do {
+					if(in >= end) {
+						throw new DataFormatException("Truncated length");
+					}
+					b = src[in++] & 0xff;
+					match += b;
+				} while(b == 255);
+			}
+			match += MIN_MATCH;
+			if(distance == 0 || distance > out - at || match > stop - out) {
+				throw new DataFormatException("Match out of bounds");
+			}
+			int from = out - distance;
+			int last = out + match;
+			//an overlapping match repeats the bytes it has just written, so each copy can be twice as long as the last
+			while(out < last) {
+				int copy = Math.min(out - from, last - out);
+				System.arraycopy(dst, from, dst, out, copy);
+				out += copy;
+			}
+		}
+		if(out != stop) {
+			throw new DataFormatException("Expected " + n + " bytes, found " + (out - at));
+		}
+	}
+	
+}
@@ -0,0 +1,174 @@
+package com.preston159.binsave;
+
+/**
+ * <p>A pre-resolved handle to a packed integer datapoint</p>
+ * <p>Obtained from {@link Field#asPacked() Field.asPacked}, and usable with any {@code Save} object constructed from the same
+ * data layout, or with any {@code Table}, {@code RecordReader} or {@code RecordWriter} whose records have that layout</p>
+ * @author Preston Petrie
+ */
+public final class PackedField {
+	
+	private final String name;
+	private final int start;
+	private final int len;
+	private final DataType type;
+	private final int bits;
+	private final int count;
+	
+	/**
+	 * Construct a {@code PackedField} object
+	 * @param field	The resolved datapoint, which must already have been checked to be of a valid type
+	 */
+	PackedField(Field field) {
+		name = field.getName();
+		start = field.getStart();
+		len = field.getLength();
+		type = field.getType();
+		bits = field.getBits();
+		count = field.getCount();
+	}
+	
+	/**
+	 * Get the number of values of the datapoint
+	 * @return	The number of values of the datapoint
+	 */
+	public int size() {
+		return count;
+	}
+	
+	/**
+	 * Checks that a range of values lies within the datapoint
+	 * @param index	The index of the first value
+	 * @param n		The number of values
+	 * @throws IndexOutOfBoundsException	if the range is outside of the datapoint
+	 */
+	private void checkIndex(int index, int n) {
+		if(index < 0 || n < 0 || index > count - n) {
+			throw new IndexOutOfBoundsException("Range of " + n + " values at index " + index + " is outside of " + name);
+		}
+	}
+	
+	/**
+	 * <p>Gets one value from the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object from which to read
+	 * @param index	The index of the value within the datapoint
+	 * @return		The integer stored
+	 * @throws IndexOutOfBoundsException	if the index is outside of the datapoint
+	 */
+	public long get(Save save, int index) {
+		checkIndex(index, 1);
+		return save.getPacked(start, bits, type == DataType.PACKED_INT, index);
+	}
+	
+	/**
+	 * <p>Stores one value in the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object in which to store the data
+	 * @param index	The index of the value within the datapoint
+	 * @param data	The integer to store
+	 * @throws IndexOutOfBoundsException	if the index is outside of the datapoint
+	 * @throws IllegalArgumentException		if the integer does not fit in the bit width of the datapoint
+	 */
+	public void set(Save save, int index, long data) {
+		checkIndex(index, 1);
+		Save.checkPacked(type, bits, data);
+		save.storePacked(start, bits, index, data);
+	}
+	
+	/**
+	 * <p>Gets consecutive values from the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object from which to read
+	 * @param index	The index of the first value within the datapoint
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param n		The number of values to get
+	 * @throws IndexOutOfBoundsException	if the range is outside of the datapoint or of {@code dst}
+	 */
+	public void get(Save save, int index, long[] dst, int off, int n) {
+		checkIndex(index, n);
+		if(off < 0 || off > dst.length - n) {
+			throw new IndexOutOfBoundsException("Range of " + n + " values at array offset " + off + " is outside of the array");
+		}
+		save.getPacked(start, bits, type == DataType.PACKED_INT, index, dst, off, n);
+	}
+	
+	/**
+	 * <p>Stores consecutive values in the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object in which to store the data
+	 * @param index	The index of the first value within the datapoint
+	 * @param src	The array from which the values are stored
+	 * @param off	The index in {@code src} of the first value
+	 * @param n		The number of values to store
+	 * @throws IndexOutOfBoundsException	if the range is outside of the datapoint or of {@code src}
+	 * @throws IllegalArgumentException		if an integer does not fit in the bit width of the datapoint
+	 */
+	public void set(Save save, int index, long[] src, int off, int n) {
+		checkIndex(index, n);
+		if(off < 0 || off > src.length - n) {
+			throw new IndexOutOfBoundsException("Range of " + n + " values at array offset " + off + " is outside of the array");
+		}
+		for(int i = 0;i < n;i++) {
+			Save.checkPacked(type, bits, src[off + i]);
+		}
+		save.storePacked(start, bits, index, src, off, n);
+	}
+	
+	/**
+	 * <p>Gets one value from a record of the specified {@code Table}</p>
+	 * @param table		The {@code Table} from which to read
+	 * @param record	The index of the record
+	 * @param index		The index of the value within the datapoint
+	 * @return			The integer stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index, or the index of the value is outside of
+	 * 										the datapoint
+	 */
+	public long get(Table table, int record, int index) {
+		checkIndex(index, 1);
+		return table.data().getPacked(table.position(record, start, len), bits, type == DataType.PACKED_INT, index);
+	}
+	
+	/**
+	 * <p>Stores one value in a record of the specified {@code Table}</p>
+	 * @param table		The {@code Table} in which to store the data
+	 * @param record	The index of the record
+	 * @param index		The index of the value within the datapoint
+	 * @param data		The integer to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index, or the index of the value is outside of
+	 * 										the datapoint
+	 * @throws IllegalArgumentException		if the integer does not fit in the bit width of the datapoint
+	 */
+	public void set(Table table, int record, int index, long data) {
+		checkIndex(index, 1);
+		Save.checkPacked(type, bits, data);
+		table.data().storePacked(table.beforeWrite(record, start, len), bits, index, data);
+		table.afterWrite(record, start);
+	}
+	
+	/**
+	 * <p>Gets one value from the current record of the specified {@code RecordReader}</p>
+	 * @param reader	The {@code RecordReader} from which to read
+	 * @param index		The index of the value within the datapoint
+	 * @return			The integer stored
+	 * @throws IllegalStateException		if there is no current record
+	 * @throws IndexOutOfBoundsException	if the index is outside of the datapoint
+	 */
+	public long get(RecordReader reader, int index) {
+		checkIndex(index, 1);
+		return reader.data().getPacked(reader.position(start), bits, type == DataType.PACKED_INT, index);
+	}
+	
+	/**
+	 * <p>Stores one value in the current record of the specified {@code RecordWriter}</p>
+	 * @param writer	The {@code RecordWriter} in which to store the data
+	 * @param index		The index of the value within the datapoint
+	 * @param data		The integer to store
+	 * @throws IllegalStateException		if no record has been started since the last flush
+	 * @throws IndexOutOfBoundsException	if the index is outside of the datapoint
+	 * @throws IllegalArgumentException		if the integer does not fit in the bit width of the datapoint
+	 */
+	public void set(RecordWriter writer, int index, long data) {
+		checkIndex(index, 1);
+		Save.checkPacked(type, bits, data);
+		writer.data().storePacked(writer.position(start), bits, index, data);
+	}
+	
+}
@@ -0,0 +1,325 @@
+package com.preston159.binsave;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * <p>Reads records of one data layout, back to back, from a channel one at a time</p>
+ * <p>The records are read into a buffer of fixed size, which is reused for the whole channel, so any number of records
+ * can be read in constant memory. The format is the same as that of a {@code Table} which is not columnar, so a table
+ * file can be read with a {@link java.nio.channels.FileChannel FileChannel}. If the layout holds
+ * {@link DataType#VARINT VARINT} or {@link DataType#VARUINT VARUINT} datapoints, each value of those is instead read as
+ * a {@link Varint varint}, as {@link RecordWriter} writes it</p>
+ * <p>Datapoints of the current record are read through the typed handles of a {@link #field(String) Field}, e.g.
+ * {@code reader.field("score").asInt().get(reader)}, or by name through the methods of this class. An incomplete record
+ * at the end of the channel is ignored</p>
+ * <p>A {@code RecordReader} object must not be used from several threads at once</p>
+ * @author Preston Petrie
+ */
+public final class RecordReader implements Closeable {
+	
+	/**
+	 * The byte length of the buffer if none is given
+	 */
+	static final int BUFFER = 1 << 16;
+	
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer;
+	private final ByteBuffer records;
+	private final Save save;
+	private final int recordLength;
+	private final VarintLayout varints;
+	private int current;
+	private int filled = 0;
+	private int undecoded = 0;
+	private long index = -1;
+	private boolean end = false;
+	
+	/**
+	 * <p>Create a {@code RecordReader} object with a buffer of 64 KiB</p>
+	 * @param channel	The channel from which to read the records
+	 * @param data		An array specifying the data types and their names of one record
+	 */
+	public RecordReader(ReadableByteChannel channel, Data... data) {
+		this(channel, BUFFER, data);
+	}
+	
+	/**
+	 * <p>Create a {@code RecordReader} object</p>
+	 * @param channel		The channel from which to read the records
+	 * @param bufferSize	The byte length of the buffer, which is raised to the length of one record if shorter
+	 * @param data			An array specifying the data types and their names of one record
+	 * @throws IllegalArgumentException	if a record would hold no bytes
+	 */
+	public RecordReader(ReadableByteChannel channel, int bufferSize, Data... data) {
+		this.channel = channel;
+		StorageData sd = Save.layout(data);
+		recordLength = sd.getByteLength();
+		if(recordLength == 0) {
+			throw new IllegalArgumentException("A record must hold at least one byte");
+		}
+		varints = VarintLayout.of(sd);
+		if(varints == null) {
+			buffer = ByteBuffer.allocate(Math.max(bufferSize, recordLength)).order(ByteOrder.LITTLE_ENDIAN);
+			records = buffer;
+			current = -recordLength;
+		} else {
+			//each record is decoded on its own from the buffer, which holds the next bytes of the channel
+			buffer = ByteBuffer.allocate(Math.max(bufferSize, varints.maxLength()));
+			records = ByteBuffer.allocate(recordLength).order(ByteOrder.LITTLE_ENDIAN);
+			current = -1;
+		}
+		save = new Save(records, data);
+	}
+	
+	/**
+	 * <p>Create a {@code RecordReader} object which reads the records held in a buffer, without copying them</p>
+	 * <p>Used by {@link RecordSpliterator} to read each region of a file it maps</p>
+	 * @param records	The buffer holding the records from position 0, which is set to little-endian order
+	 * @param first		The index of the first record in the buffer
+	 * @param data		An array specifying the data types and their names of one record
+	 */
+	RecordReader(ByteBuffer records, long first, Data... data) {
+		channel = null;
+		buffer = records.order(ByteOrder.LITTLE_ENDIAN);
+		this.records = buffer;
+		save = new Save(buffer, data);
+		recordLength = save.getLayoutLength();
+		varints = null;
+		filled = buffer.limit() / recordLength * recordLength;
+		current = -recordLength;
+		index = first - 1;
+	}
+	
+	/**
+	 * Get the {@code Save} object reading the buffer
+	 * @return	The {@code Save} object
+	 */
+	Save data() {
+		return save;
+	}
+	
+	/**
+	 * Get the position in the buffer of a datapoint of the current record
+	 * @param start	The starting byte index of the datapoint within the layout
+	 * @return		The position of the datapoint
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	int position(int start) {
+		if(current < 0 || end) {
+			throw new IllegalStateException("No current record");
+		}
+		return current + start;
+	}
+	
+	/**
+	 * <p>Moves to the next record, reading more of the channel if the buffer holds no more whole records</p>
+	 * @return	{@code false} if the channel holds no more whole records
+	 * @throws IOException	if the channel cannot be read
+	 */
+	public boolean next() throws IOException {
+		if(end) {
+			return false;
+		}
+		if(varints != null) {
+			return decode();
+		}
+		int next = current + recordLength;
+		if(filled - next < recordLength) {
+			if(channel == null) {
+				end = true;
+				return false;
+			}
+			int rest = filled - next;
+			byte[] bytes = buffer.array();
+			System.arraycopy(bytes, next, bytes, 0, rest);
+			ByteBuffer in = buffer.duplicate();
+			in.position(rest);
+			//reading stops once a record is whole, so records are returned as soon as the channel provides them
+			while(in.position() < recordLength) {
+				if(channel.read(in) < 0) {
+					break;
+				}
+			}
+			filled = in.position();
+			next = 0;
+			if(filled < recordLength) {
+				end = true;
+				return false;
+			}
+		}
+		current = next;
+		index++;
+		return true;
+	}
+	
+	/**
+	 * <p>Decodes the next record, reading more of the channel if the buffer holds only part of it</p>
+	 * @return	{@code false} if the channel holds no more whole records
+	 * @throws IOException	if the channel cannot be read, or holds a varint longer than 10 bytes
+	 */
+	private boolean decode() throws IOException {
+		while(true) {
+			ByteBuffer in = buffer.duplicate();
+			in.position(undecoded);
+			in.limit(filled);
+			try {
+				varints.decode(in, records);
+				undecoded = in.position();
+				current = 0;
+				index++;
+				return true;
+			} catch(BufferUnderflowException bue) {
+				//only part of the record is in the buffer; move it to the start, then read more after it
+				int rest = filled - undecoded;
+				byte[] bytes = buffer.array();
+				System.arraycopy(bytes, undecoded, bytes, 0, rest);
+				in = buffer.duplicate();
+				in.position(rest);
+				undecoded = 0;
+				int read = channel.read(in);
+				filled = in.position();
+				if(read < 0) {
+					end = true;
+					return false;
+				}
+			} catch(IllegalArgumentException iae) {
+				throw new IOException("Record " + (index + 1) + " is malformed", iae);
+			}
+		}
+	}
+	
+	/**
+	 * Get the number of whole records in the buffer after the current record
+	 * @return	The number of records
+	 */
+	int remaining() {
+		return end ? 0 : (filled - current) / recordLength - 1;
+	}
+	
+	/**
+	 * Get the index of the current record, counted from the first record read
+	 * @return	The index of the current record, or one less than the index of the first record if {@link #next() next}
+	 * 			has not been called
+	 */
+	public long getIndex() {
+		return index;
+	}
+	
+	/**
+	 * Get the byte length of one record
+	 * @return	The byte length of one record, once any varints are decoded
+	 */
+	public int getRecordLength() {
+		return recordLength;
+	}
+	
+	/**
+	 * <p>Resolves the data with the specified name to a {@code Field}</p>
+	 * <p>The typed handles of the returned {@code Field} read the data of the current record of this reader</p>
+	 * @param name	The name of the data
+	 * @return		The {@code Field} describing the data
+	 * @throws InvalidSearchException	if no data exists with the specified name
+	 */
+	public Field field(String name) {
+		return save.field(name);
+	}
+	
+	/**
+	 * <p>Gets the bytes of the current record</p>
+	 * @return	The bytes of the record
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public byte[] getRecord() {
+		byte[] out = new byte[recordLength];
+		save.getBytes(position(0), out, 0, recordLength);
+		return out;
+	}
+	
+	/**
+	 * <p>Gets a signed integer from the current record</p>
+	 * <p>Use {@link Field#asInt() field(name).asInt()} to avoid looking up the name for every record</p>
+	 * @param name	The name of the data
+	 * @return		The signed integer stored
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public int getInt(String name) {
+		return field(name).asInt().get(this);
+	}
+	
+	/**
+	 * <p>Gets a signed long integer from the current record</p>
+	 * @param name	The name of the data
+	 * @return		The signed long integer stored
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public long getLongInt(String name) {
+		return field(name).asLongInt().get(this);
+	}
+	
+	/**
+	 * <p>Gets an unsigned integer from the current record</p>
+	 * @param name	The name of the data
+	 * @return		The unsigned integer stored
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public int getUint(String name) {
+		return field(name).asUint().get(this);
+	}
+	
+	/**
+	 * <p>Gets an unsigned long integer from the current record</p>
+	 * @param name	The name of the data
+	 * @return		The unsigned long integer stored
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public long getLongUint(String name) {
+		return field(name).asLongUint().get(this);
+	}
+	
+	/**
+	 * <p>Gets a {@code float} from the current record</p>
+	 * @param name	The name of the data
+	 * @return		The {@code float} stored
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public float getFloat(String name) {
+		return field(name).asFloat().get(this);
+	}
+	
+	/**
+	 * <p>Gets a {@code double} from the current record</p>
+	 * @param name	The name of the data
+	 * @return		The {@code double} stored
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public double getDouble(String name) {
+		return field(name).asDouble().get(this);
+	}
+	
+	/**
+	 * <p>Gets a {@code String} from the current record</p>
+	 * @param name	The name of the data
+	 * @return		The {@code String} stored
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public String getString(String name) {
+		return field(name).asString().get(this);
+	}
+	
+	/**
+	 * <p>Closes the channel, if any</p>
+	 * @throws IOException	if the channel cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		if(channel != null) {
+			channel.close();
+		}
+	}
+	
+}
@@ -0,0 +1,178 @@
+package com.preston159.binsave;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>Traverses the records of one data layout in a file, in the format written by {@link RecordWriter}, and splits them
+ * into ranges of whole records which can be traversed in parallel</p>
+ * <p>Each range maps its part of the file read-only, at most 64 MiB at a time, and reads the records where they are
+ * mapped. Ranges share nothing but the channel, whose mapping is safe from any thread, so a parallel
+ * {@link #stream(FileChannel, Data...) stream} of a file uses every core without locking</p>
+ * <p>Every record of a range is passed to the action as the same {@link RecordReader}, moved to that record; it must
+ * only be read during the action, e.g. {@code stream.mapToLong(r -> id.get(r))}, and never kept</p>
+ * <p>An incomplete record at the end of the file is ignored. The file must not be changed while it is traversed</p>
+ * @author Preston Petrie
+ */
+public final class RecordSpliterator implements Spliterator<RecordReader> {
+	
+	/**
+	 * The byte length of the part of the file mapped at once
+	 */
+	private static final int CHUNK = 1 << 26;
+	
+	/**
+	 * The byte length below which a range is not split
+	 */
+	private static final int MIN_SPLIT = 1 << 20;
+	
+	private final FileChannel channel;
+	private final Data[] data;
+	private final int recordLength;
+	private long from;
+	private final long to;
+	private RecordReader reader;
+	
+	/**
+	 * <p>Create a {@code RecordSpliterator} object over every whole record of a file</p>
+	 * @param channel	The channel of the file
+	 * @param data		An array specifying the data types and their names of one record
+	 * @throws IllegalArgumentException	if a record would hold no bytes, be longer than 64 MiB, or hold
+	 * 									{@link DataType#VARINT VARINT} or {@link DataType#VARUINT VARUINT} datapoints,
+	 * 									whose records vary in length
+	 * @throws UncheckedIOException		if the size of the file cannot be read
+	 */
+	public RecordSpliterator(FileChannel channel, Data... data) {
+		this.channel = channel;
+		this.data = data.clone();
+		StorageData sd = Save.layout(data);
+		recordLength = sd.getByteLength();
+		if(recordLength == 0 || recordLength > CHUNK) {
+			throw new IllegalArgumentException("A record must hold from 1 to " + CHUNK + " bytes");
+		}
+		if(VarintLayout.of(sd) != null) {
+			throw new IllegalArgumentException("Records holding varints vary in length and cannot be split");
+		}
+		from = 0;
+		try {
+			to = channel.size() / recordLength;
+		} catch(IOException ioe) {
+			throw new UncheckedIOException(ioe);
+		}
+	}
+	
+	/**
+	 * Construct a {@code RecordSpliterator} object over a range of the records of a file
+	 * @param parent	The {@code RecordSpliterator} from which the range is split
+	 * @param from		The index of the first record
+	 * @param to		The index after the last record
+	 */
+	private RecordSpliterator(RecordSpliterator parent, long from, long to) {
+		channel = parent.channel;
+		data = parent.data;
+		recordLength = parent.recordLength;
+		this.from = from;
+		this.to = to;
+	}
+	
+	/**
+	 * <p>Creates a stream of every whole record of a file</p>
+	 * <p>The stream is sequential; call {@link Stream#parallel() parallel} to traverse the file on every core</p>
+	 * @param channel	The channel of the file
+	 * @param data		An array specifying the data types and their names of one record
+	 * @return	The stream, whose elements are only valid during the operation to which they are passed
+	 */
+	public static Stream<RecordReader> stream(FileChannel channel, Data... data) {
+		return StreamSupport.stream(new RecordSpliterator(channel, data), false);
+	}
+	
+	/**
+	 * Maps the next part of the range, if the current part has no more records
+	 * @return	{@code false} if the range has no more records
+	 * @throws UncheckedIOException	if the file cannot be mapped
+	 */
+	private boolean advance() {
+		try {
+			if(reader != null && reader.next()) {
+				return true;
+			}
+			if(from >= to) {
+				return false;
+			}
+			long count = Math.min(to - from, CHUNK / recordLength);
+			reader = new RecordReader(channel.map(FileChannel.MapMode.READ_ONLY, from * recordLength,
+					count * recordLength), from, data);
+			from += count;
+			return reader.next();
+		} catch(IOException ioe) {
+			throw new UncheckedIOException(ioe);
+		}
+	}
+	
+	/**
+	 * Moves to the next record and passes it to an action
+	 * @param action	The action
+	 * @return	{@code false} if the range has no more records
+	 * @throws UncheckedIOException	if the file cannot be mapped
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super RecordReader> action) {
+		if(!advance()) {
+			return false;
+		}
+		action.accept(reader);
+		return true;
+	}
+	
+	/**
+	 * Passes every record not yet traversed to an action, in order
+	 * @param action	The action
+	 * @throws UncheckedIOException	if the file cannot be mapped
+	 */
+	@Override
+	public void forEachRemaining(Consumer<? super RecordReader> action) {
+		while(advance()) {
+			action.accept(reader);
+		}
+	}
+	
+	/**
+	 * <p>Splits off the first half of the records not yet traversed</p>
+	 * <p>Ranges of less than 1 MiB, and ranges whose traversal has started, are not split</p>
+	 * @return	A {@code RecordSpliterator} over the first half, or {@code null} if this range is not split
+	 */
+	@Override
+	public Spliterator<RecordReader> trySplit() {
+		if(reader != null || (to - from) * recordLength < MIN_SPLIT * 2L) {
+			return null;
+		}
+		long mid = from + (to - from) / 2;
+		RecordSpliterator first = new RecordSpliterator(this, from, mid);
+		from = mid;
+		return first;
+	}
+	
+	/**
+	 * Get the number of records not yet traversed
+	 * @return	The number of records, which is exact
+	 */
+	@Override
+	public long estimateSize() {
+		return to - from + (reader == null ? 0 : reader.remaining());
+	}
+	
+	/**
+	 * Get the characteristics of this {@code RecordSpliterator}
+	 * @return	The characteristics; the records are ordered, counted exactly, and never {@code null}
+	 */
+	@Override
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+	}
+	
+}
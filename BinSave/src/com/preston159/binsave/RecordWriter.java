@@ -0,0 +1,287 @@
+package com.preston159.binsave;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * <p>Writes records of one data layout, back to back, to a channel one at a time</p>
+ * <p>Records are built in a buffer of fixed size, which is written to the channel whenever it is full, so any number of
+ * records can be written in constant memory. The format is the same as that of a {@code Table} which is not columnar,
+ * unless the layout holds {@link DataType#VARINT VARINT} or {@link DataType#VARUINT VARUINT} datapoints; each value of
+ * those is then written as a {@link Varint varint} of 1 to 10 bytes, so records vary in length and can only be read
+ * back with a {@link RecordReader}</p>
+ * <p>Each call to {@link #append() append} starts a new record, every byte of which is zero. Datapoints of that record
+ * are then written through the typed handles of a {@link #field(String) Field}, e.g.
+ * {@code writer.field("score").asInt().set(writer, 10)}, or by name through the methods of this class, until the next
+ * record is started or the writer is flushed</p>
+ * <p>A {@code RecordWriter} object must not be used from several threads at once</p>
+ * @author Preston Petrie
+ */
+public final class RecordWriter implements Closeable, Flushable {
+	
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer;
+	private final ByteBuffer records;
+	private final Save save;
+	private final int recordLength;
+	private final VarintLayout varints;
+	private int current = -1;
+	private int filled = 0;
+	private long count = 0;
+	
+	/**
+	 * <p>Create a {@code RecordWriter} object with a buffer of 64 KiB</p>
+	 * @param channel	The channel to which to write the records
+	 * @param data		An array specifying the data types and their names of one record
+	 */
+	public RecordWriter(WritableByteChannel channel, Data... data) {
+		this(channel, RecordReader.BUFFER, data);
+	}
+	
+	/**
+	 * <p>Create a {@code RecordWriter} object</p>
+	 * @param channel		The channel to which to write the records
+	 * @param bufferSize	The byte length of the buffer, which is raised to the length of one record if shorter
+	 * @param data			An array specifying the data types and their names of one record
+	 * @throws IllegalArgumentException	if a record would hold no bytes
+	 */
+	public RecordWriter(WritableByteChannel channel, int bufferSize, Data... data) {
+		this.channel = channel;
+		StorageData sd = Save.layout(data);
+		recordLength = sd.getByteLength();
+		if(recordLength == 0) {
+			throw new IllegalArgumentException("A record must hold at least one byte");
+		}
+		varints = VarintLayout.of(sd);
+		if(varints == null) {
+			buffer = ByteBuffer.allocate(Math.max(bufferSize, recordLength)).order(ByteOrder.LITTLE_ENDIAN);
+			records = buffer;
+		} else {
+			//each record is built on its own, then encoded into the buffer once the next is started
+			buffer = ByteBuffer.allocate(Math.max(bufferSize, varints.maxLength()));
+			records = ByteBuffer.allocate(recordLength).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		save = new Save(records, data);
+	}
+	
+	/**
+	 * Get the {@code Save} object writing the buffer
+	 * @return	The {@code Save} object
+	 */
+	Save data() {
+		return save;
+	}
+	
+	/**
+	 * Get the position in the buffer of a datapoint of the current record
+	 * @param start	The starting byte index of the datapoint within the layout
+	 * @return		The position of the datapoint
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	int position(int start) {
+		if(current < 0) {
+			throw new IllegalStateException("No current record");
+		}
+		return current + start;
+	}
+	
+	/**
+	 * <p>Starts a new record at the end of the channel</p>
+	 * <p>Every byte of the new record is zero</p>
+	 * @throws IOException	if the buffer is full and cannot be written to the channel
+	 */
+	public void append() throws IOException {
+		if(varints != null) {
+			encode();
+			current = 0;
+			count++;
+			return;
+		}
+		if(buffer.capacity() - filled < recordLength) {
+			write();
+		}
+		current = filled;
+		filled += recordLength;
+		count++;
+	}
+	
+	/**
+	 * <p>Adds a record at the end of the channel</p>
+	 * @param record	The bytes of the record
+	 * @throws IllegalArgumentException	if the length of the bytes is not the length of a record
+	 * @throws IOException				if the buffer is full and cannot be written to the channel
+	 */
+	public void append(byte[] record) throws IOException {
+		if(record.length != recordLength) {
+			throw new IllegalArgumentException("A record is " + recordLength + " bytes, not " + record.length);
+		}
+		append();
+		System.arraycopy(record, 0, records.array(), current, recordLength);
+	}
+	
+	/**
+	 * Encodes the current record, if any, into the buffer, then empties the record
+	 * @throws IOException	if the buffer is full and cannot be written to the channel
+	 */
+	private void encode() throws IOException {
+		if(current < 0) {
+			return;
+		}
+		if(buffer.capacity() - filled < varints.maxLength()) {
+			write();
+		}
+		buffer.position(filled);
+		varints.encode(records, buffer);
+		filled = buffer.position();
+		Arrays.fill(records.array(), (byte) 0);
+		current = -1;
+	}
+	
+	/**
+	 * Writes every record in the buffer to the channel, then empties the buffer
+	 * @throws IOException	if the channel cannot be written
+	 */
+	private void write() throws IOException {
+		ByteBuffer out = buffer.duplicate();
+		out.position(0);
+		out.limit(filled);
+		while(out.hasRemaining()) {
+			channel.write(out);
+		}
+		if(varints == null) {
+			Arrays.fill(buffer.array(), 0, filled, (byte) 0);
+		}
+		filled = 0;
+		current = -1;
+	}
+	
+	/**
+	 * Get the number of records started
+	 * @return	The number of records started
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	/**
+	 * Get the byte length of one record
+	 * @return	The byte length of one record, before any varints are encoded
+	 */
+	public int getRecordLength() {
+		return recordLength;
+	}
+	
+	/**
+	 * <p>Resolves the data with the specified name to a {@code Field}</p>
+	 * <p>The typed handles of the returned {@code Field} write the data of the current record of this writer</p>
+	 * @param name	The name of the data
+	 * @return		The {@code Field} describing the data
+	 * @throws InvalidSearchException	if no data exists with the specified name
+	 */
+	public Field field(String name) {
+		return save.field(name);
+	}
+	
+	/**
+	 * <p>Stores a signed integer in the current record</p>
+	 * <p>Use {@link Field#asInt() field(name).asInt()} to avoid looking up the name for every record</p>
+	 * @param name	The name of the data
+	 * @param data	The signed integer to store
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	public void storeInt(String name, int data) {
+		field(name).asInt().set(this, data);
+	}
+	
+	/**
+	 * <p>Stores a signed long integer in the current record</p>
+	 * @param name	The name of the data
+	 * @param data	The signed long integer to store
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	public void storeLongInt(String name, long data) {
+		field(name).asLongInt().set(this, data);
+	}
+	
+	/**
+	 * <p>Stores an unsigned integer in the current record</p>
+	 * @param name	The name of the data
+	 * @param data	The unsigned integer to store
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	public void storeUint(String name, int data) {
+		field(name).asUint().set(this, data);
+	}
+	
+	/**
+	 * <p>Stores an unsigned long integer in the current record</p>
+	 * @param name	The name of the data
+	 * @param data	The unsigned long integer to store
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	public void storeLongUint(String name, long data) {
+		field(name).asLongUint().set(this, data);
+	}
+	
+	/**
+	 * <p>Stores a {@code float} in the current record</p>
+	 * @param name	The name of the data
+	 * @param data	The {@code float} to store
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	public void storeFloat(String name, float data) {
+		field(name).asFloat().set(this, data);
+	}
+	
+	/**
+	 * <p>Stores a {@code double} in the current record</p>
+	 * @param name	The name of the data
+	 * @param data	The {@code double} to store
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	public void storeDouble(String name, double data) {
+		field(name).asDouble().set(this, data);
+	}
+	
+	/**
+	 * <p>Stores a {@code String} in the current record</p>
+	 * @param name	The name of the data
+	 * @param data	The {@code String} to store
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	public void storeString(String name, String data) {
+		field(name).asString().set(this, data);
+	}
+	
+	/**
+	 * <p>Writes every record started so far to the channel</p>
+	 * <p>The current record can no longer be changed; start another with {@link #append() append}</p>
+	 * @throws IOException	if the channel cannot be written
+	 */
+	@Override
+	public void flush() throws IOException {
+		if(varints != null) {
+			encode();
+		}
+		write();
+	}
+	
+	/**
+	 * <p>Writes every record started so far to the channel, then closes the channel</p>
+	 * @throws IOException	if the channel cannot be written or closed
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+	
+}
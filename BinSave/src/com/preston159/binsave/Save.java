@@ -1,196 +1,2552 @@
 
 package com.preston159.binsave;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.Reader;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import java.util.zip.DataFormatException;
 
 /**
  * Stores save data
  * @author Preston Petrie
  */
-public class Save {
+public class Save implements Closeable {
+	
+	/**
+	 * The byte length above which the journal is checkpointed, unless the data itself is longer
+	 */
+	private static final long CHECKPOINT_BYTES = 1 << 20;
+	
+	/**
+	 * The number of counters of lock-free atomic updates in progress, each on its own cache line
+	 */
+	private static final int LOCK_FREE_SLOTS = 16;
+	
+	/**
+	 * The byte length of the header of a versioned save file
+	 */
+	static final int HEADER = 16;
+	
+	/**
+	 * The first 4 bytes of a versioned save file, "BSAV" in ASCII
+	 */
+	private static final int MAGIC = 0x56415342;
+	
+	/**
+	 * The version of the header of a versioned save file
+	 */
+	private static final int FORMAT = 1;
 	
 	private File f;
-	private byte[] bytes;
+	private StorageMode mode;
+	private ByteBuffer buffer;
+	private AtomicBitSet dirty;
+	private volatile long lastStoreBytes = 0;
+	private Flusher.Job pendingJob;
+	private Flusher.Job pendingSums;
+	private volatile boolean storeFailed = false;
+	private boolean shrunk = false;
+	private Journal journal;
+	private volatile boolean checkpointing = false;
+	private final Stripes stripes;
+	private final Object storing = new Object();
+	private final Object atomics = new Object();
+	private final AtomicIntegerArray lockFree = new AtomicIntegerArray(LOCK_FREE_SLOTS << 4);
+	private volatile boolean copyOnWrite = false;
+	private volatile Snapshot newest;
+	private int openSnapshots = 0;
+	private boolean migrated = false;
+	private Compression compression;
+	private BlockFile blocks;
+	private Checksums checks;
+	
+	private StorageData sd;
+	
+	/**
+	 * Create a {@code Save} object which holds its data in memory
+	 * @param f		The {@code File} in which to store the data
+	 * @param data	An array specifying the data types and their names
+	 */
+	public Save(File f, Data... data) {
+		this(f, StorageMode.HEAP, data);
+	}
+	
+	/**
+	 * Create a {@code Save} object
+	 * @param f		The {@code File} in which to store the data
+	 * @param mode	How the data is held while in use
+	 * @param data	An array specifying the data types and their names
+	 */
+	public Save(File f, StorageMode mode, Data... data) {
+		this(f, mode, false, data);
+	}
+	
+	/**
+	 * <p>Create a {@code Save} object</p>
+	 * <p>If {@code concurrent} is {@code true}, the object may be used from several threads at once. Each datapoint is
+	 * guarded by one of a set of striped locks: writes to a datapoint lock its stripe, reads are lock-free unless they
+	 * overlap a write, and {@link #store() store} writes a consistent image of the data without blocking readers</p>
+	 * @param f				The {@code File} in which to store the data
+	 * @param mode			How the data is held while in use
+	 * @param concurrent	Whether the object may be used from several threads at once
+	 * @param data			An array specifying the data types and their names
+	 */
+	public Save(File f, StorageMode mode, boolean concurrent, Data... data) {
+		this(f, mode, concurrent, 0, 0, data);
+	}
+	
+	/**
+	 * <p>Create a {@code Save} object</p>
+	 * <p>If {@code checksums} is {@code true}, a CRC32C of each 4 KiB block of the data is kept in {@code <file>.crc}.
+	 * Each block is verified the first time its data is read or written, and a block which does not match throws a
+	 * {@link ChecksumException}, so a damaged or truncated file is never read silently. {@link #store() store} sums
+	 * again only the blocks holding changed bytes. A file opened without checksums loses its checksum file, as it would
+	 * no longer match once the file is changed</p>
+	 * @param f				The {@code File} in which to store the data
+	 * @param mode			How the data is held while in use
+	 * @param concurrent	Whether the object may be used from several threads at once
+	 * @param checksums		Whether to keep and verify checksums of the data
+	 * @param data			An array specifying the data types and their names
+	 * @throws IllegalArgumentException	if {@code checksums} is {@code true} and the mode is
+	 * 									{@link StorageMode#JOURNAL JOURNAL}, or the checksum file is malformed
+	 */
+	public Save(File f, StorageMode mode, boolean concurrent, boolean checksums, Data... data) {
+		this(f, mode, concurrent, 0, 0, mode == StorageMode.COMPRESSED ? Compression.fast() : null, checksums, data);
+	}
+	
+	/**
+	 * <p>Create a {@code Save} object</p>
+	 * <p>If {@code records} is not 0, the data describes one record, and the object holds a header followed by as many
+	 * whole units of records as the file does, back to back; see {@link Table}</p>
+	 * @param f				The {@code File} in which to store the data
+	 * @param mode			How the data is held while in use
+	 * @param concurrent	Whether the object may be used from several threads at once
+	 * @param header		The byte length of the header before the first unit of records
+	 * @param records		The number of records in each unit, or 0 if the file holds the data once
+	 * @param data			An array specifying the data types and their names
+	 * @throws IllegalArgumentException	if a unit of records would hold no bytes, or could not fit in the data
+	 */
+	Save(File f, StorageMode mode, boolean concurrent, int header, int records, Data... data) {
+		this(f, mode, concurrent, header, records, mode == StorageMode.COMPRESSED ? Compression.fast() : null, false, data);
+	}
+	
+	/**
+	 * <p>Create a block-compressed {@code Save} object</p>
+	 * <p>The save file is stored in blocks of 32 KiB, each compressed on its own. Blocks are decompressed as their data
+	 * is first read or written, and {@link #store() store} compresses again only the blocks which have changed; see
+	 * {@link StorageMode#COMPRESSED COMPRESSED}. A file which is not compressed is read as it is, and compressed by the
+	 * next store</p>
+	 * @param f				The {@code File} in which to store the data
+	 * @param compression	How changed blocks are compressed
+	 * @param concurrent	Whether the object may be used from several threads at once
+	 * @param data			An array specifying the data types and their names
+	 */
+	public Save(File f, Compression compression, boolean concurrent, Data... data) {
+		this(f, StorageMode.COMPRESSED, concurrent, 0, 0, compression, false, data);
+	}
+	
+	/**
+	 * Create a {@code Save} object
+	 * @param f				The {@code File} in which to store the data
+	 * @param mode			How the data is held while in use
+	 * @param concurrent	Whether the object may be used from several threads at once
+	 * @param header		The byte length of the header before the first unit of records
+	 * @param records		The number of records in each unit, or 0 if the file holds the data once
+	 * @param compression	How changed blocks are compressed, if the mode is {@link StorageMode#COMPRESSED COMPRESSED}
+	 * @param checksums		Whether to keep and verify checksums of the data
+	 * @param data			An array specifying the data types and their names
+	 * @throws IllegalArgumentException	if a unit of records would hold no bytes, or could not fit in the data, or
+	 * 									checksums can't be kept
+	 */
+	private Save(File f, StorageMode mode, boolean concurrent, int header, int records, Compression compression,
+			boolean checksums, Data... data) {
+		this.f = f;
+		this.mode = mode;
+		this.compression = compression;
+		stripes = concurrent ? new Stripes() : null;
+		checks = checksums(f, mode, checksums);
+		if(!f.exists()) {
+			createFile();
+		}
+		sd = layout(data);
+		int len = sd.getByteLength();
+		if(records > 0) {
+			long unit = (long) len * records;
+			if(unit == 0 || unit > Integer.MAX_VALUE - 8 - header) {
+				throw new IllegalArgumentException("A unit of records must hold from 1 to " + (Integer.MAX_VALUE - 8 - header) +
+						" bytes");
+			}
+			long units = Math.min(Math.max(0, f.length() - header) / unit, (Integer.MAX_VALUE - 8 - header) / unit);
+			len = header + (int) (units * unit);
+			//an incomplete unit at the end is cut off by the next store
+			shrunk = f.length() > len;
+		}
+		open(len);
+	}
+	
+	/**
+	 * <p>Create a versioned {@code Save} object</p>
+	 * <p>The save file begins with a 16 byte header holding the version and a fingerprint of the layout in which it was
+	 * written. If that is the layout of one of the {@code previous} schemas, the data is carried over into the current
+	 * layout as the file is loaded: each datapoint takes the value of the datapoint with the same name in the old
+	 * layout, if any, converted if its type has changed between numeric types or between character types, and cut or
+	 * padded with zeros if its length has changed. Every other datapoint is zero. The file itself is rewritten in the
+	 * current layout by the next {@link #store() store}, or at once if this object is
+	 * {@link StorageMode#MAPPED MAPPED} or {@link StorageMode#JOURNAL JOURNAL}, so files are upgraded one by one as
+	 * they are used, never all at once</p>
+	 * <p>A file without a header, written by an unversioned {@code Save}, is read in the layout of the previous schema
+	 * of version 0 if there is one, or in the current layout otherwise</p>
+	 * <p>Handles resolved from a versioned {@code Save} can only be used with {@code Save} objects of the same
+	 * schema</p>
+	 * @param f				The {@code File} in which to store the data
+	 * @param mode			How the data is held while in use
+	 * @param concurrent	Whether the object may be used from several threads at once
+	 * @param schema		The current layout of the data
+	 * @param previous		Every earlier layout in which the file may have been written
+	 * @throws IllegalArgumentException	if the file was written in a layout which is neither the current one nor a
+	 * 									previous one
+	 */
+	public Save(File f, StorageMode mode, boolean concurrent, Schema schema, Schema... previous) {
+		this(f, mode, mode == StorageMode.COMPRESSED ? Compression.fast() : null, concurrent, false, schema, previous);
+	}
+	
+	/**
+	 * <p>Create a versioned {@code Save} object</p>
+	 * <p>Earlier layouts are carried over as by {@link #Save(File, StorageMode, boolean, Schema, Schema...) Save}, and
+	 * checksums are kept as by {@link #Save(File, StorageMode, boolean, boolean, Data...) Save}. A file written in an
+	 * earlier layout is verified whole before it is carried over</p>
+	 * @param f				The {@code File} in which to store the data
+	 * @param mode			How the data is held while in use
+	 * @param concurrent	Whether the object may be used from several threads at once
+	 * @param checksums		Whether to keep and verify checksums of the data
+	 * @param schema		The current layout of the data
+	 * @param previous		Every earlier layout in which the file may have been written
+	 * @throws IllegalArgumentException	if the file was written in a layout which is neither the current one nor a
+	 * 									previous one, or {@code checksums} is {@code true} and the mode is
+	 * 									{@link StorageMode#JOURNAL JOURNAL}
+	 * @throws ChecksumException		if the file was written in an earlier layout and does not match its checksums
+	 */
+	public Save(File f, StorageMode mode, boolean concurrent, boolean checksums, Schema schema, Schema... previous) {
+		this(f, mode, mode == StorageMode.COMPRESSED ? Compression.fast() : null, concurrent, checksums, schema,
+				previous);
+	}
+	
+	/**
+	 * <p>Create a versioned, block-compressed {@code Save} object</p>
+	 * <p>Earlier layouts are carried over as by {@link #Save(File, StorageMode, boolean, Schema, Schema...) Save}, and
+	 * the data is compressed as by {@link #Save(File, Compression, boolean, Data...) Save}</p>
+	 * @param f				The {@code File} in which to store the data
+	 * @param compression	How changed blocks are compressed
+	 * @param concurrent	Whether the object may be used from several threads at once
+	 * @param schema		The current layout of the data
+	 * @param previous		Every earlier layout in which the file may have been written
+	 * @throws IllegalArgumentException	if the file was written in a layout which is neither the current one nor a
+	 * 									previous one
+	 */
+	public Save(File f, Compression compression, boolean concurrent, Schema schema, Schema... previous) {
+		this(f, StorageMode.COMPRESSED, compression, concurrent, false, schema, previous);
+	}
+	
+	/**
+	 * Create a versioned {@code Save} object
+	 * @param f				The {@code File} in which to store the data
+	 * @param mode			How the data is held while in use
+	 * @param compression	How changed blocks are compressed, if the mode is {@link StorageMode#COMPRESSED COMPRESSED}
+	 * @param concurrent	Whether the object may be used from several threads at once
+	 * @param checksums		Whether to keep and verify checksums of the data
+	 * @param schema		The current layout of the data
+	 * @param previous		Every earlier layout in which the file may have been written
+	 * @throws IllegalArgumentException	if the file was written in a layout which is neither the current one nor a
+	 * 									previous one, or checksums can't be kept
+	 * @throws ChecksumException		if the file was written in an earlier layout and does not match its checksums
+	 */
+	private Save(File f, StorageMode mode, Compression compression, boolean concurrent, boolean checksums,
+			Schema schema, Schema[] previous) {
+		this.f = f;
+		this.mode = mode;
+		this.compression = compression;
+		stripes = concurrent ? new Stripes() : null;
+		checks = checksums(f, mode, checksums);
+		if(!f.exists()) {
+			createFile();
+		}
+		sd = layout(HEADER, schema.getData());
+		int len = sd.getByteLength();
+		//a journaled file may be empty while its journal holds data
+		if(f.length() == 0 && (mode != StorageMode.JOURNAL || !new Journal(f).exists())) {
+			try(FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.WRITE)) {
+				ByteBuffer head = ByteBuffer.wrap(header(schema));
+				while(head.hasRemaining()) {
+					fc.write(head, head.position());
+				}
+			} catch(IOException ioe) {
+				ioe.printStackTrace();
+			}
+			open(len);
+			return;
+		}
+		ByteBuffer head = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+		if(readImage(head.array()) < HEADER || head.getInt(0) != MAGIC
+				|| Short.toUnsignedInt(head.getShort(4)) != FORMAT) {
+			//written without a header
+			Schema from = schema;
+			for(Schema p : previous) {
+				if(p.getVersion() == 0) {
+					from = p;
+					break;
+				}
+			}
+			migrate(from, 0, schema);
+			return;
+		}
+		long fingerprint = head.getLong(8);
+		if(fingerprint == schema.getFingerprint()) {
+			open(len);
+			if(Short.toUnsignedInt(head.getShort(6)) != schema.getVersion()) {
+				storeHeader(schema);
+			}
+			return;
+		}
+		for(Schema p : previous) {
+			if(fingerprint == p.getFingerprint()) {
+				migrate(p, HEADER, schema);
+				return;
+			}
+		}
+		throw new IllegalArgumentException(f + " was written in an unknown layout of version " +
+				Short.toUnsignedInt(head.getShort(6)));
+	}
+	
+	/**
+	 * <p>Create a {@code Save} object with no file, which reads and writes the data in the specified buffer</p>
+	 * <p>Used to encode and decode records for {@link RecordReader} and {@link RecordWriter}; changes are not tracked,
+	 * and the object must never be stored</p>
+	 * @param buffer	The little-endian buffer holding the data
+	 * @param data		An array specifying the data types and their names
+	 */
+	Save(ByteBuffer buffer, Data... data) {
+		this(buffer, layout(data));
+	}
+	
+	/**
+	 * Create a {@code Save} object with no file, which reads and writes the data in the specified buffer
+	 * @param buffer	The little-endian buffer holding the data
+	 * @param sd		The calculated layout of the data
+	 */
+	private Save(ByteBuffer buffer, StorageData sd) {
+		mode = StorageMode.HEAP;
+		stripes = null;
+		this.sd = sd;
+		this.buffer = buffer;
+	}
+	
+	/**
+	 * Creates the checksums of a save file, if they are kept
+	 * @param f			The save file
+	 * @param mode		How the data is held while in use
+	 * @param checksums	Whether to keep and verify checksums of the data
+	 * @return			The checksums, or {@code null} if they are not kept
+	 * @throws IllegalArgumentException	if {@code checksums} is {@code true} and the mode is
+	 * 									{@link StorageMode#JOURNAL JOURNAL}
+	 */
+	private static Checksums checksums(File f, StorageMode mode, boolean checksums) {
+		if(!checksums) {
+			return null;
+		}
+		//the journal is replayed over the file, and the file rewritten in the background
+		if(mode == StorageMode.JOURNAL) {
+			throw new IllegalArgumentException("Journaled saves can't keep checksums");
+		}
+		return new Checksums(f);
+	}
+	
+	/**
+	 * Loads or maps the save file as data of the specified byte length
+	 * @param len	The byte length of the data
+	 */
+	private void open(int len) {
+		dirty = new AtomicBitSet(len);
+		if(mode == StorageMode.MAPPED) {
+			mapFile(len);
+		} else if(mode == StorageMode.COMPRESSED) {
+			buffer = ByteBuffer.allocate(len).order(ByteOrder.LITTLE_ENDIAN);
+			blocks = new BlockFile(f, compression);
+			int stored = blocks.open(len);
+			if(stored < 0) {
+				//not yet compressed, so the whole file is compressed by the next store
+				loadFile();
+				markDirty(0, len);
+			} else {
+				markDirty(stored, len - stored);
+				shrunk = stored > len;
+			}
+		} else {
+			buffer = ByteBuffer.allocate(len).order(ByteOrder.LITTLE_ENDIAN);
+			loadFile();
+			if(mode == StorageMode.JOURNAL) {
+				openJournal();
+			}
+		}
+		if(checks != null) {
+			checks.open(len);
+		} else {
+			Checksums.discard(f);
+		}
+	}
+	
+	/**
+	 * Reads the start of the data held by the save file, decompressing it if this object is
+	 * {@link StorageMode#COMPRESSED COMPRESSED} and the file is compressed
+	 * @param bytes	The array into which the data is read, until it is full or the data ends
+	 * @return		The number of bytes read
+	 */
+	private int readImage(byte[] bytes) {
+		if(mode == StorageMode.COMPRESSED) {
+			BlockFile image = new BlockFile(f, compression);
+			if(image.open(0) >= 0) {
+				int read = image.read(bytes);
+				image.close();
+				return read;
+			}
+		}
+		return readFile(f, bytes);
+	}
+	
+	/**
+	 * Builds the header of a versioned save file
+	 * @param schema	The layout of the data
+	 * @return	The bytes of the header
+	 */
+	private static byte[] header(Schema schema) {
+		ByteBuffer head = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+		head.putInt(0, MAGIC);
+		head.putShort(4, (short) FORMAT);
+		head.putShort(6, (short) schema.getVersion());
+		head.putLong(8, schema.getFingerprint());
+		return head.array();
+	}
+	
+	/**
+	 * Stores the header of a versioned save file
+	 * @param schema	The layout of the data
+	 */
+	private void storeHeader(Schema schema) {
+		storeBytes(0, header(schema), HEADER);
+	}
+	
+	/**
+	 * <p>Loads the save file, written in an earlier layout, into data of the current layout</p>
+	 * <p>If this object is {@link StorageMode#JOURNAL JOURNAL}, the journal is replayed over the old data first, and
+	 * the save file is rewritten and the journal emptied once the data is carried over</p>
+	 * @param from		The layout in which the file was written
+	 * @param offset	The byte index at which the old data begins
+	 * @param schema	The current layout of the data
+	 */
+	private void migrate(Schema from, int offset, Schema schema) {
+		int len = sd.getByteLength();
+		StorageData old = layout(offset, from.getData());
+		Save source = new Save(ByteBuffer.allocate(old.getByteLength()).order(ByteOrder.LITTLE_ENDIAN), old);
+		readImage(source.buffer.array());
+		if(checks != null) {
+			//the old data is read whole here, so it is verified whole
+			checks.open(source.buffer.limit());
+			checks.verify(source.buffer, 0, source.buffer.limit());
+			checks.clear(len);
+		} else {
+			Checksums.discard(f);
+		}
+		Journal j = mode == StorageMode.JOURNAL ? new Journal(f) : null;
+		if(j != null) {
+			try {
+				j.replay(source.buffer);
+			} catch(IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+		dirty = new AtomicBitSet(len);
+		if(mode == StorageMode.MAPPED) {
+			mapFile(len);
+			for(int i = 0;i < len;i++) {
+				buffer.put(i, (byte) 0);
+			}
+		} else {
+			buffer = ByteBuffer.allocate(len).order(ByteOrder.LITTLE_ENDIAN);
+			if(mode == StorageMode.COMPRESSED) {
+				blocks = new BlockFile(f, compression);
+			}
+		}
+		for(Field field : sd.getFields()) {
+			Field was = old.getField(field.getName());
+			if(was != null && sd.getField(field.getName()) == field) {
+				migrate(source, was, field);
+			}
+		}
+		storeHeader(schema);
+		markDirty(0, len);
+		shrunk = f.length() > len;
+		migrated = true;
+		if(j != null) {
+			try {
+				if(!writeDirty(true)) {
+					throw new IOException("Could not rewrite " + f + " in the current layout");
+				}
+				j.clear();
+				journal = j;
+				journal.open();
+			} catch(IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+	}
+	
+	/**
+	 * Carries the value of a datapoint over from an earlier layout
+	 * @param source	The data in the earlier layout
+	 * @param was		The datapoint in the earlier layout
+	 * @param field		The datapoint in the current layout
+	 */
+	private void migrate(Save source, Field was, Field field) {
+		DataType from = was.getType();
+		DataType to = field.getType();
+		if(from == to && was.getBits() == field.getBits()) {
+			byte[] bytes = new byte[Math.min(was.getLength(), field.getLength())];
+			source.getBytes(was.getStart(), bytes, 0, bytes.length);
+			storeBytes(field.getStart(), bytes, bytes.length);
+		} else if(isNumber(from) && isNumber(to) && (isDelta(from) || isDelta(to))) {
+			//each value of a delta-encoded datapoint depends on those before it, so they are carried over together
+			long[] values = new long[Math.min(was.getCount(), field.getCount())];
+			if(isDelta(from)) {
+				source.getDeltas(was, 0, values, 0, values.length);
+			} else {
+				for(int i = 0;i < values.length;i++) {
+					int src = was.getStart() + i * from.getLength();
+					values[i] = from == DataType.FLOAT ? (long) source.getFloat(src) : from == DataType.DOUBLE ?
+							(long) source.getDouble(src) : source.getInteger(was, i);
+				}
+			}
+			if(!isDelta(to)) {
+				for(int i = 0;i < values.length;i++) {
+					int dst = field.getStart() + i * to.getLength();
+					if(to == DataType.FLOAT) {
+						storeFloat(dst, values[i]);
+					} else if(to == DataType.DOUBLE) {
+						storeDouble(dst, values[i]);
+					} else {
+						storeInteger(field, i, values[i]);
+					}
+				}
+			} else {
+				try {
+					storeDeltas(field, 0, values, 0, values.length);
+				} catch(IllegalArgumentException iae) {
+					System.out.println("WARNING: DATA IN " + field.getName() + " DOES NOT FIT IN " + field.getBits() + " BITS AND WAS NOT KEPT");
+				}
+			}
+		} else if(isNumber(from) && isNumber(to)) {
+			int n = Math.min(was.getCount(), field.getCount());
+			for(int i = 0;i < n;i++) {
+				int src = was.getStart() + i * from.getLength();
+				int dst = field.getStart() + i * to.getLength();
+				if(isInteger(from) && isInteger(to)) {
+					storeInteger(field, i, source.getInteger(was, i));
+					continue;
+				}
+				double value = from == DataType.FLOAT ? source.getFloat(src) : from == DataType.DOUBLE ?
+						source.getDouble(src) : source.getInteger(was, i);
+				if(to == DataType.FLOAT) {
+					storeFloat(dst, (float) value);
+				} else if(to == DataType.DOUBLE) {
+					storeDouble(dst, value);
+				} else {
+					storeInteger(field, i, (long) value);
+				}
+			}
+		} else if(isText(from) && isText(to)) {
+			storeString(field.getStart(), field.getLength(), to, source.getString(was.getStart(), was.getLength(), from));
+		}
+	}
+	
+	/**
+	 * Checks if a type is an integer or floating-point type
+	 * @param type	The type of the data
+	 * @return		{@code true} if the type is an integer or floating-point type
+	 */
+	private static boolean isNumber(DataType type) {
+		return isInteger(type) || type == DataType.FLOAT || type == DataType.DOUBLE;
+	}
+	
+	/**
+	 * Checks if a type is an integer type, including the packed and delta-encoded integer types
+	 * @param type	The type of the data
+	 * @return		{@code true} if the type is an integer type
+	 */
+	private static boolean isInteger(DataType type) {
+		return !checkLongType(type) || type == DataType.PACKED_INT || type == DataType.PACKED_UINT || isDelta(type);
+	}
+	
+	/**
+	 * Checks if a type is a delta-encoded integer type
+	 * @param type	The type of the data
+	 * @return		{@code true} if the type is {@link DataType#DELTA_INT DELTA_INT} or
+	 * 				{@link DataType#DELTA_DELTA_INT DELTA_DELTA_INT}
+	 */
+	static boolean isDelta(DataType type) {
+		return type == DataType.DELTA_INT || type == DataType.DELTA_DELTA_INT;
+	}
+	
+	/**
+	 * Gets one value of an integer datapoint, of any integer type
+	 * @param field	The datapoint
+	 * @param i		The index of the value within the datapoint
+	 * @return		The integer stored
+	 */
+	private long getInteger(Field field, int i) {
+		DataType type = field.getType();
+		if(field.getBits() > 0) {
+			return getPacked(field.getStart(), field.getBits(), type == DataType.PACKED_INT, i);
+		}
+		int pos = field.getStart() + i * type.getLength();
+		return isSigned(type) ? getLongInt(pos, type) : getLongUint(pos, type);
+	}
+	
+	/**
+	 * Stores one value of an integer datapoint, of any integer type; bits above the width of the type are discarded
+	 * @param field	The datapoint
+	 * @param i		The index of the value within the datapoint
+	 * @param data	The integer to store
+	 */
+	private void storeInteger(Field field, int i, long data) {
+		if(field.getBits() > 0) {
+			storePacked(field.getStart(), field.getBits(), i, data);
+		} else {
+			storeLongInt(field.getStart() + i * field.getType().getLength(), field.getType(), data);
+		}
+	}
+	
+	/**
+	 * Checks if a type is a character type
+	 * @param type	The type of the data
+	 * @return		{@code true} if the type is a character type
+	 */
+	private static boolean isText(DataType type) {
+		return type == DataType.CHAR_ASCII || type == DataType.CHAR_UNICODE || type == DataType.CHAR_UTF8;
+	}
+	
+	/**
+	 * Checks if the data was carried over from an earlier layout when this object was created
+	 * @return	{@code true} if the save file was written in an earlier layout, or without a header
+	 */
+	public boolean isMigrated() {
+		return migrated;
+	}
+	
+	/**
+	 * Calculates the layout of the data
+	 * @param data	An array specifying the data types and their names
+	 * @return		The calculated {@code StorageData}
+	 */
+	static StorageData layout(Data... data) {
+		return layout(0, data);
+	}
+	
+	/**
+	 * Calculates the layout of the data
+	 * @param offset	The byte index at which the data begins
+	 * @param data		An array specifying the data types and their names
+	 * @return			The calculated {@code StorageData}
+	 */
+	private static StorageData layout(int offset, Data... data) {
+		StorageData sd = new StorageData(data.length);
+		sd.setOffset(offset);
+		for(int i = 0;i < data.length;i++) {
+			Data d = data[i];
+			sd.setDataAt(i, d.getName(), d.getLength(), d.getType(), d.isAligned(), d.getBits());
+		}
+		sd.calc();
+		return sd;
+	}
+	
+	/**
+	 * Gets the location and type of the data with the specified name
+	 * @param name	The name of the data
+	 * @return		The {@code Field} describing the data
+	 * @throws InvalidSearchException	if no data exists with the specified name
+	 */
+	private Field getField(String name) {
+		Field field = sd.getField(name);
+		if(field == null) {
+			throw new InvalidSearchException();
+		}
+		return field;
+	}
+	
+	/**
+	 * <p>Resolves the data with the specified name to a {@code Field}</p>
+	 * <p>The returned {@code Field} can be converted to a typed handle, e.g. {@link Field#asUint() asUint}, which reads
+	 * and writes the data without looking up its name again</p>
+	 * @param name	The name of the data
+	 * @return		The {@code Field} describing the data
+	 * @throws InvalidSearchException	if no data exists with the specified name
+	 */
+	public Field field(String name) {
+		return getField(name);
+	}
+	
+	/**
+	 * Get the location and type of every datapoint, in the order they are stored
+	 * @return	The {@code Field} describing each datapoint
+	 */
+	Field[] getFields() {
+		return sd.getFields();
+	}
+	
+	/**
+	 * Get the byte length of the data described by the {@code Data} this object was created with
+	 * @return	The byte length of the layout
+	 */
+	int getLayoutLength() {
+		return sd.getByteLength();
+	}
+	
+	/**
+	 * Get the byte length of the data held by this object
+	 * @return	The byte length of the data
+	 */
+	int length() {
+		return buffer.limit();
+	}
+	
+	/**
+	 * <p>Changes the byte length of the data, keeping the bytes which still fit</p>
+	 * <p>Bytes added are zero, and are written by the next {@link #store() store}, which also cuts the file to the new
+	 * length. The buffer grows by at least double, so repeated small increases take constant time on average</p>
+	 * @param len	The new byte length
+	 * @throws IllegalStateException	if a snapshot is open
+	 */
+	void resize(int len) {
+		resize(len, false);
+	}
+	
+	/**
+	 * <p>Changes the byte length of the data, keeping the bytes which still fit</p>
+	 * <p>If {@code exact} is {@code true} and this object is {@link StorageMode#MAPPED MAPPED}, the file is also
+	 * extended or cut to the new length at once, so it is never longer than the data even if the next
+	 * {@link #store() store} never comes. The mapping still grows by at least double. Otherwise this is the same as
+	 * {@link #resize(int) resize(len)}</p>
+	 * @param len	The new byte length
+	 * @param exact	Whether a mapped file must always be the byte length of the data
+	 * @throws IllegalStateException	if a snapshot is open
+	 */
+	void resize(int len, boolean exact) {
+		if(newest != null) {
+			throw new IllegalStateException("Can't resize while a snapshot is open");
+		}
+		int old = buffer.limit();
+		ensureLoaded(0, old);
+		if(len > buffer.capacity()) {
+			int cap = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(len, buffer.capacity() * 2L));
+			BitSet runs = dirty.drain();
+			if(mode == StorageMode.MAPPED) {
+				((MappedByteBuffer) buffer).force();
+				mapFile(cap);
+			} else {
+				ByteBuffer src = buffer.duplicate();
+				src.position(0);
+				buffer = ByteBuffer.allocate(cap).order(ByteOrder.LITTLE_ENDIAN);
+				buffer.put(src);
+				buffer.position(0);
+			}
+			dirty = new AtomicBitSet(cap);
+			for(int start = runs.nextSetBit(0);start >= 0;start = runs.nextSetBit(start)) {
+				int end = runs.nextClearBit(start);
+				dirty.set(start, end);
+				start = end;
+			}
+		} else if(len < old) {
+			for(int i = len;i < old;i++) {
+				buffer.put(i, (byte) 0);
+			}
+			BitSet runs = dirty.drain();
+			for(int start = runs.nextSetBit(0);start >= 0 && start < len;start = runs.nextSetBit(start)) {
+				int end = Math.min(len, runs.nextClearBit(start));
+				dirty.set(start, end);
+				start = end;
+			}
+		}
+		buffer.limit(len);
+		markDirty(old, len - old);
+		if(len < old) {
+			shrunk = true;
+		}
+		if(exact && mode == StorageMode.MAPPED) {
+			//the mapping may reach past the end of the file, but no byte past the limit of the data is ever accessed
+			setFileLength(len);
+		}
+	}
+	
+	/**
+	 * Extends the save file with zeros or cuts it to a byte length
+	 * @param len	The byte length
+	 */
+	private void setFileLength(int len) {
+		try(FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.WRITE)) {
+			long size = fc.size();
+			if(size > len) {
+				fc.truncate(len);
+			} else if(size < len) {
+				fc.write(ByteBuffer.allocate(1), len - 1);
+			}
+		} catch(IOException ioe) {
+			ioe.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Checks if the save file may be longer than the data, after the data was shortened or a mapping grown
+	 * @return	{@code true} if the next store must cut the file
+	 */
+	private boolean isLong() {
+		return shrunk || mode == StorageMode.MAPPED && buffer.capacity() != buffer.limit();
+	}
+	
+	/**
+	 * Remaps the save file to the byte length of the data and cuts off the rest, if the file may be longer
+	 */
+	private void fitMapping() {
+		if(!isLong()) {
+			return;
+		}
+		int len = buffer.limit();
+		if(buffer.capacity() != len) {
+			mapFile(len);
+		}
+		try(FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.WRITE)) {
+			if(fc.size() > len) {
+				fc.truncate(len);
+			}
+			shrunk = false;
+		} catch(IOException ioe) {
+			ioe.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Creates the save file, discarding any checksum file left by an earlier one
+	 */
+	private void createFile() {
+		try {
+			f.createNewFile();
+		} catch(IOException ioe) {
+			ioe.printStackTrace();
+		}
+		Checksums.discard(f);
+	}
+	
+	/**
+	 * <p>Loads the information from the save file</p>
+	 * <p>If the file is shorter than the data, the missing bytes are marked dirty so the next {@link #store() store}
+	 * writes them</p>
+	 */
+	private void loadFile() {
+		byte[] bytes = buffer.array();
+		int read = readFile(f, bytes);
+		markDirty(read, bytes.length - read);
+	}
+	
+	/**
+	 * Reads the start of a file
+	 * @param f		The file
+	 * @param bytes	The array into which the file is read, until it is full or the file ends
+	 * @return		The number of bytes read
+	 */
+	private static int readFile(File f, byte[] bytes) {
+		int read = 0;
+		FileInputStream fis = null;
+		try {
+			fis = new FileInputStream(f);
+			int n;
+			while(read < bytes.length && (n = fis.read(bytes, read, bytes.length - read)) != -1) {
+				read += n;
+			}
+			fis.close();
+		} catch(IOException ioe) {
+			ioe.printStackTrace();
+		}
+		return read;
+	}
+	
+	/**
+	 * <p>Maps the save file into memory, extending it if it is shorter than the data</p>
+	 * <p>If the file cannot be mapped, the data is held in memory as with {@link StorageMode#HEAP HEAP}</p>
+	 * @param len	The byte length of the data
+	 */
+	private void mapFile(int len) {
+		try(FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			buffer = fc.map(FileChannel.MapMode.READ_WRITE, 0, len).order(ByteOrder.LITTLE_ENDIAN);
+		} catch(IOException ioe) {
+			ioe.printStackTrace();
+			mode = StorageMode.HEAP;
+			buffer = ByteBuffer.allocate(len).order(ByteOrder.LITTLE_ENDIAN);
+			loadFile();
+		}
+	}
+	
+	/**
+	 * <p>Replays the journal over the data loaded from the save file, then opens it for appending</p>
+	 * <p>If a checkpoint did not finish, the save file is rewritten and the journal emptied first</p>
+	 */
+	private void openJournal() {
+		journal = new Journal(f);
+		try {
+			if(journal.replay(buffer)) {
+				//the journal is not open yet, so the data is marked directly rather than through markDirty
+				dirty.set(0, buffer.limit());
+				if(!writeDirty(true)) {
+					throw new IOException("Could not finish checkpoint of " + f);
+				}
+				journal.clear();
+			}
+			journal.open();
+			dirty.clear();
+		} catch(IOException ioe) {
+			ioe.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Marks a range of bytes as changed since the last {@link #store() store}
+	 * @param start	The starting position of the range
+	 * @param len	The length of the range in bytes
+	 */
+	private void markDirty(int start, int len) {
+		//an object with no file has nothing to store
+		if(len <= 0 || f == null) {
+			return;
+		}
+		if(mode == StorageMode.JOURNAL && journal != null) {
+			synchronized(journal) {
+				try {
+					journal.append(buffer, start, len);
+				} catch(IOException ioe) {
+					ioe.printStackTrace();
+				}
+				if(journal.size() > Math.max(CHECKPOINT_BYTES, buffer.limit())) {
+					checkpoint();
+				}
+			}
+			return;
+		}
+		dirty.set(start, start + len);
+	}
+	
+	/**
+	 * Preserves a range of bytes for the most recent snapshot, if any is open; must be called before the range is
+	 * written
+	 * @param start	The starting position of the range
+	 * @param len	The length of the range in bytes
+	 */
+	private void beforeWrite(int start, int len) {
+		ensureLoaded(start, len);
+		Snapshot s = newest;
+		if(s != null && len > 0) {
+			s.preserve(start, len);
+		}
+	}
+	
+	/**
+	 * <p>Takes a read-only snapshot of the data</p>
+	 * <p>Taking a snapshot copies nothing. Until it is {@link Snapshot#close() closed}, the first write to each page of
+	 * the data copies that page for the snapshot, and atomic updates hold a lock</p>
+	 * <p>If this object is concurrent, the snapshot is taken while no datapoint is being written. Otherwise, it must be
+	 * taken on the thread which writes this object; it may then be read from any thread</p>
+	 * @return	The snapshot
+	 */
+	public Snapshot snapshot() {
+		ensureLoaded(0, buffer.limit());
+		long[] stamps = lockAllRead();
+		try {
+			return openSnapshot();
+		} finally {
+			unlockAllRead(stamps);
+		}
+	}
+	
+	/**
+	 * Decompresses every block holding part of a range of bytes, if this object is
+	 * {@link StorageMode#COMPRESSED COMPRESSED}, then verifies them, if checksums are kept, unless this has been done
+	 * already; must be called before the range is read or written
+	 * @param start	The starting position of the range
+	 * @param len	The length of the range in bytes
+	 * @throws ChecksumException	if a block does not match its checksum
+	 */
+	private void ensureLoaded(int start, int len) {
+		if(blocks != null) {
+			blocks.load(buffer, start, len);
+		}
+		if(checks != null) {
+			checks.verify(buffer, start, len);
+		}
+	}
+	
+	/**
+	 * Takes a snapshot while no datapoint is being written, waiting for any lock-free atomic update to finish first
+	 * @return	The snapshot
+	 */
+	private Snapshot openSnapshot() {
+		synchronized(atomics) {
+			if(!copyOnWrite) {
+				copyOnWrite = true;
+				//an update which started before the flag was set does not preserve what it writes
+				for(int i = 0;i < lockFree.length();i += 16) {
+					while(lockFree.get(i) != 0) {
+						Thread.onSpinWait();
+					}
+				}
+			}
+			Snapshot s = new Snapshot(this, buffer);
+			if(newest != null) {
+				newest.setNext(s);
+			}
+			newest = s;
+			openSnapshots++;
+			return s;
+		}
+	}
+	
+	/**
+	 * Records that a snapshot was closed, and stops copying pages once none are open
+	 */
+	void releaseSnapshot() {
+		synchronized(atomics) {
+			if(--openSnapshots == 0) {
+				newest = null;
+				copyOnWrite = false;
+			}
+		}
+	}
+	
+	/**
+	 * Takes the write lock guarding the datapoint at the specified position, if this object is concurrent
+	 * @param start	The starting position of the datapoint
+	 * @return		The stamp with which to {@link #unlockWrite(int, long) unlock}, or 0 if this object is not concurrent
+	 */
+	private long lockWrite(int start) {
+		return stripes == null ? 0 : stripes.get(start).writeLock();
+	}
+	
+	/**
+	 * Releases the write lock taken by {@link #lockWrite(int) lockWrite}
+	 * @param start	The starting position of the datapoint
+	 * @param stamp	The stamp returned by {@code lockWrite}
+	 */
+	private void unlockWrite(int start, long stamp) {
+		if(stripes != null) {
+			stripes.get(start).unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * <p>Reads a value from the datapoint at the specified position</p>
+	 * <p>If this object is concurrent, the value is read without locking, then read again under the read lock of the
+	 * datapoint if a write happened in the meantime</p>
+	 * @param start	The starting position of the datapoint
+	 * @param len	The number of bytes read from the starting position
+	 * @param read	Reads the value
+	 * @return		The value read
+	 */
+	private long readLong(int start, int len, LongSupplier read) {
+		ensureLoaded(start, len);
+		if(stripes == null) {
+			return read.getAsLong();
+		}
+		StampedLock lock = stripes.get(start);
+		long stamp = lock.tryOptimisticRead();
+		long out = read.getAsLong();
+		if(lock.validate(stamp)) {
+			return out;
+		}
+		stamp = lock.readLock();
+		try {
+			return read.getAsLong();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * Reads a value from the datapoint at the specified position, as {@link #readLong(int, int, LongSupplier) readLong}
+	 * does
+	 * @param start	The starting position of the datapoint
+	 * @param len	The number of bytes read from the starting position
+	 * @param read	Reads the value
+	 * @return		The value read
+	 */
+	private <T> T read(int start, int len, Supplier<T> read) {
+		ensureLoaded(start, len);
+		if(stripes == null) {
+			return read.get();
+		}
+		StampedLock lock = stripes.get(start);
+		long stamp = lock.tryOptimisticRead();
+		T out = read.get();
+		if(lock.validate(stamp)) {
+			return out;
+		}
+		stamp = lock.readLock();
+		try {
+			return read.get();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * Reads values from the datapoint at the specified position into an array, as
+	 * {@link #readLong(int, int, LongSupplier) readLong} does
+	 * @param start	The starting position of the datapoint
+	 * @param len	The number of bytes read from the starting position
+	 * @param read	Reads the values into the array
+	 */
+	private void readInto(int start, int len, Runnable read) {
+		read(start, len, () -> {
+			read.run();
+			return null;
+		});
+	}
+	
+	/**
+	 * Sets a range of bytes within a datapoint to zero
+	 * @param start	The starting position of the datapoint
+	 * @param pos	The position of the range within the datapoint
+	 * @param len	The length of the range in bytes
+	 */
+	void storeZeros(int start, int pos, int len) {
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start + pos, len);
+			for(int i = pos;i < pos + len;i++) {
+				buffer.put(start + i, (byte) 0);
+			}
+			markDirty(start + pos, len);
+		} finally {
+			unlockWrite(start, stamp);
+		}
+	}
+	
+	/**
+	 * <p>Rewrites the save file in the background with the current data, after which the journal written so far is
+	 * deleted</p>
+	 * <p>Does nothing if the previous checkpoint has not finished</p>
+	 */
+	private void checkpoint() {
+		if(checkpointing) {
+			return;
+		}
+		try {
+			if(!journal.rotate()) {
+				return;
+			}
+		} catch(IOException ioe) {
+			ioe.printStackTrace();
+			return;
+		}
+		//no lock is needed: a write in progress is appended to the new journal after it finishes, and replaying it repairs
+		//the image
+		byte[] image = new byte[buffer.limit()];
+		buffer.duplicate().get(image);
+		Flusher.Job job = new Flusher.Job(f, image.length, null);
+		job.add(0, image);
+		Journal done = journal;
+		checkpointing = true;
+		Flusher.INSTANCE.submit(job, null).getFuture().whenComplete((v, t) -> {
+			if(t == null) {
+				done.deleteOld();
+			} else {
+				t.printStackTrace();
+			}
+			checkpointing = false;
+		});
+	}
+	
+	/**
+	 * <p>Stores the information in the save file</p>
+	 * <p>Only the bytes which have changed since the last store are written, as runs of adjacent changed bytes; if
+	 * nothing has changed, the file is not touched</p>
+	 * <p>If this object is {@link StorageMode#MAPPED MAPPED}, forces changes to the storage device instead of writing
+	 * them. If this object is {@link StorageMode#JOURNAL JOURNAL}, forces the journal to the storage device. If this
+	 * object is {@link StorageMode#COMPRESSED COMPRESSED}, compresses the blocks holding changed bytes and rewrites the
+	 * whole file</p>
+	 * <p>If this object is concurrent, the changed bytes are copied from a {@link #snapshot() snapshot}, so writes are
+	 * not blocked while they are copied, and written after the copy is made</p>
+	 */
+	public void store() {
+		synchronized(storing) {
+			awaitStoreAsync();
+			if(mode == StorageMode.JOURNAL) {
+				lastStoreBytes = 0;
+				if(journal != null) {
+					try {
+						journal.force();
+					} catch(IOException ioe) {
+						ioe.printStackTrace();
+					}
+				}
+				return;
+			}
+			if(dirty.isEmpty() && !isLong()) {
+				lastStoreBytes = 0;
+				return;
+			}
+			if(mode == StorageMode.COMPRESSED) {
+				storeBlocks();
+				return;
+			}
+			if(mode == StorageMode.MAPPED) {
+				Flusher.Job sums;
+				long[] stamps = lockAllRead();
+				try {
+					BitSet runs = dirty.drain();
+					lastStoreBytes = runs.cardinality();
+					sums = sumChanged(runs, null);
+					((MappedByteBuffer) buffer).force();
+					fitMapping();
+				} finally {
+					unlockAllRead(stamps);
+				}
+				writeSums(sums);
+				return;
+			}
+			if(stripes == null) {
+				writeDirty(false);
+				return;
+			}
+			Flusher.Job[] jobs = captureDirty();
+			try {
+				jobs[0].writeNow();
+			} catch(IOException ioe) {
+				ioe.printStackTrace();
+				markDirty(0, buffer.limit());
+				return;
+			}
+			writeSums(jobs[1]);
+		}
+	}
+	
+	/**
+	 * <p>Compresses the blocks holding changed bytes and rewrites the save file</p>
+	 * <p>If this object is concurrent, the blocks are copied from a snapshot taken as the changes are marked
+	 * unchanged</p>
+	 */
+	private void storeBlocks() {
+		BitSet runs;
+		Snapshot snap = null;
+		long[] stamps = lockAllRead();
+		try {
+			runs = dirty.drain();
+			if(stripes != null) {
+				snap = openSnapshot();
+			}
+		} finally {
+			unlockAllRead(stamps);
+		}
+		Flusher.Job sums;
+		try {
+			lastStoreBytes = blocks.write(buffer, runs, buffer.limit(), source(snap));
+			shrunk = false;
+			sums = sumChanged(runs, snap);
+		} catch(IOException ioe) {
+			ioe.printStackTrace();
+			markDirty(0, buffer.limit());
+			return;
+		} finally {
+			if(snap != null) {
+				snap.close();
+			}
+		}
+		writeSums(sums);
+	}
+	
+	/**
+	 * Get a source of the bytes of the data, which decompresses blocks before copying them if this object is
+	 * {@link StorageMode#COMPRESSED COMPRESSED}
+	 * @param snap	The snapshot from which to copy, or {@code null} to copy from the data itself
+	 * @return		The source
+	 */
+	private BlockFile.Source source(Snapshot snap) {
+		ByteBuffer dup = buffer.duplicate();
+		return (start, dst, off, len) -> {
+			if(blocks != null) {
+				blocks.load(buffer, start, len);
+			}
+			if(snap != null) {
+				snap.copy(start, dst, off, len);
+				return;
+			}
+			dup.position(start);
+			dup.get(dst, off, len);
+		};
+	}
+	
+	/**
+	 * Sums the blocks holding changed bytes, if checksums are kept
+	 * @param runs	The changed bytes
+	 * @param snap	The snapshot from which to copy the blocks, or {@code null} to copy from the data itself
+	 * @return		The job which writes the checksum file, or {@code null} if checksums are not kept
+	 */
+	private Flusher.Job sumChanged(BitSet runs, Snapshot snap) {
+		return checks == null ? null : checks.update(runs, buffer.limit(), source(snap));
+	}
+	
+	/**
+	 * Writes the checksum file on the calling thread; if it can't be written, the next store rewrites all of the data
+	 * and its checksums
+	 * @param sums	The job which writes the checksum file, or {@code null} if checksums are not kept
+	 */
+	private void writeSums(Flusher.Job sums) {
+		if(sums == null) {
+			return;
+		}
+		try {
+			sums.writeNow();
+		} catch(IOException ioe) {
+			ioe.printStackTrace();
+			markDirty(0, buffer.limit());
+		}
+	}
+	
+	/**
+	 * Writes the changed runs of bytes to the save file
+	 * @param force	Whether to force the changes to the storage device
+	 * @return	{@code true} if every run was written
+	 */
+	private boolean writeDirty(boolean force) {
+		long written = 0;
+		boolean ok = false;
+		Flusher.Job sums = null;
+		try(FileChannel fc = FileChannel.open(f.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+			ByteBuffer src = buffer.duplicate();
+			BitSet runs = checks == null ? null : new BitSet();
+			for(int start = dirty.nextSetBit(0);start >= 0;start = dirty.nextSetBit(src.limit())) {
+				int end = dirty.nextClearBit(start);
+				src.limit(end);
+				src.position(start);
+				long pos = start;
+				while(src.hasRemaining()) {
+					pos += fc.write(src, pos);
+				}
+				written += end - start;
+				if(runs != null) {
+					runs.set(start, end);
+				}
+			}
+			//earlier versions rewrote the whole file, so a longer file is cut to the length of the data
+			if(fc.size() > buffer.limit()) {
+				fc.truncate(buffer.limit());
+			}
+			if(force) {
+				fc.force(true);
+			}
+			if(runs != null) {
+				sums = sumChanged(runs, null);
+			}
+			dirty.clear();
+			shrunk = false;
+			ok = true;
+		} catch(IOException ioe) {
+			ioe.printStackTrace();
+		}
+		lastStoreBytes = written;
+		writeSums(sums);
+		return ok;
+	}
+	
+	/**
+	 * <p>Marks the changed runs of bytes unchanged, then copies them into a job for the flusher</p>
+	 * <p>The runs are copied from a snapshot taken as they are marked, so the copy is consistent and writes made while
+	 * copying are left for the next store. If checksums are kept, the blocks holding the runs are summed from the same
+	 * snapshot</p>
+	 * @return	The job which writes the data, and the job which writes the checksum file or {@code null} if checksums are
+	 * 			not kept
+	 */
+	private Flusher.Job[] captureDirty() {
+		BitSet runs;
+		Snapshot snap = null;
+		Flusher.Job sums = null;
+		long[] stamps = lockAllRead();
+		try {
+			runs = dirty.drain();
+			if(mode != StorageMode.MAPPED) {
+				snap = openSnapshot();
+			} else {
+				sums = sumChanged(runs, null);
+			}
+		} finally {
+			unlockAllRead(stamps);
+		}
+		lastStoreBytes = runs.cardinality();
+		if(snap == null) {
+			fitMapping();
+			return new Flusher.Job[] { new Flusher.Job(f, buffer.limit(), (MappedByteBuffer) buffer), sums };
+		}
+		shrunk = false;
+		try {
+			Flusher.Job job = new Flusher.Job(f, buffer.limit(), null);
+			for(int start = runs.nextSetBit(0);start >= 0;) {
+				int end = runs.nextClearBit(start);
+				byte[] chunk = new byte[end - start];
+				snap.copy(start, chunk, 0, chunk.length);
+				job.add(start, chunk);
+				start = runs.nextSetBit(end);
+			}
+			return new Flusher.Job[] { job, sumChanged(runs, snap) };
+		} finally {
+			snap.close();
+		}
+	}
+	
+	/**
+	 * Takes the read lock of every stripe, if this object is concurrent
+	 * @return	The stamps with which to {@link #unlockAllRead(long[]) unlock}, or {@code null} if this object is not
+	 * 			concurrent
+	 */
+	private long[] lockAllRead() {
+		return stripes == null ? null : stripes.readAll();
+	}
+	
+	/**
+	 * Releases the read locks taken by {@link #lockAllRead() lockAllRead}
+	 * @param stamps	The stamps returned by {@code lockAllRead}
+	 */
+	private void unlockAllRead(long[] stamps) {
+		if(stamps != null) {
+			stripes.unlockReadAll(stamps);
+		}
+	}
+	
+	/**
+	 * <p>Stores the information in the save file on a background thread</p>
+	 * <p>The changed bytes are copied when this method is called, so later changes are not included. If an earlier
+	 * call has not yet started writing, the changes are added to it and the same future is returned. Stores from
+	 * every {@code Save} object are written together and forced to the storage device once per cycle</p>
+	 * <p>If the store fails, the future completes exceptionally and the next store rewrites all of the data</p>
+	 * @return	A future completed once the changes are on the storage device
+	 */
+	public CompletableFuture<Void> storeAsync() {
+		synchronized(storing) {
+			if(mode == StorageMode.JOURNAL) {
+				//the changes are already in the journal, so only a small force remains
+				store();
+				return CompletableFuture.completedFuture(null);
+			}
+			if(mode == StorageMode.COMPRESSED) {
+				//the whole file is rewritten, so it can't be grouped with other stores
+				store();
+				return CompletableFuture.completedFuture(null);
+			}
+			if(storeFailed) {
+				storeFailed = false;
+				markDirty(0, buffer.limit());
+			}
+			if(dirty.isEmpty() && !isLong()) {
+				lastStoreBytes = 0;
+				return pendingFuture();
+			}
+			Flusher.Job[] jobs = captureDirty();
+			Flusher.Job job = jobs[0];
+			Flusher.Job queued = Flusher.INSTANCE.submit(job, pendingJob);
+			if(queued == job) {
+				job.getFuture().whenComplete((v, t) -> {
+					if(t != null) {
+						storeFailed = true;
+					}
+				});
+			}
+			pendingJob = queued;
+			if(jobs[1] != null) {
+				//never merged, as the checksum file may have changed length; jobs queued later are written later
+				pendingSums = Flusher.INSTANCE.submit(jobs[1], null);
+				pendingSums.getFuture().whenComplete((v, t) -> {
+					if(t != null) {
+						storeFailed = true;
+					}
+				});
+			}
+			return pendingFuture();
+		}
+	}
+	
+	/**
+	 * Get the future of the most recent {@link #storeAsync() storeAsync}
+	 * @return	A future completed once the data and checksums of the most recent store are on the storage device
+	 */
+	private CompletableFuture<Void> pendingFuture() {
+		if(pendingJob == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return pendingSums == null ? pendingJob.getFuture() : CompletableFuture.allOf(pendingJob.getFuture(),
+				pendingSums.getFuture());
+	}
+	
+	/**
+	 * Waits for the most recent {@link #storeAsync() storeAsync} to finish, so it cannot overwrite newer data
+	 */
+	private void awaitStoreAsync() {
+		if(pendingJob == null) {
+			return;
+		}
+		try {
+			pendingFuture().join();
+		} catch(CompletionException ce) {
+			//the failure callback may not have run yet
+			storeFailed = true;
+		}
+		pendingJob = null;
+		pendingSums = null;
+		if(storeFailed) {
+			storeFailed = false;
+			markDirty(0, buffer.limit());
+		}
+	}
+	
+	/**
+	 * <p>Stores the information in the save file and releases any open journal or codec</p>
+	 * <p>This object must not be changed after it is closed</p>
+	 */
+	@Override
+	public void close() {
+		store();
+		if(journal != null) {
+			journal.close();
+		}
+		if(blocks != null) {
+			blocks.close();
+		}
+	}
+	
+	/**
+	 * <p>Get the number of bytes written to the save file by the most recent {@link #store() store}</p>
+	 * <p>In {@link StorageMode#JOURNAL JOURNAL} mode, changes are written to the journal as they are made, so this is
+	 * always 0</p>
+	 * @return	The number of bytes written, or 0 if nothing had changed
+	 */
+	public long getLastStoreBytes() {
+		return lastStoreBytes;
+	}
+	
+	/**
+	 * <p>Gets a {@code byte} from the file with the specified name</p>
+	 * <p>Data must be of type {@link DataType#BYTE BYTE}</p>
+	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
+	 * <p>Use {@link #getBytes(String) getBytes} to get all values</p>
+	 * @param name	The name of the data
+	 * @return		The {@code byte} stored
+	 */
+	public byte getByte(String name) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.BYTE) {
+			throw new InvalidSearchException();
+		}
+		return (byte) readLong(start, 1, () -> buffer.get(start));
+	}
+	
+	/**
+	 * <p>Gets a {@code byte[]} from the file with the specified name</p>
+	 * <p>Data must be of type {@link DataType#BYTE BYTE}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code byte[]} stored
+	 */
+	public byte[] getBytes(String name) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.BYTE) {
+			throw new InvalidSearchException();
+		}
+		byte[] out = new byte[field.getLength()];
+		readInto(start, out.length, () -> Codec.getBytes(buffer, start, out, 0, out.length));
+		return out;
+	}
+	
+	/**
+	 * <p>Gets raw bytes from the file at the specified position</p>
+	 * <p>Ignores the types of the data</p>
+	 * @param start	The starting position of the data
+	 * @param dst	The array into which the bytes are read
+	 * @param off	The index in {@code dst} of the first byte
+	 * @param len	The number of bytes to get
+	 */
+	void getBytes(int start, byte[] dst, int off, int len) {
+		readInto(start, len, () -> Codec.getBytes(buffer, start, dst, off, len));
+	}
+	
+	/**
+	 * <p>Gets a {@code boolean} from the file with the specified name</p>
+	 * <p>Data must be of type {@link DataType#BOOL BOOL}</p>
+	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
+	 * <p>Use {@link #getBools(String) getBools} to get all values</p>
+	 * @param name	The name of the data
+	 * @return		The {@code boolean} stored
+	 */
+	public boolean getBool(String name) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.BOOL) {
+			throw new InvalidSearchException();
+		}
+		byte b = (byte) readLong(start, 1, () -> buffer.get(start));
+		return b == 0xff;
+	}
+	
+	/**
+	 * <p>Gets a {@code boolean[]} from the file with the specified name</p>
+	 * <p>Data must be of type {@link DataType#BOOL BOOL} OR {@link DataType#BOOLS_8 BOOLS_8}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code boolean[]} stored
+	 */
+	public boolean[] getBools(String name) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.BOOL && type != DataType.BOOLS_8) {
+			throw new InvalidSearchException();
+		}
+		int len = field.getLength();
+		if(type == DataType.BOOL) {
+			return read(start, len, () -> getLongBools(buffer, start, len));
+		}
+		return read(start, len, () -> getShortBools(buffer, start, len));
+	}
+	
+	/**
+	 * <p>Gets a {@code boolean[]} from the file with the specified starting position</p>
+	 * <p>Reads data as type {@link DataType#BOOLS_8 BOOLS_8}, but ignores actual type</p>
+	 * @param b		The buffer from which to read
+	 * @param start	The starting position of the data
+	 * @param len	The length of the data in bytes
+	 * @return		The {@code boolean[]} stored
+	 */
+	static boolean[] getLongBools(ByteBuffer b, int start, int len) {
+		boolean[] out = new boolean[len];
+		for(int i = 0;i < len;i++) {
+			int pos = start + i;
+			out[i] = b.get(pos) == 0xff;
+		}
+		return out;
+	}
+	
+	/**
+	 * <p>Gets a {@code boolean[]} from the file with the specified starting position</p>
+	 * <p>Reads data as type {@link DataType#BOOL BOOL}, but ignores actual type</p>
+	 * @param buf	The buffer from which to read
+	 * @param start	The starting position of the data
+	 * @param len	The length of the data in bytes
+	 * @return		The {@code boolean[]} stored
+	 */
+	static boolean[] getShortBools(ByteBuffer buf, int start, int len) {
+		boolean[] out = new boolean[len * 8];
+		for(int i = 0;i < len;i++) {
+			int pos = start + i;
+			for(int j = 0;j < 8;j++) {
+				byte b = buf.get(pos);
+				b = (byte) (b << j);
+				out[(i * 8) + j] = (b & 0b10000000) == 0b10000000;
+			}
+		}
+		return out;
+	}
+	
+	/**
+	 * <p>Gets a signed integer from the file with the specified name</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * </ul>
+	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
+	 * <p>Use {@link #getInts(String) getInts} to get all values</p>
+	 * @param name	The name of the data
+	 * @return		The signed integer stored
+	 */
+	public int getInt(String name) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.INT_8BIT && type != DataType.INT_16BIT
+				&& type != DataType.INT_24BIT && type != DataType.INT_32BIT) {
+			throw new InvalidSearchException();
+		}
+		return getInt(start, type);
+	}
+	
+	/**
+	 * <p>Gets a signed integer from the file with the specified starting position</p>
+	 * <p>Reads the data as the given type, but ignores the actual type</p>
+	 * <p>The given type must be one of the following:</p>
+	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * <li>{@link DataType#INT_40BIT INT_40BIT}</li>
+	 * <li>{@link DataType#INT_48BIT INT_48BIT}</li>
+	 * <li>{@link DataType#INT_56BIT INT_56BIT}</li>
+	 * <li>{@link DataType#INT_64BIT INT_64BIT}</li>
+	 * </ul>
+	 * @param start	The starting position of the data
+	 * @param type	The type of the data
+	 * @return		The signed integer stored
+	 */
+	int getInt(int start, DataType type) {
+		return (int) readLong(start, type.getLength(), () -> Codec.getSigned(buffer, start, type.getLength()));
+	}
+	
+	/**
+	 * <p>Gets a signed integer from the file with the specified name</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * <li>{@link DataType#INT_40BIT INT_40BIT}</li>
+	 * <li>{@link DataType#INT_48BIT INT_48BIT}</li>
+	 * <li>{@link DataType#INT_56BIT INT_56BIT}</li>
+	 * <li>{@link DataType#INT_64BIT INT_64BIT}</li>
+	 * <li>{@link DataType#VARINT VARINT}</li>
+	 * </ul>
+	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
+	 * <p>Use {@link #getLongs(String) getLongs} to get all values</p>
+	 * @param name	The name of the data
+	 * @return		The signed integer stored
+	 */
+	public long getLongInt(String name) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.INT_8BIT && type != DataType.INT_16BIT && type != DataType.INT_24BIT && type != DataType.INT_32BIT &&
+				type != DataType.INT_40BIT && type != DataType.INT_48BIT && type != DataType.INT_56BIT && type != DataType.INT_64BIT &&
+				type != DataType.VARINT) {
+			throw new InvalidSearchException();
+		}
+		return getLongInt(start, type);
+	}
+	
+	/**
+	 * <p>Gets a signed integer from the file with the specified starting position</p>
+	 * <p>Reads the data as the given type, but ignores the actual type</p>
+	 * <p>The given type must be one of the following:</p>
+	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * <li>{@link DataType#INT_40BIT INT_40BIT}</li>
+	 * <li>{@link DataType#INT_48BIT INT_48BIT}</li>
+	 * <li>{@link DataType#INT_56BIT INT_56BIT}</li>
+	 * <li>{@link DataType#INT_64BIT INT_64BIT}</li>
+	 * <li>{@link DataType#VARINT VARINT}</li>
+	 * </ul>
+	 * @param start	The starting position of the data
+	 * @param type	The type of the data
+	 * @return		The signed integer stored
+	 */
+	long getLongInt(int start, DataType type) {
+		return readLong(start, type.getLength(), () -> Codec.getSigned(buffer, start, type.getLength()));
+	}
+	
+	/**
+	 * <p>Gets an unsigned integer from the file with the specified name</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
+	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
+	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
+	 * </ul>
+	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
+	 * <p>Use {@link #getInts(String) getInts} to get all values</p>
+	 * @param name	The name of the data
+	 * @return		The unsigned integer stored
+	 */
+	public int getUint(String name) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.UINT_8BIT && type != DataType.UINT_16BIT
+				&& type != DataType.UINT_24BIT) {
+			throw new InvalidSearchException();
+		}
+		return getUint(start, type);
+	}
+	
+	/**
+	 * <p>Gets an unsigned integer from the file at the specified starting position</p>
+	 * <p>Reads the data as the given type, but ignores the actual type</p>
+	 * <p>The given type must be one of the following:</p>
+	 * <ul>
+	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
+	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
+	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
+	 * </ul>
+	 * @param start	The starting position of the data
+	 * @param type	The type of the data
+	 * @return		The unsigned integer stored
+	 */
+	int getUint(int start, DataType type) {
+		return (int) readLong(start, type.getLength(), () -> Codec.getUnsigned(buffer, start, type.getLength()));
+	}
+	
+	/**
+	 * <p>Gets an unsigned integer from the file with the specified name</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
+	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
+	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
+	 * <li>{@link DataType#UINT_32BIT UINT_32BIT}</li>
+	 * <li>{@link DataType#UINT_40BIT UINT_40BIT}</li>
+	 * <li>{@link DataType#UINT_48BIT UINT_48BIT}</li>
+	 * <li>{@link DataType#UINT_56BIT UINT_56BIT}</li>
+	 * <li>{@link DataType#VARUINT VARUINT}</li>
+	 * </ul>
+	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
+	 * <p>Use {@link #getLongs(String) getLongs} to get all values</p>
+	 * @param name	The name of the data
+	 * @return		The unsigned integer stored
+	 */
+	public long getLongUint(String name) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.UINT_8BIT && type != DataType.UINT_16BIT && type != DataType.UINT_24BIT && type != DataType.UINT_32BIT &&
+				type != DataType.UINT_40BIT && type != DataType.UINT_48BIT && type != DataType.UINT_56BIT &&
+				type != DataType.VARUINT) {
+			throw new InvalidSearchException();
+		}
+		return getLongUint(start, type);
+	}
+	
+	/**
+	 * <p>Gets an unsigned integer from the file at the specified starting position</p>
+	 * <p>Reads the data as the given type, but ignores the actual type</p>
+	 * <p>The given type must be one of the following:</p>
+	 * <ul>
+	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
+	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
+	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
+	 * <li>{@link DataType#UINT_32BIT UINT_32BIT}</li>
+	 * <li>{@link DataType#UINT_40BIT UINT_40BIT}</li>
+	 * <li>{@link DataType#UINT_48BIT UINT_48BIT}</li>
+	 * <li>{@link DataType#UINT_56BIT UINT_56BIT}</li>
+	 * <li>{@link DataType#VARUINT VARUINT}</li>
+	 * </ul>
+	 * @param start	The starting position of the data
+	 * @param type	The type of the data
+	 * @return		The unsigned integer stored
+	 */
+	long getLongUint(int start, DataType type) {
+		return readLong(start, type.getLength(), () -> Codec.getUnsigned(buffer, start, type.getLength()));
+	}
+	
+	/**
+	 * <p>Gets one value of a packed integer datapoint from the file with the specified name</p>
+	 * <p>Data must be of type {@link DataType#PACKED_INT PACKED_INT} or {@link DataType#PACKED_UINT PACKED_UINT}</p>
+	 * <p>Use {@link #getLongs(String) getLongs} to get all values</p>
+	 * @param name	The name of the data
+	 * @param index	The index of the value within the datapoint
+	 * @return		The integer stored
+	 * @throws IndexOutOfBoundsException	if the index is outside of the datapoint
+	 */
+	public long getPacked(String name, int index) {
+		Field field = getField(name);
+		if(field.getBits() == 0 || isDelta(field.getType())) {
+			throw new InvalidSearchException();
+		}
+		checkRange(field, index, 1, 1, 0);
+		return getPacked(field.getStart(), field.getBits(), field.getType() == DataType.PACKED_INT, index);
+	}
+	
+	/**
+	 * Gets one value of packed integers from the file at the specified position
+	 * @param start		The starting position of the packed integers
+	 * @param bits		The bit width of each integer
+	 * @param signed	Whether the integers are signed
+	 * @param index		The index of the value
+	 * @return			The integer stored
+	 */
+	long getPacked(int start, int bits, boolean signed, int index) {
+		long bit = (long) index * bits;
+		//the bytes are loaded here, as the lock is that of the whole datapoint
+		ensureLoaded(start + (int) (bit >>> 3), (int) (((bit & 7) + bits + 7) >>> 3));
+		return readLong(start, 0, () -> Codec.getPacked(buffer, start, bits, signed, index));
+	}
+	
+	/**
+	 * Gets consecutive values of packed integers from the file at the specified position
+	 * @param start		The starting position of the packed integers
+	 * @param bits		The bit width of each integer
+	 * @param signed	Whether the integers are signed
+	 * @param index		The index of the first value
+	 * @param dst		The array into which the values are read
+	 * @param off		The index in {@code dst} of the first value
+	 * @param count		The number of values to get
+	 */
+	void getPacked(int start, int bits, boolean signed, int index, long[] dst, int off, int count) {
+		long bit = (long) index * bits;
+		ensureLoaded(start + (int) (bit >>> 3), packedBytes(bit, (long) count * bits));
+		readInto(start, 0, () -> Codec.getPacked(buffer, start, bits, signed, index, dst, off, count));
+	}
+	
+	/**
+	 * Get the number of bytes holding part of a range of bits
+	 * @param bit	The index of the first bit
+	 * @param bits	The number of bits
+	 * @return		The number of bytes
+	 */
+	private static int packedBytes(long bit, long bits) {
+		return bits == 0 ? 0 : (int) (((bit + bits - 1) >>> 3) - (bit >>> 3) + 1);
+	}
+	
+	/**
+	 * Gets consecutive values of a delta-encoded datapoint, reading only the blocks which hold them
+	 * @param field	The datapoint
+	 * @param index	The index of the first value
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param count	The number of values to get
+	 */
+	void getDeltas(Field field, int index, long[] dst, int off, int count) {
+		if(count == 0) {
+			return;
+		}
+		int start = field.getStart();
+		int bits = field.getBits();
+		boolean twice = field.getType() == DataType.DELTA_DELTA_INT;
+		int from = index - index % Codec.DELTA_BLOCK;
+		int to = Math.min(index + count - 1 + Codec.DELTA_BLOCK - (index + count - 1) % Codec.DELTA_BLOCK, field.getCount());
+		int pos = start + Codec.deltaLength(from, bits, twice);
+		ensureLoaded(pos, start + Codec.deltaLength(to, bits, twice) - pos);
+		readInto(start, 0, () -> Codec.getDeltas(buffer, start, bits, twice, index, dst, off, count));
+	}
+	
+	/**
+	 * <p>Stores consecutive values of a delta-encoded datapoint, leaving the others as they are</p>
+	 * <p>Only the blocks holding the values are rewritten. Nothing is stored if any value does not fit</p>
+	 * @param field	The datapoint
+	 * @param index	The index of the first value
+	 * @param src	The array from which the values are stored
+	 * @param off	The index in {@code src} of the first value
+	 * @param count	The number of values to store
+	 * @throws IllegalArgumentException	if the difference of a value, or its change in difference, does not fit in the
+	 * 									bit width of the datapoint
+	 */
+	void storeDeltas(Field field, int index, long[] src, int off, int count) {
+		if(count == 0) {
+			return;
+		}
+		int start = field.getStart();
+		int bits = field.getBits();
+		boolean twice = field.getType() == DataType.DELTA_DELTA_INT;
+		int from = index - index % Codec.DELTA_BLOCK;
+		int to = Math.min(index + count - 1 + Codec.DELTA_BLOCK - (index + count - 1) % Codec.DELTA_BLOCK, field.getCount());
+		int pos = start + Codec.deltaLength(from, bits, twice);
+		int len = start + Codec.deltaLength(to, bits, twice) - pos;
+		long[] values = new long[to - from];
+		long[] codes = new long[values.length];
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(pos, len);
+			if(from < index || index + count < to) {
+				Codec.getDeltas(buffer, start, bits, twice, from, values, 0, values.length);
+			}
+			System.arraycopy(src, off, values, index - from, count);
+			int bad = Codec.deltaCodes(values, values.length, bits, twice, codes);
+			if(bad >= 0) {
+				throw new IllegalArgumentException("Can't store " + values[bad] + " at index " + (from + bad) + " of a "
+						+ bits + "-bit " + field.getType() + " after " + values[bad - 1]);
+			}
+			Codec.putDeltas(buffer, pos, bits, twice, values, codes, values.length);
+			markDirty(pos, len);
+		} finally {
+			unlockWrite(start, stamp);
+		}
+	}
+	
+	/**
+	 * <p>Gets a {@code char} from the file with the specified name</p>
+	 * <p>Data must be of type {@link DataType#CHAR_ASCII CHAR_ASCII} OR {@link DataType#CHAR_UNICODE CHAR_UNICODE}</p>
+	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
+	 * <p>Use {@link #getString(String) getString} to get all values</p>
+	 * @param name	The name of the data
+	 * @return		The {@code char} stored
+	 */
+	public char getChar(String name) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.CHAR_ASCII && type != DataType.CHAR_UNICODE) {
+			throw new InvalidSearchException();
+		}
+		if(type == DataType.CHAR_ASCII) {
+			return (char) readLong(start, 1, () -> buffer.get(start) & 0b01111111);
+		}
+		return getUnicodeChar(start);
+	}
+	
+	/**
+	 * <p>Gets a {@code char} from the file at the specified position</p>
+	 * <p>Reads the data as type {@link DataType#CHAR_UNICODE CHAR_UNICODE}, but ignores the actual type</p>
+	 * @param start	The starting position of the data
+	 * @return		The {@code char} stored
+	 */
+	private char getUnicodeChar(int start) {
+		return (char) readLong(start, 2, () -> Codec.getUnsigned(buffer, start, 2));
+	}
+	
+	/**
+	 * <p>Gets a {@code String} from the file with the specified name</p>
+	 * <p>Data must be of type {@link DataType#CHAR_ASCII CHAR_ASCII}, {@link DataType#CHAR_UNICODE CHAR_UNICODE} OR
+	 * {@link DataType#CHAR_UTF8 CHAR_UTF8}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code String} stored
+	 */
+	public String getString(String name) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.CHAR_ASCII && type != DataType.CHAR_UNICODE && type != DataType.CHAR_UTF8) {
+			throw new InvalidSearchException();
+		}
+		return getString(start, field.getLength(), type);
+	}
+	
+	/**
+	 * <p>Gets a {@code String} from the file at the specified position</p>
+	 * <p>Reads the data as the given type, but ignores the actual type</p>
+	 * <p>The given type must be {@link DataType#CHAR_ASCII CHAR_ASCII}, {@link DataType#CHAR_UNICODE CHAR_UNICODE} OR
+	 * {@link DataType#CHAR_UTF8 CHAR_UTF8}</p>
+	 * @param start	The starting position of the data
+	 * @param len	The length of the data in bytes
+	 * @param type	The type of the data
+	 * @return		The {@code String} stored
+	 */
+	String getString(int start, int len, DataType type) {
+		if(type == DataType.CHAR_ASCII) {
+			return read(start, len, () -> getASCIIString(buffer, start, len));
+		}
+		if(type == DataType.CHAR_UTF8) {
+			return read(start, len, () -> getUTF8String(buffer, start, len));
+		}
+		return read(start, len, () -> getUnicodeString(buffer, start, len));
+	}
+	
+	/**
+	 * <p>Gets a {@code String} from the file with the specified name</p>
+	 * <p>Reads data as type {@link DataType#CHAR_ASCII CHAR_ASCII}, but ignores the actual type</p>
+	 * @param b		The buffer from which to read
+	 * @param start	The starting position of the data
+	 * @param len	The length of the data in bytes
+	 * @return		The {@code String} stored
+	 */
+	static String getASCIIString(ByteBuffer b, int start, int len) {
+		byte[] bytes = new byte[len];
+		Codec.getBytes(b, start, bytes, 0, len);
+		int n = 0;
+		for(int i = 0;i < len;i++) {
+			if(bytes[i] != 0) {
+				bytes[n++] = bytes[i];
+			}
+		}
+		return new String(bytes, 0, n, StandardCharsets.US_ASCII);
+	}
+	
+	/**
+	 * <p>Gets a {@code String} from the file with the specified name</p>
+	 * <p>Reads data as type {@link DataType#CHAR_UNICODE CHAR_UNICODE}, but ignores the actual type</p>
+	 * @param b		The buffer from which to read
+	 * @param start	The starting position of the data
+	 * @param len	The length of the data in bytes
+	 * @return		The {@code String} stored
+	 */
+	static String getUnicodeString(ByteBuffer b, int start, int len) {
+		char[] chars = new char[len / 2];
+		Codec.getChars(b, start, chars, 0, chars.length);
+		return new String(chars);
+	}
+	
+	/**
+	 * <p>Gets a {@code String} from the file with the specified name</p>
+	 * <p>Reads data as type {@link DataType#CHAR_UTF8 CHAR_UTF8}, but ignores the actual type</p>
+	 * <p>Zero bytes at the end of the data are not part of the {@code String}</p>
+	 * @param b		The buffer from which to read
+	 * @param start	The starting position of the data
+	 * @param len	The length of the data in bytes
+	 * @return		The {@code String} stored
+	 */
+	static String getUTF8String(ByteBuffer b, int start, int len) {
+		int n = len;
+		while(n > 0 && b.get(start + n - 1) == 0) {
+			n--;
+		}
+		if(b.hasArray()) {
+			return new String(b.array(), b.arrayOffset() + start, n, StandardCharsets.UTF_8);
+		}
+		byte[] bytes = new byte[n];
+		Codec.getBytes(b, start, bytes, 0, n);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * <p>Gets a {@code float} from the file with the specified name</p>
+	 * <p>Data must be of type {@link DataType#FLOAT FLOAT}</p>
+	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
+	 * <p>Use {@link #getFloats(String) getFloats} to get all values</p>
+	 * @param name	The name of the data
+	 * @return		The {@code float} stored
+	 */
+	public float getFloat(String name) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.FLOAT) {
+			throw new InvalidSearchException();
+		}
+		return getFloat(start);
+	}
 	
-	private StorageData sd;
+	/**
+	 * <p>Gets a {@code float} from the file at the specified position</p>
+	 * <p>Reads the data as type {@link DataType#FLOAT FLOAT}, but ignores the actual type</p>
+	 * @param start	The starting position of the data
+	 * @return		The {@code float} stored
+	 */
+	float getFloat(int start) {
+		return Float.intBitsToFloat((int) readLong(start, 4, () -> Codec.getIntBE(buffer, start)));
+	}
 	
 	/**
-	 * Create a {@code Save} object
-	 * @param f		The {@code File} in which to store the data
-	 * @param data	An array specifying the data types and their names
+	 * <p>Gets a {@code double} from the file with the specified name</p>
+	 * <p>Data must be of type {@link DataType#DOUBLE DOUBLE}</p>
+	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
+	 * <p>Use {@link #getDoubles(String) getDoubles} to get all values</p>
+	 * @param name	The name of the data
+	 * @return		The {@code double} stored
 	 */
-	public Save(File f, Data... data) {
-		this.f = f;
-		if(!f.exists()) {
-			createFile();
-		}
-		sd = new StorageData(data.length);
-		int len = 0;
-		for(int i = 0;i < data.length;i++) {
-			Data d = data[i];
-			len += (d.getLength() * d.getType().getLength());
-			sd.setDataAt(i, d.getName(), d.getLength(), d.getType());
+	public double getDouble(String name) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.DOUBLE) {
+			throw new InvalidSearchException();
 		}
-		bytes = new byte[len];
-		loadFile();
+		return getDouble(start);
 	}
 	
 	/**
-	 * Creates the save file
+	 * <p>Gets a {@code double} from the file at the specified position</p>
+	 * <p>Reads the data as type {@link DataType#DOUBLE DOUBLE}, but ignores the actual type</p>
+	 * @param start	The starting position of the data
+	 * @return		The {@code double} stored
 	 */
-	private void createFile() {
-		try {
-			f.createNewFile();
-		} catch(IOException ioe) {
-			ioe.printStackTrace();
+	double getDouble(int start) {
+		return Double.longBitsToDouble(readLong(start, 8, () -> Codec.getLongBE(buffer, start)));
+	}
+	
+	/**
+	 * <p>Gets every value of a multi-length datapoint from the file with the specified name as a {@code int[]}</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
+	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
+	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
+	 * </ul>
+	 * @param name	The name of the data
+	 * @return		The {@code int[]} stored
+	 */
+	public int[] getInts(String name) {
+		Field field = getField(name);
+		int[] out = new int[field.getLength() / field.getType().getLength()];
+		getInts(name, 0, out, 0, out.length);
+		return out;
+	}
+	
+	/**
+	 * <p>Gets a range of the values of a multi-length datapoint from the file with the specified name</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
+	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
+	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
+	 * </ul>
+	 * @param name	The name of the data
+	 * @param index	The index within the datapoint of the first value to get
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param count	The number of values to get
+	 * @throws IndexOutOfBoundsException	if the range is outside of the datapoint or of {@code dst}
+	 */
+	public void getInts(String name, int index, int[] dst, int off, int count) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(checkIntType(type)) {
+			throw new InvalidSearchException();
 		}
+		int width = type.getLength();
+		checkRange(field, index, count, dst.length, off);
+		readInto(start, (index + count) * width, () -> Codec.getInts(buffer, start + index * width, width, isSigned(type), dst, off, count));
+	}
+	
+	/**
+	 * <p>Gets every value of a multi-length datapoint from the file with the specified name as a {@code long[]}</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>Any signed integer type, from {@link DataType#INT_8BIT INT_8BIT} to {@link DataType#INT_64BIT INT_64BIT}</li>
+	 * <li>Any unsigned integer type, from {@link DataType#UINT_8BIT UINT_8BIT} to {@link DataType#UINT_56BIT UINT_56BIT}</li>
+	 * <li>{@link DataType#PACKED_INT PACKED_INT} or {@link DataType#PACKED_UINT PACKED_UINT}</li>
+	 * <li>{@link DataType#DELTA_INT DELTA_INT} or {@link DataType#DELTA_DELTA_INT DELTA_DELTA_INT}</li>
+	 * </ul>
+	 * @param name	The name of the data
+	 * @return		The {@code long[]} stored
+	 */
+	public long[] getLongs(String name) {
+		Field field = getField(name);
+		long[] out = new long[field.getCount()];
+		getLongs(name, 0, out, 0, out.length);
+		return out;
 	}
 	
 	/**
-	 * Loads the information from the save file
+	 * <p>Gets a range of the values of a multi-length datapoint from the file with the specified name</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>Any signed integer type, from {@link DataType#INT_8BIT INT_8BIT} to {@link DataType#INT_64BIT INT_64BIT}</li>
+	 * <li>Any unsigned integer type, from {@link DataType#UINT_8BIT UINT_8BIT} to {@link DataType#UINT_56BIT UINT_56BIT}</li>
+	 * <li>{@link DataType#PACKED_INT PACKED_INT} or {@link DataType#PACKED_UINT PACKED_UINT}</li>
+	 * <li>{@link DataType#DELTA_INT DELTA_INT} or {@link DataType#DELTA_DELTA_INT DELTA_DELTA_INT}</li>
+	 * </ul>
+	 * @param name	The name of the data
+	 * @param index	The index within the datapoint of the first value to get
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param count	The number of values to get
+	 * @throws IndexOutOfBoundsException	if the range is outside of the datapoint or of {@code dst}
 	 */
-	private void loadFile() {
-		FileInputStream fis = null;
-		try {
-			fis = new FileInputStream(f);
-			fis.read(bytes);
-			fis.close();
-		} catch(IOException ioe) {
-			ioe.printStackTrace();
+	public void getLongs(String name, int index, long[] dst, int off, int count) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(isDelta(type)) {
+			checkRange(field, index, count, dst.length, off);
+			getDeltas(field, index, dst, off, count);
+			return;
+		}
+		if(field.getBits() > 0) {
+			checkRange(field, index, count, dst.length, off);
+			getPacked(start, field.getBits(), type == DataType.PACKED_INT, index, dst, off, count);
+			return;
+		}
+		if(checkLongType(type)) {
+			throw new InvalidSearchException();
 		}
+		int width = type.getLength();
+		checkRange(field, index, count, dst.length, off);
+		readInto(start, (index + count) * width, () -> Codec.getLongs(buffer, start + index * width, width, isSigned(type), dst, off, count));
 	}
 	
 	/**
-	 * Stores the information in the save file
+	 * <p>Gets every value of a multi-length datapoint from the file with the specified name as a {@code float[]}</p>
+	 * <p>Data must be of type {@link DataType#FLOAT FLOAT}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code float[]} stored
 	 */
-	public void store() {
-		FileOutputStream fos = null;
-		try {
-			fos = new FileOutputStream(f);
-			fos.write(bytes);
-			fos.close();
-		} catch(IOException ioe) {
-			ioe.printStackTrace();
+	public float[] getFloats(String name) {
+		Field field = getField(name);
+		float[] out = new float[field.getLength() / field.getType().getLength()];
+		getFloats(name, 0, out, 0, out.length);
+		return out;
+	}
+	
+	/**
+	 * <p>Gets a range of the values of a multi-length datapoint from the file with the specified name</p>
+	 * <p>Data must be of type {@link DataType#FLOAT FLOAT}</p>
+	 * @param name	The name of the data
+	 * @param index	The index within the datapoint of the first value to get
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param count	The number of values to get
+	 * @throws IndexOutOfBoundsException	if the range is outside of the datapoint or of {@code dst}
+	 */
+	public void getFloats(String name, int index, float[] dst, int off, int count) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.FLOAT) {
+			throw new InvalidSearchException();
 		}
+		int width = type.getLength();
+		checkRange(field, index, count, dst.length, off);
+		readInto(start, (index + count) * width, () -> Codec.getFloats(buffer, start + index * width, dst, off, count));
 	}
 	
 	/**
-	 * <p>Gets a {@code byte} from the file with the specified name</p>
-	 * <p>Data must be of type {@link DataType#BYTE BYTE}</p>
-	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
-	 * <p>Use {@link #getBytes(String) getBytes} to get all values</p>
+	 * <p>Gets every value of a multi-length datapoint from the file with the specified name as a {@code double[]}</p>
+	 * <p>Data must be of type {@link DataType#DOUBLE DOUBLE}</p>
 	 * @param name	The name of the data
-	 * @return		The {@code byte} stored
+	 * @return		The {@code double[]} stored
 	 */
-	public byte getByte(String name) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || type != DataType.BYTE) {
+	public double[] getDoubles(String name) {
+		Field field = getField(name);
+		double[] out = new double[field.getLength() / field.getType().getLength()];
+		getDoubles(name, 0, out, 0, out.length);
+		return out;
+	}
+	
+	/**
+	 * <p>Gets a range of the values of a multi-length datapoint from the file with the specified name</p>
+	 * <p>Data must be of type {@link DataType#DOUBLE DOUBLE}</p>
+	 * @param name	The name of the data
+	 * @param index	The index within the datapoint of the first value to get
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param count	The number of values to get
+	 * @throws IndexOutOfBoundsException	if the range is outside of the datapoint or of {@code dst}
+	 */
+	public void getDoubles(String name, int index, double[] dst, int off, int count) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.DOUBLE) {
 			throw new InvalidSearchException();
 		}
-		return bytes[start];
+		int width = type.getLength();
+		checkRange(field, index, count, dst.length, off);
+		readInto(start, (index + count) * width, () -> Codec.getDoubles(buffer, start + index * width, dst, off, count));
 	}
 	
 	/**
-	 * <p>Gets a {@code byte[]} from the file with the specified name</p>
+	 * <p>Gets consecutive values from the file at the specified position</p>
+	 * <p>The type must be valid for {@link #getInts(String, int, int[], int, int) getInts}</p>
+	 * @param start	The starting position of the first value
+	 * @param type	The type of the data
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param count	The number of values to get
+	 */
+	void getInts(int start, DataType type, int[] dst, int off, int count) {
+		readInto(start, count * type.getLength(), () -> Codec.getInts(buffer, start, type.getLength(), isSigned(type), dst, off, count));
+	}
+	
+	/**
+	 * <p>Gets consecutive values from the file at the specified position</p>
+	 * <p>The type must be valid for {@link #getLongs(String, int, long[], int, int) getLongs}</p>
+	 * @param start	The starting position of the first value
+	 * @param type	The type of the data
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param count	The number of values to get
+	 */
+	void getLongs(int start, DataType type, long[] dst, int off, int count) {
+		readInto(start, count * type.getLength(), () -> Codec.getLongs(buffer, start, type.getLength(), isSigned(type), dst, off, count));
+	}
+	
+	/**
+	 * Gets consecutive {@code float}s from the file at the specified position
+	 * @param start	The starting position of the first value
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param count	The number of values to get
+	 */
+	void getFloats(int start, float[] dst, int off, int count) {
+		readInto(start, count * 4, () -> Codec.getFloats(buffer, start, dst, off, count));
+	}
+	
+	/**
+	 * Gets consecutive {@code double}s from the file at the specified position
+	 * @param start	The starting position of the first value
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param count	The number of values to get
+	 */
+	void getDoubles(int start, double[] dst, int off, int count) {
+		readInto(start, count * 8, () -> Codec.getDoubles(buffer, start, dst, off, count));
+	}
+	
+	
+	/**
+	 * <p>Stores a {@code byte} in the file at the specified name</p>
 	 * <p>Data must be of type {@link DataType#BYTE BYTE}</p>
 	 * @param name	The name of the data
-	 * @return		The {@code byte[]} stored
+	 * @param data	The {@code byte} to store
 	 */
-	public byte[] getBytes(String name) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || type != DataType.BYTE) {
+	public void storeByte(String name, byte data) {
+		storeBytes(name, new byte[] { data });
+	}
+	
+	/**
+	 * <p>Stores a {@code byte[]} in the file at the specified name</p>
+	 * <p>Data must be of type {@link DataType#BYTE BYTE}</p>
+	 * @param name	The name of the data
+	 * @param data	The {@code byte[]} to store
+	 */
+	public void storeBytes(String name, byte[] data) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.BYTE) {
 			throw new InvalidSearchException();
 		}
-		byte[] out = new byte[sd.getLengthOf(name)];
-		for(int i = 0;i < out.length;i++) {
-			out[i] = bytes[start + i];
+		int len = field.getLength();
+		if(data.length > len) {
+			System.out.println("WARNING: STORING DATA IN " + name + " WHICH WILL BE TRUNCATED");
+		}
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start, len);
+			for(int i = 0;i < len;i++) {
+				if(data.length <= i) {
+					buffer.put(start + i, (byte) 0);
+				} else {
+					buffer.put(start + i, data[i]);
+				}
+			}
+			markDirty(start, len);
+		} finally {
+			unlockWrite(start, stamp);
 		}
-		return out;
 	}
 	
 	/**
-	 * <p>Gets a {@code boolean} from the file with the specified name</p>
+	 * <p>Stores a {@code byte[]} in the file at the specified name</p>
+	 * <p>Ignores the type of the data and stores raw bytes</p>
+	 * @param start	The starting position of the data
+	 * @param data	The data to store
+	 * @param dlen	The length of the field in which the data will be stored
+	 */
+	void storeBytes(int start, byte[] data, int dlen) {
+		if(data.length > dlen) {
+			System.out.println("WARNING: STORING DATA AT BYTE INDEX " + start + " WHICH WILL BE TRUNCATED");
+		}
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start, dlen);
+			for(int i = 0;i < dlen;i++) {
+				if(data.length <= i) {
+					buffer.put(start + i, (byte) 0);
+				} else {
+					buffer.put(start + i, data[i]);
+				}
+			}
+			markDirty(start, dlen);
+		} finally {
+			unlockWrite(start, stamp);
+		}
+	}
+	
+	/**
+	 * <p>Stores a {@code boolean} in the file at the specified name</p>
 	 * <p>Data must be of type {@link DataType#BOOL BOOL}</p>
-	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
-	 * <p>Use {@link #getBools(String) getBools} to get all values</p>
 	 * @param name	The name of the data
-	 * @return		The {@code boolean} stored
+	 * @param data	The {@code boolean} to store
 	 */
-	public boolean getBool(String name) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || type != DataType.BOOL) {
-			throw new InvalidSearchException();
-		}
-		byte b = bytes[start];
-		return b == 0xff;
+	public void storeBool(String name, boolean data) {
+		storeBools(name, new boolean[] { data });
 	}
 	
 	/**
-	 * <p>Gets a {@code boolean[]} from the file with the specified name</p>
+	 * <p>Stores a {@code boolean[]} in the file at the specified name</p>
 	 * <p>Data must be of type {@link DataType#BOOL BOOL} OR {@link DataType#BOOLS_8 BOOLS_8}</p>
+	 * <p>If Data is of type {@code DataType.BOOLS_8}, the array's size must be a multiple of 8</p>
 	 * @param name	The name of the data
-	 * @return		The {@code boolean[]} stored
+	 * @param data	The {@code boolean[]} to store
 	 */
-	public boolean[] getBools(String name) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || (type != DataType.BOOL && type != DataType.BOOLS_8)) {
+	public void storeBools(String name, boolean[] data) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.BOOL && type != DataType.BOOLS_8) {
 			throw new InvalidSearchException();
 		}
-		int len = sd.getLengthOf(name);
+		int len = field.getLength();
 		if(type == DataType.BOOL) {
-			return getLongBools(start, len);
+			storeLongBools(start, data, len);
+		} else {
+			storeShortBools(start, data, len);
 		}
-		return getShortBools(start, len);
 	}
 	
 	/**
-	 * <p>Gets a {@code boolean[]} from the file with the specified starting position</p>
-	 * <p>Reads data as type {@link DataType#BOOLS_8 BOOLS_8}, but ignores actual type</p>
+	 * <p>Stores a {@code boolean[]} in the file at the specified position</p>
+	 * <p>Stores the data as type {@link DataType#BOOLS_8}, but ignores the actual type</p>
 	 * @param start	The starting position of the data
-	 * @param len	The length of the data in bytes
-	 * @return		The {@code boolean[]} stored
+	 * @param data	The data to be stored
+	 * @param dlen	The length of the field in which the data will be stored
 	 */
-	private boolean[] getLongBools(int start, int len) {
-		boolean[] out = new boolean[len];
+	private void storeLongBools(int start, boolean[] data, int dlen) {
+		int len = data.length;
+		byte[] store = new byte[len];
 		for(int i = 0;i < len;i++) {
-			int pos = start + i;
-			out[i] = bytes[pos] == 0xff;
+			store[i] = data[i] ? (byte) 0xff : (byte) 0x00;
 		}
-		return out;
+		storeBytes(start, store, dlen);
 	}
 	
 	/**
-	 * <p>Gets a {@code boolean[]} from the file with the specified starting position</p>
-	 * <p>Reads data as type {@link DataType#BOOL BOOL}, but ignores actual type</p>
+	 * <p>Stores a {@code boolean[]} in the file at the specified position</p>
+	 * <p>Stores the data as type {@link DataType#BOOL}, but ignores the actual type</p>
 	 * @param start	The starting position of the data
-	 * @param len	The length of the data in bytes
-	 * @return		The {@code boolean[]} stored
+	 * @param data	The data to be stored
+	 * @param dlen	The length of the field in which the data will be stored
 	 */
-	private boolean[] getShortBools(int start, int len) {
-		boolean[] out = new boolean[len * 8];
+	private void storeShortBools(int start, boolean[] data, int dlen) {
+		if(data.length % 8 != 0) {
+			throw new IllegalArgumentException("Number of booleans for type BOOLS_8 must be a multiple of 8");
+		}
+		int len = data.length / 8;
+		byte[] store = new byte[len];
 		for(int i = 0;i < len;i++) {
-			int pos = start + i;
+			byte b = 0;
 			for(int j = 0;j < 8;j++) {
-				byte b = bytes[pos];
-				b = (byte) (b << j);
-				out[(i * 8) + j] = (b & 0b10000000) == 0b10000000;
+				byte c = data[(i * 8) + j] ? (byte) 1 : (byte) 0;
+				c = (byte) (c << (7 - j));
+				b = (byte) (b | c);
 			}
+			store[i] = b;
 		}
-		return out;
+		storeBytes(start, store, dlen);
 	}
 	
 	/**
-	 * <p>Gets a signed integer from the file with the specified name</p>
+	 * <p>Stores a signed integer in the file at the specified name</p>
 	 * <p>Data must be of one of the following types:</p>
 	 * <ul>
 	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
@@ -198,25 +2554,48 @@ public class Save {
 	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
 	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
 	 * </ul>
-	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
-	 * <p>There currently does not exist a function to get multiple integer values</p>
 	 * @param name	The name of the data
-	 * @return		The signed integer stored
+	 * @param data	The signed integer to store
+	 */
+	public void storeInt(String name, int data) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.INT_8BIT && type != DataType.INT_16BIT
+				&& type != DataType.INT_24BIT && type != DataType.INT_32BIT) {
+			throw new InvalidSearchException();
+		}
+		storeInt(start, type, data);
+	}
+	
+	/**
+	 * <p>Stores a signed integer in the file at the specified position</p>
+	 * <p>Stores data as the given type, but ignores the actual type</p>
+	 * <p>The given type must be one of the following:</p>
+	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * </ul>
+	 * @param start	The starting position of the data
+	 * @param type	The type of the data to store
+	 * @param data	The data to store
 	 */
-	public int getInt(String name) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || (type != DataType.INT_8BIT && type != DataType.INT_16BIT
-				&& type != DataType.INT_24BIT && type != DataType.INT_32BIT)) {
-			throw new InvalidSearchException();
+	void storeInt(int start, DataType type, int data) {
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start, type.getLength());
+			Codec.put(buffer, start, type.getLength(), data);
+			markDirty(start, type.getLength());
+		} finally {
+			unlockWrite(start, stamp);
 		}
-		return getInt(start, type);
 	}
 	
 	/**
-	 * <p>Gets a signed integer from the file with the specified starting position</p>
-	 * <p>Reads the data as the given type, but ignores the actual type</p>
-	 * <p>The given type must be one of the following:</p>
+	 * <p>Stores a signed integer in the file at the specified name</p>
+	 * <p>Data must be of one of the following types:</p>
 	 * <ul>
 	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
 	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
@@ -226,57 +2605,27 @@ public class Save {
 	 * <li>{@link DataType#INT_48BIT INT_48BIT}</li>
 	 * <li>{@link DataType#INT_56BIT INT_56BIT}</li>
 	 * <li>{@link DataType#INT_64BIT INT_64BIT}</li>
+	 * <li>{@link DataType#VARINT VARINT}</li>
 	 * </ul>
-	 * @param start	The starting position of the data
-	 * @param type	The type of the data
-	 * @return		The signed integer stored
+	 * @param name	The name of the data
+	 * @param data	The signed integer to store
 	 */
-	private int getInt(int start, DataType type) {
-		ByteBuffer buffer = ByteBuffer.allocate(4);
-		switch(type) {
-		case INT_32BIT:
-			buffer.put(0, bytes[start + 3]);
-			buffer.put(1, bytes[start + 2]);
-			buffer.put(2, bytes[start + 1]);
-			buffer.put(3, bytes[start]);
-			break;
-		case INT_24BIT:
-			if((bytes[start + 2] & 0b10000000) == 0b10000000) {
-				buffer.put(0, (byte) 0xff);
-				buffer.put(1, (byte) (bytes[start + 2]));
-			} else {
-				buffer.put(1, bytes[start + 2]);
-			}
-			buffer.put(2, bytes[start + 1]);
-			buffer.put(3, bytes[start]);
-			break;
-		case INT_16BIT:
-			if((bytes[start + 1] & 0b10000000) == 0b10000000) {
-				buffer.put(0, (byte) 0xff);
-				buffer.put(1, (byte) 0xff);
-				buffer.put(2, (byte) (bytes[start + 1]));
-			} else {
-				buffer.put(2, bytes[start + 1]);
-			}
-			buffer.put(3, bytes[start]);
-			break;
-		default:
-			if((bytes[start] & 0b10000000) == 0b10000000) {
-				buffer.put(0, (byte) 0xff);
-				buffer.put(1, (byte) 0xff);
-				buffer.put(2, (byte) 0xff);
-				buffer.put(3, (byte) (bytes[start]));
-			} else {
-				buffer.put(3, bytes[start]);
-			}
-			break;
+	public void storeLongInt(String name, long data) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.INT_8BIT && type != DataType.INT_16BIT && type != DataType.INT_24BIT && type != DataType.INT_32BIT &&
+				type != DataType.INT_40BIT && type != DataType.INT_48BIT && type != DataType.INT_56BIT && type != DataType.INT_64BIT &&
+				type != DataType.VARINT) {
+			throw new InvalidSearchException();
 		}
-		return buffer.getInt();
+		storeLongInt(start, type, data);
 	}
 	
 	/**
-	 * <p>Gets a signed integer from the file with the specified name</p>
-	 * <p>Data must be of one of the following types:</p>
+	 * <p>Stores a signed integer in the file at the specified position</p>
+	 * <p>Stores data as the given type, but ignores the actual type</p>
+	 * <p>The given type must be one of the following:</p>
 	 * <ul>
 	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
 	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
@@ -286,117 +2635,73 @@ public class Save {
 	 * <li>{@link DataType#INT_48BIT INT_48BIT}</li>
 	 * <li>{@link DataType#INT_56BIT INT_56BIT}</li>
 	 * <li>{@link DataType#INT_64BIT INT_64BIT}</li>
+	 * <li>{@link DataType#VARINT VARINT}</li>
 	 * </ul>
-	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
-	 * <p>There currently does not exist a function to get multiple integer values</p>
-	 * @param name	The name of the data
-	 * @return		The signed integer stored
+	 * @param start	The starting position of the data
+	 * @param type	The type of the data to store
+	 * @param data	The data to store
 	 */
-	public long getLongInt(String name) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || (type != DataType.INT_8BIT && type != DataType.INT_16BIT && type != DataType.INT_24BIT && type != DataType.INT_32BIT &&
-				type != DataType.INT_40BIT && type != DataType.INT_48BIT && type != DataType.INT_56BIT && type != DataType.INT_64BIT)) {
-			throw new InvalidSearchException();
+	void storeLongInt(int start, DataType type, long data) {
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start, type.getLength());
+			Codec.put(buffer, start, type.getLength(), data);
+			markDirty(start, type.getLength());
+		} finally {
+			unlockWrite(start, stamp);
 		}
-		ByteBuffer buffer = ByteBuffer.allocate(8);
-		ByteBuffer sb = ByteBuffer.allocate(4);
-		int si = getInt(start, DataType.INT_32BIT);
-		sb.putInt(si);
-		byte[] sa = sb.array();
-		buffer.put(new byte[] { (byte) 0, (byte) 0, (byte) 0, (byte) 0, sa[0], sa[1], sa[2], sa[3] });
-		switch(type) {
-		case INT_32BIT:
-		case INT_24BIT:
-		case INT_16BIT:
-		case INT_8BIT:
-			break;
-		case INT_64BIT:
-			buffer.put(0, bytes[start + 7]);
-			buffer.put(1, bytes[start + 6]);
-			buffer.put(2, bytes[start + 5]);
-			buffer.put(3, bytes[start + 4]);
-			break;
-		case INT_56BIT:
-			if((bytes[start + 6] & 0b10000000) == 0b10000000) {
-				buffer.put(0, (byte) 0xff);
-			}
-			buffer.put(1, bytes[start + 6]);
-			buffer.put(2, bytes[start + 5]);
-			buffer.put(3, bytes[start + 4]);
-			break;
-		case INT_48BIT:
-			if((bytes[start + 5] & 0b10000000) == 0b10000000) {
-				buffer.put(0, (byte) 0xff);
-				buffer.put(1, (byte) 0xff);
-			}
-			buffer.put(2, bytes[start + 5]);
-			buffer.put(3, bytes[start + 4]);
-			break;
-		default:
-			if((bytes[start + 4] & 0b10000000) == 0b10000000) {
-				buffer.put(0, (byte) 0xff);
-				buffer.put(1, (byte) 0xff);
-				buffer.put(2, (byte) 0xff);
-			}
-			buffer.put(3, bytes[start + 4]);
-			break;
-		}
-		return buffer.getLong(0);
 	}
 	
 	/**
-	 * <p>Gets an unsigned integer from the file with the specified name</p>
+	 * <p>Stores an unsigned integer in the file at the specified name</p>
 	 * <p>Data must be of one of the following types:</p>
 	 * <ul>
 	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
 	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
 	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
 	 * </ul>
-	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
-	 * <p>There currently does not exist a function to get multiple integer values</p>
 	 * @param name	The name of the data
-	 * @return		The unsigned integer stored
+	 * @param data	The unsigned integer to store
 	 */
-	public int getUint(String name) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || (type != DataType.UINT_8BIT && type != DataType.UINT_16BIT
-				&& type != DataType.UINT_24BIT)) {
+	public void storeUint(String name, int data) {
+		if(data < 0) {
+			throw new IllegalArgumentException("Can't store negative number in a UINT");
+		}
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.UINT_8BIT && type != DataType.UINT_16BIT
+				&& type != DataType.UINT_24BIT) {
 			throw new InvalidSearchException();
 		}
-		return getUint(start, type);
+		storeUint(start, type, data);
 	}
 	
 	/**
-	 * <p>Gets an unsigned integer from the file at the specified starting position</p>
-	 * <p>Reads the data as the given type, but ignores the actual type</p>
+	 * <p>Stores an unsigned integer in the file at the specified position</p>
+	 * <p>Stores data as the given type, but ignores the actual type</p>
 	 * <p>The given type must be one of the following:</p>
 	 * <ul>
 	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
 	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
 	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
-	 * </ul>
 	 * @param start	The starting position of the data
-	 * @param type	The type of the data
-	 * @return		The unsigned integer stored
+	 * @param type	The type of the data to store
+	 * @param data	The data to store
 	 */
-	private int getUint(int start, DataType type) {
-		ByteBuffer buffer = ByteBuffer.allocate(4);
-		switch(type) {
-		case UINT_24BIT:
-			buffer.put(1, bytes[start + 2]);
-		case UINT_16BIT:
-			buffer.put(2, bytes[start + 1]);
-		default:
-			buffer.put(3, bytes[start]);
-			break;
+	void storeUint(int start, DataType type, int data) {
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start, type.getLength());
+			Codec.put(buffer, start, type.getLength(), data);
+			markDirty(start, type.getLength());
+		} finally {
+			unlockWrite(start, stamp);
 		}
-		return buffer.getInt();
 	}
 	
 	/**
-	 * <p>Gets an unsigned integer from the file with the specified name</p>
+	 * <p>Stores an unsigned integer in the file at the specified name</p>
 	 * <p>Data must be of one of the following types:</p>
 	 * <ul>
 	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
@@ -406,25 +2711,29 @@ public class Save {
 	 * <li>{@link DataType#UINT_40BIT UINT_40BIT}</li>
 	 * <li>{@link DataType#UINT_48BIT UINT_48BIT}</li>
 	 * <li>{@link DataType#UINT_56BIT UINT_56BIT}</li>
+	 * <li>{@link DataType#VARUINT VARUINT}</li>
 	 * </ul>
-	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
-	 * <p>There currently does not exist a function to get multiple integer values</p>
 	 * @param name	The name of the data
-	 * @return		The unsigned integer stored
+	 * @param data	The unsigned integer to store
 	 */
-	public long getLongUint(String name) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || (type != DataType.UINT_8BIT && type != DataType.UINT_16BIT && type != DataType.UINT_24BIT && type != DataType.UINT_32BIT &&
-				type != DataType.UINT_40BIT && type != DataType.UINT_48BIT && type != DataType.UINT_56BIT)) {
+	public void storeLongUint(String name, long data) {
+		if(data < 0) {
+			throw new IllegalArgumentException("Can't store negative number in a UINT");
+		}
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.UINT_8BIT && type != DataType.UINT_16BIT && type != DataType.UINT_24BIT && type != DataType.UINT_32BIT &&
+				type != DataType.UINT_40BIT && type != DataType.UINT_48BIT && type != DataType.UINT_56BIT &&
+				type != DataType.VARUINT) {
 			throw new InvalidSearchException();
 		}
-		return getLongUint(start, type);
+		storeLongUint(start, type, data);
 	}
 	
 	/**
-	 * <p>Gets an unsigned integer from the file at the specified starting position</p>
-	 * <p>Reads the data as the given type, but ignores the actual type</p>
+	 * <p>Stores an unsigned integer in the file at the specified position</p>
+	 * <p>Stores data as the given type, but ignores the actual type</p>
 	 * <p>The given type must be one of the following:</p>
 	 * <ul>
 	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
@@ -434,572 +2743,868 @@ public class Save {
 	 * <li>{@link DataType#UINT_40BIT UINT_40BIT}</li>
 	 * <li>{@link DataType#UINT_48BIT UINT_48BIT}</li>
 	 * <li>{@link DataType#UINT_56BIT UINT_56BIT}</li>
-	 * </ul>
+	 * <li>{@link DataType#VARUINT VARUINT}</li>
 	 * @param start	The starting position of the data
-	 * @param type	The type of the data
-	 * @return		The unsigned integer stored
+	 * @param type	The type of the data to store
+	 * @param data	The data to store
 	 */
-	private long getLongUint(int start, DataType type) {
-		ByteBuffer buffer = ByteBuffer.allocate(8);
-		switch(type) {
-		case UINT_56BIT:
-			buffer.put(1, bytes[start + 6]);
-		case UINT_48BIT:
-			buffer.put(2, bytes[start + 5]);
-		case UINT_40BIT:
-			buffer.put(3, bytes[start + 4]);
-		case UINT_32BIT:
-			buffer.put(4, bytes[start + 3]);
-		case UINT_24BIT:
-			buffer.put(5, bytes[start + 2]);
-		case UINT_16BIT:
-			buffer.put(6, bytes[start + 1]);
-		default:
-			buffer.put(7, bytes[start]);
-			break;
-		}
-		return buffer.getLong();
+	void storeLongUint(int start, DataType type, long data) {
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start, type.getLength());
+			Codec.put(buffer, start, type.getLength(), data);
+			markDirty(start, type.getLength());
+		} finally {
+			unlockWrite(start, stamp);
+		}
 	}
 	
 	/**
-	 * <p>Gets a {@code char} from the file with the specified name</p>
-	 * <p>Data must be of type {@link DataType#CHAR_ASCII CHAR_ASCII} OR {@link DataType#CHAR_UNICODE CHAR_UNICODE}</p>
-	 * <p>If the length of the data stored at the specified name is larger than 1, returns only the first value</p>
-	 * <p>Use {@link #getString(String) getString} to get all values</p>
+	 * <p>Stores one value of a packed integer datapoint in the file at the specified name</p>
+	 * <p>Data must be of type {@link DataType#PACKED_INT PACKED_INT} or {@link DataType#PACKED_UINT PACKED_UINT}</p>
 	 * @param name	The name of the data
-	 * @return		The {@code char} stored
+	 * @param index	The index of the value within the datapoint
+	 * @param data	The integer to store
+	 * @throws IndexOutOfBoundsException	if the index is outside of the datapoint
+	 * @throws IllegalArgumentException		if the integer does not fit in the bit width of the datapoint
 	 */
-	public char getChar(String name) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || (type != DataType.CHAR_ASCII && type != DataType.CHAR_UNICODE)) {
+	public void storePacked(String name, int index, long data) {
+		Field field = getField(name);
+		if(field.getBits() == 0 || isDelta(field.getType())) {
 			throw new InvalidSearchException();
 		}
-		if(type == DataType.CHAR_ASCII) {
-			return (char) (bytes[start] & 0b01111111);
+		checkRange(field, index, 1, 1, 0);
+		checkPacked(field.getType(), field.getBits(), data);
+		storePacked(field.getStart(), field.getBits(), index, data);
+	}
+	
+	/**
+	 * Stores one value of packed integers in the file at the specified position, leaving the others as they are
+	 * @param start	The starting position of the packed integers
+	 * @param bits	The bit width of each integer
+	 * @param index	The index of the value
+	 * @param data	The integer to store; bits above the given width are discarded
+	 */
+	void storePacked(int start, int bits, int index, long data) {
+		long bit = (long) index * bits;
+		int pos = start + (int) (bit >>> 3);
+		int len = packedBytes(bit, bits);
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(pos, len);
+			Codec.putPacked(buffer, start, bits, index, data);
+			markDirty(pos, len);
+		} finally {
+			unlockWrite(start, stamp);
 		}
-		return getUnicodeChar(start);
 	}
 	
 	/**
-	 * <p>Gets a {@code char} from the file at the specified position</p>
-	 * <p>Reads the data as type {@link DataType#CHAR_UNICODE CHAR_UNICODE}, but ignores the actual type</p>
-	 * @param start	The starting position of the data
-	 * @return		The {@code char} stored
+	 * Stores consecutive values of packed integers in the file at the specified position, leaving the others as they
+	 * are
+	 * @param start	The starting position of the packed integers
+	 * @param bits	The bit width of each integer
+	 * @param index	The index of the first value
+	 * @param src	The array from which the values are stored; bits above the given width are discarded
+	 * @param off	The index in {@code src} of the first value
+	 * @param count	The number of values to store
 	 */
-	private char getUnicodeChar(int start) {
-		int out = 0;
-		out += bytes[start + 1] << 8 & 0xff;
-		out += bytes[start] & 0xff;
-		return (char) out;
+	void storePacked(int start, int bits, int index, long[] src, int off, int count) {
+		long bit = (long) index * bits;
+		int pos = start + (int) (bit >>> 3);
+		int len = packedBytes(bit, (long) count * bits);
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(pos, len);
+			Codec.putPacked(buffer, start, bits, index, src, off, count);
+			markDirty(pos, len);
+		} finally {
+			unlockWrite(start, stamp);
+		}
 	}
 	
 	/**
-	 * <p>Gets a {@code String} from the file with the specified name</p>
+	 * <p>Stores a {@code char} in the file at the specified name</p>
 	 * <p>Data must be of type {@link DataType#CHAR_ASCII CHAR_ASCII} OR {@link DataType#CHAR_UNICODE CHAR_UNICODE}</p>
 	 * @param name	The name of the data
-	 * @return		The {@code String} stored
+	 * @param data	The {@code char} to store
 	 */
-	public String getString(String name) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || (type != DataType.CHAR_ASCII && type != DataType.CHAR_UNICODE)) {
+	public void storeChar(String name, char data) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.CHAR_ASCII && type != DataType.CHAR_UNICODE) {
 			throw new InvalidSearchException();
 		}
-		int len = sd.getLengthOf(name);
 		if(type == DataType.CHAR_ASCII) {
-			return getASCIIString(start, len);
+			long stamp = lockWrite(start);
+			try {
+				beforeWrite(start, 1);
+				buffer.put(start, (byte) (data & 0b01111111));
+				markDirty(start, 1);
+			} finally {
+				unlockWrite(start, stamp);
+			}
+			return;
 		}
-		return getUnicodeString(start, len);
+		storeUint(start, DataType.UINT_16BIT, (int) data);
 	}
 	
 	/**
-	 * <p>Gets a {@code String} from the file with the specified name</p>
-	 * <p>Reads data as type {@link DataType#CHAR_ASCII CHAR_ASCII}, but ignores the actual type</p>
+	 * <p>Stores a {@code String} in the file at the specified name</p>
+	 * <p>Data must be of type {@link DataType#CHAR_ASCII CHAR_ASCII}, {@link DataType#CHAR_UNICODE CHAR_UNICODE} OR
+	 * {@link DataType#CHAR_UTF8 CHAR_UTF8}</p>
+	 * <p>If Data is of type {@code DataType.CHAR_UTF8}, a {@code String} whose encoding is longer than the datapoint is
+	 * truncated to the last whole character which fits</p>
+	 * @param name	The name of the data
+	 * @param data	The {@code String} to store
+	 */
+	public void storeString(String name, String data) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.CHAR_ASCII && type != DataType.CHAR_UNICODE && type != DataType.CHAR_UTF8) {
+			throw new InvalidSearchException();
+		}
+		storeString(start, field.getLength(), type, data);
+	}
+	
+	/**
+	 * <p>Stores a {@code String} in the file at the specified position</p>
+	 * <p>Stores data as the given type, but ignores the actual type</p>
+	 * <p>The given type must be {@link DataType#CHAR_ASCII CHAR_ASCII}, {@link DataType#CHAR_UNICODE CHAR_UNICODE} OR
+	 * {@link DataType#CHAR_UTF8 CHAR_UTF8}</p>
 	 * @param start	The starting position of the data
-	 * @param len	The length of the data in bytes
-	 * @return		The {@code String} stored
+	 * @param dlen	The length of the field in which the data will be stored
+	 * @param type	The type of the data to store
+	 * @param data	The data to store
 	 */
-	private String getASCIIString(int start, int len) {
-		String out = "";
-		for(int i = 0;i < len;i++) {
-			out += (char) bytes[start + i];
+	void storeString(int start, int dlen, DataType type, String data) {
+		if(type == DataType.CHAR_UTF8) {
+			storeUTF8String(start, dlen, data);
+			return;
+		}
+		int strlen = data.length();
+		int width = type == DataType.CHAR_ASCII ? 1 : 2;
+		if(strlen * width > dlen) {
+			System.out.println("WARNING: STORING DATA AT BYTE INDEX " + start + " WHICH WILL BE TRUNCATED");
+		}
+		int n = Math.min(strlen, dlen / width);
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start, dlen);
+			if(type == DataType.CHAR_ASCII) {
+				for(int i = 0;i < n;i++) {
+					buffer.put(start + i, (byte) (data.charAt(i) & 0b01111111));
+				}
+			} else {
+				//handle unicode
+				for(int i = 0;i < n;i++) {
+					buffer.putChar(start + i * 2, data.charAt(i));
+				}
+			}
+			for(int i = n * width;i < dlen;i++) {
+				buffer.put(start + i, (byte) 0);
+			}
+			markDirty(start, dlen);
+		} finally {
+			unlockWrite(start, stamp);
 		}
-		out = out.replace("\0", "");
-		return out;
 	}
 	
 	/**
-	 * <p>Gets a {@code String} from the file with the specified name</p>
-	 * <p>Reads data as type {@link DataType#CHAR_UNICODE CHAR_UNICODE}, but ignores the actual type</p>
+	 * <p>Stores a {@code String} in the file at the specified position</p>
+	 * <p>Stores the data as type {@link DataType#CHAR_UTF8 CHAR_UTF8}, but ignores the actual type</p>
 	 * @param start	The starting position of the data
-	 * @param len	The length of the data in bytes
-	 * @return		The {@code String} stored
+	 * @param dlen	The length of the field in which the data will be stored
+	 * @param data	The data to store
 	 */
-	private String getUnicodeString(int start, int len) {
-		String out = "";
-		for(int i = 0;i < len;i += 2) {
-			out += (char) (getUint(start + i, DataType.UINT_16BIT));
+	private void storeUTF8String(int start, int dlen, String data) {
+		byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+		int n = bytes.length;
+		if(n > dlen) {
+			System.out.println("WARNING: STORING DATA AT BYTE INDEX " + start + " WHICH WILL BE TRUNCATED");
+			n = dlen;
+			//do not split a multi-byte character
+			while(n > 0 && (bytes[n] & 0b11000000) == 0b10000000) {
+				n--;
+			}
+		}
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start, dlen);
+			Codec.putBytes(buffer, start, bytes, 0, n);
+			for(int i = n;i < dlen;i++) {
+				buffer.put(start + i, (byte) 0);
+			}
+			markDirty(start, dlen);
+		} finally {
+			unlockWrite(start, stamp);
 		}
-		return out;
 	}
 	
 	/**
-	 * <p>Gets a {@code float} from the file with the specified name</p>
+	 * <p>Stores a {@code float} in the file at the specified name</p>
 	 * <p>Data must be of type {@link DataType#FLOAT FLOAT}</p>
 	 * @param name	The name of the data
-	 * @return		The {@code float} stored
+	 * @param data	The {@code float} to store
 	 */
-	public float getFloat(String name) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || type != DataType.FLOAT) {
+	public void storeFloat(String name, float data) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.FLOAT) {
 			throw new InvalidSearchException();
 		}
-		ByteBuffer buffer = ByteBuffer.allocate(4);
-		buffer.put(new byte[] { bytes[start], bytes[start + 1], bytes[start + 2], bytes[start + 3] });
-		return buffer.getFloat(0);
+		storeFloat(start, data);
 	}
 	
 	/**
-	 * <p>Gets a {@code double} from the file with the specified name</p>
+	 * <p>Stores a {@code float} in the file at the specified position</p>
+	 * <p>Stores the data as type {@link DataType#FLOAT FLOAT}, but ignores the actual type</p>
+	 * @param start	The starting position of the data
+	 * @param data	The data to store
+	 */
+	void storeFloat(int start, float data) {
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start, 4);
+			Codec.putIntBE(buffer, start, Float.floatToRawIntBits(data));
+			markDirty(start, 4);
+		} finally {
+			unlockWrite(start, stamp);
+		}
+	}
+	
+	/**
+	 * <p>Stores a {@code double} in the file at the specified name</p>
 	 * <p>Data must be of type {@link DataType#DOUBLE DOUBLE}</p>
 	 * @param name	The name of the data
-	 * @return		The {@code double} stored
+	 * @param data	The {@code double} to store
 	 */
-	public double getDouble(String name) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || type != DataType.DOUBLE) {
+	public void storeDouble(String name, double data) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.DOUBLE) {
 			throw new InvalidSearchException();
 		}
-		ByteBuffer buffer = ByteBuffer.allocate(8);
-		buffer.put(new byte[] { bytes[start], bytes[start + 1], bytes[start + 2], bytes[start + 3],
-				bytes[start + 4], bytes[start + 5], bytes[start + 6], bytes[start + 7] });
-		return buffer.getDouble(0);
+		storeDouble(start, data);
 	}
 	
+	/**
+	 * <p>Stores a {@code double} in the file at the specified position</p>
+	 * <p>Stores the data as type {@link DataType#DOUBLE DOUBLE}, but ignores the actual type</p>
+	 * @param start	The starting position of the data
+	 * @param data	The data to store
+	 */
+	void storeDouble(int start, double data) {
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start, 8);
+			Codec.putLongBE(buffer, start, Double.doubleToRawLongBits(data));
+			markDirty(start, 8);
+		} finally {
+			unlockWrite(start, stamp);
+		}
+	}
 	
 	/**
-	 * <p>Stores a {@code byte} in the file at the specified name</p>
-	 * <p>Data must be of type {@link DataType#BYTE BYTE}</p>
+	 * <p>Stores a {@code int[]} in every value of a multi-length datapoint in the file at the specified name</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
+	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
+	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
+	 * </ul>
+	 * <p>If the array is shorter than the datapoint, the remaining values are set to zero</p>
 	 * @param name	The name of the data
-	 * @param data	The {@code byte} to store
+	 * @param data	The {@code int[]} to store
 	 */
-	public void storeByte(String name, byte data) {
-		storeBytes(name, new byte[] { data });
+	public void storeInts(String name, int[] data) {
+		Field field = getField(name);
+		int width = field.getType().getLength();
+		int count = field.getLength() / width;
+		if(data.length > count) {
+			System.out.println("WARNING: STORING DATA IN " + name + " WHICH WILL BE TRUNCATED");
+		}
+		storeInts(name, 0, data, 0, Math.min(count, data.length));
+		if(data.length < count) {
+			storeZeros(field.getStart(), data.length * width, (count - data.length) * width);
+		}
 	}
 	
 	/**
-	 * <p>Stores a {@code byte[]} in the file at the specified name</p>
-	 * <p>Data must be of type {@link DataType#BYTE BYTE}</p>
+	 * <p>Stores a range of the values of a multi-length datapoint in the file at the specified name</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
+	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
+	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
+	 * </ul>
 	 * @param name	The name of the data
-	 * @param data	The {@code byte[]} to store
+	 * @param index	The index within the datapoint of the first value to store
+	 * @param src	The array from which the values are stored
+	 * @param off	The index in {@code src} of the first value
+	 * @param count	The number of values to store
+	 * @throws IndexOutOfBoundsException	if the range is outside of the datapoint or of {@code src}
 	 */
-	public void storeBytes(String name, byte[] data) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || type != DataType.BYTE) {
+	public void storeInts(String name, int index, int[] src, int off, int count) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(checkIntType(type)) {
 			throw new InvalidSearchException();
 		}
-		int len = sd.getLengthOf(name);
-		if(data.length > len) {
-			System.out.println("WARNING: STORING DATA IN " + name + " WHICH WILL BE TRUNCATED");
-		}
-		for(int i = 0;i < len;i++) {
-			if(data.length <= i) {
-				bytes[start + i] = 0;
-			} else {
-				bytes[start + i] = data[i];
+		int width = type.getLength();
+		checkRange(field, index, count, src.length, off);
+		if(!isSigned(type)) {
+			for(int i = 0;i < count;i++) {
+				if(src[off + i] < 0) {
+					throw new IllegalArgumentException("Can't store negative number in a UINT");
+				}
 			}
 		}
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start + index * width, count * width);
+			Codec.putInts(buffer, start + index * width, width, src, off, count);
+			markDirty(start + index * width, count * width);
+		} finally {
+			unlockWrite(start, stamp);
+		}
 	}
 	
 	/**
-	 * <p>Stores a {@code byte[]} in the file at the specified name</p>
-	 * <p>Ignores the type of the data and stores raw bytes</p>
-	 * @param start	The starting position of the data
-	 * @param data	The data to store
-	 * @param dlen	The length of the field in which the data will be stored
+	 * <p>Stores a {@code long[]} in every value of a multi-length datapoint in the file at the specified name</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>Any signed integer type, from {@link DataType#INT_8BIT INT_8BIT} to {@link DataType#INT_64BIT INT_64BIT}</li>
+	 * <li>Any unsigned integer type, from {@link DataType#UINT_8BIT UINT_8BIT} to {@link DataType#UINT_56BIT UINT_56BIT}</li>
+	 * <li>{@link DataType#PACKED_INT PACKED_INT} or {@link DataType#PACKED_UINT PACKED_UINT}</li>
+	 * <li>{@link DataType#DELTA_INT DELTA_INT} or {@link DataType#DELTA_DELTA_INT DELTA_DELTA_INT}</li>
+	 * </ul>
+	 * <p>If the array is shorter than the datapoint, the remaining values are set to zero</p>
+	 * @param name	The name of the data
+	 * @param data	The {@code long[]} to store
 	 */
-	private void storeBytes(int start, byte[] data, int dlen) {
-		if(data.length > dlen) {
-			System.out.println("WARNING: STORING DATA AT BYTE INDEX " + start + " WHICH WILL BE TRUNCATED");
+	public void storeLongs(String name, long[] data) {
+		Field field = getField(name);
+		int width = field.getType().getLength();
+		int count = field.getCount();
+		if(data.length > count) {
+			System.out.println("WARNING: STORING DATA IN " + name + " WHICH WILL BE TRUNCATED");
 		}
-		for(int i = 0;i < dlen;i++) {
-			if(data.length <= i) {
-				bytes[start + i] = 0;
-			} else {
-				bytes[start + i] = data[i];
-			}
+		if(field.getBits() > 0) {
+			storeLongs(name, 0, Arrays.copyOf(data, count), 0, count);
+			return;
+		}
+		storeLongs(name, 0, data, 0, Math.min(count, data.length));
+		if(data.length < count) {
+			storeZeros(field.getStart(), data.length * width, (count - data.length) * width);
 		}
 	}
 	
 	/**
-	 * <p>Stores a {@code boolean} in the file at the specified name</p>
-	 * <p>Data must be of type {@link DataType#BOOL BOOL}</p>
+	 * <p>Stores a range of the values of a multi-length datapoint in the file at the specified name</p>
+	 * <p>Data must be of one of the following types:</p>
+	 * <ul>
+	 * <li>Any signed integer type, from {@link DataType#INT_8BIT INT_8BIT} to {@link DataType#INT_64BIT INT_64BIT}</li>
+	 * <li>Any unsigned integer type, from {@link DataType#UINT_8BIT UINT_8BIT} to {@link DataType#UINT_56BIT UINT_56BIT}</li>
+	 * <li>{@link DataType#PACKED_INT PACKED_INT} or {@link DataType#PACKED_UINT PACKED_UINT}</li>
+	 * <li>{@link DataType#DELTA_INT DELTA_INT} or {@link DataType#DELTA_DELTA_INT DELTA_DELTA_INT}</li>
+	 * </ul>
 	 * @param name	The name of the data
-	 * @param data	The {@code boolean} to store
+	 * @param index	The index within the datapoint of the first value to store
+	 * @param src	The array from which the values are stored
+	 * @param off	The index in {@code src} of the first value
+	 * @param count	The number of values to store
+	 * @throws IndexOutOfBoundsException	if the range is outside of the datapoint or of {@code src}
 	 */
-	public void storeBool(String name, boolean data) {
-		storeBools(name, new boolean[] { data });
+	public void storeLongs(String name, int index, long[] src, int off, int count) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(isDelta(type)) {
+			checkRange(field, index, count, src.length, off);
+			storeDeltas(field, index, src, off, count);
+			return;
+		}
+		if(field.getBits() > 0) {
+			checkRange(field, index, count, src.length, off);
+			for(int i = 0;i < count;i++) {
+				checkPacked(type, field.getBits(), src[off + i]);
+			}
+			storePacked(start, field.getBits(), index, src, off, count);
+			return;
+		}
+		if(checkLongType(type)) {
+			throw new InvalidSearchException();
+		}
+		int width = type.getLength();
+		checkRange(field, index, count, src.length, off);
+		if(!isSigned(type)) {
+			for(int i = 0;i < count;i++) {
+				if(src[off + i] < 0) {
+					throw new IllegalArgumentException("Can't store negative number in a UINT");
+				}
+			}
+		}
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start + index * width, count * width);
+			Codec.putLongs(buffer, start + index * width, width, src, off, count);
+			markDirty(start + index * width, count * width);
+		} finally {
+			unlockWrite(start, stamp);
+		}
 	}
 	
 	/**
-	 * <p>Stores a {@code boolean[]} in the file at the specified name</p>
-	 * <p>Data must be of type {@link DataType#BOOL BOOL} OR {@link DataType#BOOLS_8 BOOLS_8}</p>
-	 * <p>If Data is of type {@code DataType.BOOLS_8}, the array's size must be a multiple of 8</p>
+	 * <p>Stores a {@code float[]} in every value of a multi-length datapoint in the file at the specified name</p>
+	 * <p>Data must be of type {@link DataType#FLOAT FLOAT}</p>
+	 * <p>If the array is shorter than the datapoint, the remaining values are set to zero</p>
 	 * @param name	The name of the data
-	 * @param data	The {@code boolean[]} to store
+	 * @param data	The {@code float[]} to store
 	 */
-	public void storeBools(String name, boolean[] data) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || (type != DataType.BOOL && type != DataType.BOOLS_8)) {
-			throw new InvalidSearchException();
+	public void storeFloats(String name, float[] data) {
+		Field field = getField(name);
+		int width = field.getType().getLength();
+		int count = field.getLength() / width;
+		if(data.length > count) {
+			System.out.println("WARNING: STORING DATA IN " + name + " WHICH WILL BE TRUNCATED");
 		}
-		int len = sd.getLengthOf(name);
-		if(type == DataType.BOOL) {
-			storeLongBools(start, data, len);
-		} else {
-			storeShortBools(start, data, len);
+		storeFloats(name, 0, data, 0, Math.min(count, data.length));
+		if(data.length < count) {
+			storeZeros(field.getStart(), data.length * width, (count - data.length) * width);
 		}
 	}
 	
 	/**
-	 * <p>Stores a {@code boolean[]} in the file at the specified position</p>
-	 * <p>Stores the data as type {@link DataType#BOOLS_8}, but ignores the actual type</p>
-	 * @param start	The starting position of the data
-	 * @param data	The data to be stored
-	 * @param dlen	The length of the field in which the data will be stored
+	 * <p>Stores a range of the values of a multi-length datapoint in the file at the specified name</p>
+	 * <p>Data must be of type {@link DataType#FLOAT FLOAT}</p>
+	 * @param name	The name of the data
+	 * @param index	The index within the datapoint of the first value to store
+	 * @param src	The array from which the values are stored
+	 * @param off	The index in {@code src} of the first value
+	 * @param count	The number of values to store
+	 * @throws IndexOutOfBoundsException	if the range is outside of the datapoint or of {@code src}
 	 */
-	private void storeLongBools(int start, boolean[] data, int dlen) {
-		int len = data.length;
-		byte[] store = new byte[len];
-		for(int i = 0;i < len;i++) {
-			store[i] = data[i] ? (byte) 0xff : (byte) 0x00;
+	public void storeFloats(String name, int index, float[] src, int off, int count) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.FLOAT) {
+			throw new InvalidSearchException();
+		}
+		int width = type.getLength();
+		checkRange(field, index, count, src.length, off);
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start + index * width, count * width);
+			Codec.putFloats(buffer, start + index * width, src, off, count);
+			markDirty(start + index * width, count * width);
+		} finally {
+			unlockWrite(start, stamp);
 		}
-		storeBytes(start, store, dlen);
 	}
 	
 	/**
-	 * <p>Stores a {@code boolean[]} in the file at the specified position</p>
-	 * <p>Stores the data as type {@link DataType#BOOL}, but ignores the actual type</p>
-	 * @param start	The starting position of the data
-	 * @param data	The data to be stored
-	 * @param dlen	The length of the field in which the data will be stored
+	 * <p>Stores a {@code double[]} in every value of a multi-length datapoint in the file at the specified name</p>
+	 * <p>Data must be of type {@link DataType#DOUBLE DOUBLE}</p>
+	 * <p>If the array is shorter than the datapoint, the remaining values are set to zero</p>
+	 * @param name	The name of the data
+	 * @param data	The {@code double[]} to store
 	 */
-	private void storeShortBools(int start, boolean[] data, int dlen) {
-		if(data.length % 8 != 0) {
-			throw new IllegalArgumentException("Number of booleans for type BOOLS_8 must be a multiple of 8");
+	public void storeDoubles(String name, double[] data) {
+		Field field = getField(name);
+		int width = field.getType().getLength();
+		int count = field.getLength() / width;
+		if(data.length > count) {
+			System.out.println("WARNING: STORING DATA IN " + name + " WHICH WILL BE TRUNCATED");
 		}
-		int len = data.length / 8;
-		byte[] store = new byte[len];
-		for(int i = 0;i < len;i++) {
-			byte b = 0;
-			for(int j = 0;j < 8;j++) {
-				byte c = data[(i * 8) + j] ? (byte) 1 : (byte) 0;
-				c = (byte) (c << (7 - j));
-				b = (byte) (b | c);
-			}
-			store[i] = b;
+		storeDoubles(name, 0, data, 0, Math.min(count, data.length));
+		if(data.length < count) {
+			storeZeros(field.getStart(), data.length * width, (count - data.length) * width);
 		}
-		storeBytes(start, store, dlen);
 	}
 	
 	/**
-	 * <p>Stores a signed integer in the file at the specified name</p>
-	 * <p>Data must be of one of the following types:</p>
-	 * <ul>
-	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
-	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
-	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
-	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
-	 * </ul>
+	 * <p>Stores a range of the values of a multi-length datapoint in the file at the specified name</p>
+	 * <p>Data must be of type {@link DataType#DOUBLE DOUBLE}</p>
 	 * @param name	The name of the data
-	 * @param data	The signed integer to store
+	 * @param index	The index within the datapoint of the first value to store
+	 * @param src	The array from which the values are stored
+	 * @param off	The index in {@code src} of the first value
+	 * @param count	The number of values to store
+	 * @throws IndexOutOfBoundsException	if the range is outside of the datapoint or of {@code src}
 	 */
-	public void storeInt(String name, int data) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || (type != DataType.INT_8BIT && type != DataType.INT_16BIT
-				&& type != DataType.INT_24BIT && type != DataType.INT_32BIT)) {
+	public void storeDoubles(String name, int index, double[] src, int off, int count) {
+		Field field = getField(name);
+		int start = field.getStart();
+		DataType type = field.getType();
+		if(type != DataType.DOUBLE) {
 			throw new InvalidSearchException();
 		}
-		if(type == DataType.INT_8BIT) {
-			storeBytes(start, new byte[] { (byte) (data & 0xff) }, 1);
-			return;
-		}
-		if(type == DataType.INT_16BIT) {
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff) }, 2);
-			return;
-		}
-		if(type == DataType.INT_24BIT) {
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff), (byte) (data >> 16 & 0xff) }, 3);
-			return;
+		int width = type.getLength();
+		checkRange(field, index, count, src.length, off);
+		long stamp = lockWrite(start);
+		try {
+			beforeWrite(start + index * width, count * width);
+			Codec.putDoubles(buffer, start + index * width, src, off, count);
+			markDirty(start + index * width, count * width);
+		} finally {
+			unlockWrite(start, stamp);
 		}
-		storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff), (byte) (data >> 16 & 0xff), (byte) (data >> 24 & 0xff) }, 4);
 	}
 	
 	/**
-	 * <p>Stores a signed integer in the file at the specified name</p>
+	 * <p>Atomically sets an integer in the file at the specified name to a new value, if it holds the expected value</p>
 	 * <p>Data must be of one of the following types:</p>
 	 * <ul>
 	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
 	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
-	 * <li>{@link DataType#INT_24BIT INT_24BIT}</li>
 	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
-	 * <li>{@link DataType#INT_40BIT INT_40BIT}</li>
-	 * <li>{@link DataType#INT_48BIT INT_48BIT}</li>
-	 * <li>{@link DataType#INT_56BIT INT_56BIT}</li>
 	 * <li>{@link DataType#INT_64BIT INT_64BIT}</li>
+	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
+	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
+	 * <li>{@link DataType#UINT_32BIT UINT_32BIT}</li>
+	 * <li>{@link DataType#BOOLS_8 BOOLS_8}, where the value is the stored byte</li>
 	 * </ul>
-	 * @param name	The name of the data
-	 * @param data	The signed integer to store
+	 * <p>The update is lock-free if the data is aligned, which is always the case for datapoints created with
+	 * {@link Data#Data(String, DataType, int, boolean) aligned} set. Otherwise it holds a lock, which only excludes
+	 * other atomic updates and, if this object is concurrent, other writes to the same datapoint</p>
+	 * @param name		The name of the data
+	 * @param expected	The value the data must hold
+	 * @param data		The new value
+	 * @return			{@code true} if the data held the expected value and was updated
 	 */
-	public void storeLongInt(String name, long data) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || (type != DataType.INT_8BIT && type != DataType.INT_16BIT && type != DataType.INT_24BIT && type != DataType.INT_32BIT &&
-				type != DataType.INT_40BIT && type != DataType.INT_48BIT && type != DataType.INT_56BIT && type != DataType.INT_64BIT)) {
+	public boolean compareAndSet(String name, long expected, long data) {
+		Field field = getField(name);
+		DataType type = field.getType();
+		if(checkAtomicType(type)) {
 			throw new InvalidSearchException();
 		}
-		switch(type) {
-		case INT_8BIT:
-			storeBytes(start, new byte[] { (byte) (data & 0xff) }, 1);
-			return;
-		case INT_16BIT:
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff) }, 2);
-			return;
-		case INT_24BIT:
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff), (byte) (data >> 16 & 0xff) }, 3);
-			return;
-		case INT_32BIT:
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff), (byte) (data >> 16 & 0xff), (byte) (data >> 24 & 0xff) }, 4);
-			return;
-		case INT_40BIT:
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff), (byte) (data >> 16 & 0xff), (byte) (data >> 24 & 0xff),
-					(byte) (data >> 32 & 0xff) }, 5);
-			return;
-		case INT_48BIT:
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff), (byte) (data >> 16 & 0xff), (byte) (data >> 24 & 0xff),
-					(byte) (data >> 32 & 0xff), (byte) (data >> 40 & 0xff) }, 6);
-			return;
-		case INT_56BIT:
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff), (byte) (data >> 16 & 0xff), (byte) (data >> 24 & 0xff),
-					(byte) (data >> 32 & 0xff), (byte) (data >> 40 & 0xff), (byte) (data >> 48 & 0xff) }, 7);
-			return;
-		default:
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff), (byte) (data >> 16 & 0xff), (byte) (data >> 24 & 0xff),
-					(byte) (data >> 32 & 0xff), (byte) (data >> 40 & 0xff), (byte) (data >> 48 & 0xff), (byte) (data >> 56 & 0xff) }, 8);
-		}
+		return compareAndSet(field.getStart(), type, expected, data);
 	}
 	
 	/**
-	 * <p>Stores an unsigned integer in the file at the specified name</p>
+	 * <p>Atomically adds to an integer in the file at the specified name</p>
 	 * <p>Data must be of one of the following types:</p>
 	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * <li>{@link DataType#INT_64BIT INT_64BIT}</li>
 	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
 	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
-	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
+	 * <li>{@link DataType#UINT_32BIT UINT_32BIT}</li>
 	 * </ul>
+	 * <p>The result wraps around if it does not fit in the type</p>
 	 * @param name	The name of the data
-	 * @param data	The unsigned integer to store
+	 * @param delta	The value to add
+	 * @return		The previous value
+	 * @see #compareAndSet(String, long, long) compareAndSet
 	 */
-	public void storeUint(String name, int data) {
-		if(data < 0) {
-			throw new IllegalArgumentException("Can't store negative number in a UINT");
-		}
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || (type != DataType.UINT_8BIT && type != DataType.UINT_16BIT
-				&& type != DataType.UINT_24BIT)) {
+	public long getAndAdd(String name, long delta) {
+		Field field = getField(name);
+		DataType type = field.getType();
+		if(type == DataType.BOOLS_8 || checkAtomicType(type)) {
 			throw new InvalidSearchException();
 		}
-		storeUint(start, type, data);
+		return getAndUpdate(field.getStart(), type, Atomics.Op.ADD, delta);
 	}
 	
 	/**
-	 * <p>Stores an unsigned integer in the file at the specified position</p>
-	 * <p>Stores data as the given type, but ignores the actual type</p>
-	 * <p>The given type must be one of the following:</p>
+	 * <p>Atomically sets an integer in the file at the specified name</p>
+	 * <p>Data must be of one of the following types:</p>
 	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * <li>{@link DataType#INT_64BIT INT_64BIT}</li>
 	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
 	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
-	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
-	 * @param start	The starting position of the data
-	 * @param type	The type of the data to store
-	 * @param data	The data to store
+	 * <li>{@link DataType#UINT_32BIT UINT_32BIT}</li>
+	 * <li>{@link DataType#BOOLS_8 BOOLS_8}, where the value is the stored byte</li>
+	 * </ul>
+	 * @param name	The name of the data
+	 * @param data	The new value
+	 * @return		The previous value
+	 * @see #compareAndSet(String, long, long) compareAndSet
 	 */
-	private void storeUint(int start, DataType type, int data) {
-		if(type == DataType.UINT_8BIT) {
-			storeBytes(start, new byte[] { (byte) (data & 0xff) }, 1);
-			return;
-		}
-		if(type == DataType.UINT_16BIT) {
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff) }, 2);
-			return;
+	public long getAndSet(String name, long data) {
+		Field field = getField(name);
+		DataType type = field.getType();
+		if(checkAtomicType(type)) {
+			throw new InvalidSearchException();
 		}
-		storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff), (byte) (data >> 16 & 0xff) }, 3);
+		return getAndUpdate(field.getStart(), type, Atomics.Op.SET, data);
 	}
 	
 	/**
-	 * <p>Stores an unsigned integer in the file at the specified name</p>
+	 * <p>Atomically sets bits of an integer in the file at the specified name</p>
 	 * <p>Data must be of one of the following types:</p>
 	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * <li>{@link DataType#INT_64BIT INT_64BIT}</li>
 	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
 	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
-	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
 	 * <li>{@link DataType#UINT_32BIT UINT_32BIT}</li>
-	 * <li>{@link DataType#UINT_40BIT UINT_40BIT}</li>
-	 * <li>{@link DataType#UINT_48BIT UINT_48BIT}</li>
-	 * <li>{@link DataType#UINT_56BIT UINT_56BIT}</li>
+	 * <li>{@link DataType#BOOLS_8 BOOLS_8}, where boolean {@code i} of the byte is the bit {@code 0x80 >>> i}</li>
 	 * </ul>
 	 * @param name	The name of the data
-	 * @param data	The unsigned integer to store
+	 * @param bits	The bits to set
+	 * @return		The previous value
+	 * @see #compareAndSet(String, long, long) compareAndSet
 	 */
-	public void storeLongUint(String name, long data) {
-		if(data < 0) {
-			throw new IllegalArgumentException("Can't store negative number in a UINT");
-		}
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1) {
-			throw new InvalidSearchException();
-		}
-		if(type == DataType.UINT_8BIT || type == DataType.UINT_16BIT || type == DataType.UINT_24BIT) {
-			storeUint(start, type, (int) data);
-		} else if(type == DataType.UINT_32BIT || type == DataType.UINT_40BIT || type == DataType.UINT_48BIT || type == DataType.UINT_56BIT) {
-			storeLongUint(start, type, data);
-		} else {
+	public long getAndOr(String name, long bits) {
+		Field field = getField(name);
+		DataType type = field.getType();
+		if(checkAtomicType(type)) {
 			throw new InvalidSearchException();
 		}
+		return getAndUpdate(field.getStart(), type, Atomics.Op.OR, bits);
 	}
 	
 	/**
-	 * <p>Stores an unsigned integer in the file at the specified position</p>
-	 * <p>Stores data as the given type, but ignores the actual type</p>
-	 * <p>The given type must be one of the following:</p>
+	 * <p>Atomically clears bits of an integer in the file at the specified name</p>
+	 * <p>Data must be of one of the following types:</p>
 	 * <ul>
+	 * <li>{@link DataType#INT_8BIT INT_8BIT}</li>
+	 * <li>{@link DataType#INT_16BIT INT_16BIT}</li>
+	 * <li>{@link DataType#INT_32BIT INT_32BIT}</li>
+	 * <li>{@link DataType#INT_64BIT INT_64BIT}</li>
 	 * <li>{@link DataType#UINT_8BIT UINT_8BIT}</li>
 	 * <li>{@link DataType#UINT_16BIT UINT_16BIT}</li>
-	 * <li>{@link DataType#UINT_24BIT UINT_24BIT}</li>
 	 * <li>{@link DataType#UINT_32BIT UINT_32BIT}</li>
-	 * <li>{@link DataType#UINT_40BIT UINT_40BIT}</li>
-	 * <li>{@link DataType#UINT_48BIT UINT_48BIT}</li>
-	 * <li>{@link DataType#UINT_56BIT UINT_56BIT}</li>
-	 * @param start	The starting position of the data
-	 * @param type	The type of the data to store
-	 * @param data	The data to store
+	 * <li>{@link DataType#BOOLS_8 BOOLS_8}, where boolean {@code i} of the byte is the bit {@code 0x80 >>> i}</li>
+	 * </ul>
+	 * @param name	The name of the data
+	 * @param bits	The bits to keep; every other bit is cleared
+	 * @return		The previous value
+	 * @see #compareAndSet(String, long, long) compareAndSet
 	 */
-	private void storeLongUint(int start, DataType type, long data) {
-		switch(type) {
-		case UINT_32BIT:
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff), (byte) (data >> 16 & 0xff), (byte) (data >> 24 & 0xff) }, 4);
-			break;
-		case UINT_40BIT:
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff), (byte) (data >> 16 & 0xff), (byte) (data >> 24 & 0xff),
-					(byte) (data >> 32 & 0xff) }, 5);
-			break;
-		case UINT_48BIT:
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff), (byte) (data >> 16 & 0xff), (byte) (data >> 24 & 0xff),
-					(byte) (data >> 32 & 0xff), (byte) (data >> 40 & 0xff) }, 6);
-			break;
-		default:
-			storeBytes(start, new byte[] { (byte) (data & 0xff), (byte) (data >> 8 & 0xff), (byte) (data >> 16 & 0xff), (byte) (data >> 24 & 0xff),
-					(byte) (data >> 32 & 0xff), (byte) (data >> 40 & 0xff), (byte) (data >> 48 & 0xff) }, 7);
-			break;
+	public long getAndAnd(String name, long bits) {
+		Field field = getField(name);
+		DataType type = field.getType();
+		if(checkAtomicType(type)) {
+			throw new InvalidSearchException();
 		}
+		return getAndUpdate(field.getStart(), type, Atomics.Op.AND, bits);
 	}
 	
 	/**
-	 * <p>Stores a {@code char} in the file at the specified name</p>
-	 * <p>Data must be of type {@link DataType#CHAR_ASCII CHAR_ASCII} OR {@link DataType#CHAR_UNICODE CHAR_UNICODE}</p>
-	 * @param name	The name of the data
-	 * @param data	The {@code char} to store
+	 * <p>Atomically sets an integer in the file at the specified position to a new value, if it holds the expected
+	 * value</p>
+	 * <p>Updates the data as the given type, but ignores the actual type</p>
+	 * @param start		The starting position of the data
+	 * @param type		The type of the data
+	 * @param expected	The value the data must hold
+	 * @param data		The new value
+	 * @return			{@code true} if the data held the expected value and was updated
 	 */
-	public void storeChar(String name, char data) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || (type != DataType.CHAR_ASCII && type != DataType.CHAR_UNICODE)) {
-			throw new InvalidSearchException();
+	boolean compareAndSet(int start, DataType type, long expected, long data) {
+		checkUnsigned(type, data);
+		int width = type.getLength();
+		ensureLoaded(start, width);
+		long mask = Atomics.mask(width);
+		boolean set = false;
+		if(Atomics.isAligned(buffer, start, width)) {
+			boolean done = false;
+			int slot = lockFreeSlot(start);
+			lockFree.incrementAndGet(slot);
+			try {
+				if(!copyOnWrite) {
+					set = Atomics.compareAndSet(buffer, start, width, expected & mask, data & mask);
+					done = true;
+				}
+			} finally {
+				lockFree.decrementAndGet(slot);
+			}
+			if(!done) {
+				synchronized(atomics) {
+					beforeWrite(start, width);
+					set = Atomics.compareAndSet(buffer, start, width, expected & mask, data & mask);
+				}
+			}
+		} else {
+			long stamp = lockWrite(start);
+			try {
+				synchronized(atomics) {
+					set = Codec.getUnsigned(buffer, start, width) == (expected & mask);
+					if(set) {
+						beforeWrite(start, width);
+						Codec.put(buffer, start, width, data);
+					}
+				}
+			} finally {
+				unlockWrite(start, stamp);
+			}
 		}
-		if(type == DataType.CHAR_ASCII) {
-			storeBytes(start, new byte[] { (byte) (data & 0b01111111) }, 1);
-			return;
+		if(set) {
+			markDirty(start, width);
 		}
-		//storeBytes(start, new byte[] { (byte) (data >> 8 & 0xff), (byte) (data & 0xff) }, 2);
-		storeUint(start, DataType.UINT_16BIT, (int) data);
+		return set;
 	}
 	
 	/**
-	 * <p>Stores a {@code String} in the file at the specified name</p>
-	 * <p>Data must be of type {@link DataType#CHAR_ASCII CHAR_ASCII} OR {@link DataType#CHAR_UNICODE CHAR_UNICODE}</p>
-	 * @param name	The name of the data
-	 * @param data	The {@code String} to store
+	 * <p>Atomically applies an operation to an integer in the file at the specified position</p>
+	 * <p>Updates the data as the given type, but ignores the actual type</p>
+	 * @param start		The starting position of the data
+	 * @param type		The type of the data
+	 * @param op		The operation
+	 * @param operand	The operand of the operation
+	 * @return			The previous value, sign-extended if the type is signed
 	 */
-	public void storeString(String name, String data) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		int dlen = sd.getLengthOf(name);
-		if(start == -1 || (type != DataType.CHAR_ASCII && type != DataType.CHAR_UNICODE)) {
-			throw new InvalidSearchException();
+	long getAndUpdate(int start, DataType type, Atomics.Op op, long operand) {
+		if(op == Atomics.Op.SET) {
+			checkUnsigned(type, operand);
 		}
-		//handle unicode
-		int strlen = data.length();
-		if(type == DataType.CHAR_ASCII) {
-			byte[] store = new byte[strlen];
-			for(int i = 0;i < strlen;i++) {
-				store[i] = (byte) (data.charAt(i) & 0b01111111);
+		int width = type.getLength();
+		ensureLoaded(start, width);
+		long prev = 0;
+		if(Atomics.isAligned(buffer, start, width)) {
+			boolean done = false;
+			int slot = lockFreeSlot(start);
+			lockFree.incrementAndGet(slot);
+			try {
+				if(!copyOnWrite) {
+					prev = Atomics.getAndUpdate(buffer, start, width, op, operand);
+					done = true;
+				}
+			} finally {
+				lockFree.decrementAndGet(slot);
 			}
-			storeBytes(start, store, dlen);
-		} else {
-			if(strlen * 2 > dlen) {
-				System.out.println("WARNING: STORING DATA AT BYTE INDEX " + start + " WHICH WILL BE TRUNCATED");
+			if(!done) {
+				//other updates may still be lock-free, so the hardware operation is used under the lock too
+				synchronized(atomics) {
+					beforeWrite(start, width);
+					prev = Atomics.getAndUpdate(buffer, start, width, op, operand);
+				}
 			}
-			for(int i = 0;i < dlen;i += 2) {
-				int j = i / 2;
-				if(j >= strlen) {
-					storeUint(start + i, DataType.UINT_16BIT, 0);
-				} else {
-					storeUint(start + i, DataType.UINT_16BIT, (int) data.charAt(j));
+		} else {
+			long stamp = lockWrite(start);
+			try {
+				synchronized(atomics) {
+					beforeWrite(start, width);
+					prev = Codec.getUnsigned(buffer, start, width);
+					Codec.put(buffer, start, width, Atomics.apply(op, prev, operand));
 				}
+			} finally {
+				unlockWrite(start, stamp);
 			}
 		}
+		markDirty(start, width);
+		if(isSigned(type)) {
+			int shift = 64 - (width << 3);
+			return prev << shift >> shift;
+		}
+		return prev;
 	}
 	
 	/**
-	 * <p>Stores a {@code float} in the file at the specified name</p>
-	 * <p>Data must be of type {@link DataType#FLOAT FLOAT}</p>
-	 * @param name	The name of the data
-	 * @param data	The {@code float} to store
+	 * Get the counter of lock-free atomic updates in progress to use for the datapoint at the specified position
+	 * @param start	The starting position of the datapoint
+	 * @return		The index of the counter
 	 */
-	public void storeFloat(String name, float data) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || type != DataType.FLOAT) {
-			throw new InvalidSearchException();
+	private static int lockFreeSlot(int start) {
+		return (start * 0x9e3779b9) >>> 28 << 4;
+	}
+	
+	/**
+	 * Checks if a type can be updated atomically
+	 * @param type	The type of the data
+	 * @return		{@code true} if the type is not an 8-, 16-, 32- or 64-bit integer type or {@link DataType#BOOLS_8 BOOLS_8}
+	 */
+	static boolean checkAtomicType(DataType type) {
+		return type != DataType.INT_8BIT && type != DataType.INT_16BIT && type != DataType.INT_32BIT && type != DataType.INT_64BIT &&
+				type != DataType.UINT_8BIT && type != DataType.UINT_16BIT && type != DataType.UINT_32BIT && type != DataType.BOOLS_8;
+	}
+	
+	/**
+	 * Checks that a value may be stored in the given type
+	 * @param type	The type of the data
+	 * @param data	The value to store
+	 * @throws IllegalArgumentException	if the type is unsigned and the value negative
+	 */
+	private static void checkUnsigned(DataType type, long data) {
+		if(data < 0 && type != DataType.BOOLS_8 && !isSigned(type)) {
+			throw new IllegalArgumentException("Can't store negative number in a UINT");
 		}
-		ByteBuffer buffer = ByteBuffer.allocate(4);
-		buffer.putFloat(data);
-		storeBytes(start, buffer.array(), 4);
 	}
 	
 	/**
-	 * <p>Stores a {@code double} in the file at the specified name</p>
-	 * <p>Data must be of type {@link DataType#DOUBLE DOUBLE}</p>
-	 * @param name	The name of the data
-	 * @param data	The {@code double} to store
+	 * Checks that a value may be stored in a packed integer type
+	 * @param type	{@link DataType#PACKED_INT PACKED_INT} or {@link DataType#PACKED_UINT PACKED_UINT}
+	 * @param bits	The bit width of the data
+	 * @param data	The value to store
+	 * @throws IllegalArgumentException	if the value does not fit in the bit width
 	 */
-	public void storeDouble(String name, double data) {
-		int start = sd.getStartOf(name);
-		DataType type = sd.getTypeOf(name);
-		if(start == -1 || type != DataType.DOUBLE) {
-			throw new InvalidSearchException();
+	static void checkPacked(DataType type, int bits, long data) {
+		if(type == DataType.PACKED_INT ? data << (64 - bits) >> (64 - bits) != data : data >>> bits != 0) {
+			throw new IllegalArgumentException("Can't store " + data + " in a " + bits + "-bit " + type);
+		}
+	}
+	
+	/**
+	 * Checks if a type can be read into an {@code int[]}
+	 * @param type	The type of the data
+	 * @return		{@code true} if the type is not a signed integer type of at most 32 bits or an unsigned integer type of
+	 * 				at most 24 bits
+	 */
+	static boolean checkIntType(DataType type) {
+		return type != DataType.INT_8BIT && type != DataType.INT_16BIT && type != DataType.INT_24BIT && type != DataType.INT_32BIT &&
+				type != DataType.UINT_8BIT && type != DataType.UINT_16BIT && type != DataType.UINT_24BIT;
+	}
+	
+	/**
+	 * Checks if a type can be read into a {@code long[]}
+	 * @param type	The type of the data
+	 * @return		{@code true} if the type is not an integer type
+	 */
+	static boolean checkLongType(DataType type) {
+		return !isSigned(type) && type != DataType.UINT_8BIT && type != DataType.UINT_16BIT && type != DataType.UINT_24BIT &&
+				type != DataType.UINT_32BIT && type != DataType.UINT_40BIT && type != DataType.UINT_48BIT && type != DataType.UINT_56BIT &&
+				type != DataType.VARUINT;
+	}
+	
+	/**
+	 * Checks if a type is a signed integer type
+	 * @param type	The type of the data
+	 * @return		{@code true} if the type is a signed integer type
+	 */
+	static boolean isSigned(DataType type) {
+		return type == DataType.INT_8BIT || type == DataType.INT_16BIT || type == DataType.INT_24BIT || type == DataType.INT_32BIT ||
+				type == DataType.INT_40BIT || type == DataType.INT_48BIT || type == DataType.INT_56BIT || type == DataType.INT_64BIT ||
+				type == DataType.VARINT;
+	}
+	
+	/**
+	 * Checks that a range of values lies within both a datapoint and an array
+	 * @param field		The datapoint
+	 * @param index		The index within the datapoint of the first value
+	 * @param count		The number of values
+	 * @param arrlen	The length of the array
+	 * @param off		The index in the array of the first value
+	 * @throws IndexOutOfBoundsException	if the range is outside of the datapoint or of the array
+	 */
+	private static void checkRange(Field field, int index, int count, int arrlen, int off) {
+		int n = field.getCount();
+		if(index < 0 || count < 0 || off < 0 || index > n - count || off > arrlen - count) {
+			throw new IndexOutOfBoundsException("Range of " + count + " values at index " + index + " (array offset " + off
+					+ ") is outside of " + field.getName() + " or the array");
 		}
-		ByteBuffer buffer = ByteBuffer.allocate(8);
-		buffer.putDouble(data);
-		storeBytes(start, buffer.array(), 8);
 	}
 	
 	/**
@@ -1007,59 +3612,7 @@ public class Save {
 	 * @return	The {@code Properties} object
 	 */
 	public Properties convertToProperties() {
-		Properties p = new Properties();
-		String[] names = sd.getNames();
-		for(String name : names) {
-			String data = "";
-			switch(sd.getTypeOf(name)) {
-			case BYTE:
-				byte[] bytes = getBytes(name);
-				for(byte b : bytes) {
-					data += "0x" + Integer.toHexString(b & 0xff) + ";";
-				}
-				data = data.substring(0, data.length() - 1);
-				break;
-			case BOOL:
-			case BOOLS_8:
-				boolean[] bools = getBools(name);
-				for(boolean b : bools) {
-					data += b + ";";
-				}
-				data = data.substring(0, data.length() - 1);
-				break;
-			case INT_8BIT:
-			case INT_16BIT:
-			case INT_24BIT:
-			case INT_32BIT:
-			case INT_40BIT:
-			case INT_48BIT:
-			case INT_56BIT:
-			case INT_64BIT:
-				data = String.valueOf(getLongInt(name));
-				break;
-			case UINT_8BIT:
-			case UINT_16BIT:
-			case UINT_24BIT:
-			case UINT_32BIT:
-			case UINT_40BIT:
-			case UINT_48BIT:
-			case UINT_56BIT:
-				data = String.valueOf(getLongUint(name));
-				break;
-			case CHAR_ASCII:
-			case CHAR_UNICODE:
-				data = getString(name);
-				break;
-			case FLOAT:
-				data = String.valueOf(getFloat(name));
-				break;
-			case DOUBLE:
-				data = String.valueOf(getDouble(name));
-				break;
-			}
-			p.setProperty(name, data);
-		}
-		return p;
+		return TextCodec.toProperties(this, sd);
 	}
 	
 	/**
@@ -1068,116 +3621,36 @@ public class Save {
 	 * @throws DataFormatException	if data in the specified {@code Properties} cannot be correctly decoded
 	 */
 	public void loadFromProperties(Properties p) throws DataFormatException {
-		String[] names = sd.getNames();
-		for(String name : names) {
-			switch(sd.getTypeOf(name)) {
-			case BYTE:
-				String[] bd = p.getProperty(name, "0x00").split(";");
-				byte[] bytes = new byte[bd.length];
-				for(int i = 0;i < bd.length;i++) {
-					try {
-						bytes[i] = (byte) Integer.parseInt(bd[i].replaceFirst("0x", ""), 16);
-					} catch(NumberFormatException nfe) {
-						throw new DataFormatException("Invalid byte data at key \"" + name + "\" index " + i);
-					}
-				}
-				storeBytes(name, bytes);
-				break;
-			case BOOL:
-			case BOOLS_8:
-				String[] arr = p.getProperty(name, "false").split(";");
-				boolean[] bools = new boolean[arr.length];
-				for(int i = 0;i < bools.length;i++) {
-					try {
-						bools[i] = parseBoolean(arr[i]);
-					} catch(DataFormatException dfe) {
-						throw new DataFormatException("Invalid boolean data at key \"" + name + "\" index " + i);
-					}
-				}
-				storeBools(name, bools);
-				break;
-			case INT_8BIT:
-			case INT_16BIT:
-			case INT_24BIT:
-			case INT_32BIT:
-				int i;
-				try {
-					i = Integer.parseInt(p.getProperty(name, "0"));
-				} catch(NumberFormatException nfe) {
-					throw new DataFormatException("Invalid signed integer data at key \"" + name + "\"");
-				}
-				storeInt(name, i);
-				break;
-			case INT_40BIT:
-			case INT_48BIT:
-			case INT_56BIT:
-			case INT_64BIT:
-				long l;
-				try {
-					l = Long.parseLong(p.getProperty(name, "0"));
-				} catch(NumberFormatException nfe) {
-					throw new DataFormatException("Invalid signed integer data at key \"" + name + "\"");
-				}
-				storeLongInt(name, l);
-				break;
-			case UINT_8BIT:
-			case UINT_16BIT:
-			case UINT_24BIT:
-				int u;
-				try {
-					u = Integer.parseInt(p.getProperty(name, "0"));
-				} catch(NumberFormatException nfe) {
-					throw new DataFormatException("Invalid unsigned integer data at key \"" + name + "\"");
-				}
-				storeUint(name, u);
-				break;
-			case UINT_32BIT:
-			case UINT_40BIT:
-			case UINT_48BIT:
-			case UINT_56BIT:
-				long ul;
-				try {
-					ul = Long.parseLong(p.getProperty(name, "0"));
-				} catch(NumberFormatException nfe) {
-					throw new DataFormatException("Invalid unsigned integer data at key \"" + name + "\"");
-				}
-				storeLongUint(name, ul);
-				break;
-			case CHAR_ASCII:
-			case CHAR_UNICODE:
-				storeString(name, p.getProperty(name, "\0"));
-				break;
-			case FLOAT:
-				try {
-					storeFloat(name, Float.valueOf(p.getProperty(name, "0")));
-				} catch(NumberFormatException nfe) {
-					throw new DataFormatException("Invalid float data at key \"" + name + "\"");
-				}
-				break;
-			case DOUBLE:
-				try {
-					storeDouble(name, Double.valueOf(p.getProperty(name, "0")));
-				} catch(NumberFormatException nfe) {
-					throw new DataFormatException("Invalid double data at key \"" + name + "\"");
-				}
-			}
-		}
+		TextCodec.fromProperties(this, sd, p);
 	}
 	
 	/**
-	 * Parses a boolean string
-	 * @param s	The string to parse
-	 * @return	true if the string equals, ignoring case, "true" and false if the string equals, ignoring case, "false"
-	 * @throws DataFormatException	If the string does not match either of the return criteria
+	 * <p>Writes this object's data as text</p>
+	 * <p>The text is written in chunks of 8 KiB as it is built, one datapoint at a time, so the time taken grows
+	 * linearly with the data and no more than the largest datapoint is held in memory at once. {@code out} is neither
+	 * flushed nor closed</p>
+	 * @param out		The destination of the text, e.g. a {@code Writer}
+	 * @param format	The format of the text
+	 * @throws IOException	if the text cannot be written
 	 */
-	private static boolean parseBoolean(String s) throws DataFormatException {
-		if(s.equalsIgnoreCase("true")) {
-			return true;
-		} else if(s.equalsIgnoreCase("false")) {
-			return false;
-		} else {
-			throw new DataFormatException("Invalid boolean string");
-		}
+	public void exportText(Appendable out, TextFormat format) throws IOException {
+		TextCodec.write(this, sd, out, format);
+	}
+	
+	/**
+	 * <p>Loads this object's data from text</p>
+	 * <p>The text is read in chunks of 8 KiB and each datapoint is stored as soon as it has been read, so the time
+	 * taken grows linearly with the data and no more than the largest datapoint is held in memory at once. As with
+	 * {@link #loadFromProperties(Properties) loadFromProperties}, names which are not in the layout are ignored, and
+	 * datapoints which are not in the text are set to zero, {@code false} or an empty string. {@code in} is not
+	 * closed</p>
+	 * @param in		The source of the text
+	 * @param format	The format of the text
+	 * @throws IOException			if the text cannot be read
+	 * @throws DataFormatException	if the text is malformed or a value cannot be correctly decoded
+	 */
+	public void importText(Reader in, TextFormat format) throws IOException, DataFormatException {
+		TextCodec.read(this, sd, in, format);
 	}
 
 }
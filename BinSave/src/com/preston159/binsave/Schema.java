@@ -0,0 +1,76 @@
+package com.preston159.binsave;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>A numbered version of a data layout, for use in constructing a versioned {@code Save} object</p>
+ * <p>A versioned save file begins with a 16 byte header holding the version and a fingerprint of the layout it was
+ * written in. When a file written in an earlier layout is opened, its data is carried over into the current layout by
+ * name; see {@link Save#Save(java.io.File, StorageMode, boolean, Schema, Schema...) Save}</p>
+ * @author Preston Petrie
+ */
+public final class Schema {
+	
+	private final int version;
+	private final Data[] data;
+	private final long fingerprint;
+	
+	/**
+	 * Construct a {@code Schema} object
+	 * @param version	The version of the layout, from 0 to 65535
+	 * @param data		An array specifying the data types and their names
+	 * @throws IllegalArgumentException	if the version is out of range
+	 */
+	public Schema(int version, Data... data) {
+		if(version < 0 || version > 0xffff) {
+			throw new IllegalArgumentException("A version must be from 0 to 65535");
+		}
+		this.version = version;
+		this.data = data.clone();
+		fingerprint = fingerprint(this.data);
+	}
+	
+	/**
+	 * Computes the fingerprint of a layout from the name, type, length, alignment and bit width of each datapoint, in
+	 * order
+	 * @param data	An array specifying the data types and their names
+	 * @return	The fingerprint
+	 */
+	private static long fingerprint(Data[] data) {
+		long h = 0xcbf29ce484222325L;
+		for(Data d : data) {
+			for(byte b : (d.getName() + '\0' + d.getType().name() + '\0' + d.getLength() + (d.isAligned() ? 'a' : 'u')
+					+ (d.getBits() == 0 ? "" : ":" + d.getBits()))
+					.getBytes(StandardCharsets.UTF_8)) {
+				h = (h ^ (b & 0xff)) * 0x100000001b3L;
+			}
+		}
+		return h;
+	}
+	
+	/**
+	 * Get the version of the layout
+	 * @return	The version of the layout
+	 */
+	public int getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Get the data of the layout
+	 * @return	An array specifying the data types and their names
+	 */
+	Data[] getData() {
+		return data;
+	}
+	
+	/**
+	 * Get the fingerprint of the layout, which changes with the name, type, length, alignment or bit width of any
+	 * datapoint
+	 * @return	The fingerprint
+	 */
+	long getFingerprint() {
+		return fingerprint;
+	}
+	
+}
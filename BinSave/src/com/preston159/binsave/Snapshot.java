@@ -0,0 +1,435 @@
+package com.preston159.binsave;
+
+import java.io.Closeable;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>A read-only view of the data of a {@code Save} object at one point in time</p>
+ * <p>Obtained from {@link Save#snapshot() Save.snapshot}. Taking a snapshot copies nothing; instead, the first write to
+ * each page of the data after the snapshot is taken copies that page, and the snapshot reads the copy. Reading a
+ * snapshot never blocks a write, and every value read is the value stored when the snapshot was taken</p>
+ * <p>Writes copy pages for as long as any snapshot of the same {@code Save} object is open, so a snapshot should be
+ * {@link #close() closed} once it is no longer needed</p>
+ * @author Preston Petrie
+ */
+public final class Snapshot implements Closeable {
+	
+	/**
+	 * The base 2 logarithm of the byte length of a page
+	 */
+	static final int PAGE_SHIFT = 12;
+	private static final int PAGE = 1 << PAGE_SHIFT;
+	
+	private final Save save;
+	private final ByteBuffer live;
+	private final AtomicReferenceArray<byte[]> pages;
+	private volatile Snapshot next;
+	private volatile boolean closed = false;
+	
+	/**
+	 * Construct a {@code Snapshot} object
+	 * @param save	The {@code Save} object of which this is a snapshot
+	 * @param live	The data of the {@code Save} object
+	 */
+	Snapshot(Save save, ByteBuffer live) {
+		this.save = save;
+		this.live = live;
+		pages = new AtomicReferenceArray<>((live.limit() + PAGE - 1) >>> PAGE_SHIFT);
+	}
+	
+	/**
+	 * Sets the snapshot taken after this one, which holds the copies of pages written after it was taken
+	 * @param next	The next snapshot
+	 */
+	void setNext(Snapshot next) {
+		this.next = next;
+	}
+	
+	/**
+	 * <p>Copies every page of a range of the data which has not been copied yet</p>
+	 * <p>Must be called before the range is written, and only on the most recent snapshot</p>
+	 * @param start	The starting position of the range
+	 * @param len	The length of the range in bytes
+	 */
+	void preserve(int start, int len) {
+		int last = (start + len - 1) >>> PAGE_SHIFT;
+		for(int p = start >>> PAGE_SHIFT;p <= last;p++) {
+			if(pages.get(p) == null) {
+				int base = p << PAGE_SHIFT;
+				byte[] copy = new byte[Math.min(PAGE, live.limit() - base)];
+				Codec.getBytes(live, base, copy, 0, copy.length);
+				//a writer only writes a page once a copy is published, so the copy which wins holds no write made after
+				//this snapshot
+				pages.compareAndSet(p, null, copy);
+			}
+		}
+	}
+	
+	/**
+	 * Finds the copy of a page made for this snapshot, or for a later one if the page was not written in between
+	 * @param p	The index of the page
+	 * @return	The copy, or {@code null} if the page has not been written since this snapshot was taken
+	 */
+	private byte[] find(int p) {
+		for(Snapshot s = this;s != null;s = s.next) {
+			byte[] page = s.pages.get(p);
+			if(page != null) {
+				return page;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * <p>Copies a range of the data as it was when this snapshot was taken into an array</p>
+	 * <p>Pages which have not been written since are read from the {@code Save} object, then read again from their copy
+	 * if one was made in the meantime</p>
+	 * @param start	The starting position of the range
+	 * @param dst	The array into which to copy
+	 * @param off	The index in the array of the first byte
+	 * @param len	The length of the range in bytes
+	 * @throws IllegalStateException	if this snapshot is closed
+	 */
+	void copy(int start, byte[] dst, int off, int len) {
+		if(closed) {
+			throw new IllegalStateException("Snapshot is closed");
+		}
+		int end = start + len;
+		for(int pos = start;pos < end;) {
+			int p = pos >>> PAGE_SHIFT;
+			int base = p << PAGE_SHIFT;
+			int n = Math.min(end, base + PAGE) - pos;
+			byte[] page = find(p);
+			if(page == null) {
+				Codec.getBytes(live, pos, dst, off + pos - start, n);
+				VarHandle.loadLoadFence();
+				page = find(p);
+			}
+			if(page != null) {
+				System.arraycopy(page, pos - base, dst, off + pos - start, n);
+			}
+			pos += n;
+		}
+	}
+	
+	/**
+	 * Copies the first bytes of a datapoint into a buffer
+	 * @param field	The datapoint
+	 * @param len	The number of bytes to copy
+	 * @return		A little-endian buffer holding the bytes from position 0
+	 */
+	private ByteBuffer read(Field field, int len) {
+		byte[] bytes = new byte[len];
+		copy(field.getStart(), bytes, 0, len);
+		return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+	}
+	
+	/**
+	 * <p>Releases this snapshot, after which it cannot be read</p>
+	 * <p>Once every snapshot of a {@code Save} object is closed, writes to it no longer copy pages</p>
+	 */
+	@Override
+	public void close() {
+		synchronized(this) {
+			if(closed) {
+				return;
+			}
+			closed = true;
+		}
+		save.releaseSnapshot();
+	}
+	
+	/**
+	 * <p>Gets a {@code byte} with the specified name</p>
+	 * <p>Data must be of type {@link DataType#BYTE BYTE}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code byte} stored
+	 * @see Save#getByte(String)
+	 */
+	public byte getByte(String name) {
+		Field field = save.field(name);
+		if(field.getType() != DataType.BYTE) {
+			throw new InvalidSearchException();
+		}
+		return read(field, 1).get(0);
+	}
+	
+	/**
+	 * <p>Gets a {@code byte[]} with the specified name</p>
+	 * <p>Data must be of type {@link DataType#BYTE BYTE}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code byte[]} stored
+	 * @see Save#getBytes(String)
+	 */
+	public byte[] getBytes(String name) {
+		Field field = save.field(name);
+		if(field.getType() != DataType.BYTE) {
+			throw new InvalidSearchException();
+		}
+		return read(field, field.getLength()).array();
+	}
+	
+	/**
+	 * <p>Gets a {@code boolean} with the specified name</p>
+	 * <p>Data must be of type {@link DataType#BOOL BOOL}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code boolean} stored
+	 * @see Save#getBool(String)
+	 */
+	public boolean getBool(String name) {
+		Field field = save.field(name);
+		if(field.getType() != DataType.BOOL) {
+			throw new InvalidSearchException();
+		}
+		return read(field, 1).get(0) == 0xff;
+	}
+	
+	/**
+	 * <p>Gets a {@code boolean[]} with the specified name</p>
+	 * <p>Data must be of type {@link DataType#BOOL BOOL} OR {@link DataType#BOOLS_8 BOOLS_8}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code boolean[]} stored
+	 * @see Save#getBools(String)
+	 */
+	public boolean[] getBools(String name) {
+		Field field = save.field(name);
+		DataType type = field.getType();
+		if(type != DataType.BOOL && type != DataType.BOOLS_8) {
+			throw new InvalidSearchException();
+		}
+		int len = field.getLength();
+		if(type == DataType.BOOL) {
+			return Save.getLongBools(read(field, len), 0, len);
+		}
+		return Save.getShortBools(read(field, len), 0, len);
+	}
+	
+	/**
+	 * <p>Gets a signed integer with the specified name</p>
+	 * <p>Data must be of type {@link DataType#INT_8BIT INT_8BIT}, {@link DataType#INT_16BIT INT_16BIT},
+	 * {@link DataType#INT_24BIT INT_24BIT} OR {@link DataType#INT_32BIT INT_32BIT}</p>
+	 * @param name	The name of the data
+	 * @return		The signed integer stored
+	 * @see Save#getInt(String)
+	 */
+	public int getInt(String name) {
+		Field field = save.field(name);
+		DataType type = field.getType();
+		if(type != DataType.INT_8BIT && type != DataType.INT_16BIT
+				&& type != DataType.INT_24BIT && type != DataType.INT_32BIT) {
+			throw new InvalidSearchException();
+		}
+		int width = type.getLength();
+		return (int) Codec.getSigned(read(field, width), 0, width);
+	}
+	
+	/**
+	 * <p>Gets a signed integer with the specified name</p>
+	 * <p>Data must be of any signed integer type, from {@link DataType#INT_8BIT INT_8BIT} to
+	 * {@link DataType#INT_64BIT INT_64BIT}</p>
+	 * @param name	The name of the data
+	 * @return		The signed integer stored
+	 * @see Save#getLongInt(String)
+	 */
+	public long getLongInt(String name) {
+		Field field = save.field(name);
+		DataType type = field.getType();
+		if(Save.checkLongType(type) || !Save.isSigned(type)) {
+			throw new InvalidSearchException();
+		}
+		int width = type.getLength();
+		return Codec.getSigned(read(field, width), 0, width);
+	}
+	
+	/**
+	 * <p>Gets an unsigned integer with the specified name</p>
+	 * <p>Data must be of type {@link DataType#UINT_8BIT UINT_8BIT}, {@link DataType#UINT_16BIT UINT_16BIT} OR
+	 * {@link DataType#UINT_24BIT UINT_24BIT}</p>
+	 * @param name	The name of the data
+	 * @return		The unsigned integer stored
+	 * @see Save#getUint(String)
+	 */
+	public int getUint(String name) {
+		Field field = save.field(name);
+		DataType type = field.getType();
+		if(type != DataType.UINT_8BIT && type != DataType.UINT_16BIT
+				&& type != DataType.UINT_24BIT) {
+			throw new InvalidSearchException();
+		}
+		int width = type.getLength();
+		return (int) Codec.getUnsigned(read(field, width), 0, width);
+	}
+	
+	/**
+	 * <p>Gets an unsigned integer with the specified name</p>
+	 * <p>Data must be of any unsigned integer type, from {@link DataType#UINT_8BIT UINT_8BIT} to
+	 * {@link DataType#UINT_56BIT UINT_56BIT}</p>
+	 * @param name	The name of the data
+	 * @return		The unsigned integer stored
+	 * @see Save#getLongUint(String)
+	 */
+	public long getLongUint(String name) {
+		Field field = save.field(name);
+		DataType type = field.getType();
+		if(Save.checkLongType(type) || Save.isSigned(type)) {
+			throw new InvalidSearchException();
+		}
+		int width = type.getLength();
+		return Codec.getUnsigned(read(field, width), 0, width);
+	}
+	
+	/**
+	 * <p>Gets a {@code char} with the specified name</p>
+	 * <p>Data must be of type {@link DataType#CHAR_ASCII CHAR_ASCII} OR {@link DataType#CHAR_UNICODE CHAR_UNICODE}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code char} stored
+	 * @see Save#getChar(String)
+	 */
+	public char getChar(String name) {
+		Field field = save.field(name);
+		DataType type = field.getType();
+		if(type == DataType.CHAR_ASCII) {
+			return (char) (read(field, 1).get(0) & 0b01111111);
+		}
+		if(type != DataType.CHAR_UNICODE) {
+			throw new InvalidSearchException();
+		}
+		return read(field, 2).getChar(0);
+	}
+	
+	/**
+	 * <p>Gets a {@code String} with the specified name</p>
+	 * <p>Data must be of type {@link DataType#CHAR_ASCII CHAR_ASCII}, {@link DataType#CHAR_UNICODE CHAR_UNICODE} OR
+	 * {@link DataType#CHAR_UTF8 CHAR_UTF8}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code String} stored
+	 * @see Save#getString(String)
+	 */
+	public String getString(String name) {
+		Field field = save.field(name);
+		DataType type = field.getType();
+		int len = field.getLength();
+		if(type == DataType.CHAR_ASCII) {
+			return Save.getASCIIString(read(field, len), 0, len);
+		}
+		if(type == DataType.CHAR_UNICODE) {
+			return Save.getUnicodeString(read(field, len), 0, len);
+		}
+		if(type != DataType.CHAR_UTF8) {
+			throw new InvalidSearchException();
+		}
+		return Save.getUTF8String(read(field, len), 0, len);
+	}
+	
+	/**
+	 * <p>Gets a {@code float} with the specified name</p>
+	 * <p>Data must be of type {@link DataType#FLOAT FLOAT}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code float} stored
+	 * @see Save#getFloat(String)
+	 */
+	public float getFloat(String name) {
+		Field field = save.field(name);
+		if(field.getType() != DataType.FLOAT) {
+			throw new InvalidSearchException();
+		}
+		return Float.intBitsToFloat(Codec.getIntBE(read(field, 4), 0));
+	}
+	
+	/**
+	 * <p>Gets a {@code double} with the specified name</p>
+	 * <p>Data must be of type {@link DataType#DOUBLE DOUBLE}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code double} stored
+	 * @see Save#getDouble(String)
+	 */
+	public double getDouble(String name) {
+		Field field = save.field(name);
+		if(field.getType() != DataType.DOUBLE) {
+			throw new InvalidSearchException();
+		}
+		return Double.longBitsToDouble(Codec.getLongBE(read(field, 8), 0));
+	}
+	
+	/**
+	 * <p>Gets every value of a multi-length datapoint with the specified name as a {@code int[]}</p>
+	 * <p>Data must be of a type accepted by {@link Save#getInts(String) Save.getInts}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code int[]} stored
+	 */
+	public int[] getInts(String name) {
+		Field field = save.field(name);
+		DataType type = field.getType();
+		if(Save.checkIntType(type)) {
+			throw new InvalidSearchException();
+		}
+		int width = type.getLength();
+		int[] out = new int[field.getLength() / width];
+		Codec.getInts(read(field, field.getLength()), 0, width, Save.isSigned(type), out, 0, out.length);
+		return out;
+	}
+	
+	/**
+	 * <p>Gets every value of a multi-length datapoint with the specified name as a {@code long[]}</p>
+	 * <p>Data must be of a type accepted by {@link Save#getLongs(String) Save.getLongs}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code long[]} stored
+	 */
+	public long[] getLongs(String name) {
+		Field field = save.field(name);
+		DataType type = field.getType();
+		if(Save.isDelta(type)) {
+			long[] out = new long[field.getCount()];
+			Codec.getDeltas(read(field, field.getLength()), 0, field.getBits(), type == DataType.DELTA_DELTA_INT, 0, out, 0, out.length);
+			return out;
+		}
+		if(field.getBits() > 0) {
+			long[] out = new long[field.getCount()];
+			Codec.getPacked(read(field, field.getLength()), 0, field.getBits(), type == DataType.PACKED_INT, 0, out, 0, out.length);
+			return out;
+		}
+		if(Save.checkLongType(type)) {
+			throw new InvalidSearchException();
+		}
+		int width = type.getLength();
+		long[] out = new long[field.getLength() / width];
+		Codec.getLongs(read(field, field.getLength()), 0, width, Save.isSigned(type), out, 0, out.length);
+		return out;
+	}
+	
+	/**
+	 * <p>Gets every value of a multi-length datapoint with the specified name as a {@code float[]}</p>
+	 * <p>Data must be of type {@link DataType#FLOAT FLOAT}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code float[]} stored
+	 */
+	public float[] getFloats(String name) {
+		Field field = save.field(name);
+		if(field.getType() != DataType.FLOAT) {
+			throw new InvalidSearchException();
+		}
+		float[] out = new float[field.getLength() / 4];
+		Codec.getFloats(read(field, field.getLength()), 0, out, 0, out.length);
+		return out;
+	}
+	
+	/**
+	 * <p>Gets every value of a multi-length datapoint with the specified name as a {@code double[]}</p>
+	 * <p>Data must be of type {@link DataType#DOUBLE DOUBLE}</p>
+	 * @param name	The name of the data
+	 * @return		The {@code double[]} stored
+	 */
+	public double[] getDoubles(String name) {
+		Field field = save.field(name);
+		if(field.getType() != DataType.DOUBLE) {
+			throw new InvalidSearchException();
+		}
+		double[] out = new double[field.getLength() / 8];
+		Codec.getDoubles(read(field, field.getLength()), 0, out, 0, out.length);
+		return out;
+	}
+	
+}
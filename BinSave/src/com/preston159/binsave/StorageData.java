@@ -1,5 +1,8 @@
 package com.preston159.binsave;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Store storage data for a {@code Save} object
  * @author Preston Petrie
@@ -12,6 +15,13 @@ public class StorageData {
 	private int[] lens;
 	private DataType[] types;
 	private int[] start;
+	private boolean[] aligned;
+	private int[] bits;
+	private int[] counts;
+	private int offset = 0;
+	private int byteLength;
+	private Field[] fields;
+	private Map<String, Field> index;
 	private boolean calculated = false;
 	
 	/**
@@ -24,6 +34,9 @@ public class StorageData {
 		lens = new int[len];
 		types = new DataType[len];
 		start = new int[len];
+		aligned = new boolean[len];
+		bits = new int[len];
+		counts = new int[len];
 	}
 	
 	/**
@@ -34,37 +47,125 @@ public class StorageData {
 	 * @param type	The type of the datapoint
 	 */
 	public void setDataAt(int i, String name, int len, DataType type) {
+		setDataAt(i, name, len, type, false);
+	}
+	
+	/**
+	 * Gives the data stored at a specied index a name, byte length, type, and alignment
+	 * @param i			The index of the datapoint
+	 * @param name		The name of the datapoint
+	 * @param len		The byte length of the datapoint
+	 * @param type		The type of the datapoint
+	 * @param aligned	Whether the datapoint starts at a multiple of the length of its type, rounded down to a power of
+	 * 					two
+	 */
+	public void setDataAt(int i, String name, int len, DataType type, boolean aligned) {
+		setDataAt(i, name, len, type, aligned, 0);
+	}
+	
+	/**
+	 * <p>Gives the data stored at a specied index a name, length, type, alignment, and bit width</p>
+	 * <p>The values of a packed integer type are stored back to back, so the byte length of the datapoint is the fewest
+	 * whole bytes holding {@code len * bits} bits. Those of a delta-encoded type are stored in blocks, each holding its
+	 * first values whole</p>
+	 * @param i			The index of the datapoint
+	 * @param name		The name of the datapoint
+	 * @param len		The number of values of the datapoint
+	 * @param type		The type of the datapoint
+	 * @param aligned	Whether the datapoint starts at a multiple of the length of its type, rounded down to a power of
+	 * 					two
+	 * @param bits		The bit width of each value of a packed or delta-encoded integer type, or 0 for any other type
+	 * @throws IllegalArgumentException	if the bit width is out of range for the type
+	 */
+	public void setDataAt(int i, String name, int len, DataType type, boolean aligned, int bits) {
+		Data.checkBits(type, bits);
 		names[i] = name;
-		lens[i] = len * type.getLength();
+		if(type == DataType.DELTA_INT || type == DataType.DELTA_DELTA_INT) {
+			lens[i] = Codec.deltaLength(len, bits, type == DataType.DELTA_DELTA_INT);
+		} else {
+			lens[i] = bits == 0 ? len * type.getLength() : (int) (((long) len * bits + 7) >>> 3);
+		}
 		types[i] = type;
+		this.aligned[i] = aligned;
+		this.bits[i] = bits;
+		counts[i] = len;
+		calculated = false;
+	}
+	
+	/**
+	 * Sets the number of bytes before the first datapoint, e.g. for a header
+	 * @param offset	The byte index at which the data begins
+	 */
+	void setOffset(int offset) {
+		this.offset = offset;
+		calculated = false;
 	}
 	
 	/**
-	 * Calculate the starting byte index of each datapoint
+	 * Calculate the starting byte index of each datapoint and build the name index
 	 */
 	public void calc() {
-		start[0] = 0;
-		for(int i = 1;i < len;i++) {
-			start[i] = start[i - 1] + lens[i - 1];
+		index = new HashMap<>(len * 2);
+		fields = new Field[len];
+		int pos = offset;
+		for(int i = 0;i < len;i++) {
+			if(aligned[i]) {
+				int align = Integer.highestOneBit(types[i].getLength());
+				pos = (pos + align - 1) & -align;
+			}
+			start[i] = pos;
+			pos += lens[i];
+			fields[i] = new Field(names[i], start[i], lens[i], types[i], bits[i], counts[i]);
+			//the first datapoint with a given name wins, matching the old linear search
+			index.putIfAbsent(names[i], fields[i]);
 		}
+		byteLength = pos;
 		calculated = true;
 	}
 	
 	/**
-	 * Get the starting byte index of a specified datapoint
+	 * Get the location and type of the specified datapoint
 	 * @param name	The name of the datapoint
-	 * @return	The starting byte index of the datapoint with the specified name
+	 * @return	The {@code Field} describing the datapoint with the specified name, or {@code null} if there is none
 	 */
-	public int getStartOf(String name) {
+	public Field getField(String name) {
 		if(!calculated) {
 			calc();
 		}
-		for(int i = 0;i < len;i++) {
-			if(names[i].equals(name)) {
-				return start[i];
-			}
+		return index.get(name);
+	}
+	
+	/**
+	 * Get the location and type of every datapoint, in the order they are stored
+	 * @return	The {@code Field} describing each datapoint, including any which share a name with an earlier one
+	 */
+	Field[] getFields() {
+		if(!calculated) {
+			calc();
 		}
-		return -1;
+		return fields.clone();
+	}
+	
+	/**
+	 * Get the byte length of all of the data, including any bytes skipped to align datapoints and any before the first
+	 * datapoint
+	 * @return	The byte length of all of the data
+	 */
+	public int getByteLength() {
+		if(!calculated) {
+			calc();
+		}
+		return byteLength;
+	}
+	
+	/**
+	 * Get the starting byte index of a specified datapoint
+	 * @param name	The name of the datapoint
+	 * @return	The starting byte index of the datapoint with the specified name
+	 */
+	public int getStartOf(String name) {
+		Field field = getField(name);
+		return field == null ? -1 : field.getStart();
 	}
 	
 	/**
@@ -73,15 +174,8 @@ public class StorageData {
 	 * @return	The byte length of the datapoint with the specified name
 	 */
 	public int getLengthOf(String name) {
-		if(!calculated) {
-			calc();
-		}
-		for(int i = 0;i < len;i++) {
-			if(names[i].equals(name)) {
-				return lens[i];
-			}
-		}
-		return -1;
+		Field field = getField(name);
+		return field == null ? -1 : field.getLength();
 	}
 	
 	/**
@@ -90,15 +184,8 @@ public class StorageData {
 	 * @return	The byte length of the datapoint with the specified name
 	 */
 	public DataType getTypeOf(String name) {
-		if(!calculated) {
-			calc();
-		}
-		for(int i = 0;i < len;i++) {
-			if(names[i].equals(name)) {
-				return types[i];
-			}
-		}
-		return null;
+		Field field = getField(name);
+		return field == null ? null : field.getType();
 	}
 	
 	/**
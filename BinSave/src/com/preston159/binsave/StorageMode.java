@@ -0,0 +1,38 @@
+package com.preston159.binsave;
+
+/**
+ * How a {@code Save} object holds its data while it is in use
+ * @author Preston Petrie
+ */
+public enum StorageMode {
+	
+	/**
+	 * <p>The data is read into memory when the {@code Save} object is created</p>
+	 * <p>{@link Save#store() store} writes only the runs of bytes which have changed since the last store, and does
+	 * not touch the file if nothing has changed</p>
+	 */
+	HEAP,
+	/**
+	 * <p>The file is memory-mapped, and data is read from and written to the mapping directly</p>
+	 * <p>{@link Save#store() store} forces changes to the storage device instead of rewriting the file</p>
+	 */
+	MAPPED,
+	/**
+	 * <p>The data is held in memory as with {@link #HEAP HEAP}, and every change is appended to
+	 * {@code <file>.journal} as it is made</p>
+	 * <p>The journal is replayed when the {@code Save} object is created, and the save file is rewritten in the
+	 * background once the journal grows large. {@link Save#store() store} forces the journal to the storage device</p>
+	 */
+	JOURNAL,
+	/**
+	 * <p>The data is held in memory as with {@link #HEAP HEAP}, and the file is stored in blocks of 32 KiB, each
+	 * compressed on its own</p>
+	 * <p>Each block is decompressed the first time its data is read or written. {@link Save#store() store} compresses
+	 * again only the blocks which have changed, then rewrites the file through a temporary file which replaces it, so
+	 * the file is never left half written; see {@link Compression}</p>
+	 */
+	COMPRESSED
+	
+	;
+	
+}
@@ -0,0 +1,86 @@
+package com.preston159.binsave;
+
+/**
+ * <p>A pre-resolved handle to a {@code String} datapoint</p>
+ * <p>Obtained from {@link Field#asString() Field.asString}, and usable with any {@code Save} object constructed from the same
+ * data layout, or with any {@code Table}, {@code RecordReader} or {@code RecordWriter} whose records have that layout</p>
+ * @author Preston Petrie
+ */
+public final class StringField {
+	
+	private final int start;
+	private final int len;
+	private final DataType type;
+	
+	/**
+	 * Construct a {@code StringField} object
+	 * @param field	The resolved datapoint, which must already have been checked to be of a valid type
+	 */
+	StringField(Field field) {
+		start = field.getStart();
+		len = field.getLength();
+		type = field.getType();
+	}
+	
+	/**
+	 * <p>Gets a {@code String} from the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object from which to read
+	 * @return		The {@code String} stored
+	 */
+	public String get(Save save) {
+		return save.getString(start, len, type);
+	}
+	
+	/**
+	 * <p>Stores a {@code String} in the specified {@code Save} object</p>
+	 * @param save	The {@code Save} object in which to store the data
+	 * @param data	The {@code String} to store
+	 */
+	public void set(Save save, String data) {
+		save.storeString(start, len, type, data);
+	}
+	
+	/**
+	 * <p>Gets a {@code String} from a record of the specified {@code Table}</p>
+	 * @param table	The {@code Table} from which to read
+	 * @param index	The index of the record
+	 * @return		The {@code String} stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public String get(Table table, int index) {
+		return table.data().getString(table.position(index, start, len), len, type);
+	}
+	
+	/**
+	 * <p>Stores a {@code String} in a record of the specified {@code Table}</p>
+	 * @param table	The {@code Table} in which to store the data
+	 * @param index	The index of the record
+	 * @param data	The {@code String} to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public void set(Table table, int index, String data) {
+		table.data().storeString(table.beforeWrite(index, start, len), len, type, data);
+		table.afterWrite(index, start);
+	}
+	
+	/**
+	 * <p>Gets a {@code String} from the current record of the specified {@code RecordReader}</p>
+	 * @param reader	The {@code RecordReader} from which to read
+	 * @return			The {@code String} stored
+	 * @throws IllegalStateException	if there is no current record
+	 */
+	public String get(RecordReader reader) {
+		return reader.data().getString(reader.position(start), len, type);
+	}
+	
+	/**
+	 * <p>Stores a {@code String} in the current record of the specified {@code RecordWriter}</p>
+	 * @param writer	The {@code RecordWriter} in which to store the data
+	 * @param data		The {@code String} to store
+	 * @throws IllegalStateException	if no record has been started since the last flush
+	 */
+	public void set(RecordWriter writer, String data) {
+		writer.data().storeString(writer.position(start), len, type, data);
+	}
+	
+}
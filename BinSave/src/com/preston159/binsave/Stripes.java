@@ -0,0 +1,61 @@
+package com.preston159.binsave;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * <p>The locks guarding the data of a concurrent {@code Save} object</p>
+ * <p>Each datapoint is guarded by the lock its starting position hashes to, so writes to different datapoints rarely
+ * contend. Reads are optimistic, and only take a read lock if a write to the same stripe happened while reading</p>
+ * @author Preston Petrie
+ */
+final class Stripes {
+	
+	private final StampedLock[] locks;
+	private final int shift;
+	
+	/**
+	 * Construct a {@code Stripes} object with four locks per processor, rounded up to a power of two
+	 */
+	Stripes() {
+		int n = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1)) << 1;
+		locks = new StampedLock[n];
+		for(int i = 0;i < n;i++) {
+			locks[i] = new StampedLock();
+		}
+		shift = 32 - Integer.numberOfTrailingZeros(n);
+	}
+	
+	/**
+	 * Get the lock guarding the datapoint at the specified position
+	 * @param start	The starting position of the datapoint
+	 * @return		The lock
+	 */
+	StampedLock get(int start) {
+		//spread neighbouring positions, which are often multiples of the same width, over every lock
+		return locks[(start * 0x9e3779b9) >>> shift];
+	}
+	
+	/**
+	 * <p>Takes the read lock of every stripe, in order</p>
+	 * <p>While held, no datapoint is being written, but optimistic readers are not blocked</p>
+	 * @return	The stamps with which to {@link #unlockReadAll(long[]) unlock}
+	 */
+	long[] readAll() {
+		long[] stamps = new long[locks.length];
+		for(int i = 0;i < locks.length;i++) {
+			stamps[i] = locks[i].readLock();
+		}
+		return stamps;
+	}
+	
+	/**
+	 * Releases the read locks taken by {@link #readAll() readAll}
+	 * @param stamps	The stamps returned by {@code readAll}
+	 */
+	void unlockReadAll(long[] stamps) {
+		for(int i = locks.length - 1;i >= 0;i--) {
+			locks[i].unlockRead(stamps[i]);
+		}
+	}
+	
+}
@@ -0,0 +1,741 @@
+package com.preston159.binsave;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>A file holding any number of records of one data layout, back to back</p>
+ * <p>Record {@code i} begins at byte {@code i * getRecordLength()}, so any record is read or written in constant time.
+ * Datapoints are accessed through the typed handles of a {@link #field(String) Field}, e.g.
+ * {@code table.field("score").asInt().get(table, i)}, or by name through the methods of this class</p>
+ * <p>A columnar table instead stores the records in blocks of 1024. Within a block, the values of each datapoint for
+ * every record are stored together, in the order of the data layout, so reading one datapoint of many records with
+ * {@link #getInts(String, int, int[], int, int) getInts} and the like touches only the bytes of that datapoint. The
+ * file begins with an 8 byte header holding the number of records and the number of records in a block</p>
+ * <p>An incomplete record or block at the end of the file is ignored, and cut off by the next {@link #store() store}</p>
+ * <p>Any datapoint can be {@link #index(String) indexed}, to find the records holding a value without reading every
+ * record</p>
+ * <p>A {@code Table} object must not be used from several threads at once</p>
+ * @author Preston Petrie
+ */
+public final class Table implements Closeable {
+	
+	private static final int HEADER = 8;
+	private static final int BLOCK_SHIFT = 10;
+	private static final int BLOCK = 1 << BLOCK_SHIFT;
+	
+	private final File f;
+	private final StorageMode mode;
+	private final Save save;
+	private final boolean columnar;
+	private final Map<String, TableIndex> indexes = new LinkedHashMap<>();
+	private final Field[] fields;
+	private final int recordLength;
+	private final int blockLength;
+	private int size;
+	
+	/**
+	 * <p>Create a {@code Table} object held in memory</p>
+	 * @param f		The {@code File} in which to store the records
+	 * @param data	An array specifying the data types and their names of one record
+	 */
+	public Table(File f, Data... data) {
+		this(f, StorageMode.HEAP, data);
+	}
+	
+	/**
+	 * <p>Create a {@code Table} object</p>
+	 * <p>A {@link StorageMode#MAPPED MAPPED} table maps more of the file than it holds as records are appended. If it
+	 * is not columnar, the number of records is taken from the length of the file, so the file is extended or cut to
+	 * the records on every append and truncation, and the records survive the process ending without a store. A
+	 * columnar table keeps the number in its header, and cuts the file back to the records on every store</p>
+	 * @param f		The {@code File} in which to store the records
+	 * @param mode	How the records are held while in use
+	 * @param data	An array specifying the data types and their names of one record
+	 * @throws IllegalArgumentException	if the mode is {@link StorageMode#JOURNAL JOURNAL} or
+	 * 									{@link StorageMode#COMPRESSED COMPRESSED}, or a record would hold no bytes
+	 */
+	public Table(File f, StorageMode mode, Data... data) {
+		this(f, mode, false, data);
+	}
+	
+	/**
+	 * <p>Create a {@code Table} object</p>
+	 * <p>A {@link StorageMode#MAPPED MAPPED} table maps more of the file than it holds as records are appended. If it
+	 * is not columnar, the number of records is taken from the length of the file, so the file is extended or cut to
+	 * the records on every append and truncation, and the records survive the process ending without a store. A
+	 * columnar table keeps the number in its header, and cuts the file back to the records on every store</p>
+	 * @param f			The {@code File} in which to store the records
+	 * @param mode		How the records are held while in use
+	 * @param columnar	Whether the values of each datapoint are stored together rather than each record
+	 * @param data		An array specifying the data types and their names of one record
+	 * @throws IllegalArgumentException	if the mode is {@link StorageMode#JOURNAL JOURNAL} or
+	 * 									{@link StorageMode#COMPRESSED COMPRESSED}, a record would hold no bytes, or a
+	 * 									columnar table is opened on a file which is not one
+	 */
+	public Table(File f, StorageMode mode, boolean columnar, Data... data) {
+		if(mode == StorageMode.JOURNAL) {
+			throw new IllegalArgumentException("Tables can't be journaled");
+		}
+		//the number of records is taken from the length of the file
+		if(mode == StorageMode.COMPRESSED) {
+			throw new IllegalArgumentException("Tables can't be compressed");
+		}
+		this.f = f;
+		this.mode = mode;
+		this.columnar = columnar;
+		save = columnar ? new Save(f, mode, false, HEADER, BLOCK, data) : new Save(f, mode, false, 0, 1, data);
+		fields = save.getFields();
+		recordLength = save.getLayoutLength();
+		if(!columnar) {
+			blockLength = recordLength;
+			size = save.length() / recordLength;
+			return;
+		}
+		blockLength = recordLength * BLOCK;
+		int block = save.getInt(4, DataType.INT_32BIT);
+		if(block == 0) {
+			save.storeInt(4, DataType.INT_32BIT, BLOCK);
+		} else if(block != BLOCK) {
+			throw new IllegalArgumentException(f + " is not a columnar table");
+		}
+		int stored = save.getInt(0, DataType.INT_32BIT);
+		size = (int) Math.min(Math.max(0, stored), (long) (save.length() - HEADER) / blockLength * BLOCK);
+		if(size != stored) {
+			save.storeInt(0, DataType.INT_32BIT, size);
+		}
+	}
+	
+	/**
+	 * Get the {@code Save} object holding the records
+	 * @return	The {@code Save} object
+	 */
+	Save data() {
+		return save;
+	}
+	
+	/**
+	 * Get the starting byte index of a datapoint of a record
+	 * @param index	The index of the record
+	 * @param start	The starting byte index of the datapoint within the layout
+	 * @param len	The byte length of the datapoint
+	 * @return		The starting byte index of the datapoint within the data
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	int position(int index, int start, int len) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Record " + index + " of " + size);
+		}
+		if(!columnar) {
+			return index * recordLength + start;
+		}
+		return HEADER + (index >>> BLOCK_SHIFT) * blockLength + start * BLOCK + (index & BLOCK - 1) * len;
+	}
+	
+	/**
+	 * <p>Get the starting byte index of a datapoint of a record which is about to be written</p>
+	 * <p>The record is removed from any index of the datapoint; {@link #afterWrite(int, int) afterWrite} must be
+	 * called once the datapoint is written</p>
+	 * @param index	The index of the record
+	 * @param start	The starting byte index of the datapoint within the layout
+	 * @param len	The byte length of the datapoint
+	 * @return		The starting byte index of the datapoint within the data
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	int beforeWrite(int index, int start, int len) {
+		int pos = position(index, start, len);
+		for(TableIndex ti : indexes.values()) {
+			if(ti.getStart() == start) {
+				ti.remove(index);
+			}
+		}
+		return pos;
+	}
+	
+	/**
+	 * Adds a record whose datapoint has been written back to any index of the datapoint
+	 * @param index	The index of the record
+	 * @param start	The starting byte index of the datapoint within the layout
+	 */
+	void afterWrite(int index, int start) {
+		for(TableIndex ti : indexes.values()) {
+			if(ti.getStart() == start) {
+				ti.add(index);
+			}
+		}
+	}
+	
+	/**
+	 * Get the byte length of the data holding a number of records
+	 * @param size	The number of records
+	 * @return		The byte length
+	 */
+	private long lengthOf(int size) {
+		if(!columnar) {
+			return (long) size * recordLength;
+		}
+		return HEADER + ((long) size + BLOCK - 1 >>> BLOCK_SHIFT) * blockLength;
+	}
+	
+	/**
+	 * Get the number of records
+	 * @return	The number of records
+	 */
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Get the byte length of one record
+	 * @return	The byte length of one record
+	 */
+	public int getRecordLength() {
+		return recordLength;
+	}
+	
+	/**
+	 * Checks if the values of each datapoint are stored together rather than each record
+	 * @return	{@code true} if this table is columnar
+	 */
+	public boolean isColumnar() {
+		return columnar;
+	}
+	
+	/**
+	 * <p>Resolves the data with the specified name to a {@code Field}</p>
+	 * <p>The typed handles of the returned {@code Field} read and write the data in any record of this table</p>
+	 * @param name	The name of the data
+	 * @return		The {@code Field} describing the data
+	 * @throws InvalidSearchException	if no data exists with the specified name
+	 */
+	public Field field(String name) {
+		return save.field(name);
+	}
+	
+	/**
+	 * <p>Gets the index of a datapoint, creating it if it does not exist</p>
+	 * <p>The index is kept in the file {@code <file>.<name>.index}, held the same way as the records, and is updated by
+	 * every write to this table. It is built from the records if the file does not exist, or does not hold the same
+	 * number of records; an index must therefore be opened whenever its table is changed</p>
+	 * @param name	The name of the data
+	 * @return		The index of the data
+	 * @throws InvalidSearchException	if no data exists with the specified name
+	 * @throws IllegalStateException	if the index file would be too long
+	 */
+	public TableIndex index(String name) {
+		TableIndex ti = indexes.get(name);
+		if(ti == null) {
+			ti = new TableIndex(this, new File(f.getPath() + "." + name + ".index"), mode, field(name));
+			indexes.put(name, ti);
+		}
+		return ti;
+	}
+	
+	/**
+	 * <p>Adds a record at the end of the table</p>
+	 * <p>Every byte of the new record is zero</p>
+	 * @return	The index of the new record
+	 * @throws IllegalStateException	if the table can't hold another record
+	 */
+	public int append() {
+		long len = lengthOf(size + 1);
+		if(size == Integer.MAX_VALUE || len > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("The table is full");
+		}
+		if(len != save.length()) {
+			save.resize((int) len, !columnar);
+		}
+		size++;
+		if(columnar) {
+			save.storeInt(0, DataType.INT_32BIT, size);
+		}
+		for(TableIndex ti : indexes.values()) {
+			ti.append(size);
+		}
+		return size - 1;
+	}
+	
+	/**
+	 * <p>Adds a record at the end of the table</p>
+	 * @param record	The bytes of the record
+	 * @return	The index of the new record
+	 * @throws IllegalArgumentException	if the length of the bytes is not the length of a record
+	 * @throws IllegalStateException	if the table can't hold another record
+	 */
+	public int append(byte[] record) {
+		checkRecord(record);
+		int index = append();
+		write(index, record);
+		return index;
+	}
+	
+	/**
+	 * <p>Gets the bytes of a record</p>
+	 * @param index	The index of the record
+	 * @return		The bytes of the record
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public byte[] getRecord(int index) {
+		byte[] out = new byte[recordLength];
+		if(!columnar) {
+			save.getBytes(position(index, 0, recordLength), out, 0, recordLength);
+			return out;
+		}
+		for(Field field : fields) {
+			save.getBytes(position(index, field.getStart(), field.getLength()), out, field.getStart(), field.getLength());
+		}
+		return out;
+	}
+	
+	/**
+	 * <p>Replaces the bytes of a record</p>
+	 * @param index		The index of the record
+	 * @param record	The new bytes of the record
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 * @throws IllegalArgumentException		if the length of the bytes is not the length of a record
+	 */
+	public void overwrite(int index, byte[] record) {
+		checkRecord(record);
+		write(index, record);
+	}
+	
+	/**
+	 * Writes the bytes of a record
+	 * @param index		The index of the record
+	 * @param record	The bytes of the record
+	 */
+	private void write(int index, byte[] record) {
+		for(TableIndex ti : indexes.values()) {
+			ti.remove(index);
+		}
+		if(!columnar) {
+			save.storeBytes(position(index, 0, recordLength), record, recordLength);
+		} else {
+			for(Field field : fields) {
+				int start = field.getStart();
+				int len = field.getLength();
+				save.storeBytes(position(index, start, len), Arrays.copyOfRange(record, start, start + len), len);
+			}
+		}
+		for(TableIndex ti : indexes.values()) {
+			ti.add(index);
+		}
+	}
+	
+	/**
+	 * Checks that an array holds exactly one record
+	 * @param record	The array
+	 * @throws IllegalArgumentException	if the length of the array is not the length of a record
+	 */
+	private void checkRecord(byte[] record) {
+		if(record.length != recordLength) {
+			throw new IllegalArgumentException("A record is " + recordLength + " bytes, not " + record.length);
+		}
+	}
+	
+	/**
+	 * <p>Removes every record from the specified index onwards</p>
+	 * <p>The file is cut to the remaining records by the next {@link #store() store}, or at once if the table is
+	 * {@link StorageMode#MAPPED MAPPED} and not columnar</p>
+	 * @param size	The number of records to keep
+	 * @throws IllegalArgumentException	if the number is negative or larger than the number of records
+	 */
+	public void truncate(int size) {
+		if(size < 0 || size > this.size) {
+			throw new IllegalArgumentException("Can't truncate " + this.size + " records to " + size);
+		}
+		for(TableIndex ti : indexes.values()) {
+			ti.truncate(size);
+		}
+		if(columnar) {
+			//the rest of the last block kept must be zero, as an appended record is
+			int count = (int) Math.min(this.size, (lengthOf(size) - HEADER) / recordLength) - size;
+			if(count > 0) {
+				for(Field field : fields) {
+					save.storeZeros(position(size, field.getStart(), field.getLength()), 0, field.getLength() * count);
+				}
+			}
+			save.storeInt(0, DataType.INT_32BIT, size);
+		}
+		save.resize((int) lengthOf(size), !columnar);
+		this.size = size;
+	}
+	
+	/**
+	 * Reads a run of values from the data
+	 */
+	@FunctionalInterface
+	private interface Run {
+		
+		/**
+		 * Reads consecutive values into an array
+		 * @param pos	The starting position of the first value
+		 * @param off	The index in the array of the first value
+		 * @param count	The number of values to read
+		 */
+		void read(int pos, int off, int count);
+		
+	}
+	
+	/**
+	 * Reads one value from the data
+	 */
+	@FunctionalInterface
+	private interface Value {
+		
+		/**
+		 * Reads one value into an array
+		 * @param pos	The starting position of the value
+		 * @param off	The index in the array of the value
+		 */
+		void read(int pos, int off);
+		
+	}
+	
+	/**
+	 * <p>Reads the first value of a datapoint of consecutive records into an array</p>
+	 * <p>If this table is columnar and the datapoint holds one value, the values of each block are read as one run;
+	 * otherwise, each value is read on its own</p>
+	 * @param field	The datapoint
+	 * @param from	The index of the first record
+	 * @param len	The length of the array
+	 * @param off	The index in the array of the first value
+	 * @param count	The number of records
+	 * @param run	Reads a run of values into the array
+	 * @param value	Reads one value into the array
+	 * @throws IndexOutOfBoundsException	if the range is outside of the table or of the array
+	 */
+	private void scan(Field field, int from, int len, int off, int count, Run run, Value value) {
+		if(from < 0 || count < 0 || off < 0 || from > size - count || off > len - count) {
+			throw new IndexOutOfBoundsException("Range of " + count + " records at index " + from + " (array offset " + off
+					+ ") is outside of the table or the array");
+		}
+		int start = field.getStart();
+		int flen = field.getLength();
+		if(columnar && flen == field.getType().getLength()) {
+			while(count > 0) {
+				int n = Math.min(count, BLOCK - (from & BLOCK - 1));
+				run.read(position(from, start, flen), off, n);
+				from += n;
+				off += n;
+				count -= n;
+			}
+			return;
+		}
+		for(int i = 0;i < count;i++) {
+			value.read(position(from + i, start, flen), off + i);
+		}
+	}
+	
+	/**
+	 * <p>Gets the first value of a datapoint of consecutive records</p>
+	 * <p>Data must be of a type valid for {@link Save#getInts(String, int, int[], int, int) Save.getInts}</p>
+	 * @param name	The name of the data
+	 * @param from	The index of the first record
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param count	The number of records
+	 * @throws IndexOutOfBoundsException	if the range is outside of the table or of {@code dst}
+	 */
+	public void getInts(String name, int from, int[] dst, int off, int count) {
+		Field field = field(name);
+		DataType type = field.getType();
+		if(Save.checkIntType(type)) {
+			throw new InvalidSearchException();
+		}
+		boolean signed = Save.isSigned(type);
+		scan(field, from, dst.length, off, count, (pos, o, n) -> save.getInts(pos, type, dst, o, n),
+				(pos, o) -> dst[o] = signed ? save.getInt(pos, type) : save.getUint(pos, type));
+	}
+	
+	/**
+	 * <p>Gets the first value of a datapoint of consecutive records</p>
+	 * <p>Data must be of a type valid for {@link Save#getLongs(String, int, long[], int, int) Save.getLongs}</p>
+	 * @param name	The name of the data
+	 * @param from	The index of the first record
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param count	The number of records
+	 * @throws IndexOutOfBoundsException	if the range is outside of the table or of {@code dst}
+	 */
+	public void getLongs(String name, int from, long[] dst, int off, int count) {
+		Field field = field(name);
+		DataType type = field.getType();
+		if(Save.checkLongType(type)) {
+			throw new InvalidSearchException();
+		}
+		boolean signed = Save.isSigned(type);
+		scan(field, from, dst.length, off, count, (pos, o, n) -> save.getLongs(pos, type, dst, o, n),
+				(pos, o) -> dst[o] = signed ? save.getLongInt(pos, type) : save.getLongUint(pos, type));
+	}
+	
+	/**
+	 * <p>Gets the first value of a datapoint of consecutive records</p>
+	 * <p>Data must be of type {@link DataType#FLOAT FLOAT}</p>
+	 * @param name	The name of the data
+	 * @param from	The index of the first record
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param count	The number of records
+	 * @throws IndexOutOfBoundsException	if the range is outside of the table or of {@code dst}
+	 */
+	public void getFloats(String name, int from, float[] dst, int off, int count) {
+		Field field = field(name);
+		if(field.getType() != DataType.FLOAT) {
+			throw new InvalidSearchException();
+		}
+		scan(field, from, dst.length, off, count, (pos, o, n) -> save.getFloats(pos, dst, o, n),
+				(pos, o) -> dst[o] = save.getFloat(pos));
+	}
+	
+	/**
+	 * <p>Gets the first value of a datapoint of consecutive records</p>
+	 * <p>Data must be of type {@link DataType#DOUBLE DOUBLE}</p>
+	 * @param name	The name of the data
+	 * @param from	The index of the first record
+	 * @param dst	The array into which the values are read
+	 * @param off	The index in {@code dst} of the first value
+	 * @param count	The number of records
+	 * @throws IndexOutOfBoundsException	if the range is outside of the table or of {@code dst}
+	 */
+	public void getDoubles(String name, int from, double[] dst, int off, int count) {
+		Field field = field(name);
+		if(field.getType() != DataType.DOUBLE) {
+			throw new InvalidSearchException();
+		}
+		scan(field, from, dst.length, off, count, (pos, o, n) -> save.getDoubles(pos, dst, o, n),
+				(pos, o) -> dst[o] = save.getDouble(pos));
+	}
+	
+	/**
+	 * <p>Gets a signed integer from a record</p>
+	 * <p>Use {@link Field#asInt() field(name).asInt()} to avoid looking up the name for every record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @return		The signed integer stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public int getInt(int index, String name) {
+		return field(name).asInt().get(this, index);
+	}
+	
+	/**
+	 * <p>Stores a signed integer in a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @param data	The signed integer to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public void storeInt(int index, String name, int data) {
+		field(name).asInt().set(this, index, data);
+	}
+	
+	/**
+	 * <p>Gets a signed long integer from a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @return		The signed long integer stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public long getLongInt(int index, String name) {
+		return field(name).asLongInt().get(this, index);
+	}
+	
+	/**
+	 * <p>Stores a signed long integer in a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @param data	The signed long integer to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public void storeLongInt(int index, String name, long data) {
+		field(name).asLongInt().set(this, index, data);
+	}
+	
+	/**
+	 * <p>Gets an unsigned integer from a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @return		The unsigned integer stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public int getUint(int index, String name) {
+		return field(name).asUint().get(this, index);
+	}
+	
+	/**
+	 * <p>Stores an unsigned integer in a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @param data	The unsigned integer to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public void storeUint(int index, String name, int data) {
+		field(name).asUint().set(this, index, data);
+	}
+	
+	/**
+	 * <p>Gets an unsigned long integer from a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @return		The unsigned long integer stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public long getLongUint(int index, String name) {
+		return field(name).asLongUint().get(this, index);
+	}
+	
+	/**
+	 * <p>Stores an unsigned long integer in a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @param data	The unsigned long integer to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public void storeLongUint(int index, String name, long data) {
+		field(name).asLongUint().set(this, index, data);
+	}
+	
+	/**
+	 * <p>Gets one value of a packed integer datapoint from a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @param i		The index of the value within the datapoint
+	 * @return		The integer stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index, or no value at {@code i}
+	 */
+	public long getPacked(int index, String name, int i) {
+		return field(name).asPacked().get(this, index, i);
+	}
+	
+	/**
+	 * <p>Stores one value of a packed integer datapoint in a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @param i		The index of the value within the datapoint
+	 * @param data	The integer to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index, or no value at {@code i}
+	 * @throws IllegalArgumentException		if the integer does not fit in the bit width of the datapoint
+	 */
+	public void storePacked(int index, String name, int i, long data) {
+		field(name).asPacked().set(this, index, i, data);
+	}
+	
+	/**
+	 * <p>Gets a {@code float} from a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @return		The {@code float} stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public float getFloat(int index, String name) {
+		return field(name).asFloat().get(this, index);
+	}
+	
+	/**
+	 * <p>Stores a {@code float} in a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @param data	The {@code float} to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public void storeFloat(int index, String name, float data) {
+		field(name).asFloat().set(this, index, data);
+	}
+	
+	/**
+	 * <p>Gets a {@code double} from a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @return		The {@code double} stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public double getDouble(int index, String name) {
+		return field(name).asDouble().get(this, index);
+	}
+	
+	/**
+	 * <p>Stores a {@code double} in a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @param data	The {@code double} to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public void storeDouble(int index, String name, double data) {
+		field(name).asDouble().set(this, index, data);
+	}
+	
+	/**
+	 * <p>Gets a {@code String} from a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @return		The {@code String} stored
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public String getString(int index, String name) {
+		return field(name).asString().get(this, index);
+	}
+	
+	/**
+	 * <p>Stores a {@code String} in a record</p>
+	 * @param index	The index of the record
+	 * @param name	The name of the data
+	 * @param data	The {@code String} to store
+	 * @throws IndexOutOfBoundsException	if there is no record at the index
+	 */
+	public void storeString(int index, String name, String data) {
+		field(name).asString().set(this, index, data);
+	}
+	
+	/**
+	 * <p>Stores the records in the file</p>
+	 * <p>Only the bytes which have changed since the last store are written, and the file is cut to the records</p>
+	 * @see Save#store()
+	 */
+	public void store() {
+		save.store();
+		for(TableIndex ti : indexes.values()) {
+			ti.data().store();
+		}
+	}
+	
+	/**
+	 * <p>Stores the records in the file on a background thread</p>
+	 * @return	A future completed once the changes are on the storage device
+	 * @see Save#storeAsync()
+	 */
+	public CompletableFuture<Void> storeAsync() {
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[indexes.size() + 1];
+		futures[0] = save.storeAsync();
+		int i = 1;
+		for(TableIndex ti : indexes.values()) {
+			futures[i++] = ti.data().storeAsync();
+		}
+		return CompletableFuture.allOf(futures);
+	}
+	
+	/**
+	 * Get the number of bytes written to the file by the most recent {@link #store() store}
+	 * @return	The number of bytes written, or 0 if nothing had changed
+	 */
+	public long getLastStoreBytes() {
+		return save.getLastStoreBytes();
+	}
+	
+	/**
+	 * <p>Stores the records in the file</p>
+	 * <p>This object must not be changed after it is closed</p>
+	 */
+	@Override
+	public void close() {
+		save.close();
+		for(TableIndex ti : indexes.values()) {
+			ti.data().close();
+		}
+	}
+	
+}
@@ -0,0 +1,375 @@
+package com.preston159.binsave;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * <p>A persisted hash index from the value of one datapoint to the records of a {@code Table} holding that value</p>
+ * <p>Obtained from {@link Table#index(String) Table.index}. The index is kept in {@code <file>.<name>.index} and held
+ * the same way as the table; the table updates it on every write, so looking up a value takes constant time on
+ * average. An index file which does not hold the same number of records as the table is rebuilt when it is opened</p>
+ * <p>Records are hashed on every byte of the datapoint. The file holds a header, a bucket for each possible hash,
+ * and for each record the next and previous record in the same bucket, so a record is added or removed in constant
+ * time; keys are not copied, but read from the table when compared</p>
+ * @author Preston Petrie
+ */
+public final class TableIndex {
+	
+	private static final int MAGIC = 0x58495342;
+	private static final int HEADER = 16;
+	private static final int MIN_BUCKETS = 16;
+	
+	private final Table table;
+	private final Save save;
+	private final Save scratch;
+	private final String name;
+	private final int start;
+	private final int len;
+	private final DataType type;
+	private final int bits;
+	private final byte[] key;
+	private final byte[] read;
+	private int buckets;
+	private int links;
+	
+	/**
+	 * Construct a {@code TableIndex} object, rebuilding the index file if it does not match the table
+	 * @param table	The indexed table
+	 * @param f		The index file
+	 * @param mode	How the index is held while in use
+	 * @param field	The indexed datapoint
+	 */
+	TableIndex(Table table, File f, StorageMode mode, Field field) {
+		this.table = table;
+		name = field.getName();
+		start = field.getStart();
+		len = field.getLength();
+		type = field.getType();
+		bits = field.getBits();
+		key = new byte[len];
+		read = new byte[len];
+		scratch = new Save(ByteBuffer.wrap(key).order(ByteOrder.LITTLE_ENDIAN),
+				new Data(name, DataType.BYTE, len));
+		save = new Save(f, mode, false, 0, 1, new Data("index", DataType.BYTE));
+		buckets = save.length() < HEADER ? 0 : save.getInt(4, DataType.INT_32BIT);
+		links = HEADER + buckets * 4;
+		if(save.length() < HEADER || save.getInt(0, DataType.INT_32BIT) != MAGIC || buckets < MIN_BUCKETS
+				|| Integer.bitCount(buckets) != 1 || save.getInt(8, DataType.INT_32BIT) != table.size()
+				|| save.length() != lengthOf(buckets, table.size())) {
+			rebuild(table.size());
+		}
+	}
+	
+	/**
+	 * Get the byte length of an index file
+	 * @param buckets	The number of buckets
+	 * @param records	The number of records
+	 * @return	The byte length
+	 */
+	private static long lengthOf(int buckets, int records) {
+		return HEADER + buckets * 4L + records * 8L;
+	}
+	
+	/**
+	 * Get the name of the indexed datapoint
+	 * @return	The name of the datapoint
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Get the starting byte index of the indexed datapoint within the layout
+	 * @return	The starting byte index of the datapoint
+	 */
+	int getStart() {
+		return start;
+	}
+	
+	/**
+	 * Get the {@code Save} object holding the index file
+	 * @return	The {@code Save} object
+	 */
+	Save data() {
+		return save;
+	}
+	
+	/**
+	 * Computes the hash of a key, spreading every byte over every bit
+	 * @param bytes	The key
+	 * @return	The hash
+	 */
+	private static int hash(byte[] bytes) {
+		int h = 0x811c9dc5;
+		for(byte b : bytes) {
+			h = (h ^ (b & 0xff)) * 0x01000193;
+		}
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		return h;
+	}
+	
+	/**
+	 * Get the position of the bucket of a key
+	 * @param bytes	The key
+	 * @return	The position of the bucket
+	 */
+	private int bucket(byte[] bytes) {
+		return HEADER + (hash(bytes) & buckets - 1) * 4;
+	}
+	
+	/**
+	 * Reads the key of a record
+	 * @param record	The index of the record
+	 * @return	The key, in an array which is reused
+	 */
+	private byte[] keyOf(int record) {
+		table.data().getBytes(table.position(record, start, len), read, 0, len);
+		return read;
+	}
+	
+	/**
+	 * Get the record after a record in its bucket
+	 * @param record	The index of the record
+	 * @return	The index of the next record, or -1 if there is none
+	 */
+	private int next(int record) {
+		return save.getInt(links + record * 8, DataType.INT_32BIT) - 1;
+	}
+	
+	/**
+	 * Adds a record to the bucket of its key
+	 * @param record	The index of the record
+	 */
+	void add(int record) {
+		int bucket = bucket(keyOf(record));
+		int head = save.getInt(bucket, DataType.INT_32BIT);
+		save.storeInt(links + record * 8, DataType.INT_32BIT, head);
+		save.storeInt(links + record * 8 + 4, DataType.INT_32BIT, 0);
+		if(head != 0) {
+			save.storeInt(links + (head - 1) * 8 + 4, DataType.INT_32BIT, record + 1);
+		}
+		save.storeInt(bucket, DataType.INT_32BIT, record + 1);
+	}
+	
+	/**
+	 * Removes a record from the bucket of its key; must be called before the key is changed
+	 * @param record	The index of the record
+	 */
+	void remove(int record) {
+		int next = save.getInt(links + record * 8, DataType.INT_32BIT);
+		int prev = save.getInt(links + record * 8 + 4, DataType.INT_32BIT);
+		if(prev == 0) {
+			save.storeInt(bucket(keyOf(record)), DataType.INT_32BIT, next);
+		} else {
+			save.storeInt(links + (prev - 1) * 8, DataType.INT_32BIT, next);
+		}
+		if(next != 0) {
+			save.storeInt(links + (next - 1) * 8 + 4, DataType.INT_32BIT, prev);
+		}
+	}
+	
+	/**
+	 * <p>Adds the last record of the table, which has just been appended</p>
+	 * <p>The buckets are doubled once there are more records than buckets, so they stay short</p>
+	 * @param size	The number of records, including the new one
+	 * @throws IllegalStateException	if the index file would be too long
+	 */
+	void append(int size) {
+		if(size > buckets) {
+			rebuild(size);
+			return;
+		}
+		resize(buckets, size);
+		save.storeInt(8, DataType.INT_32BIT, size);
+		add(size - 1);
+	}
+	
+	/**
+	 * Removes every record from the specified index onwards; must be called before they are removed from the table
+	 * @param size	The number of records to keep
+	 */
+	void truncate(int size) {
+		for(int r = table.size() - 1;r >= size;r--) {
+			remove(r);
+		}
+		resize(buckets, size);
+		save.storeInt(8, DataType.INT_32BIT, size);
+	}
+	
+	/**
+	 * Changes the byte length of the index file
+	 * @param buckets	The number of buckets
+	 * @param records	The number of records
+	 * @throws IllegalStateException	if the index file would be too long
+	 */
+	private void resize(int buckets, int records) {
+		long length = lengthOf(buckets, records);
+		if(length > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("The index of " + name + " is full");
+		}
+		save.resize((int) length);
+	}
+	
+	/**
+	 * Rewrites the whole index from the table
+	 * @param size	The number of records in the table
+	 */
+	private void rebuild(int size) {
+		int n = MIN_BUCKETS;
+		while(n < size) {
+			n <<= 1;
+		}
+		resize(n, size);
+		save.storeZeros(0, 0, save.length());
+		buckets = n;
+		links = HEADER + n * 4;
+		save.storeInt(0, DataType.INT_32BIT, MAGIC);
+		save.storeInt(4, DataType.INT_32BIT, n);
+		save.storeInt(8, DataType.INT_32BIT, size);
+		for(int r = 0;r < size;r++) {
+			add(r);
+		}
+	}
+	
+	/**
+	 * Finds the records whose key is the one in {@code key}
+	 * @param all	Whether to find every record, rather than the first one found
+	 * @return	The indices of the records, in ascending order
+	 */
+	private int[] find(boolean all) {
+		int[] out = new int[4];
+		int n = 0;
+		for(int r = save.getInt(bucket(key), DataType.INT_32BIT) - 1;r >= 0;r = next(r)) {
+			if(Arrays.equals(keyOf(r), key)) {
+				if(n == out.length) {
+					out = Arrays.copyOf(out, n * 2);
+				}
+				out[n++] = r;
+				if(!all) {
+					break;
+				}
+			}
+		}
+		out = Arrays.copyOf(out, n);
+		Arrays.sort(out);
+		return out;
+	}
+	
+	/**
+	 * Sets the key to an integer
+	 * @param value	The integer, stored as the first value of the datapoint
+	 * @throws InvalidSearchException	if the datapoint is not of an integer type, or is delta-encoded
+	 */
+	private void setKey(long value) {
+		if(bits > 0 && !Save.isDelta(type)) {
+			Arrays.fill(key, (byte) 0);
+			scratch.storePacked(0, bits, 0, value);
+			return;
+		}
+		if(Save.checkLongType(type)) {
+			throw new InvalidSearchException();
+		}
+		Arrays.fill(key, (byte) 0);
+		scratch.storeLongInt(0, type, value);
+	}
+	
+	/**
+	 * Sets the key to a {@code String}
+	 * @param value	The {@code String}, encoded as the datapoint would store it
+	 * @throws InvalidSearchException	if the datapoint is not of a character type
+	 */
+	private void setKey(String value) {
+		if(type != DataType.CHAR_ASCII && type != DataType.CHAR_UNICODE && type != DataType.CHAR_UTF8) {
+			throw new InvalidSearchException();
+		}
+		scratch.storeString(0, len, type, value);
+	}
+	
+	/**
+	 * Sets the key to raw bytes
+	 * @param value	The bytes of the datapoint
+	 * @throws IllegalArgumentException	if the length of the bytes is not the length of the datapoint
+	 */
+	private void setKey(byte[] value) {
+		if(value.length != len) {
+			throw new IllegalArgumentException(name + " is " + len + " bytes, not " + value.length);
+		}
+		System.arraycopy(value, 0, key, 0, len);
+	}
+	
+	/**
+	 * <p>Finds a record whose datapoint holds an integer</p>
+	 * <p>The integer is compared as the first value of the datapoint, with any other values zero</p>
+	 * @param value	The integer
+	 * @return	The index of a record holding the integer, or -1 if there is none
+	 * @throws InvalidSearchException	if the datapoint is not of an integer type
+	 */
+	public int find(long value) {
+		setKey(value);
+		int[] found = find(false);
+		return found.length == 0 ? -1 : found[0];
+	}
+	
+	/**
+	 * <p>Finds a record whose datapoint holds a {@code String}</p>
+	 * @param value	The {@code String}
+	 * @return	The index of a record holding the {@code String}, or -1 if there is none
+	 * @throws InvalidSearchException	if the datapoint is not of a character type
+	 */
+	public int find(String value) {
+		setKey(value);
+		int[] found = find(false);
+		return found.length == 0 ? -1 : found[0];
+	}
+	
+	/**
+	 * <p>Finds a record whose datapoint holds the specified bytes</p>
+	 * @param value	The bytes of the datapoint
+	 * @return	The index of a record holding the bytes, or -1 if there is none
+	 * @throws IllegalArgumentException	if the length of the bytes is not the length of the datapoint
+	 */
+	public int find(byte[] value) {
+		setKey(value);
+		int[] found = find(false);
+		return found.length == 0 ? -1 : found[0];
+	}
+	
+	/**
+	 * <p>Finds every record whose datapoint holds an integer</p>
+	 * @param value	The integer
+	 * @return	The indices of the records, in ascending order
+	 * @throws InvalidSearchException	if the datapoint is not of an integer type
+	 * @see #find(long)
+	 */
+	public int[] findAll(long value) {
+		setKey(value);
+		return find(true);
+	}
+	
+	/**
+	 * <p>Finds every record whose datapoint holds a {@code String}</p>
+	 * @param value	The {@code String}
+	 * @return	The indices of the records, in ascending order
+	 * @throws InvalidSearchException	if the datapoint is not of a character type
+	 */
+	public int[] findAll(String value) {
+		setKey(value);
+		return find(true);
+	}
+	
+	/**
+	 * <p>Finds every record whose datapoint holds the specified bytes</p>
+	 * @param value	The bytes of the datapoint
+	 * @return	The indices of the records, in ascending order
+	 * @throws IllegalArgumentException	if the length of the bytes is not the length of the datapoint
+	 */
+	public int[] findAll(byte[] value) {
+		setKey(value);
+		return find(true);
+	}
+	
+}
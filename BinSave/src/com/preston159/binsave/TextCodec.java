@@ -0,0 +1,1316 @@
+package com.preston159.binsave;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+
+/**
+ * <p>Writes the data of a {@code Save} object as text, and reads it back, in either {@link TextFormat}</p>
+ * <p>Text is built in a buffer which is passed on whenever it holds 8 KiB, and read through a buffer of the same size,
+ * one datapoint at a time, so the time taken grows linearly with the data and the memory used only with the largest
+ * datapoint. Values are formatted and parsed in place, without splitting or concatenating strings</p>
+ * @author Preston Petrie
+ */
+final class TextCodec {
+	
+	/**
+	 * The number of characters buffered before they are written, and read at a time
+	 */
+	private static final int BUFFER = 1 << 13;
+	
+	/**
+	 * The number of packed or delta-encoded values read from a datapoint at a time
+	 */
+	private static final int CHUNK = 1024;
+	
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	
+	private TextCodec() {}
+	
+	/**
+	 * Builds a {@code Properties} object holding the data of a {@code Save} object, one property per datapoint
+	 * @param save	The {@code Save} object
+	 * @param sd	The layout of the data
+	 * @return		The {@code Properties} object
+	 */
+	static Properties toProperties(Save save, StorageData sd) {
+		Properties p = new Properties();
+		Output o = new Output(null);
+		try {
+			for(String name : sd.getNames()) {
+				appendValue(save, name, sd.getField(name), o, false);
+				p.setProperty(name, o.sb.toString());
+				o.sb.setLength(0);
+			}
+		} catch(IOException ioe) {
+			//never thrown, as the output is not passed on
+			throw new UncheckedIOException(ioe);
+		}
+		return p;
+	}
+	
+	/**
+	 * Loads the data of a {@code Save} object from a {@code Properties} object
+	 * @param save	The {@code Save} object
+	 * @param sd	The layout of the data
+	 * @param p		The {@code Properties} object, in which a missing datapoint is taken to be zero, {@code false} or
+	 * 				an empty string
+	 * @throws DataFormatException	if a value cannot be correctly decoded
+	 */
+	static void fromProperties(Save save, StorageData sd, Properties p) throws DataFormatException {
+		Values v = new Values(save, false);
+		for(String name : sd.getNames()) {
+			Field field = sd.getField(name);
+			String value = p.getProperty(name);
+			v.begin(name, field);
+			split(value == null ? defaultOf(field.getType()) : value, v);
+			v.end();
+		}
+	}
+	
+	/**
+	 * Writes the data of a {@code Save} object as text
+	 * @param save		The {@code Save} object
+	 * @param sd		The layout of the data
+	 * @param out		The destination of the text
+	 * @param format	The format of the text
+	 * @throws IOException	if the text cannot be written
+	 */
+	static void write(Save save, StorageData sd, Appendable out, TextFormat format) throws IOException {
+		Output o = new Output(out);
+		StringBuilder sb = o.sb;
+		for(String name : sd.getNames()) {
+			Field field = sd.getField(name);
+			if(format == TextFormat.PROPERTIES) {
+				escape(name, true, sb);
+				sb.append('=');
+				appendValue(save, name, field, o, false);
+			} else {
+				sb.append("{\"name\":");
+				quote(name, sb);
+				sb.append(",\"type\":\"").append(field.getType().name()).append("\",\"value\":");
+				appendValue(save, name, field, o, true);
+				sb.append('}');
+			}
+			sb.append('\n');
+			o.spill();
+		}
+		o.flush();
+	}
+	
+	/**
+	 * Reads the data of a {@code Save} object from text
+	 * @param save		The {@code Save} object
+	 * @param sd		The layout of the data
+	 * @param in		The source of the text
+	 * @param format	The format of the text
+	 * @throws IOException			if the text cannot be read
+	 * @throws DataFormatException	if the text is malformed or a value cannot be correctly decoded
+	 */
+	static void read(Save save, StorageData sd, Reader in, TextFormat format) throws IOException, DataFormatException {
+		Input input = new Input(in);
+		Values v = new Values(save, format == TextFormat.JSON_LINES);
+		Set<String> seen = new HashSet<>();
+		if(format == TextFormat.PROPERTIES) {
+			readProperties(input, sd, v, seen);
+		} else {
+			readJson(input, sd, v, seen);
+		}
+		//as with loadFromProperties, datapoints which are not in the text are reset
+		for(String name : sd.getNames()) {
+			if(!seen.contains(name)) {
+				Field field = sd.getField(name);
+				v.begin(name, field);
+				split(defaultOf(field.getType()), v);
+				v.end();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the value taken by a datapoint which is missing from the text
+	 * @param type	The type of the datapoint
+	 * @return		The value, which reads the same as a property or as JSON
+	 */
+	private static String defaultOf(DataType type) {
+		switch(type) {
+		case BOOL:
+		case BOOLS_8:
+			return "false";
+		case CHAR_ASCII:
+		case CHAR_UNICODE:
+		case CHAR_UTF8:
+			return "\0";
+		default:
+			return "0";
+		}
+	}
+	
+	/**
+	 * <p>Checks if the values of a type are written as a list rather than one value</p>
+	 * <p>As properties, only the first value of any other numeric datapoint is written, matching
+	 * {@link #toProperties(Save, StorageData) toProperties}; as JSON, every value of each numeric datapoint is</p>
+	 * @param type	The type of the data
+	 * @param json	Whether the values are written as JSON rather than as a property
+	 * @return		{@code true} if the values are written as a list
+	 */
+	private static boolean isList(DataType type, boolean json) {
+		switch(type) {
+		case BYTE:
+		case BOOL:
+		case BOOLS_8:
+		case PACKED_INT:
+		case PACKED_UINT:
+		case DELTA_INT:
+		case DELTA_DELTA_INT:
+			return true;
+		case CHAR_ASCII:
+		case CHAR_UNICODE:
+		case CHAR_UTF8:
+			return false;
+		default:
+			return json;
+		}
+	}
+	
+	/**
+	 * Appends the value of a datapoint, unescaped
+	 * @param save	The {@code Save} object holding the data
+	 * @param name	The name of the datapoint
+	 * @param field	The datapoint
+	 * @param o		The output to which to append
+	 * @param json	Whether to append the value as JSON rather than as a property
+	 * @throws IOException	if the output cannot be passed on
+	 */
+	private static void appendValue(Save save, String name, Field field, Output o, boolean json) throws IOException {
+		StringBuilder sb = o.sb;
+		char sep = json ? ',' : ';';
+		DataType type = field.getType();
+		boolean list = json && isList(type, true);
+		if(list) {
+			sb.append('[');
+		}
+		switch(type) {
+		case BYTE:
+			byte[] bytes = save.getBytes(name);
+			for(int i = 0;i < bytes.length;i++) {
+				if(i > 0) {
+					sb.append(sep);
+				}
+				int b = bytes[i] & 0xff;
+				if(json) {
+					sb.append(b);
+				} else {
+					sb.append("0x");
+					if(b >= 0x10) {
+						sb.append(HEX[b >>> 4]);
+					}
+					sb.append(HEX[b & 0xf]);
+				}
+				o.spill();
+			}
+			break;
+		case BOOL:
+		case BOOLS_8:
+			boolean[] bools = save.getBools(name);
+			for(int i = 0;i < bools.length;i++) {
+				if(i > 0) {
+					sb.append(sep);
+				}
+				sb.append(bools[i]);
+				o.spill();
+			}
+			break;
+		case INT_8BIT:
+		case INT_16BIT:
+		case INT_24BIT:
+		case INT_32BIT:
+		case INT_40BIT:
+		case INT_48BIT:
+		case INT_56BIT:
+		case INT_64BIT:
+		case VARINT:
+			if(json) {
+				appendLongs(save, name, field, o, sep);
+			} else {
+				sb.append(save.getLongInt(name));
+			}
+			break;
+		case UINT_8BIT:
+		case UINT_16BIT:
+		case UINT_24BIT:
+		case UINT_32BIT:
+		case UINT_40BIT:
+		case UINT_48BIT:
+		case UINT_56BIT:
+		case VARUINT:
+			if(json) {
+				appendLongs(save, name, field, o, sep);
+			} else {
+				sb.append(save.getLongUint(name));
+			}
+			break;
+		case CHAR_ASCII:
+		case CHAR_UNICODE:
+		case CHAR_UTF8:
+			if(json) {
+				quote(save.getString(name), sb);
+			} else if(o.out == null) {
+				sb.append(save.getString(name));
+			} else {
+				escape(save.getString(name), false, sb);
+			}
+			break;
+		case FLOAT:
+			if(json) {
+				appendFloats(save, name, field, o);
+			} else {
+				sb.append(save.getFloat(name));
+			}
+			break;
+		case DOUBLE:
+			if(json) {
+				appendDoubles(save, name, field, o);
+			} else {
+				sb.append(save.getDouble(name));
+			}
+			break;
+		case PACKED_INT:
+		case PACKED_UINT:
+		case DELTA_INT:
+		case DELTA_DELTA_INT:
+			appendLongs(save, name, field, o, sep);
+			break;
+		}
+		if(list) {
+			sb.append(']');
+		}
+	}
+	
+	/**
+	 * Appends every value of an integer datapoint, read a chunk at a time
+	 * @param save	The {@code Save} object holding the data
+	 * @param name	The name of the datapoint
+	 * @param field	The datapoint
+	 * @param o		The output to which to append
+	 * @param sep	The character separating the values
+	 * @throws IOException	if the output cannot be passed on
+	 */
+	private static void appendLongs(Save save, String name, Field field, Output o, char sep) throws IOException {
+		StringBuilder sb = o.sb;
+		int count = field.getCount();
+		long[] chunk = new long[Math.min(count, CHUNK)];
+		for(int i = 0;i < count;i += chunk.length) {
+			int n = Math.min(chunk.length, count - i);
+			save.getLongs(name, i, chunk, 0, n);
+			for(int j = 0;j < n;j++) {
+				if(i + j > 0) {
+					sb.append(sep);
+				}
+				sb.append(chunk[j]);
+			}
+			o.spill();
+		}
+	}
+	
+	/**
+	 * Appends every value of a {@link DataType#FLOAT FLOAT} datapoint as JSON, read a chunk at a time
+	 * @param save	The {@code Save} object holding the data
+	 * @param name	The name of the datapoint
+	 * @param field	The datapoint
+	 * @param o		The output to which to append
+	 * @throws IOException	if the output cannot be passed on
+	 */
+	private static void appendFloats(Save save, String name, Field field, Output o) throws IOException {
+		StringBuilder sb = o.sb;
+		int count = field.getCount();
+		float[] chunk = new float[Math.min(count, CHUNK)];
+		for(int i = 0;i < count;i += chunk.length) {
+			int n = Math.min(chunk.length, count - i);
+			save.getFloats(name, i, chunk, 0, n);
+			for(int j = 0;j < n;j++) {
+				if(i + j > 0) {
+					sb.append(',');
+				}
+				if(Float.isFinite(chunk[j])) {
+					sb.append(chunk[j]);
+				} else {
+					sb.append('"').append(chunk[j]).append('"');
+				}
+			}
+			o.spill();
+		}
+	}
+	
+	/**
+	 * Appends every value of a {@link DataType#DOUBLE DOUBLE} datapoint as JSON, read a chunk at a time
+	 * @param save	The {@code Save} object holding the data
+	 * @param name	The name of the datapoint
+	 * @param field	The datapoint
+	 * @param o		The output to which to append
+	 * @throws IOException	if the output cannot be passed on
+	 */
+	private static void appendDoubles(Save save, String name, Field field, Output o) throws IOException {
+		StringBuilder sb = o.sb;
+		int count = field.getCount();
+		double[] chunk = new double[Math.min(count, CHUNK)];
+		for(int i = 0;i < count;i += chunk.length) {
+			int n = Math.min(chunk.length, count - i);
+			save.getDoubles(name, i, chunk, 0, n);
+			for(int j = 0;j < n;j++) {
+				if(i + j > 0) {
+					sb.append(',');
+				}
+				if(Double.isFinite(chunk[j])) {
+					sb.append(chunk[j]);
+				} else {
+					sb.append('"').append(chunk[j]).append('"');
+				}
+			}
+			o.spill();
+		}
+	}
+	
+	/**
+	 * Appends a key or value escaped as by {@link Properties#store(java.io.OutputStream, String) Properties.store},
+	 * so it can be read by either {@code Properties.load} method
+	 * @param s		The key or value
+	 * @param key	Whether {@code s} is a key, in which every space is escaped rather than only a leading one
+	 * @param sb	The builder to which to append
+	 */
+	private static void escape(CharSequence s, boolean key, StringBuilder sb) {
+		int len = s.length();
+		for(int i = 0;i < len;i++) {
+			char c = s.charAt(i);
+			switch(c) {
+			case ' ':
+				if(key || i == 0) {
+					sb.append('\\');
+				}
+				sb.append(' ');
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\f':
+				sb.append("\\f");
+				break;
+			case '=':
+			case ':':
+			case '#':
+			case '!':
+			case '\\':
+				sb.append('\\').append(c);
+				break;
+			default:
+				if(c < 0x20 || c > 0x7e) {
+					appendUnicode(c, sb);
+				} else {
+					sb.append(c);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Appends a string as a JSON string
+	 * @param s		The string
+	 * @param sb	The builder to which to append
+	 */
+	private static void quote(CharSequence s, StringBuilder sb) {
+		sb.append('"');
+		int len = s.length();
+		for(int i = 0;i < len;i++) {
+			char c = s.charAt(i);
+			switch(c) {
+			case '"':
+			case '\\':
+				sb.append('\\').append(c);
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			default:
+				if(c < 0x20) {
+					appendUnicode(c, sb);
+				} else {
+					sb.append(c);
+				}
+			}
+		}
+		sb.append('"');
+	}
+	
+	/**
+	 * Appends a character as a {@code \}{@code uXXXX} escape
+	 * @param c		The character
+	 * @param sb	The builder to which to append
+	 */
+	private static void appendUnicode(char c, StringBuilder sb) {
+		sb.append("\\u").append(HEX[c >>> 12]).append(HEX[c >>> 8 & 0xf]).append(HEX[c >>> 4 & 0xf]).append(HEX[c & 0xf]);
+	}
+	
+	/**
+	 * Passes each value of a datapoint in the format of {@link TextFormat#PROPERTIES PROPERTIES} to a {@code Values}
+	 * object, splitting a list at each {@code ;} as {@link String#split(String)} would
+	 * @param s	The value of the datapoint, unescaped
+	 * @param v	The {@code Values} object
+	 * @throws DataFormatException	if a value cannot be correctly decoded
+	 */
+	private static void split(CharSequence s, Values v) throws DataFormatException {
+		int len = s.length();
+		if(!isList(v.type, v.json)) {
+			v.add(s, 0, len);
+			return;
+		}
+		//trailing empty values are dropped
+		int end = len;
+		while(end > 0 && s.charAt(end - 1) == ';') {
+			end--;
+		}
+		if(end == 0 && len > 0) {
+			return;
+		}
+		int from = 0;
+		for(int i = 0;i <= end;i++) {
+			if(i == end || s.charAt(i) == ';') {
+				v.add(s, from, i);
+				from = i + 1;
+			}
+		}
+	}
+	
+	/**
+	 * Reads text in the format of {@link TextFormat#PROPERTIES PROPERTIES}, following the rules of
+	 * {@link Properties#load(Reader) Properties.load}
+	 * @param in	The source of the text
+	 * @param sd	The layout of the data
+	 * @param v		The {@code Values} object which stores each value
+	 * @param seen	The set to which the name of each datapoint read is added
+	 * @throws IOException			if the text cannot be read
+	 * @throws DataFormatException	if the text is malformed or a value cannot be correctly decoded
+	 */
+	private static void readProperties(Input in, StorageData sd, Values v, Set<String> seen)
+			throws IOException, DataFormatException {
+		StringBuilder line = new StringBuilder();
+		StringBuilder key = new StringBuilder();
+		StringBuilder value = new StringBuilder();
+		while(readLine(in, line)) {
+			int len = line.length();
+			int keyLen = 0;
+			int valueStart = len;
+			boolean hasSep = false;
+			boolean backslash = false;
+			while(keyLen < len) {
+				char c = line.charAt(keyLen);
+				if((c == '=' || c == ':') && !backslash) {
+					valueStart = keyLen + 1;
+					hasSep = true;
+					break;
+				} else if((c == ' ' || c == '\t' || c == '\f') && !backslash) {
+					valueStart = keyLen + 1;
+					break;
+				}
+				backslash = c == '\\' && !backslash;
+				keyLen++;
+			}
+			while(valueStart < len) {
+				char c = line.charAt(valueStart);
+				if(c != ' ' && c != '\t' && c != '\f') {
+					if(!hasSep && (c == '=' || c == ':')) {
+						hasSep = true;
+					} else {
+						break;
+					}
+				}
+				valueStart++;
+			}
+			key.setLength(0);
+			unescape(line, 0, keyLen, key);
+			String name = key.toString();
+			Field field = sd.getField(name);
+			if(field == null) {
+				continue;
+			}
+			value.setLength(0);
+			unescape(line, valueStart, len, value);
+			v.begin(name, field);
+			split(value, v);
+			v.end();
+			seen.add(name);
+		}
+	}
+	
+	/**
+	 * Reads one logical line of text in the format of {@link TextFormat#PROPERTIES PROPERTIES}, skipping blank lines
+	 * and comments, joining lines which end with a backslash and leaving escapes in place
+	 * @param in	The source of the text
+	 * @param line	The builder into which to read the line
+	 * @return		{@code false} if there are no more lines
+	 * @throws IOException	if the text cannot be read
+	 */
+	private static boolean readLine(Input in, StringBuilder line) throws IOException {
+		line.setLength(0);
+		boolean skipWhite = true;
+		boolean continued = false;
+		boolean comment = false;
+		boolean backslash = false;
+		while(true) {
+			int c = in.read();
+			if(c == -1) {
+				if(backslash) {
+					line.setLength(line.length() - 1);
+				}
+				return line.length() > 0 && !comment;
+			}
+			if(in.skipLF) {
+				in.skipLF = false;
+				if(c == '\n') {
+					continue;
+				}
+			}
+			if(skipWhite) {
+				if(c == ' ' || c == '\t' || c == '\f' || !continued && (c == '\r' || c == '\n')) {
+					continue;
+				}
+				skipWhite = false;
+				continued = false;
+			}
+			if(line.length() == 0 && !comment && (c == '#' || c == '!')) {
+				comment = true;
+				continue;
+			}
+			if(c != '\n' && c != '\r') {
+				if(!comment) {
+					line.append((char) c);
+					backslash = c == '\\' && !backslash;
+				}
+				continue;
+			}
+			in.skipLF = c == '\r';
+			if(comment || line.length() == 0) {
+				comment = false;
+				skipWhite = true;
+				continue;
+			}
+			if(backslash) {
+				line.setLength(line.length() - 1);
+				backslash = false;
+				skipWhite = true;
+				continued = true;
+				continue;
+			}
+			return true;
+		}
+	}
+	
+	/**
+	 * Unescapes a range of a logical line as {@link Properties#load(Reader) Properties.load} does
+	 * @param s		The line
+	 * @param from	The index of the first character
+	 * @param to	The index after the last character
+	 * @param out	The builder to which to append the unescaped characters
+	 * @throws DataFormatException	if a {@code \}{@code uXXXX} escape is malformed
+	 */
+	private static void unescape(CharSequence s, int from, int to, StringBuilder out) throws DataFormatException {
+		int i = from;
+		while(i < to) {
+			char c = s.charAt(i++);
+			if(c != '\\' || i == to) {
+				out.append(c);
+				continue;
+			}
+			c = s.charAt(i++);
+			switch(c) {
+			case 'u':
+				if(i > to - 4) {
+					throw new DataFormatException("Malformed \\uxxxx encoding");
+				}
+				int u = 0;
+				for(int j = 0;j < 4;j++) {
+					int digit = Character.digit(s.charAt(i++), 16);
+					if(digit < 0) {
+						throw new DataFormatException("Malformed \\uxxxx encoding");
+					}
+					u = u << 4 | digit;
+				}
+				out.append((char) u);
+				break;
+			case 't':
+				out.append('\t');
+				break;
+			case 'n':
+				out.append('\n');
+				break;
+			case 'r':
+				out.append('\r');
+				break;
+			case 'f':
+				out.append('\f');
+				break;
+			default:
+				out.append(c);
+			}
+		}
+	}
+	
+	/**
+	 * Reads text in the format of {@link TextFormat#JSON_LINES JSON_LINES}
+	 * @param in	The source of the text
+	 * @param sd	The layout of the data
+	 * @param v		The {@code Values} object which stores each value
+	 * @param seen	The set to which the name of each datapoint read is added
+	 * @throws IOException			if the text cannot be read
+	 * @throws DataFormatException	if the text is malformed or a value cannot be correctly decoded
+	 */
+	private static void readJson(Input in, StorageData sd, Values v, Set<String> seen)
+			throws IOException, DataFormatException {
+		StringBuilder sb = new StringBuilder();
+		int c;
+		while((c = in.skipSpace()) != -1) {
+			expect(in, c, '{');
+			String name = null;
+			Field field = null;
+			String type = null;
+			c = in.skipSpace();
+			while(c != '}') {
+				expect(in, c, '"');
+				sb.setLength(0);
+				readString(in, sb);
+				expect(in, in.skipSpace(), ':');
+				String key = sb.toString();
+				if(key.equals("name")) {
+					expect(in, in.skipSpace(), '"');
+					sb.setLength(0);
+					readString(in, sb);
+					name = sb.toString();
+					field = sd.getField(name);
+				} else if(key.equals("type")) {
+					expect(in, in.skipSpace(), '"');
+					sb.setLength(0);
+					readString(in, sb);
+					type = sb.toString();
+				} else if(key.equals("value")) {
+					if(name == null) {
+						throw new DataFormatException("\"name\" must come before \"value\" at line " + in.line);
+					}
+					if(field == null) {
+						skipValue(in, sb);
+					} else {
+						checkType(name, field, type);
+						v.begin(name, field);
+						readValue(in, v, sb);
+						v.end();
+						seen.add(name);
+					}
+				} else {
+					skipValue(in, sb);
+				}
+				c = in.skipSpace();
+				if(c == ',') {
+					c = in.skipSpace();
+				} else if(c != '}') {
+					throw new DataFormatException("Expected ',' or '}' at line " + in.line);
+				}
+			}
+			if(field != null) {
+				checkType(name, field, type);
+			}
+		}
+	}
+	
+	/**
+	 * Checks that the type given for a datapoint is its type
+	 * @param name	The name of the datapoint
+	 * @param field	The datapoint
+	 * @param type	The name of the type given, or {@code null} if none was given
+	 * @throws DataFormatException	if the types do not match
+	 */
+	private static void checkType(String name, Field field, String type) throws DataFormatException {
+		if(type != null && !type.equals(field.getType().name())) {
+			throw new DataFormatException("Type of key \"" + name + "\" is " + field.getType() + ", not " + type);
+		}
+	}
+	
+	/**
+	 * Checks that a character read is the one expected
+	 * @param in		The source of the text
+	 * @param c			The character read, or -1 at the end of the text
+	 * @param expected	The character expected
+	 * @throws DataFormatException	if the characters do not match
+	 */
+	private static void expect(Input in, int c, char expected) throws DataFormatException {
+		if(c != expected) {
+			throw new DataFormatException("Expected '" + expected + "' at line " + in.line);
+		}
+	}
+	
+	/**
+	 * Reads the JSON value of a datapoint, passing each of its values to a {@code Values} object
+	 * @param in	The source of the text
+	 * @param v		The {@code Values} object
+	 * @param sb	A builder used to hold each value
+	 * @throws IOException			if the text cannot be read
+	 * @throws DataFormatException	if the text is malformed or a value cannot be correctly decoded
+	 */
+	private static void readValue(Input in, Values v, StringBuilder sb) throws IOException, DataFormatException {
+		int c = in.skipSpace();
+		if(c != '[') {
+			readScalar(in, c, v, sb);
+			return;
+		}
+		if(!isList(v.type, true)) {
+			throw new DataFormatException("Invalid " + v.type + " data at key \"" + v.name + "\"");
+		}
+		c = in.skipSpace();
+		while(c != ']') {
+			readScalar(in, c, v, sb);
+			c = in.skipSpace();
+			if(c == ',') {
+				c = in.skipSpace();
+			} else if(c != ']') {
+				throw new DataFormatException("Expected ',' or ']' at line " + in.line);
+			}
+		}
+	}
+	
+	/**
+	 * Reads a JSON string, number or literal, passing it to a {@code Values} object
+	 * @param in	The source of the text
+	 * @param c		The first character, already read
+	 * @param v		The {@code Values} object
+	 * @param sb	A builder used to hold the value
+	 * @throws IOException			if the text cannot be read
+	 * @throws DataFormatException	if the text is malformed or the value cannot be correctly decoded
+	 */
+	private static void readScalar(Input in, int c, Values v, StringBuilder sb) throws IOException, DataFormatException {
+		sb.setLength(0);
+		if(c == '"') {
+			readString(in, sb);
+		} else {
+			readToken(in, c, sb);
+		}
+		v.add(sb, 0, sb.length());
+	}
+	
+	/**
+	 * Reads a JSON number or literal
+	 * @param in	The source of the text
+	 * @param c		The first character, already read
+	 * @param sb	The builder into which to read the token
+	 * @throws IOException			if the text cannot be read
+	 * @throws DataFormatException	if there is no token
+	 */
+	private static void readToken(Input in, int c, StringBuilder sb) throws IOException, DataFormatException {
+		if(c == -1 || isDelimiter(c)) {
+			throw new DataFormatException("Expected a value at line " + in.line);
+		}
+		sb.append((char) c);
+		while((c = in.peek()) != -1 && !isDelimiter(c)) {
+			sb.append((char) in.read());
+		}
+	}
+	
+	/**
+	 * Checks if a character ends a JSON number or literal
+	 * @param c	The character
+	 * @return	{@code true} if the character ends a token
+	 */
+	private static boolean isDelimiter(int c) {
+		return c == ',' || c == ']' || c == '}' || c == ':' || c == '"' || c == ' ' || c == '\t' || c == '\r' || c == '\n';
+	}
+	
+	/**
+	 * Reads the rest of a JSON string, after its opening quote
+	 * @param in	The source of the text
+	 * @param sb	The builder to which to append the string, unescaped
+	 * @throws IOException			if the text cannot be read
+	 * @throws DataFormatException	if the string is malformed
+	 */
+	private static void readString(Input in, StringBuilder sb) throws IOException, DataFormatException {
+		while(true) {
+			int c = in.read();
+			if(c == '"') {
+				return;
+			}
+			if(c == -1 || c == '\n') {
+				throw new DataFormatException("Unterminated string at line " + in.line);
+			}
+			if(c != '\\') {
+				sb.append((char) c);
+				continue;
+			}
+			c = in.read();
+			switch(c) {
+			case '"':
+			case '\\':
+			case '/':
+				sb.append((char) c);
+				break;
+			case 'b':
+				sb.append('\b');
+				break;
+			case 'f':
+				sb.append('\f');
+				break;
+			case 'n':
+				sb.append('\n');
+				break;
+			case 'r':
+				sb.append('\r');
+				break;
+			case 't':
+				sb.append('\t');
+				break;
+			case 'u':
+				int u = 0;
+				for(int j = 0;j < 4;j++) {
+					int digit = Character.digit(in.read(), 16);
+					if(digit < 0) {
+						throw new DataFormatException("Malformed \\uxxxx encoding at line " + in.line);
+					}
+					u = u << 4 | digit;
+				}
+				sb.append((char) u);
+				break;
+			default:
+				throw new DataFormatException("Invalid escape in string at line " + in.line);
+			}
+		}
+	}
+	
+	/**
+	 * Reads and discards a JSON value of any kind
+	 * @param in	The source of the text
+	 * @param sb	A builder used to hold strings and tokens
+	 * @throws IOException			if the text cannot be read
+	 * @throws DataFormatException	if the value is malformed
+	 */
+	private static void skipValue(Input in, StringBuilder sb) throws IOException, DataFormatException {
+		int c = in.skipSpace();
+		if(c != '[' && c != '{') {
+			sb.setLength(0);
+			if(c == '"') {
+				readString(in, sb);
+			} else {
+				readToken(in, c, sb);
+			}
+			return;
+		}
+		int depth = 1;
+		while(depth > 0) {
+			c = in.read();
+			if(c == -1) {
+				throw new DataFormatException("Unexpected end of text at line " + in.line);
+			} else if(c == '"') {
+				sb.setLength(0);
+				readString(in, sb);
+			} else if(c == '[' || c == '{') {
+				depth++;
+			} else if(c == ']' || c == '}') {
+				depth--;
+			} else if(c == '\n') {
+				in.line++;
+			}
+		}
+	}
+	
+	/**
+	 * Parses a boolean string
+	 * @param s		The string to parse
+	 * @param from	The index of the first character
+	 * @param to	The index after the last character
+	 * @return		true if the string equals, ignoring case, "true" and false if the string equals, ignoring case,
+	 * 				"false"
+	 * @throws DataFormatException	If the string does not match either of the return criteria
+	 */
+	private static boolean parseBoolean(CharSequence s, int from, int to) throws DataFormatException {
+		if(matches(s, from, to, "true")) {
+			return true;
+		} else if(matches(s, from, to, "false")) {
+			return false;
+		} else {
+			throw new DataFormatException("Invalid boolean string");
+		}
+	}
+	
+	/**
+	 * Checks if a range of characters equals a lowercase word, ignoring case
+	 * @param s		The characters
+	 * @param from	The index of the first character
+	 * @param to	The index after the last character
+	 * @param word	The word
+	 * @return		{@code true} if the range equals the word
+	 */
+	private static boolean matches(CharSequence s, int from, int to, String word) {
+		if(to - from != word.length()) {
+			return false;
+		}
+		for(int i = 0;i < word.length();i++) {
+			if(Character.toLowerCase(s.charAt(from + i)) != word.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Text waiting to be passed on to an {@code Appendable}
+	 */
+	private static final class Output {
+		
+		private final StringBuilder sb = new StringBuilder(BUFFER + 64);
+		private final Appendable out;
+		
+		/**
+		 * Construct an {@code Output} object
+		 * @param out	The destination of the text, or {@code null} to only build it
+		 */
+		private Output(Appendable out) {
+			this.out = out;
+		}
+		
+		/**
+		 * Passes on the text built so far if it is longer than the buffer
+		 * @throws IOException	if the text cannot be passed on
+		 */
+		private void spill() throws IOException {
+			if(out != null && sb.length() >= BUFFER) {
+				flush();
+			}
+		}
+		
+		/**
+		 * Passes on the text built so far
+		 * @throws IOException	if the text cannot be passed on
+		 */
+		private void flush() throws IOException {
+			if(out != null && sb.length() > 0) {
+				out.append(sb);
+				sb.setLength(0);
+			}
+		}
+		
+	}
+	
+	/**
+	 * Text read from a {@code Reader} through a buffer
+	 */
+	private static final class Input {
+		
+		private final Reader in;
+		private final char[] buf = new char[BUFFER];
+		private int pos = 0;
+		private int lim = 0;
+		private int line = 1;
+		private boolean skipLF = false;
+		
+		/**
+		 * Construct an {@code Input} object
+		 * @param in	The source of the text
+		 */
+		private Input(Reader in) {
+			this.in = in;
+		}
+		
+		/**
+		 * Reads the next character
+		 * @return	The character, or -1 at the end of the text
+		 * @throws IOException	if the text cannot be read
+		 */
+		private int read() throws IOException {
+			int c = peek();
+			if(c != -1) {
+				pos++;
+			}
+			return c;
+		}
+		
+		/**
+		 * Gets the next character without reading it
+		 * @return	The character, or -1 at the end of the text
+		 * @throws IOException	if the text cannot be read
+		 */
+		private int peek() throws IOException {
+			if(pos == lim) {
+				int n = in.read(buf, 0, buf.length);
+				if(n <= 0) {
+					return -1;
+				}
+				pos = 0;
+				lim = n;
+			}
+			return buf[pos];
+		}
+		
+		/**
+		 * Reads characters up to and including the next which is not JSON whitespace, counting lines
+		 * @return	The character which is not whitespace, or -1 at the end of the text
+		 * @throws IOException	if the text cannot be read
+		 */
+		private int skipSpace() throws IOException {
+			while(true) {
+				int c = read();
+				if(c == '\n') {
+					line++;
+				} else if(c != ' ' && c != '\t' && c != '\r') {
+					return c;
+				}
+			}
+		}
+		
+	}
+	
+	/**
+	 * Stores the values of one datapoint at a time as they are read
+	 */
+	private static final class Values {
+		
+		private final Save save;
+		private final boolean json;
+		private String name;
+		private DataType type;
+		private byte[] bytes;
+		private boolean[] bools;
+		private long[] longs;
+		private float[] floats;
+		private double[] doubles;
+		private int capacity;
+		private int n;
+		
+		/**
+		 * Construct a {@code Values} object
+		 * @param save	The {@code Save} object in which to store the values
+		 * @param json	Whether the values are read from JSON, in which bytes are decimal numbers rather than
+		 * 				hexadecimal and every value of a numeric datapoint is given
+		 */
+		private Values(Save save, boolean json) {
+			this.save = save;
+			this.json = json;
+		}
+		
+		/**
+		 * Starts reading the values of a datapoint
+		 * @param name	The name of the datapoint
+		 * @param field	The datapoint
+		 */
+		private void begin(String name, Field field) {
+			this.name = name;
+			type = field.getType();
+			n = 0;
+			bytes = null;
+			bools = null;
+			longs = null;
+			floats = null;
+			doubles = null;
+			switch(type) {
+			case BYTE:
+				capacity = field.getLength();
+				bytes = new byte[capacity];
+				break;
+			case BOOL:
+				capacity = field.getLength();
+				bools = new boolean[capacity];
+				break;
+			case BOOLS_8:
+				capacity = field.getLength() * 8;
+				bools = new boolean[capacity];
+				break;
+			case PACKED_INT:
+			case PACKED_UINT:
+			case DELTA_INT:
+			case DELTA_DELTA_INT:
+				capacity = field.getCount();
+				longs = new long[capacity];
+				break;
+			case CHAR_ASCII:
+			case CHAR_UNICODE:
+			case CHAR_UTF8:
+				capacity = 1;
+				break;
+			case FLOAT:
+				capacity = json ? field.getCount() : 1;
+				floats = json ? new float[capacity] : null;
+				break;
+			case DOUBLE:
+				capacity = json ? field.getCount() : 1;
+				doubles = json ? new double[capacity] : null;
+				break;
+			default:
+				capacity = json ? field.getCount() : 1;
+				longs = json ? new long[capacity] : null;
+			}
+		}
+		
+		/**
+		 * Reads the next value of the datapoint, storing it at once unless the datapoint holds a list
+		 * @param s		The characters holding the value
+		 * @param from	The index of the first character
+		 * @param to	The index after the last character
+		 * @throws DataFormatException	if the value cannot be correctly decoded
+		 */
+		private void add(CharSequence s, int from, int to) throws DataFormatException {
+			int i = n++;
+			boolean store = i < capacity;
+			try {
+				if(longs != null) {
+					long l = Long.parseLong(s, from, to, 10);
+					if(store) {
+						longs[i] = l;
+					}
+					return;
+				} else if(floats != null) {
+					float f = Float.parseFloat(s.subSequence(from, to).toString());
+					if(store) {
+						floats[i] = f;
+					}
+					return;
+				} else if(doubles != null) {
+					double d = Double.parseDouble(s.subSequence(from, to).toString());
+					if(store) {
+						doubles[i] = d;
+					}
+					return;
+				}
+				switch(type) {
+				case BYTE:
+					int radix = 10;
+					if(!json) {
+						radix = 16;
+						if(to - from >= 2 && s.charAt(from) == '0' && s.charAt(from + 1) == 'x') {
+							from += 2;
+						}
+					}
+					byte b = (byte) Integer.parseInt(s, from, to, radix);
+					if(store) {
+						bytes[i] = b;
+					}
+					break;
+				case BOOL:
+				case BOOLS_8:
+					boolean bool;
+					try {
+						bool = parseBoolean(s, from, to);
+					} catch(DataFormatException dfe) {
+						throw new DataFormatException("Invalid boolean data at key \"" + name + "\" index " + i);
+					}
+					if(store) {
+						bools[i] = bool;
+					}
+					break;
+				case INT_8BIT:
+				case INT_16BIT:
+				case INT_24BIT:
+				case INT_32BIT:
+					save.storeInt(name, Integer.parseInt(s, from, to, 10));
+					break;
+				case INT_40BIT:
+				case INT_48BIT:
+				case INT_56BIT:
+				case INT_64BIT:
+				case VARINT:
+					save.storeLongInt(name, Long.parseLong(s, from, to, 10));
+					break;
+				case UINT_8BIT:
+				case UINT_16BIT:
+				case UINT_24BIT:
+					save.storeUint(name, Integer.parseInt(s, from, to, 10));
+					break;
+				case UINT_32BIT:
+				case UINT_40BIT:
+				case UINT_48BIT:
+				case UINT_56BIT:
+				case VARUINT:
+					save.storeLongUint(name, Long.parseLong(s, from, to, 10));
+					break;
+				case CHAR_ASCII:
+				case CHAR_UNICODE:
+				case CHAR_UTF8:
+					save.storeString(name, s.subSequence(from, to).toString());
+					break;
+				case FLOAT:
+					save.storeFloat(name, Float.parseFloat(s.subSequence(from, to).toString()));
+					break;
+				case DOUBLE:
+					save.storeDouble(name, Double.parseDouble(s.subSequence(from, to).toString()));
+					break;
+				}
+			} catch(NumberFormatException nfe) {
+				throw invalid(i);
+			}
+		}
+		
+		/**
+		 * Builds the exception thrown when a value cannot be decoded, worded as by {@code loadFromProperties}
+		 * @param i	The index of the value
+		 * @return	The exception
+		 */
+		private DataFormatException invalid(int i) {
+			String at = isList(type, json) ? " index " + i : "";
+			switch(type) {
+			case BYTE:
+				return new DataFormatException("Invalid byte data at key \"" + name + "\" index " + i);
+			case PACKED_INT:
+			case PACKED_UINT:
+			case DELTA_INT:
+			case DELTA_DELTA_INT:
+				return new DataFormatException("Invalid packed integer data at key \"" + name + "\" index " + i);
+			case FLOAT:
+				return new DataFormatException("Invalid float data at key \"" + name + "\"" + at);
+			case DOUBLE:
+				return new DataFormatException("Invalid double data at key \"" + name + "\"" + at);
+			default:
+				return new DataFormatException("Invalid " + (Save.isSigned(type) ? "signed" : "unsigned")
+						+ " integer data at key \"" + name + "\"" + at);
+			}
+		}
+		
+		/**
+		 * Stores the values of a datapoint holding a list, once all of them have been read; any values not read are
+		 * set to zero or {@code false}
+		 * @throws DataFormatException	if a value is out of range for the datapoint
+		 */
+		private void end() throws DataFormatException {
+			if(!isList(type, json)) {
+				return;
+			}
+			if(n > capacity) {
+				System.out.println("WARNING: STORING DATA IN " + name + " WHICH WILL BE TRUNCATED");
+			}
+			if(bytes != null) {
+				save.storeBytes(name, bytes);
+			} else if(bools != null) {
+				save.storeBools(name, bools);
+			} else if(floats != null) {
+				save.storeFloats(name, floats);
+			} else if(doubles != null) {
+				save.storeDoubles(name, doubles);
+			} else {
+				try {
+					save.storeLongs(name, longs);
+				} catch(IllegalArgumentException iae) {
+					String kind = isList(type, false) ? "packed" : "unsigned";
+					throw new DataFormatException("Out of range " + kind + " integer data at key \"" + name + "\"");
+				}
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,30 @@
+package com.preston159.binsave;
+
+/**
+ * How the data of a {@code Save} object is written as text by {@link Save#exportText(Appendable, TextFormat)
+ * exportText} and read back by {@link Save#importText(java.io.Reader, TextFormat) importText}
+ * @author Preston Petrie
+ */
+public enum TextFormat {
+	
+	/**
+	 * <p>One {@code name=value} line per datapoint, escaped as by {@link java.util.Properties#store(java.io.Writer,
+	 * String) Properties.store}, holding the same values as {@link Save#convertToProperties() convertToProperties}</p>
+	 * <p>Bytes are written as hexadecimal, e.g. {@code 0x1f}, and the values of bytes, booleans and packed or
+	 * delta-encoded integers are separated by {@code ;}. Only the first value of any other datapoint is written. Any
+	 * file read by {@link java.util.Properties#load(java.io.Reader) Properties.load} can be read back</p>
+	 */
+	PROPERTIES,
+	/**
+	 * <p>One JSON object per line per datapoint, e.g. {@code {"name":"hp","type":"UINT_8BIT","value":[12]}}</p>
+	 * <p>Strings are written as strings, and every other datapoint as an array holding all of its values, numbers or
+	 * booleans. Floating-point values which are not finite are written as strings such as {@code "NaN"}. When read
+	 * back, a single value may be given instead of an array, and any values not given are set to zero or
+	 * {@code false}; {@code "name"} must come before {@code "value"}, and {@code "type"} is optional, but must match the
+	 * type of the datapoint if given</p>
+	 */
+	JSON_LINES
+	
+	;
+	
+}
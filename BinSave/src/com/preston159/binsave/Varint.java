@@ -0,0 +1,262 @@
+package com.preston159.binsave;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>Reads and writes LEB128 variable-length integers</p>
+ * <p>An unsigned varint holds 7 bits of the value in each byte, least significant first, with the top bit of every
+ * byte but the last set, so values below 128 take 1 byte and any {@code long} at most 10. Signed values are first
+ * zigzag-encoded, mapping 0, -1, 1, -2, ... to 0, 1, 2, 3, ..., so values near zero stay short</p>
+ * <p>Every method reads or writes at the position of the buffer and advances it, in either byte order. Values are
+ * decoded up to 8 bytes at a time, so reading a buffer of varints costs little more than reading fixed-width
+ * integers</p>
+ * @author Preston Petrie
+ */
+public final class Varint {
+	
+	/**
+	 * The top bit of every byte of a {@code long}
+	 */
+	private static final long STOPS = 0x8080808080808080L;
+	
+	private Varint() {}
+	
+	/**
+	 * Get the byte length of an unsigned varint
+	 * @param value	The value, read as unsigned
+	 * @return		The number of bytes, from 1 to 10
+	 */
+	public static int length(long value) {
+		return (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+	}
+	
+	/**
+	 * Zigzag-encodes a signed value, so values near zero become small unsigned values
+	 * @param value	The signed value
+	 * @return		The encoded value
+	 */
+	public static long zigzag(long value) {
+		return value << 1 ^ value >> 63;
+	}
+	
+	/**
+	 * Decodes a zigzag-encoded value
+	 * @param value	The encoded value
+	 * @return		The signed value
+	 */
+	public static long unzigzag(long value) {
+		return value >>> 1 ^ -(value & 1);
+	}
+	
+	/**
+	 * Writes an unsigned varint
+	 * @param b		The buffer in which to write
+	 * @param value	The value, written as unsigned
+	 * @throws java.nio.BufferOverflowException	if the buffer has too little room
+	 */
+	public static void putUnsigned(ByteBuffer b, long value) {
+		while((value & ~0x7fL) != 0) {
+			b.put((byte) (value | 0x80));
+			value >>>= 7;
+		}
+		b.put((byte) value);
+	}
+	
+	/**
+	 * Writes a zigzag-encoded signed varint
+	 * @param b		The buffer in which to write
+	 * @param value	The value
+	 * @throws java.nio.BufferOverflowException	if the buffer has too little room
+	 */
+	public static void putSigned(ByteBuffer b, long value) {
+		putUnsigned(b, zigzag(value));
+	}
+	
+	/**
+	 * Writes consecutive unsigned varints from an array
+	 * @param b		The buffer in which to write
+	 * @param src	The array from which to write
+	 * @param off	The index in the array of the first value
+	 * @param count	The number of values to write
+	 * @throws java.nio.BufferOverflowException	if the buffer has too little room
+	 */
+	public static void putUnsigned(ByteBuffer b, long[] src, int off, int count) {
+		for(int i = 0;i < count;i++) {
+			putUnsigned(b, src[off + i]);
+		}
+	}
+	
+	/**
+	 * Writes consecutive zigzag-encoded signed varints from an array
+	 * @param b		The buffer in which to write
+	 * @param src	The array from which to write
+	 * @param off	The index in the array of the first value
+	 * @param count	The number of values to write
+	 * @throws java.nio.BufferOverflowException	if the buffer has too little room
+	 */
+	public static void putSigned(ByteBuffer b, long[] src, int off, int count) {
+		for(int i = 0;i < count;i++) {
+			putUnsigned(b, zigzag(src[off + i]));
+		}
+	}
+	
+	/**
+	 * Reads an unsigned varint
+	 * @param b	The buffer from which to read
+	 * @return	The value, which is negative if it was written from a negative {@code long}
+	 * @throws BufferUnderflowException	if the buffer ends within the varint
+	 * @throws IllegalArgumentException	if the varint is longer than 10 bytes
+	 */
+	public static long getUnsigned(ByteBuffer b) {
+		int pos = b.position();
+		if(b.limit() - pos >= 8) {
+			long word = word(b, pos, b.order() == ByteOrder.BIG_ENDIAN);
+			int n = stop(word);
+			if(n > 0) {
+				b.position(pos + n);
+				return gather(word, n);
+			}
+		}
+		return getSlowly(b);
+	}
+	
+	/**
+	 * Reads a zigzag-encoded signed varint
+	 * @param b	The buffer from which to read
+	 * @return	The value
+	 * @throws BufferUnderflowException	if the buffer ends within the varint
+	 * @throws IllegalArgumentException	if the varint is longer than 10 bytes
+	 */
+	public static long getSigned(ByteBuffer b) {
+		return unzigzag(getUnsigned(b));
+	}
+	
+	/**
+	 * Reads consecutive unsigned varints into an array
+	 * @param b		The buffer from which to read
+	 * @param dst	The array into which to read
+	 * @param off	The index in the array of the first value
+	 * @param count	The number of values to read
+	 * @throws BufferUnderflowException	if the buffer ends within a varint
+	 * @throws IllegalArgumentException	if a varint is longer than 10 bytes
+	 */
+	public static void getUnsigned(ByteBuffer b, long[] dst, int off, int count) {
+		get(b, dst, off, count, false);
+	}
+	
+	/**
+	 * Reads consecutive zigzag-encoded signed varints into an array
+	 * @param b		The buffer from which to read
+	 * @param dst	The array into which to read
+	 * @param off	The index in the array of the first value
+	 * @param count	The number of values to read
+	 * @throws BufferUnderflowException	if the buffer ends within a varint
+	 * @throws IllegalArgumentException	if a varint is longer than 10 bytes
+	 */
+	public static void getSigned(ByteBuffer b, long[] dst, int off, int count) {
+		get(b, dst, off, count, true);
+	}
+	
+	/**
+	 * <p>Reads consecutive varints into an array</p>
+	 * <p>Each varint of at most 8 bytes is decoded from a single 8 byte read without branching on its bytes; one byte
+	 * varints skip even that</p>
+	 * @param b			The buffer from which to read
+	 * @param dst		The array into which to read
+	 * @param off		The index in the array of the first value
+	 * @param count		The number of values to read
+	 * @param signed	Whether the varints are zigzag-encoded
+	 * @throws BufferUnderflowException	if the buffer ends within a varint
+	 * @throws IllegalArgumentException	if a varint is longer than 10 bytes
+	 */
+	private static void get(ByteBuffer b, long[] dst, int off, int count, boolean signed) {
+		boolean swap = b.order() == ByteOrder.BIG_ENDIAN;
+		int pos = b.position();
+		int last = b.limit() - 8;
+		int end = off + count;
+		int i = off;
+		while(i < end) {
+			//decode from whole words until one is longer than 8 bytes or too near the limit
+			for(;i < end && pos <= last;i++) {
+				long word = word(b, pos, swap);
+				long value;
+				if((word & 0x80) == 0) {
+					value = word & 0x7f;
+					pos++;
+				} else {
+					int n = stop(word);
+					if(n == 0) {
+						break;
+					}
+					value = gather(word, n);
+					pos += n;
+				}
+				dst[i] = signed ? unzigzag(value) : value;
+			}
+			if(i < end) {
+				b.position(pos);
+				long value = getSlowly(b);
+				pos = b.position();
+				dst[i++] = signed ? unzigzag(value) : value;
+			}
+		}
+		b.position(pos);
+	}
+	
+	/**
+	 * Reads 8 bytes little-endian, whatever the order of the buffer
+	 * @param b		The buffer from which to read
+	 * @param pos	The position of the first byte
+	 * @param swap	Whether the buffer is big-endian
+	 * @return		The bytes, the first in the lowest 8 bits
+	 */
+	private static long word(ByteBuffer b, int pos, boolean swap) {
+		long word = b.getLong(pos);
+		return swap ? Long.reverseBytes(word) : word;
+	}
+	
+	/**
+	 * Finds the last byte of a varint starting at the first of 8 bytes
+	 * @param word	The bytes, the first in the lowest 8 bits
+	 * @return		The byte length of the varint, or 0 if it is longer than 8 bytes
+	 */
+	private static int stop(long word) {
+		long stops = ~word & STOPS;
+		return stops == 0 ? 0 : (Long.numberOfTrailingZeros(stops) + 1) >>> 3;
+	}
+	
+	/**
+	 * Joins the 7 bit groups of a varint of at most 8 bytes
+	 * @param word	The bytes, the first in the lowest 8 bits
+	 * @param n		The byte length of the varint, from 1 to 8
+	 * @return		The value
+	 */
+	private static long gather(long word, int n) {
+		long x = word & -1L >>> (64 - (n << 3));
+		x = x & 0x007f007f007f007fL | (x & 0x7f007f007f007f00L) >>> 1;
+		x = x & 0x00003fff00003fffL | (x & 0x3fff00003fff0000L) >>> 2;
+		return x & 0x000000000fffffffL | (x & 0x0fffffff00000000L) >>> 4;
+	}
+	
+	/**
+	 * Reads a varint one byte at a time
+	 * @param b	The buffer from which to read
+	 * @return	The value
+	 * @throws BufferUnderflowException	if the buffer ends within the varint
+	 * @throws IllegalArgumentException	if the varint is longer than 10 bytes
+	 */
+	private static long getSlowly(ByteBuffer b) {
+		long out = 0;
+		for(int shift = 0;shift < 64;shift += 7) {
+			byte x = b.get();
+			out |= (x & 0x7fL) << shift;
+			if(x >= 0) {
+				return out;
+			}
+		}
+		throw new IllegalArgumentException("A varint must be at most 10 bytes");
+	}
+	
+}
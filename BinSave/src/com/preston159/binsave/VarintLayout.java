@@ -0,0 +1,116 @@
+package com.preston159.binsave;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Encodes records of a data layout holding {@link DataType#VARINT VARINT} or {@link DataType#VARUINT VARUINT}
+ * datapoints, as written by {@link RecordWriter} and read by {@link RecordReader}</p>
+ * <p>Each 8 byte value of such a datapoint is written as a {@link Varint varint}, zigzag-encoded if signed; every other
+ * byte of the record is written as is</p>
+ * @author Preston Petrie
+ */
+final class VarintLayout {
+	
+	private final int recordLength;
+	private final int[] starts;
+	private final boolean[] signed;
+	
+	/**
+	 * Construct a {@code VarintLayout} object
+	 * @param recordLength	The byte length of one record
+	 * @param starts		The starting byte index within the record of each varint value, in order
+	 * @param signed		Whether each varint value is signed
+	 */
+	private VarintLayout(int recordLength, int[] starts, boolean[] signed) {
+		this.recordLength = recordLength;
+		this.starts = starts;
+		this.signed = signed;
+	}
+	
+	/**
+	 * Gets the encoding of a data layout
+	 * @param sd	The data layout
+	 * @return		The encoding, or {@code null} if the layout holds no varint datapoints
+	 */
+	static VarintLayout of(StorageData sd) {
+		int n = 0;
+		Field[] fields = sd.getFields();
+		for(Field field : fields) {
+			if(isVarint(field.getType())) {
+				n += field.getLength() / 8;
+			}
+		}
+		if(n == 0) {
+			return null;
+		}
+		int[] starts = new int[n];
+		boolean[] signed = new boolean[n];
+		int i = 0;
+		for(Field field : fields) {
+			if(isVarint(field.getType())) {
+				for(int off = 0;off < field.getLength();off += 8) {
+					starts[i] = field.getStart() + off;
+					signed[i++] = field.getType() == DataType.VARINT;
+				}
+			}
+		}
+		return new VarintLayout(sd.getByteLength(), starts, signed);
+	}
+	
+	/**
+	 * Checks if a type is held as a varint in a record stream
+	 * @param type	The type
+	 * @return		{@code true} if the type is {@code VARINT} or {@code VARUINT}
+	 */
+	static boolean isVarint(DataType type) {
+		return type == DataType.VARINT || type == DataType.VARUINT;
+	}
+	
+	/**
+	 * Get the greatest byte length of one encoded record
+	 * @return	The byte length
+	 */
+	int maxLength() {
+		return recordLength + starts.length * 2;
+	}
+	
+	/**
+	 * Encodes a record
+	 * @param record	The little-endian buffer holding the record from index 0, which must have an array
+	 * @param out		The buffer in which to write, with at least {@link #maxLength() maxLength} bytes remaining
+	 */
+	void encode(ByteBuffer record, ByteBuffer out) {
+		byte[] bytes = record.array();
+		int pos = 0;
+		for(int i = 0;i < starts.length;i++) {
+			int start = starts[i];
+			out.put(bytes, pos, start - pos);
+			long value = record.getLong(start);
+			Varint.putUnsigned(out, signed[i] ? Varint.zigzag(value) : value);
+			pos = start + 8;
+		}
+		out.put(bytes, pos, recordLength - pos);
+	}
+	
+	/**
+	 * Decodes a record
+	 * @param in		The buffer from which to read
+	 * @param record	The little-endian buffer into which to decode the record from index 0, which must have an array
+	 * @throws BufferUnderflowException	if the buffer ends within the record
+	 * @throws IllegalArgumentException	if a varint is longer than 10 bytes
+	 */
+	void decode(ByteBuffer in, ByteBuffer record) {
+		byte[] bytes = record.array();
+		int pos = 0;
+		for(int i = 0;i < starts.length;i++) {
+			int start = starts[i];
+			in.get(bytes, pos, start - pos);
+			long value = Varint.getUnsigned(in);
+			record.putLong(start, signed[i] ? Varint.unzigzag(value) : value);
+			pos = start + 8;
+		}
+		in.get(bytes, pos, recordLength - pos);
+	}
+	
+}
@@ -0,0 +1,87 @@
+package com.preston159.binsave;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the bulk methods of {@link Codec} read and write the same bytes as the methods for single values
+ * @author Preston Petrie
+ */
+class CodecTest {
+	
+	private static final int START = 3;
+	private static final int COUNT = 5;
+	
+	@Test
+	void intsMatchSingleValues() {
+		for(int width = 1;width <= 4;width++) {
+			ByteBuffer b = buffer();
+			int[] src = { 1, -2, 0x123456, Integer.MIN_VALUE, 77 };
+			Codec.putInts(b, START, width, src, 0, COUNT);
+			int[] dst = new int[COUNT];
+			Codec.getInts(b, START, width, true, dst, 0, COUNT);
+			for(int i = 0;i < COUNT;i++) {
+				assertEquals(Codec.getSigned(b, START + i * width, width), dst[i]);
+			}
+		}
+	}
+	
+	@Test
+	void longsAreLittleEndian() {
+		ByteBuffer b = buffer();
+		long[] src = { 1, -2, 0x0123456789abcdefL, Long.MIN_VALUE, 77 };
+		Codec.putLongs(b, START, 8, src, 0, COUNT);
+		long[] dst = new long[COUNT];
+		Codec.getLongs(b, START, 8, true, dst, 0, COUNT);
+		assertArrayEquals(src, dst);
+		assertEquals((byte) 0xef, b.get(START + 16));
+	}
+	
+	/**
+	 * Floating-point numbers are big-endian, as written by earlier versions
+	 */
+	@Test
+	void floatingPointIsBigEndian() {
+		ByteBuffer b = buffer();
+		float[] floats = { 1.5f, -0f, Float.NaN, Float.MAX_VALUE, 3 };
+		Codec.putFloats(b, START, floats, 0, COUNT);
+		ByteBuffer big = b.duplicate().order(ByteOrder.BIG_ENDIAN);
+		float[] dst = new float[COUNT];
+		Codec.getFloats(b, START, dst, 0, COUNT);
+		for(int i = 0;i < COUNT;i++) {
+			assertEquals(Float.floatToRawIntBits(floats[i]), big.getInt(START + i * 4));
+			assertEquals(Float.floatToRawIntBits(floats[i]), Float.floatToRawIntBits(dst[i]));
+		}
+		double[] doubles = { 1.5, -0d, Double.NaN, Double.MIN_VALUE, 3 };
+		Codec.putDoubles(b, START, doubles, 0, COUNT);
+		double[] out = new double[COUNT];
+		Codec.getDoubles(b, START, out, 0, COUNT);
+		for(int i = 0;i < COUNT;i++) {
+			assertEquals(Double.doubleToRawLongBits(doubles[i]), big.getLong(START + i * 8));
+			assertEquals(Double.doubleToRawLongBits(doubles[i]), Double.doubleToRawLongBits(out[i]));
+		}
+	}
+	
+	@Test
+	void bytesAndChars() {
+		ByteBuffer b = buffer();
+		byte[] src = { 1, 2, 3, 4, (byte) 0xff };
+		Codec.putBytes(b, START, src, 0, COUNT);
+		byte[] dst = new byte[COUNT];
+		Codec.getBytes(b, START, dst, 0, COUNT);
+		assertArrayEquals(src, dst);
+		char[] chars = new char[2];
+		Codec.getChars(b, START, chars, 0, 2);
+		assertArrayEquals(new char[] { 0x0201, 0x0403 }, chars);
+	}
+	
+	private static ByteBuffer buffer() {
+		return ByteBuffer.allocateDirect(64).order(ByteOrder.LITTLE_ENDIAN);
+	}
+	
+}
@@ -0,0 +1,106 @@
+package com.preston159.binsave;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests recovery of a {@link StorageMode#JOURNAL JOURNAL} save from its journals
+ * @author Preston Petrie
+ */
+class JournalTest {
+	
+	private static final Data[] DATA = { new Data("hp", DataType.UINT_16BIT, 1), new Data("map", DataType.BYTE, 64) };
+	
+	@TempDir
+	Path dir;
+	
+	@Test
+	void replaysJournal() {
+		File f = dir.resolve("save.bin").toFile();
+		write(f);
+		try(Save s = new Save(f, StorageMode.JOURNAL, DATA)) {
+			check(s);
+		}
+	}
+	
+	/**
+	 * A checkpoint which did not finish leaves {@code <file>.journal.old} behind, which is replayed and removed when
+	 * the save is next opened
+	 */
+	@Test
+	void replaysOldJournal() throws IOException {
+		File f = dir.resolve("save.bin").toFile();
+		write(f);
+		File journal = new File(f.getPath() + ".journal");
+		File old = new File(f.getPath() + ".journal.old");
+		Files.move(journal.toPath(), old.toPath());
+		try(Save s = new Save(f, StorageMode.JOURNAL, DATA)) {
+			check(s);
+		}
+		assertFalse(old.exists());
+		//the checkpoint finished, so the save file holds the data on its own
+		try(Save s = new Save(f, StorageMode.HEAP, DATA)) {
+			check(s);
+		}
+		try(Save s = new Save(f, StorageMode.JOURNAL, DATA)) {
+			check(s);
+		}
+	}
+	
+	/**
+	 * A journal which does not start with the marker holds no records, and is replaced by an empty one
+	 */
+	@Test
+	void ignoresJournalWithoutMarker() throws IOException {
+		File f = dir.resolve("save.bin").toFile();
+		try(Save s = new Save(f, StorageMode.HEAP, DATA)) {
+			s.storeUint("hp", 1234);
+			s.storeBytes("map", bytes());
+			s.store();
+		}
+		File journal = new File(f.getPath() + ".journal");
+		//a record setting hp to 0, with the position and length as 4 byte integers
+		ByteBuffer record = ByteBuffer.allocate(14).order(ByteOrder.LITTLE_ENDIAN).putInt(0).putInt(2).putShort((short) 0);
+		CRC32 crc = new CRC32();
+		crc.update(record.array(), 0, 10);
+		record.putInt((int) crc.getValue());
+		Files.write(journal.toPath(), record.array());
+		try(Save s = new Save(f, StorageMode.JOURNAL, DATA)) {
+			check(s);
+		}
+		assertEquals('B', Files.readAllBytes(journal.toPath())[0]);
+	}
+	
+	private static void write(File f) {
+		try(Save s = new Save(f, StorageMode.JOURNAL, DATA)) {
+			s.storeUint("hp", 1234);
+			s.storeBytes("map", bytes());
+		}
+	}
+	
+	private static void check(Save s) {
+		assertEquals(1234, s.getUint("hp"));
+		assertArrayEquals(bytes(), s.getBytes("map"));
+	}
+	
+	private static byte[] bytes() {
+		byte[] b = new byte[64];
+		for(int i = 0;i < b.length;i++) {
+			b[i] = (byte) (i * 7);
+		}
+		return b;
+	}
+	
+}
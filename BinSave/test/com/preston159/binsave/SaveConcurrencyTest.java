@@ -0,0 +1,159 @@
+package com.preston159.binsave;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests a concurrent {@code Save} object written from several threads at once
+ * @author Preston Petrie
+ */
+class SaveConcurrencyTest {
+	
+	private static final int THREADS = 4;
+	private static final int UPDATES = 20000;
+	
+	@TempDir
+	Path dir;
+	
+	/**
+	 * Each value written holds its counter in both halves, so a value torn by a store shows up as unequal halves
+	 */
+	@Test
+	void storeWritesConsistentImage() throws InterruptedException {
+		File f = dir.resolve("save.bin").toFile();
+		Data[] data = { new Data("long", DataType.INT_64BIT, 1), new Data("pair", DataType.INT_32BIT, 2),
+				new Data("name", DataType.CHAR_UNICODE, 8) };
+		try(Save s = new Save(f, StorageMode.HEAP, true, data)) {
+			AtomicBoolean done = new AtomicBoolean();
+			List<Thread> writers = new ArrayList<>();
+			for(int t = 0;t < THREADS;t++) {
+				writers.add(start(() -> {
+					for(int i = 1;!done.get();i++) {
+						s.storeLongInt("long", (long) i << 32 | i);
+						s.storeInts("pair", new int[] { i, i });
+						s.storeString("name", i % 2 == 0 ? "aaaaaaaa" : "bbbbbbbb");
+					}
+				}));
+			}
+			for(int n = 0;n < 200;n++) {
+				s.store();
+				try(Save copy = new Save(f, data)) {
+					checkHalves(copy);
+				}
+			}
+			done.set(true);
+			join(writers);
+			s.store();
+			try(Save copy = new Save(f, data)) {
+				assertEquals(s.getLongInt("long"), copy.getLongInt("long"));
+				assertEquals(s.getString("name"), copy.getString("name"));
+			}
+		}
+	}
+	
+	/**
+	 * The counters share 32-bit words with bytes which are written at the same time, and the unaligned counter is
+	 * updated under a lock instead
+	 */
+	@Test
+	void atomicUpdatesKeepNeighbours() throws InterruptedException {
+		for(StorageMode mode : new StorageMode[] { StorageMode.HEAP, StorageMode.MAPPED }) {
+			for(boolean concurrent : new boolean[] { false, true }) {
+				File f = dir.resolve(mode + "-" + concurrent + ".bin").toFile();
+				try(Save s = new Save(f, mode, concurrent, new Data("before", DataType.BYTE, 1),
+						new Data("c8", DataType.INT_8BIT, 1), new Data("c16", DataType.INT_16BIT, 1),
+						new Data("between", DataType.BYTE, 1), new Data("odd16", DataType.INT_16BIT, 1),
+						new Data("after", DataType.BYTE, 1))) {
+					s.storeByte("after", (byte) 0x5a);
+					List<Thread> threads = new ArrayList<>();
+					for(int t = 0;t < THREADS;t++) {
+						threads.add(start(() -> {
+							for(int i = 0;i < UPDATES;i++) {
+								s.getAndAdd("c8", 1);
+								s.getAndAdd("c16", 1);
+								s.getAndAdd("odd16", 1);
+							}
+						}));
+					}
+					threads.add(start(() -> {
+						for(int i = 0;i < UPDATES;i++) {
+							s.storeByte("before", (byte) i);
+							s.storeByte("between", (byte) ~i);
+						}
+					}));
+					join(threads);
+					assertEquals((byte) (THREADS * UPDATES), s.getInt("c8"));
+					assertEquals((short) (THREADS * UPDATES), s.getInt("c16"));
+					assertEquals((short) (THREADS * UPDATES), s.getInt("odd16"));
+					assertEquals((byte) (UPDATES - 1), s.getByte("before"));
+					assertEquals((byte) ~(UPDATES - 1), s.getByte("between"));
+					assertEquals((byte) 0x5a, s.getByte("after"));
+				}
+			}
+		}
+	}
+	
+	@Test
+	void snapshotIsUnchangedByLaterWrites() throws InterruptedException {
+		File f = dir.resolve("save.bin").toFile();
+		//the datapoints lie in different pages, so each is copied on its own
+		try(Save s = new Save(f, StorageMode.HEAP, true, new Data("x", DataType.INT_32BIT, 1),
+				new Data("gap", DataType.BYTE, 8192), new Data("y", DataType.INT_32BIT, 1))) {
+			s.storeInt("x", 1);
+			s.storeInt("y", 2);
+			try(Snapshot snap = s.snapshot()) {
+				List<Thread> writers = new ArrayList<>();
+				for(int t = 0;t < THREADS;t++) {
+					int base = t * UPDATES;
+					writers.add(start(() -> {
+						for(int i = 0;i < UPDATES;i++) {
+							s.storeInt("x", base + i);
+							s.storeInt("y", -base - i);
+						}
+					}));
+				}
+				join(writers);
+				assertEquals(1, snap.getInt("x"));
+				assertEquals(2, snap.getInt("y"));
+				try(Snapshot later = s.snapshot()) {
+					s.storeInt("x", 3);
+					assertEquals(1, snap.getInt("x"));
+					assertEquals(s.getInt("y"), later.getInt("y"));
+				}
+			}
+			assertEquals(3, s.getInt("x"));
+		}
+	}
+	
+	private static void checkHalves(Save s) {
+		long value = s.getLongInt("long");
+		assertEquals((int) value, (int) (value >>> 32));
+		int[] pair = s.getInts("pair");
+		assertEquals(pair[0], pair[1]);
+		String name = s.getString("name");
+		if(!name.isEmpty()) {
+			assertEquals(name.charAt(0) == 'a' ? "aaaaaaaa" : "bbbbbbbb", name);
+		}
+	}
+	
+	private static Thread start(Runnable r) {
+		Thread t = new Thread(r);
+		t.start();
+		return t;
+	}
+	
+	private static void join(List<Thread> threads) throws InterruptedException {
+		for(Thread t : threads) {
+			t.join();
+		}
+	}
+	
+}
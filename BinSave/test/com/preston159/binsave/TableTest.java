@@ -0,0 +1,49 @@
+package com.preston159.binsave;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that the number of records of a {@link Table} survives the process ending without a store
+ * @author Preston Petrie
+ */
+class TableTest {
+	
+	private static final Data[] DATA = { new Data("id", DataType.INT_32BIT, 1), new Data("score", DataType.UINT_16BIT, 1) };
+	
+	@TempDir
+	Path dir;
+	
+	/**
+	 * The table is neither stored nor closed, as if the process had been halted, before the file is opened again
+	 */
+	@Test
+	void mappedTableKeepsSize() {
+		File f = dir.resolve("table.bin").toFile();
+		Table t = new Table(f, StorageMode.MAPPED, DATA);
+		for(int i = 0;i < 10;i++) {
+			t.storeInt(t.append(), "id", i + 100);
+		}
+		assertEquals(10 * t.getRecordLength(), f.length());
+		check(f, 10);
+		t.truncate(4);
+		check(f, 4);
+		t.close();
+		check(f, 4);
+	}
+	
+	private static void check(File f, int size) {
+		try(Table t = new Table(f, StorageMode.HEAP, DATA)) {
+			assertEquals(size, t.size());
+			for(int i = 0;i < size;i++) {
+				assertEquals(i + 100, t.getInt(i, "id"));
+			}
+		}
+	}
+	
+}
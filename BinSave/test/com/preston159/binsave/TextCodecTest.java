@@ -0,0 +1,111 @@
+package com.preston159.binsave;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.zip.DataFormatException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link Save#exportText(Appendable, TextFormat) exportText} and
+ * {@link Save#importText(java.io.Reader, TextFormat) importText}
+ * @author Preston Petrie
+ */
+class TextCodecTest {
+	
+	private static final Data[] DATA = {
+			new Data("arr", DataType.INT_16BIT, 3),
+			new Data("big", DataType.UINT_32BIT, 2),
+			new Data("var", DataType.VARINT, 2),
+			new Data("f", DataType.FLOAT, 2),
+			new Data("d", DataType.DOUBLE, 2),
+			new Data("b", DataType.BYTE, 3),
+			new Data("p", DataType.PACKED_INT, 4, 5),
+			new Data("name", DataType.CHAR_UTF8, 16)
+	};
+	
+	@TempDir
+	Path dir;
+	
+	@Test
+	void jsonKeepsEveryValue() throws IOException, DataFormatException {
+		Save s = fill(save("a.bin"));
+		StringBuilder out = new StringBuilder();
+		s.exportText(out, TextFormat.JSON_LINES);
+		assertTrue(out.indexOf("{\"name\":\"arr\",\"type\":\"INT_16BIT\",\"value\":[1,-2,3]}\n") >= 0, out::toString);
+		assertTrue(out.indexOf("\"value\":[\"NaN\",2.5]") >= 0, out::toString);
+		Save t = save("b.bin");
+		t.importText(new StringReader(out.toString()), TextFormat.JSON_LINES);
+		check(t);
+	}
+	
+	@Test
+	void propertiesMatchConvertToProperties() throws IOException, DataFormatException {
+		Save s = fill(save("a.bin"));
+		StringBuilder out = new StringBuilder();
+		s.exportText(out, TextFormat.PROPERTIES);
+		assertTrue(out.indexOf("arr=1\n") >= 0, out::toString);
+		Save t = save("b.bin");
+		t.importText(new StringReader(out.toString()), TextFormat.PROPERTIES);
+		assertEquals(s.convertToProperties(), t.convertToProperties());
+	}
+	
+	@Test
+	void jsonAcceptsSingleValue() throws IOException, DataFormatException {
+		Save s = fill(save("a.bin"));
+		s.importText(new StringReader("{\"name\":\"arr\",\"value\":7}\n{\"name\":\"b\",\"value\":[1,2]}"),
+				TextFormat.JSON_LINES);
+		assertArrayEquals(new int[] { 7, 0, 0 }, s.getInts("arr"));
+		assertArrayEquals(new byte[] { 1, 2, 0 }, s.getBytes("b"));
+		//datapoints which are not in the text are reset
+		assertArrayEquals(new long[2], s.getLongs("big"));
+	}
+	
+	@Test
+	void jsonRejectsBadValues() {
+		Save s = save("a.bin");
+		assertThrows(DataFormatException.class, () -> s.importText(
+				new StringReader("{\"name\":\"big\",\"value\":[1,-1]}"), TextFormat.JSON_LINES));
+		assertThrows(DataFormatException.class, () -> s.importText(
+				new StringReader("{\"name\":\"arr\",\"type\":\"INT_8BIT\",\"value\":[1]}"), TextFormat.JSON_LINES));
+		assertThrows(DataFormatException.class, () -> s.importText(
+				new StringReader("{\"name\":\"name\",\"value\":[\"x\"]}"), TextFormat.JSON_LINES));
+	}
+	
+	private Save save(String name) {
+		File f = dir.resolve(name).toFile();
+		return new Save(f, DATA);
+	}
+	
+	private static Save fill(Save s) {
+		s.storeInts("arr", new int[] { 1, -2, 3 });
+		s.storeLongs("big", new long[] { 4000000000L, 5 });
+		s.storeLongs("var", new long[] { Long.MIN_VALUE, -1 });
+		s.storeFloats("f", new float[] { Float.NaN, 2.5f });
+		s.storeDoubles("d", new double[] { Double.NEGATIVE_INFINITY, 1e300 });
+		s.storeBytes("b", new byte[] { 1, (byte) 0xff, 0x10 });
+		s.storeLongs("p", new long[] { -16, 15, 0, 3 });
+		s.storeString("name", "a \"b\"\n\u00e9");
+		return s;
+	}
+	
+	private static void check(Save s) {
+		assertArrayEquals(new int[] { 1, -2, 3 }, s.getInts("arr"));
+		assertArrayEquals(new long[] { 4000000000L, 5 }, s.getLongs("big"));
+		assertArrayEquals(new long[] { Long.MIN_VALUE, -1 }, s.getLongs("var"));
+		assertArrayEquals(new float[] { Float.NaN, 2.5f }, s.getFloats("f"));
+		assertArrayEquals(new double[] { Double.NEGATIVE_INFINITY, 1e300 }, s.getDoubles("d"));
+		assertArrayEquals(new byte[] { 1, (byte) 0xff, 0x10 }, s.getBytes("b"));
+		assertArrayEquals(new long[] { -16, 15, 0, 3 }, s.getLongs("p"));
+		assertEquals("a \"b\"\n\u00e9", s.getString("name"));
+	}
+	
+}